@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+import com.genericworkflownodes.knime.agent.protocol.MessageConnection;
+
+/**
+ * Handles a single connection to a {@link WorkerAgent}, i.e., either a status
+ * request or a complete job.
+ * 
+ * The output of the tool is read by two pump threads and handed over to the
+ * session thread through a bounded queue. If the client does not keep up, the
+ * queue fills up, the pumps block and eventually the tool blocks on its full
+ * output pipe.
+ * 
+ * @author aiche
+ */
+class AgentSession implements Runnable {
+
+    /**
+     * Maximal number of characters of a single output line.
+     */
+    static final int MAX_LINE_LENGTH = 8192;
+
+    /**
+     * Number of output batches buffered for the client.
+     */
+    static final int OUTPUT_QUEUE_CAPACITY = 64;
+
+    /**
+     * Interval in which the session checks for KILL messages.
+     */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /**
+     * Lines read by a pump in one go.
+     */
+    private static final class OutputBatch {
+        private final byte m_stream;
+        private final List<String> m_lines;
+
+        OutputBatch(byte stream, List<String> lines) {
+            m_stream = stream;
+            m_lines = lines;
+        }
+    }
+
+    private final WorkerAgent m_agent;
+    private final Socket m_socket;
+
+    /**
+     * C'tor.
+     * 
+     * @param agent
+     *            The agent owning the session.
+     * @param socket
+     *            The accepted connection.
+     */
+    AgentSession(WorkerAgent agent, Socket socket) {
+        m_agent = agent;
+        m_socket = socket;
+    }
+
+    @Override
+    public void run() {
+        MessageConnection connection = null;
+        try {
+            connection = new MessageConnection(m_socket);
+            connection.handshake();
+            byte type = connection.readType();
+            if (type != AgentProtocol.STATUS) {
+                connection.checkType(type, AgentProtocol.JOB);
+            }
+            // both requests start with the secret
+            if (!m_agent.isValidSecret(connection.readString())) {
+                throw new IOException("Invalid agent secret.");
+            }
+            if (type == AgentProtocol.STATUS) {
+                connection.message(AgentProtocol.STATUS_REPLY)
+                        .writeInt(m_agent.getFreeSlots())
+                        .writeInt(m_agent.getSlots()).send();
+            } else {
+                handleJob(connection);
+            }
+        } catch (IOException e) {
+            WorkerAgent.LOGGER.log(Level.WARNING, "Session with "
+                    + m_socket.getRemoteSocketAddress() + " failed.", e);
+            if (connection != null) {
+                connection.sendErrorQuietly(e.getMessage());
+            }
+        } finally {
+            try {
+                m_socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private void handleJob(MessageConnection connection) throws IOException {
+        List<String> command = connection.readStrings();
+        Map<String, String> environment = connection.readMap();
+        List<String> outputs = connection.readStrings();
+        if (command.isEmpty()) {
+            throw new IOException("Empty command.");
+        }
+        if (!m_agent.acquireSlot()) {
+            connection.message(AgentProtocol.BUSY).send();
+            return;
+        }
+        File jobDirectory = null;
+        try {
+            jobDirectory = m_agent.createJobDirectory();
+            for (String output : outputs) {
+                resolve(jobDirectory, output).getParentFile().mkdirs();
+            }
+            connection.message(AgentProtocol.ACCEPTED).send();
+
+            // stage the input files
+            while (true) {
+                byte type = connection.readType();
+                if (type == AgentProtocol.RUN) {
+                    break;
+                } else if (type == AgentProtocol.KILL) {
+                    return;
+                }
+                connection.checkType(type, AgentProtocol.FILE);
+                String name = connection.readString();
+                long length = connection.readLong();
+                connection.receiveFile(resolve(jobDirectory, name), length);
+            }
+
+            int exitCode = runCommand(connection, command, environment,
+                    jobDirectory);
+            connection.message(AgentProtocol.EXIT).writeInt(exitCode).send();
+
+            // send back the results
+            for (String output : outputs) {
+                File file = resolve(jobDirectory, output);
+                if (file.isFile()) {
+                    connection.sendFile(output, file);
+                }
+            }
+            connection.message(AgentProtocol.END).send();
+        } finally {
+            m_agent.releaseSlot();
+            if (jobDirectory != null) {
+                deleteRecursively(jobDirectory);
+            }
+        }
+    }
+
+    private int runCommand(MessageConnection connection, List<String> command,
+            Map<String, String> environment, File jobDirectory)
+            throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.directory(jobDirectory);
+        builder.environment().putAll(environment);
+        Process process = builder.start();
+
+        BlockingQueue<OutputBatch> queue = new ArrayBlockingQueue<OutputBatch>(
+                OUTPUT_QUEUE_CAPACITY);
+        CountDownLatch pumpsFinished = new CountDownLatch(2);
+        startPump(process.getInputStream(), AgentProtocol.STDOUT, queue,
+                pumpsFinished);
+        startPump(process.getErrorStream(), AgentProtocol.STDERR, queue,
+                pumpsFinished);
+
+        boolean killed = false;
+        try {
+            while (true) {
+                OutputBatch batch = queue.poll(POLL_INTERVAL_MS,
+                        TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    connection.message(AgentProtocol.OUTPUT)
+                            .writeByte(batch.m_stream)
+                            .writeStrings(batch.m_lines).send();
+                } else if (pumpsFinished.getCount() == 0 && queue.isEmpty()) {
+                    break;
+                } else if (killed && hasExited(process)) {
+                    // children of the tool may still hold the streams open
+                    break;
+                }
+                if (!killed && connection.hasIncomingData()) {
+                    connection.expect(AgentProtocol.KILL);
+                    process.destroy();
+                    killed = true;
+                }
+            }
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running the tool.", e);
+        } catch (IOException e) {
+            // the client is gone, the tool must not survive
+            process.destroy();
+            throw e;
+        }
+    }
+
+    private static boolean hasExited(Process process) {
+        try {
+            process.exitValue();
+            return true;
+        } catch (IllegalThreadStateException e) {
+            return false;
+        }
+    }
+
+    private static void startPump(final InputStream stream, final byte type,
+            final BlockingQueue<OutputBatch> queue,
+            final CountDownLatch finished) {
+        Thread pump = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    pump(stream, type, queue);
+                } catch (IOException e) {
+                    WorkerAgent.LOGGER.log(Level.FINE,
+                            "Failed to read tool output.", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }
+        }, "GKN-AgentPump");
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    /**
+     * Splits the stream into lines and queues them in batches, one batch per
+     * read chunk.
+     */
+    private static void pump(InputStream stream, byte type,
+            BlockingQueue<OutputBatch> queue) throws IOException,
+            InterruptedException {
+        Reader reader = new InputStreamReader(stream);
+        try {
+            char[] chunk = new char[8192];
+            StringBuilder line = new StringBuilder();
+            boolean lastWasCR = false;
+            int read;
+            while ((read = reader.read(chunk)) != -1) {
+                List<String> lines = new ArrayList<String>();
+                for (int i = 0; i < read; ++i) {
+                    char c = chunk[i];
+                    if (c == '\n' || c == '\r') {
+                        // \r\n was already handled when we saw the \r
+                        if (c == '\r' || !lastWasCR) {
+                            lines.add(line.toString());
+                            line.setLength(0);
+                        }
+                    } else if (line.length() < MAX_LINE_LENGTH) {
+                        line.append(c);
+                    }
+                    lastWasCR = (c == '\r');
+                }
+                if (!lines.isEmpty()) {
+                    queue.put(new OutputBatch(type, lines));
+                }
+            }
+            if (line.length() > 0) {
+                List<String> lines = new ArrayList<String>();
+                lines.add(line.toString());
+                queue.put(new OutputBatch(type, lines));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Resolves a file name sent by the client, making sure it does not escape
+     * the job directory.
+     */
+    private static File resolve(File jobDirectory, String name)
+            throws IOException {
+        File file = new File(jobDirectory, name);
+        String root = jobDirectory.getCanonicalPath() + File.separator;
+        if (new File(name).isAbsolute()
+                || !file.getCanonicalPath().startsWith(root)) {
+            throw new IOException("Invalid file name " + name);
+        }
+        return file;
+    }
+
+    private static void deleteRecursively(File file) {
+        // do not follow links created by the tool
+        File[] children = Files.isSymbolicLink(file.toPath()) ? null : file
+                .listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (!file.delete()) {
+            WorkerAgent.LOGGER.fine("Failed to delete "
+                    + file.getAbsolutePath());
+        }
+    }
+}
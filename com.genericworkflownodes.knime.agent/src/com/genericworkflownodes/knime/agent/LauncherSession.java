@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.Socket;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+import com.genericworkflownodes.knime.agent.protocol.MessageConnection;
+
+/**
+ * Handles a single connection to a {@link ToolLauncher}, i.e., launches a
+ * single tool and streams its output back.
+ * 
+ * The output is sent unmodified in DATA messages by two pump threads. If the
+ * client does not keep up, the socket buffer fills up, the pumps block and
+ * eventually the tool blocks on its full output pipe. The session thread
+ * itself waits for KILL messages; if the client disconnects before the tool
+ * terminated, the tool is destroyed.
+ * 
+ * @author aiche
+ */
+class LauncherSession implements Runnable {
+
+    /**
+     * Size of the DATA messages.
+     */
+    static final int DATA_CHUNK_SIZE = 32 * 1024;
+
+    private final ToolLauncher m_launcher;
+    private final Socket m_socket;
+
+    /**
+     * C'tor.
+     * 
+     * @param launcher
+     *            The launcher owning the session.
+     * @param socket
+     *            The accepted connection.
+     */
+    LauncherSession(ToolLauncher launcher, Socket socket) {
+        m_launcher = launcher;
+        m_socket = socket;
+    }
+
+    @Override
+    public void run() {
+        MessageConnection connection = null;
+        Process process = null;
+        try {
+            connection = new MessageConnection(m_socket);
+            connection.handshake();
+            connection.expect(AgentProtocol.LAUNCH);
+            if (!m_launcher.isValidToken(connection.readString())) {
+                throw new IOException("Invalid launcher token.");
+            }
+            List<String> command = connection.readStrings();
+            Map<String, String> environment = connection.readMap();
+            String directory = connection.readString();
+            if (command.isEmpty()) {
+                throw new IOException("Empty command.");
+            }
+
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.environment().clear();
+            builder.environment().putAll(environment);
+            if (!directory.isEmpty()) {
+                builder.directory(new File(directory));
+            }
+            process = builder.start();
+            // the tools do not get any input
+            process.getOutputStream().close();
+            connection.message(AgentProtocol.STARTED)
+                    .writeInt(getPid(process)).send();
+
+            startWaiter(connection, process);
+            // blocks until the client sends KILL or disconnects
+            connection.expect(AgentProtocol.KILL);
+            process.destroy();
+        } catch (IOException e) {
+            if (process == null) {
+                ToolLauncher.LOGGER.log(Level.WARNING,
+                        "Failed to launch tool.", e);
+                if (connection != null) {
+                    connection.sendErrorQuietly(e.getMessage());
+                }
+            }
+        } finally {
+            if (process != null && !hasExited(process)) {
+                // the client is gone, the tool must not survive
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Starts the pumps for the output of the process and a thread reporting
+     * the exit code once the process terminated and its output was sent.
+     */
+    private void startWaiter(final MessageConnection connection,
+            final Process process) {
+        final Thread stdOut = startPump(connection, process.getInputStream(),
+                AgentProtocol.STDOUT);
+        final Thread stdErr = startPump(connection, process.getErrorStream(),
+                AgentProtocol.STDERR);
+        Thread waiter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    int exitCode = process.waitFor();
+                    stdOut.join();
+                    stdErr.join();
+                    connection.message(AgentProtocol.EXIT)
+                            .writeInt(exitCode).send();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (IOException e) {
+                    ToolLauncher.LOGGER.log(Level.FINE,
+                            "Failed to report exit code.", e);
+                }
+            }
+        }, "GKN-LauncherWaiter");
+        waiter.setDaemon(true);
+        waiter.start();
+    }
+
+    private static Thread startPump(final MessageConnection connection,
+            final InputStream stream, final byte type) {
+        Thread pump = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                byte[] buffer = new byte[DATA_CHUNK_SIZE];
+                try {
+                    int read;
+                    while ((read = stream.read(buffer)) != -1) {
+                        if (read > 0) {
+                            connection.message(AgentProtocol.DATA)
+                                    .writeByte(type)
+                                    .writeBytes(buffer, 0, read).send();
+                        }
+                    }
+                } catch (IOException e) {
+                    ToolLauncher.LOGGER.log(Level.FINE,
+                            "Failed to forward tool output.", e);
+                } finally {
+                    try {
+                        stream.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+            }
+        }, "GKN-LauncherPump");
+        pump.setDaemon(true);
+        pump.start();
+        return pump;
+    }
+
+    private static boolean hasExited(Process process) {
+        try {
+            process.exitValue();
+            return true;
+        } catch (IllegalThreadStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Determines the pid of the given process. Java 9+ provides Process#pid(),
+     * older VMs store the pid in a private field of the UNIX implementation.
+     * 
+     * @return The pid or -1 if it could not be determined.
+     */
+    static int getPid(Process process) {
+        try {
+            Method pid = Process.class.getMethod("pid");
+            return ((Number) pid.invoke(process)).intValue();
+        } catch (NoSuchMethodException e) {
+            // pre Java 9, fall through
+        } catch (Exception e) {
+            return -1;
+        }
+        try {
+            Field pid = process.getClass().getDeclaredField("pid");
+            pid.setAccessible(true);
+            return pid.getInt(process);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.agent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+
+/**
+ * Small helper process spawning tools on behalf of the KNIME JVM.
+ * 
+ * Starting a process from a JVM with a large heap is expensive, since the
+ * operating system has to duplicate (or at least reference) the complete
+ * address space of the parent. The launcher runs in a JVM with a tiny heap,
+ * is started once and then spawns the tools requested over a loopback
+ * connection (see {@link AgentProtocol}). The output of the tools is streamed
+ * back over the same connection.
+ * 
+ * The launcher reads a secret token from the first line of its stdin, which
+ * every request has to present, and answers with the port it listens on as
+ * first line of its stdout. It terminates as soon as its stdin is closed,
+ * i.e., when the KNIME JVM exits.
+ * 
+ * Usage: ToolLauncher (token on stdin)
+ * 
+ * @author aiche
+ */
+public class ToolLauncher {
+
+    /**
+     * The logger.
+     */
+    static final Logger LOGGER = Logger.getLogger(ToolLauncher.class
+            .getName());
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final ServerSocket m_serverSocket;
+    private final byte[] m_token;
+    private volatile boolean m_stopped;
+
+    /**
+     * C'tor. Binds the server socket to the loopback interface but does not
+     * accept connections yet.
+     * 
+     * @param token
+     *            The secret token the clients have to present.
+     * @throws IOException
+     *             If the socket could not be bound.
+     */
+    public ToolLauncher(String token) throws IOException {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "The launcher needs a non-empty token.");
+        }
+        m_serverSocket = new ServerSocket();
+        m_serverSocket.bind(new InetSocketAddress(
+                InetAddress.getByName(null), 0));
+        m_token = token.getBytes(UTF8);
+        m_stopped = false;
+    }
+
+    /**
+     * @return The port the launcher listens on.
+     */
+    public int getPort() {
+        return m_serverSocket.getLocalPort();
+    }
+
+    /**
+     * Checks the token presented by a client in constant time.
+     * 
+     * @param token
+     *            The presented token.
+     * @return True if the token is valid.
+     */
+    boolean isValidToken(String token) {
+        return MessageDigest.isEqual(m_token, token.getBytes(UTF8));
+    }
+
+    /**
+     * Accepts connections until {@link #stop()} is called. Every connection
+     * launches a single tool and is handled by its own thread.
+     */
+    public void serve() {
+        while (!m_stopped) {
+            final Socket socket;
+            try {
+                socket = m_serverSocket.accept();
+            } catch (SocketException e) {
+                // the server socket was closed by stop()
+                break;
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to accept connection.", e);
+                continue;
+            }
+            Thread session = new Thread(new LauncherSession(this, socket),
+                    "GKN-LauncherSession");
+            session.setDaemon(true);
+            session.start();
+        }
+    }
+
+    /**
+     * Starts {@link #serve()} in a background thread.
+     * 
+     * @return The serving thread.
+     */
+    public Thread start() {
+        Thread server = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "GKN-ToolLauncher-" + getPort());
+        server.setDaemon(true);
+        server.start();
+        return server;
+    }
+
+    /**
+     * Stops accepting connections. Running tools are not affected.
+     */
+    public void stop() {
+        m_stopped = true;
+        try {
+            m_serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close server socket.", e);
+        }
+    }
+
+    /**
+     * Entry point of the launcher process.
+     * 
+     * @param args
+     *            The command line arguments (unused).
+     * @throws Exception
+     *             If the launcher could not be started.
+     */
+    public static void main(String[] args) throws Exception {
+        BufferedReader stdin = new BufferedReader(new InputStreamReader(
+                System.in, UTF8));
+        String token = stdin.readLine();
+        if (token == null) {
+            System.exit(1);
+        }
+        ToolLauncher launcher = new ToolLauncher(token.trim());
+        launcher.start();
+        System.out.println(launcher.getPort());
+        System.out.flush();
+
+        // the parent closes (or loses) our stdin when it terminates
+        while (stdin.read() != -1) {
+            // ignore
+        }
+        launcher.stop();
+        System.exit(0);
+    }
+}
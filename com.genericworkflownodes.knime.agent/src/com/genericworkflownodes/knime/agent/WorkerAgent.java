@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.agent;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+
+/**
+ * Lightweight agent running tools on behalf of GKN nodes. The agent accepts
+ * jobs over TCP (see {@link AgentProtocol}), stages the input files into a
+ * private job directory, runs the command and streams output and result files
+ * back. At most a fixed number of jobs (slots) run in parallel, additional
+ * jobs are rejected so the client can pick another agent.
+ * 
+ * Every client that presents the shared secret can run arbitrary commands
+ * with an environment of its choice as the user running the agent, i.e., the
+ * secret grants the same rights as a login on the worker. The agent therefore
+ * refuses to start without a secret and only listens on the loopback
+ * interface unless an address is given with <code>--bind</code>. The secret
+ * is read from the first line of a file, so it does not show up in the
+ * process list; it is sent in plain text, hence the agent should only be
+ * reachable through a trusted network (or an SSH tunnel).
+ * 
+ * Usage: WorkerAgent --secret-file FILE [--port PORT] [--slots N] [--workdir
+ * DIRECTORY] [--bind ADDRESS]
+ * 
+ * @author aiche
+ */
+public class WorkerAgent {
+
+    /**
+     * The logger.
+     */
+    static final Logger LOGGER = Logger.getLogger(WorkerAgent.class
+            .getName());
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final ServerSocket m_serverSocket;
+    private final byte[] m_secret;
+    private final File m_workDirectory;
+    private final int m_slots;
+    private final Semaphore m_freeSlots;
+    private final AtomicLong m_jobCounter;
+    private volatile boolean m_stopped;
+
+    /**
+     * C'tor. Binds the server socket but does not accept connections yet.
+     * 
+     * @param bindAddress
+     *            The address to bind to, null for the loopback interface.
+     * @param port
+     *            The port to listen on, 0 for an arbitrary free port.
+     * @param slots
+     *            Number of jobs running in parallel.
+     * @param workDirectory
+     *            The directory receiving the job directories.
+     * @param secret
+     *            The shared secret the clients have to present.
+     * @throws IOException
+     *             If the socket could not be bound.
+     */
+    public WorkerAgent(String bindAddress, int port, int slots,
+            File workDirectory, String secret) throws IOException {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "The agent needs a non-empty secret.");
+        }
+        if (slots < 1) {
+            throw new IllegalArgumentException(
+                    "The agent needs at least one slot.");
+        }
+        if (!workDirectory.isDirectory() && !workDirectory.mkdirs()) {
+            throw new IOException("Failed to create work directory "
+                    + workDirectory.getAbsolutePath());
+        }
+        m_serverSocket = new ServerSocket();
+        m_serverSocket.setReuseAddress(true);
+        m_serverSocket.bind(new InetSocketAddress(
+                InetAddress.getByName(bindAddress), port));
+        m_secret = secret.getBytes(UTF8);
+        m_workDirectory = workDirectory;
+        m_slots = slots;
+        m_freeSlots = new Semaphore(slots);
+        m_jobCounter = new AtomicLong();
+        m_stopped = false;
+    }
+
+    /**
+     * @return The port the agent listens on.
+     */
+    public int getPort() {
+        return m_serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return The address the agent listens on.
+     */
+    public InetAddress getAddress() {
+        return m_serverSocket.getInetAddress();
+    }
+
+    /**
+     * @return Total number of slots.
+     */
+    public int getSlots() {
+        return m_slots;
+    }
+
+    /**
+     * @return Number of currently unused slots.
+     */
+    public int getFreeSlots() {
+        return m_freeSlots.availablePermits();
+    }
+
+    /**
+     * Checks the secret presented by a client in constant time.
+     * 
+     * @param secret
+     *            The presented secret.
+     * @return True if the secret is valid.
+     */
+    boolean isValidSecret(String secret) {
+        return MessageDigest.isEqual(m_secret, secret.getBytes(UTF8));
+    }
+
+    /**
+     * Tries to reserve a slot for a job.
+     * 
+     * @return True if a slot was reserved.
+     */
+    boolean acquireSlot() {
+        return m_freeSlots.tryAcquire();
+    }
+
+    /**
+     * Releases a slot reserved by {@link #acquireSlot()}.
+     */
+    void releaseSlot() {
+        m_freeSlots.release();
+    }
+
+    /**
+     * Creates a new, empty job directory.
+     * 
+     * @return The job directory.
+     * @throws IOException
+     *             If the directory could not be created.
+     */
+    File createJobDirectory() throws IOException {
+        File jobDirectory = new File(m_workDirectory, String.format(
+                "job_%d_%06d", System.currentTimeMillis(),
+                m_jobCounter.incrementAndGet()));
+        if (!jobDirectory.mkdirs()) {
+            throw new IOException("Failed to create job directory "
+                    + jobDirectory.getAbsolutePath());
+        }
+        return jobDirectory;
+    }
+
+    /**
+     * Accepts connections until {@link #stop()} is called. Every connection
+     * is handled by its own thread.
+     */
+    public void serve() {
+        LOGGER.info("GKN worker agent listening on port " + getPort()
+                + " with " + m_slots + " slots.");
+        while (!m_stopped) {
+            final Socket socket;
+            try {
+                socket = m_serverSocket.accept();
+            } catch (SocketException e) {
+                // the server socket was closed by stop()
+                break;
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to accept connection.", e);
+                continue;
+            }
+            Thread session = new Thread(new AgentSession(this, socket),
+                    "GKN-AgentSession-" + socket.getRemoteSocketAddress());
+            session.setDaemon(true);
+            session.start();
+        }
+    }
+
+    /**
+     * Starts {@link #serve()} in a background thread.
+     * 
+     * @return The serving thread.
+     */
+    public Thread start() {
+        Thread server = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "GKN-WorkerAgent-" + getPort());
+        server.setDaemon(true);
+        server.start();
+        return server;
+    }
+
+    /**
+     * Stops accepting connections. Running jobs are not affected.
+     */
+    public void stop() {
+        m_stopped = true;
+        try {
+            m_serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close server socket.", e);
+        }
+    }
+
+    /**
+     * Entry point of the standalone agent.
+     * 
+     * @param args
+     *            The command line arguments.
+     * @throws Exception
+     *             If the agent could not be started.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = AgentProtocol.DEFAULT_PORT;
+        int slots = Runtime.getRuntime().availableProcessors();
+        File workDirectory = new File(System.getProperty("java.io.tmpdir"),
+                "gkn_agent");
+        String bindAddress = null;
+        String secret = null;
+        for (int i = 0; i < args.length; ++i) {
+            if ("--port".equals(args[i]) && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--slots".equals(args[i]) && i + 1 < args.length) {
+                slots = Integer.parseInt(args[++i]);
+            } else if ("--workdir".equals(args[i]) && i + 1 < args.length) {
+                workDirectory = new File(args[++i]);
+            } else if ("--bind".equals(args[i]) && i + 1 < args.length) {
+                bindAddress = args[++i];
+            } else if ("--secret-file".equals(args[i])
+                    && i + 1 < args.length) {
+                secret = readSecret(new File(args[++i]));
+            } else {
+                secret = null;
+                break;
+            }
+        }
+        if (secret == null || secret.isEmpty()) {
+            System.err.println("Usage: WorkerAgent --secret-file FILE "
+                    + "[--port PORT] [--slots N] [--workdir DIRECTORY] "
+                    + "[--bind ADDRESS]");
+            System.exit(1);
+        }
+        new WorkerAgent(bindAddress, port, slots, workDirectory, secret)
+                .serve();
+    }
+
+    private static String readSecret(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), UTF8));
+        try {
+            String secret = reader.readLine();
+            return secret == null ? null : secret.trim();
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.agent.protocol;
+
+/**
+ * Constants of the protocol spoken between GKN and the worker agents.
+ * 
+ * Every message starts with a single type byte followed by a type specific
+ * payload. Strings are transferred as length prefixed UTF-8. A job is
+ * processed on a single connection:
+ * 
+ * <pre>
+ * client                              agent
+ * HELLO(magic, version)          -&gt;
+ *                                &lt;-   HELLO(magic, version)
+ * JOB(secret, command,
+ *     environment, output files) -&gt;
+ *                                &lt;-   ACCEPTED | BUSY
+ * FILE(name, length) CHUNK*      -&gt;                          (input files)
+ *                                &lt;-   ACK per CHUNK
+ * RUN                            -&gt;
+ *                                &lt;-   OUTPUT(stream, lines)*
+ * KILL (optional)                -&gt;
+ *                                &lt;-   EXIT(code)
+ *                                &lt;-   FILE(name, length) CHUNK* (output files)
+ * ACK per CHUNK                  -&gt;
+ *                                &lt;-   END
+ * </pre>
+ * 
+ * Instead of a JOB a client may send STATUS(secret), which is answered with
+ * STATUS_REPLY(free slots, total slots). Requests with a wrong secret are
+ * answered with ERROR, see
+ * {@link com.genericworkflownodes.knime.agent.WorkerAgent}. Files are
+ * transferred in chunks of at most {@link #CHUNK_SIZE} bytes, each protected
+ * by a CRC32 checksum. The sender stops after {@link #WINDOW} unacknowledged
+ * chunks, so a slow receiver throttles the sender. A chunk of length zero
+ * terminates a file.
+ * 
+ * The local {@link com.genericworkflownodes.knime.agent.ToolLauncher} uses the
+ * same framing to spawn tools on behalf of the KNIME JVM. It expects the
+ * secret token it was started with and streams the raw output of the tool:
+ * 
+ * <pre>
+ * client                              launcher
+ * HELLO(magic, version)          -&gt;
+ *                                &lt;-   HELLO(magic, version)
+ * LAUNCH(token, command,
+ *        environment, directory) -&gt;
+ *                                &lt;-   STARTED(pid) | ERROR
+ *                                &lt;-   DATA(stream, bytes)*
+ * KILL (optional)                -&gt;
+ *                                &lt;-   EXIT(code)
+ * </pre>
+ * 
+ * @author aiche
+ */
+public final class AgentProtocol {
+
+    /**
+     * Magic number exchanged with the HELLO message ("GKNA").
+     */
+    public static final int MAGIC = 0x474b4e41;
+
+    /**
+     * Version of the protocol.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Default port of the agent.
+     */
+    public static final int DEFAULT_PORT = 47110;
+
+    /**
+     * Maximal size of a file chunk.
+     */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Maximal number of unacknowledged chunks.
+     */
+    public static final int WINDOW = 16;
+
+    /**
+     * Maximal size of a single string in bytes.
+     */
+    public static final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+
+    public static final byte HELLO = 1;
+    public static final byte STATUS = 2;
+    public static final byte STATUS_REPLY = 3;
+    public static final byte JOB = 4;
+    public static final byte ACCEPTED = 5;
+    public static final byte BUSY = 6;
+    public static final byte FILE = 7;
+    public static final byte CHUNK = 8;
+    public static final byte ACK = 9;
+    public static final byte RUN = 10;
+    public static final byte OUTPUT = 11;
+    public static final byte KILL = 12;
+    public static final byte EXIT = 13;
+    public static final byte END = 14;
+    public static final byte ERROR = 15;
+    public static final byte LAUNCH = 16;
+    public static final byte STARTED = 17;
+    public static final byte DATA = 18;
+
+    /**
+     * Stream identifier of OUTPUT messages containing stdout lines.
+     */
+    public static final byte STDOUT = 1;
+
+    /**
+     * Stream identifier of OUTPUT messages containing stderr lines.
+     */
+    public static final byte STDERR = 2;
+
+    private AgentProtocol() {
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.agent.protocol;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A connection speaking the {@link AgentProtocol}. Messages are assembled
+ * with {@link #message(byte)} and written atomically, so messages may be sent
+ * from several threads. Reading is only allowed from a single thread.
+ * 
+ * @author aiche
+ */
+public class MessageConnection implements Closeable {
+
+    /**
+     * Charset of all strings.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * A message under construction.
+     */
+    public final class Message {
+        private final ByteArrayOutputStream m_buffer;
+        private final DataOutputStream m_data;
+
+        Message(byte type) {
+            m_buffer = new ByteArrayOutputStream();
+            m_data = new DataOutputStream(m_buffer);
+            try {
+                m_data.writeByte(type);
+            } catch (IOException e) {
+                // cannot happen for in-memory streams
+                throw new IllegalStateException(e);
+            }
+        }
+
+        public Message writeInt(int value) throws IOException {
+            m_data.writeInt(value);
+            return this;
+        }
+
+        public Message writeLong(long value) throws IOException {
+            m_data.writeLong(value);
+            return this;
+        }
+
+        public Message writeByte(byte value) throws IOException {
+            m_data.writeByte(value);
+            return this;
+        }
+
+        public Message writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(UTF8);
+            m_data.writeInt(bytes.length);
+            m_data.write(bytes);
+            return this;
+        }
+
+        public Message writeBytes(byte[] bytes, int offset, int length)
+                throws IOException {
+            m_data.writeInt(length);
+            m_data.write(bytes, offset, length);
+            return this;
+        }
+
+        public Message writeStrings(List<String> values) throws IOException {
+            m_data.writeInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+            return this;
+        }
+
+        public Message writeMap(Map<String, String> values) throws IOException {
+            m_data.writeInt(values.size());
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * Writes the message to the connection.
+         * 
+         * @throws IOException
+         *             If the message could not be sent.
+         */
+        public void send() throws IOException {
+            synchronized (m_out) {
+                m_buffer.writeTo(m_out);
+                m_out.flush();
+            }
+        }
+    }
+
+    private final Socket m_socket;
+    private final DataInputStream m_in;
+    private final DataOutputStream m_out;
+
+    /**
+     * C'tor.
+     * 
+     * @param socket
+     *            The connected socket.
+     * @throws IOException
+     *             If the streams of the socket could not be opened.
+     */
+    public MessageConnection(Socket socket) throws IOException {
+        m_socket = socket;
+        m_socket.setTcpNoDelay(true);
+        m_in = new DataInputStream(new BufferedInputStream(
+                socket.getInputStream(), AgentProtocol.CHUNK_SIZE));
+        m_out = new DataOutputStream(new BufferedOutputStream(
+                socket.getOutputStream(), AgentProtocol.CHUNK_SIZE));
+    }
+
+    /**
+     * Starts a new message.
+     * 
+     * @param type
+     *            The type of the message.
+     * @return The message.
+     */
+    public Message message(byte type) {
+        return new Message(type);
+    }
+
+    /**
+     * Exchanges the HELLO messages and checks the protocol version.
+     * 
+     * @throws IOException
+     *             If the peer speaks a different protocol.
+     */
+    public void handshake() throws IOException {
+        message(AgentProtocol.HELLO).writeInt(AgentProtocol.MAGIC)
+                .writeInt(AgentProtocol.VERSION).send();
+        expect(AgentProtocol.HELLO);
+        int magic = readInt();
+        int version = readInt();
+        if (magic != AgentProtocol.MAGIC || version != AgentProtocol.VERSION) {
+            throw new IOException("Incompatible agent protocol (version "
+                    + version + ", expected " + AgentProtocol.VERSION + ").");
+        }
+    }
+
+    /**
+     * Reads the type of the next message.
+     * 
+     * @return The message type.
+     * @throws IOException
+     *             If the connection was closed.
+     */
+    public byte readType() throws IOException {
+        return m_in.readByte();
+    }
+
+    /**
+     * Reads the type of the next message and checks it. ERROR messages of
+     * the peer are converted into exceptions.
+     * 
+     * @param type
+     *            The expected type.
+     * @throws IOException
+     *             If another message was received.
+     */
+    public void expect(byte type) throws IOException {
+        checkType(readType(), type);
+    }
+
+    /**
+     * Checks the type of a received message. ERROR messages of the peer are
+     * converted into exceptions.
+     * 
+     * @param actual
+     *            The received type.
+     * @param expected
+     *            The expected type.
+     * @throws IOException
+     *             If the types differ.
+     */
+    public void checkType(byte actual, byte expected) throws IOException {
+        if (actual == AgentProtocol.ERROR) {
+            throw new IOException("Agent error: " + readString());
+        }
+        if (actual != expected) {
+            throw new IOException("Protocol error: expected message "
+                    + expected + " but received " + actual);
+        }
+    }
+
+    public int readInt() throws IOException {
+        return m_in.readInt();
+    }
+
+    public long readLong() throws IOException {
+        return m_in.readLong();
+    }
+
+    public byte readByte() throws IOException {
+        return m_in.readByte();
+    }
+
+    public String readString() throws IOException {
+        int length = m_in.readInt();
+        if (length < 0 || length > AgentProtocol.MAX_STRING_BYTES) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        m_in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    public byte[] readBytes() throws IOException {
+        int length = m_in.readInt();
+        if (length < 0 || length > AgentProtocol.MAX_STRING_BYTES) {
+            throw new IOException("Invalid data length " + length);
+        }
+        byte[] bytes = new byte[length];
+        m_in.readFully(bytes);
+        return bytes;
+    }
+
+    public List<String> readStrings() throws IOException {
+        int size = readSize();
+        List<String> values = new ArrayList<String>(size);
+        for (int i = 0; i < size; ++i) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public Map<String, String> readMap() throws IOException {
+        int size = readSize();
+        Map<String, String> values = new LinkedHashMap<String, String>();
+        for (int i = 0; i < size; ++i) {
+            values.put(readString(), readString());
+        }
+        return values;
+    }
+
+    private int readSize() throws IOException {
+        int size = m_in.readInt();
+        if (size < 0 || size > AgentProtocol.MAX_STRING_BYTES) {
+            throw new IOException("Invalid collection size " + size);
+        }
+        return size;
+    }
+
+    /**
+     * @return True if data of the peer is waiting to be read.
+     * @throws IOException
+     *             If the connection is broken.
+     */
+    public boolean hasIncomingData() throws IOException {
+        return m_in.available() > 0;
+    }
+
+    /**
+     * Sends a file as FILE message followed by checksummed chunks. Blocks
+     * whenever {@link AgentProtocol#WINDOW} chunks are not yet acknowledged
+     * by the peer.
+     * 
+     * @param name
+     *            The name of the file on the receiving side.
+     * @param file
+     *            The file to send.
+     * @throws IOException
+     *             If the file could not be read or sent.
+     */
+    public void sendFile(String name, File file) throws IOException {
+        long length = file.length();
+        message(AgentProtocol.FILE).writeString(name).writeLong(length).send();
+
+        byte[] buffer = new byte[AgentProtocol.CHUNK_SIZE];
+        CRC32 crc = new CRC32();
+        int unacknowledged = 0;
+        InputStream in = new FileInputStream(file);
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (read == 0) {
+                    continue;
+                }
+                crc.reset();
+                crc.update(buffer, 0, read);
+                sendChunk(buffer, read, crc.getValue());
+                ++unacknowledged;
+                while (unacknowledged >= AgentProtocol.WINDOW) {
+                    unacknowledged -= readAck();
+                }
+            }
+        } finally {
+            in.close();
+        }
+        sendChunk(buffer, 0, 0);
+        ++unacknowledged;
+        while (unacknowledged > 0) {
+            unacknowledged -= readAck();
+        }
+    }
+
+    private void sendChunk(byte[] buffer, int length, long checksum)
+            throws IOException {
+        synchronized (m_out) {
+            m_out.writeByte(AgentProtocol.CHUNK);
+            m_out.writeInt(length);
+            m_out.write(buffer, 0, length);
+            m_out.writeLong(checksum);
+            m_out.flush();
+        }
+    }
+
+    private int readAck() throws IOException {
+        expect(AgentProtocol.ACK);
+        return readInt();
+    }
+
+    /**
+     * Receives the chunks of a file whose FILE message (name and length) was
+     * already read.
+     * 
+     * @param target
+     *            The file to write.
+     * @param length
+     *            The announced length of the file.
+     * @throws IOException
+     *             If a chunk was corrupted or the file could not be written.
+     */
+    public void receiveFile(File target, long length) throws IOException {
+        if (target.getParentFile() != null) {
+            target.getParentFile().mkdirs();
+        }
+        byte[] buffer = new byte[AgentProtocol.CHUNK_SIZE];
+        CRC32 crc = new CRC32();
+        long received = 0;
+        OutputStream out = new FileOutputStream(target);
+        try {
+            while (true) {
+                expect(AgentProtocol.CHUNK);
+                int chunkLength = m_in.readInt();
+                if (chunkLength < 0 || chunkLength > buffer.length) {
+                    throw new IOException("Invalid chunk length "
+                            + chunkLength);
+                }
+                m_in.readFully(buffer, 0, chunkLength);
+                long checksum = m_in.readLong();
+                if (chunkLength == 0) {
+                    message(AgentProtocol.ACK).writeInt(1).send();
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer, 0, chunkLength);
+                if (crc.getValue() != checksum) {
+                    throw new IOException("Checksum mismatch while receiving "
+                            + target.getName());
+                }
+                out.write(buffer, 0, chunkLength);
+                received += chunkLength;
+                message(AgentProtocol.ACK).writeInt(1).send();
+            }
+        } finally {
+            out.close();
+        }
+        if (received != length) {
+            throw new IOException("Received " + received + " bytes of "
+                    + target.getName() + ", expected " + length);
+        }
+    }
+
+    /**
+     * Sends an ERROR message, ignoring failures.
+     * 
+     * @param errorMessage
+     *            The error description.
+     */
+    public void sendErrorQuietly(String errorMessage) {
+        try {
+            message(AgentProtocol.ERROR).writeString(
+                    errorMessage == null ? "unknown error" : errorMessage)
+                    .send();
+        } catch (IOException e) {
+            // the connection is broken anyways
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        m_socket.close();
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.IntegerParameter;
+import com.genericworkflownodes.knime.port.Port;
+
+/**
+ * Tests for {@link NodeConfiguration}.
+ * 
+ * @author aiche
+ */
+public class NodeConfigurationTest {
+
+    @Test
+    public void testCopyConstructor() {
+        NodeConfiguration config = new NodeConfiguration();
+        config.setName("FeatureFinder");
+        config.setExecutableName("FeatureFinderCentroided");
+        config.setVersion("2.0");
+
+        Port in = new Port();
+        in.setName("in");
+        in.setMultiFile(true);
+        config.setInports(new Port[] { in });
+
+        FileListParameter flp = new FileListParameter("in",
+                new ArrayList<String>(Arrays.asList("a.mzML", "b.mzML")));
+        flp.setSection("io");
+        config.addParameter("in", flp);
+        config.addParameter("threads", new IntegerParameter("threads", 1));
+        config.setSectionDescription("io", "Input/Output");
+
+        NodeConfiguration copy = new NodeConfiguration(config);
+        assertEquals("FeatureFinder", copy.getName());
+        assertEquals("FeatureFinderCentroided", copy.getExecutableName());
+        assertEquals("2.0", copy.getVersion());
+        assertSame(in, copy.getInputPortByName("in"));
+        assertSame(config.getCLI(), copy.getCLI());
+        assertEquals("Input/Output", copy.getSectionDescription("io"));
+        assertEquals(config.getParameterKeys(), copy.getParameterKeys());
+
+        // parameters are independent copies
+        FileListParameter copiedFlp = (FileListParameter) copy
+                .getParameter("in");
+        assertNotSame(flp, copiedFlp);
+        copiedFlp.setValue(Arrays.asList("c.mzML"));
+        assertEquals(2, flp.getValue().size());
+        assertEquals(1, copiedFlp.getValue().size());
+        assertEquals(Integer.valueOf(1), copy.getParameter("threads")
+                .getValue());
+    }
+}
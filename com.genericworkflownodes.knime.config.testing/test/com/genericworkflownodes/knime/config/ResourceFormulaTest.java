@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link ResourceFormula}.
+ * 
+ * @author aiche
+ */
+public class ResourceFormulaTest {
+
+    private static final long MB = 1024L * 1024L;
+    private static final long GB = 1024L * MB;
+
+    private static Map<String, Long> sizes(long in, long db) {
+        Map<String, Long> sizes = new HashMap<String, Long>();
+        sizes.put("in", in);
+        sizes.put("db", db);
+        sizes.put(ResourceFormula.TOTAL_INPUT_SIZE, in + db);
+        return sizes;
+    }
+
+    @Test
+    public void testConstants() {
+        Map<String, Long> none = sizes(0, 0);
+        assertEquals(1024, ResourceFormula.parse("1024").evaluate(none));
+        assertEquals(512 * MB, ResourceFormula.parse("512M").evaluate(none));
+        assertEquals(30 * GB, ResourceFormula.parse(" 30g ").evaluate(none));
+        assertEquals(GB + GB / 2, ResourceFormula.parse("1.5G").evaluate(none));
+    }
+
+    @Test
+    public void testInputSizes() {
+        Map<String, Long> sizes = sizes(100 * MB, 50 * MB);
+        assertEquals(2 * GB + 300 * MB,
+                ResourceFormula.parse("2G + 3 * size(in)").evaluate(sizes));
+        assertEquals(15 * MB,
+                ResourceFormula.parse("size() / 10").evaluate(sizes));
+        assertEquals(100 * MB,
+                ResourceFormula.parse("2 * (size( db ) + 0)").evaluate(sizes));
+        assertEquals(0, ResourceFormula.parse("size(unknown)").evaluate(sizes));
+        assertEquals(0, ResourceFormula.parse("size(db) - size(in)")
+                .evaluate(sizes));
+    }
+
+    @Test
+    public void testMalformedExpressions() {
+        String[] malformed = { "", "2G +", "3 * (size(in)", "sizes(in)",
+                "4 4", "1..2", "size in" };
+        for (String expression : malformed) {
+            try {
+                ResourceFormula.parse(expression);
+                fail("'" + expression + "' should be rejected.");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(ResourceFormula.parse("1G + size(in)"));
+        out.close();
+        ResourceFormula copy = (ResourceFormula) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertEquals("1G + size(in)", copy.getExpression());
+        assertEquals(GB + MB, copy.evaluate(sizes(MB, 0)));
+    }
+}
@@ -116,6 +116,22 @@ public interface INodeConfiguration {
      */
     List<Relocator> getRelocators();
 
+    /**
+     * Returns the expected peak memory consumption of the tool.
+     * 
+     * @return The memory requirement or null if the CTD does not declare it.
+     */
+    ResourceFormula getMemoryRequirement();
+
+    /**
+     * Returns the expected amount of scratch space the tool needs in its
+     * working directory.
+     * 
+     * @return The scratch space requirement or null if the CTD does not
+     *         declare it.
+     */
+    ResourceFormula getScratchRequirement();
+
     /**
      * Returns the number of output ports of this tool.
      * 
@@ -18,6 +18,11 @@
  */
 package com.genericworkflownodes.knime.config;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -80,6 +85,16 @@ public class NodeConfiguration implements INodeConfiguration, Serializable {
      */
     private List<Relocator> relocators;
 
+    /**
+     * The expected peak memory consumption, may be null.
+     */
+    private ResourceFormula memoryRequirement;
+
+    /**
+     * The expected scratch space consumption, may be null.
+     */
+    private ResourceFormula scratchRequirement;
+
     /**
      * Creates a new, empty {@link NodeConfiguration}.
      */
@@ -98,8 +113,70 @@ public class NodeConfiguration implements INodeConfiguration, Serializable {
         relocators = new ArrayList<Relocator>();
     }
 
+    /**
+     * Creates a copy of the given {@link INodeConfiguration}. The parameters
+     * are deep copies, i.e., changing a parameter value of the copy does not
+     * affect the original configuration. The remaining (descriptive) elements
+     * like ports, CLI and relocators are shared with the original.
+     * 
+     * @param config
+     *            The configuration to copy.
+     */
     public NodeConfiguration(INodeConfiguration config) {
+        this();
+
+        for (String key : config.getParameterKeys()) {
+            Parameter<?> param = config.getParameter(key);
+            params.put(key, copyParameter(param));
+            String section = param.getSection();
+            if (section != null
+                    && config.getSectionDescription(section) != null) {
+                sectionDescriptions.put(section,
+                        config.getSectionDescription(section));
+            }
+        }
+
+        setInports(config.getInputPorts());
+        setOutports(config.getOutputPorts());
+
+        name = config.getName();
+        version = config.getVersion();
+        docurl = config.getDocUrl();
+        shortdescription = config.getDescription();
+        longdescription = config.getManual();
+        xml = config.getXML();
+        category = config.getCategory();
+        executableName = config.getExecutableName();
+        executablePath = config.getExecutablePath();
+        cli = config.getCLI();
+        relocators.addAll(config.getRelocators());
+        memoryRequirement = config.getMemoryRequirement();
+        scratchRequirement = config.getScratchRequirement();
+    }
 
+    /**
+     * Creates a deep copy of the given parameter by serializing it.
+     * 
+     * @param param
+     *            The parameter to copy.
+     * @return The copy.
+     */
+    private static Parameter<?> copyParameter(Parameter<?> param) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(buffer);
+            out.writeObject(param);
+            out.close();
+            ObjectInputStream in = new ObjectInputStream(
+                    new ByteArrayInputStream(buffer.toByteArray()));
+            return (Parameter<?>) in.readObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to copy parameter "
+                    + param.getKey(), e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Failed to copy parameter "
+                    + param.getKey(), e);
+        }
     }
 
     @Override
@@ -334,6 +411,24 @@ public class NodeConfiguration implements INodeConfiguration, Serializable {
         return relocators;
     }
 
+    @Override
+    public ResourceFormula getMemoryRequirement() {
+        return memoryRequirement;
+    }
+
+    public void setMemoryRequirement(ResourceFormula requirement) {
+        memoryRequirement = requirement;
+    }
+
+    @Override
+    public ResourceFormula getScratchRequirement() {
+        return scratchRequirement;
+    }
+
+    public void setScratchRequirement(ResourceFormula requirement) {
+        scratchRequirement = requirement;
+    }
+
     @Override
     public String getSectionDescription(String section) {
         if (sectionDescriptions.containsKey(section)) {
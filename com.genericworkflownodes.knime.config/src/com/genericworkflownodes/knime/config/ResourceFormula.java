@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.config;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * A resource requirement of a tool declared in the CTD, e.g., the expected
+ * amount of memory. The requirement is given as arithmetic expression over
+ * the sizes of the input files:
+ * 
+ * <pre>
+ * 2G + 3 * size(in) + size() / 10
+ * </pre>
+ * 
+ * The expression supports <code>+ - * /</code>, parentheses and numbers with
+ * an optional (binary) unit suffix <code>K</code>, <code>M</code>,
+ * <code>G</code> or <code>T</code>. <code>size(name)</code> is the total size
+ * of the files bound to the input port <code>name</code> in bytes,
+ * <code>size()</code> the total size of all input files. The result is
+ * interpreted as number of bytes.
+ * 
+ * @author aiche
+ */
+public final class ResourceFormula implements Serializable {
+
+    private static final long serialVersionUID = 4162283958816409514L;
+
+    /**
+     * Key of the total input size in the map passed to
+     * {@link #evaluate(Map)}.
+     */
+    public static final String TOTAL_INPUT_SIZE = "";
+
+    /**
+     * A node of the parsed expression.
+     */
+    private interface Term {
+        double evaluate(Map<String, Long> inputSizes);
+    }
+
+    /**
+     * The expression as given in the CTD.
+     */
+    private final String m_expression;
+
+    /**
+     * The parsed expression, restored after deserialization.
+     */
+    private transient Term m_term;
+
+    /**
+     * Position of the parser in {@link #m_expression}.
+     */
+    private transient int m_position;
+
+    private ResourceFormula(String expression) {
+        m_expression = expression;
+        m_position = 0;
+        m_term = parseSum();
+        skipWhitespace();
+        if (m_position < m_expression.length()) {
+            throw error("Unexpected character '"
+                    + m_expression.charAt(m_position) + "'");
+        }
+    }
+
+    /**
+     * Parses the given expression.
+     * 
+     * @param expression
+     *            The expression.
+     * @return The parsed formula.
+     * @throws IllegalArgumentException
+     *             If the expression is malformed.
+     */
+    public static ResourceFormula parse(String expression) {
+        if (expression == null || "".equals(expression.trim())) {
+            throw new IllegalArgumentException(
+                    "The resource requirement must not be empty.");
+        }
+        return new ResourceFormula(expression.trim());
+    }
+
+    /**
+     * Computes the requirement for the given input sizes.
+     * 
+     * @param inputSizes
+     *            The total size of the files of each input port in bytes.
+     *            The size of all inputs is stored using
+     *            {@link #TOTAL_INPUT_SIZE} as key. Missing ports count as
+     *            empty.
+     * @return The requirement in bytes, never negative.
+     */
+    public long evaluate(Map<String, Long> inputSizes) {
+        return Math.max(0, (long) Math.ceil(m_term.evaluate(inputSizes)));
+    }
+
+    /**
+     * Returns the expression as given in the CTD.
+     * 
+     * @return The expression.
+     */
+    public String getExpression() {
+        return m_expression;
+    }
+
+    @Override
+    public String toString() {
+        return m_expression;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException,
+            ClassNotFoundException {
+        in.defaultReadObject();
+        m_position = 0;
+        m_term = parseSum();
+    }
+
+    private Term parseSum() {
+        Term term = parseProduct();
+        while (true) {
+            final char op = peek();
+            if (op != '+' && op != '-') {
+                return term;
+            }
+            ++m_position;
+            final Term left = term;
+            final Term right = parseProduct();
+            term = new Term() {
+                @Override
+                public double evaluate(Map<String, Long> inputSizes) {
+                    double l = left.evaluate(inputSizes);
+                    double r = right.evaluate(inputSizes);
+                    return op == '+' ? l + r : l - r;
+                }
+            };
+        }
+    }
+
+    private Term parseProduct() {
+        Term term = parseFactor();
+        while (true) {
+            final char op = peek();
+            if (op != '*' && op != '/') {
+                return term;
+            }
+            ++m_position;
+            final Term left = term;
+            final Term right = parseFactor();
+            term = new Term() {
+                @Override
+                public double evaluate(Map<String, Long> inputSizes) {
+                    double l = left.evaluate(inputSizes);
+                    double r = right.evaluate(inputSizes);
+                    if (op == '*') {
+                        return l * r;
+                    }
+                    return r == 0 ? 0 : l / r;
+                }
+            };
+        }
+    }
+
+    private Term parseFactor() {
+        char c = peek();
+        if (c == '(') {
+            ++m_position;
+            Term term = parseSum();
+            expect(')');
+            return term;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return parseNumber();
+        }
+        if (Character.isLetter(c)) {
+            return parseSize();
+        }
+        throw error(c == 0 ? "Unexpected end of expression"
+                : "Unexpected character '" + c + "'");
+    }
+
+    private Term parseNumber() {
+        int start = m_position;
+        while (m_position < m_expression.length()
+                && isNumberChar(m_expression.charAt(m_position))) {
+            ++m_position;
+        }
+        double value;
+        try {
+            value = Double.parseDouble(m_expression.substring(start,
+                    m_position));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number");
+        }
+        if (m_position < m_expression.length()) {
+            int unit = "KMGT".indexOf(Character.toUpperCase(m_expression
+                    .charAt(m_position)));
+            if (unit != -1) {
+                ++m_position;
+                value *= Math.pow(1024, unit + 1);
+            }
+        }
+        final double constant = value;
+        return new Term() {
+            @Override
+            public double evaluate(Map<String, Long> inputSizes) {
+                return constant;
+            }
+        };
+    }
+
+    private static boolean isNumberChar(char c) {
+        return Character.isDigit(c) || c == '.';
+    }
+
+    private Term parseSize() {
+        int start = m_position;
+        while (m_position < m_expression.length()
+                && Character.isLetter(m_expression.charAt(m_position))) {
+            ++m_position;
+        }
+        if (!"size".equals(m_expression.substring(start, m_position))) {
+            throw error("Unknown function '"
+                    + m_expression.substring(start, m_position) + "'");
+        }
+        expect('(');
+        skipWhitespace();
+        start = m_position;
+        while (m_position < m_expression.length()
+                && m_expression.charAt(m_position) != ')') {
+            ++m_position;
+        }
+        final String port = m_expression.substring(start, m_position).trim();
+        expect(')');
+        return new Term() {
+            @Override
+            public double evaluate(Map<String, Long> inputSizes) {
+                Long size = inputSizes.get(port);
+                return size == null ? 0 : size;
+            }
+        };
+    }
+
+    private char peek() {
+        skipWhitespace();
+        if (m_position >= m_expression.length()) {
+            return 0;
+        }
+        return m_expression.charAt(m_position);
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        ++m_position;
+    }
+
+    private void skipWhitespace() {
+        while (m_position < m_expression.length()
+                && Character.isWhitespace(m_expression.charAt(m_position))) {
+            ++m_position;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position "
+                + m_position + " of resource requirement '" + m_expression
+                + "'.");
+    }
+}
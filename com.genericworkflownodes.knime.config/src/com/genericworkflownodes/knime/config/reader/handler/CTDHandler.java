@@ -25,6 +25,7 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import com.genericworkflownodes.knime.config.INodeConfiguration;
 import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.config.ResourceFormula;
 
 /**
  * The main {@link ContentHandler} for the CTD.
@@ -45,6 +46,9 @@ public class CTDHandler extends DefaultHandler {
     private static final String TAG_EXECUTABLE_NAME = "executableName";
     private static final String TAG_EXECUTABLE_PATH = "executablePath";
     private static final String TAG_TOOL = "tool";
+    private static final String TAG_REQUIREMENTS = "requirements";
+    private static final String TAG_MEMORY = "memory";
+    private static final String TAG_SCRATCH = "scratch";
 
     /**
      * The {@link INodeConfiguration} generated while parsing the CTD document.
@@ -61,6 +65,11 @@ public class CTDHandler extends DefaultHandler {
      */
     private XMLReader m_xmlReader;
 
+    /**
+     * Indicates that the parser is inside the requirements tag.
+     */
+    private boolean m_inRequirements;
+
     /**
      * C'tor.
      * 
@@ -101,6 +110,8 @@ public class CTDHandler extends DefaultHandler {
         } else if (TAG_CLI.equals(name)) {
             m_xmlReader.setContentHandler(new CLIElementHandler(m_xmlReader,
                     this, m_config));
+        } else if (TAG_REQUIREMENTS.equals(name)) {
+            m_inRequirements = true;
         } else if (TAG_TOOL.equals(name)) {
             // root tag -> parse out the attribute values
             m_config.setName(attributes.getValue(ATTR_NAME));
@@ -125,6 +136,20 @@ public class CTDHandler extends DefaultHandler {
             m_config.setExecutablePath(m_currentContent.toString());
         } else if (TAG_EXECUTABLE_NAME.equals(name)) {
             m_config.setExecutableName(m_currentContent.toString());
+        } else if (TAG_REQUIREMENTS.equals(name)) {
+            m_inRequirements = false;
+        } else if (m_inRequirements && TAG_MEMORY.equals(name)) {
+            m_config.setMemoryRequirement(parseRequirement());
+        } else if (m_inRequirements && TAG_SCRATCH.equals(name)) {
+            m_config.setScratchRequirement(parseRequirement());
+        }
+    }
+
+    private ResourceFormula parseRequirement() throws SAXException {
+        try {
+            return ResourceFormula.parse(m_currentContent.toString());
+        } catch (IllegalArgumentException e) {
+            throw new SAXException(e.getMessage(), e);
         }
     }
 }
@@ -123,6 +123,11 @@ public class ParamHandler extends DefaultHandler {
      */
     private static final String GKN_IGNORE_TAG = "gkn-ignore";
 
+    /**
+     * Tag marking the parameter holding the number of threads of the tool.
+     */
+    public static final String GKN_THREADS_TAG = "gkn-threads";
+
     /**
      * Separates two nodes.
      */
@@ -301,6 +306,8 @@ public class ParamHandler extends DefaultHandler {
         // set flags for parameter
         m_currentParameter.setAdvanced(isAdvanced(attributes));
         m_currentParameter.setIsOptional(isOptional(attributes));
+        m_currentParameter.setThreadCount(getTags(attributes).contains(
+                GKN_THREADS_TAG));
 
         // extract the description
         String description = attributes.getValue(ATTR_DESCRIPTION);
@@ -253,9 +253,7 @@ public class CTDConfigurationWriter {
 
         // value
         item.append(" value=\"");
-        if (p.getValue() != null && p.getValue().toString() != null) {
-            item.append(xmlEscapeText(p.getValue().toString()));
-        }
+        item.append(xmlEscapeText(getItemValue(key, p)));
         item.append('\"');
 
         // type
@@ -310,7 +308,7 @@ public class CTDConfigurationWriter {
         streamPut(item.toString());
 
         indent();
-        for (String val : ((ListParameter) p).getStrings()) {
+        for (String val : getListItemValues(key, (ListParameter) p)) {
             streamPut(String.format("<LISTITEM value=\"%s\"/>",
                     xmlEscapeText(val)));
         }
@@ -318,6 +316,37 @@ public class CTDConfigurationWriter {
         streamPut("</ITEMLIST>");
     }
 
+    /**
+     * Returns the value written for the given (non-list) parameter. Subclasses
+     * may override this to replace single values, e.g., by placeholders.
+     * 
+     * @param key
+     *            The key of the parameter in the configuration.
+     * @param p
+     *            The parameter.
+     * @return The unescaped value, never null.
+     */
+    protected String getItemValue(String key, Parameter<?> p) {
+        if (p.getValue() != null && p.getValue().toString() != null) {
+            return p.getValue().toString();
+        }
+        return "";
+    }
+
+    /**
+     * Returns the values written for the given list parameter. Subclasses may
+     * override this to replace single values, e.g., by placeholders.
+     * 
+     * @param key
+     *            The key of the parameter in the configuration.
+     * @param p
+     *            The list parameter.
+     * @return The unescaped values.
+     */
+    protected List<String> getListItemValues(String key, ListParameter p) {
+        return p.getStrings();
+    }
+
     private void addItemType(String key, Parameter<?> p, StringBuffer item) {
         item.append(" type=\"");
         if (p instanceof FileParameter) {
@@ -379,6 +408,9 @@ public class CTDConfigurationWriter {
     private void addParameterAttributes(Parameter<?> p, StringBuffer item) {
         item.append(" advanced=\"" + (p.isAdvanced() ? "true" : "false") + "\"");
         item.append(" required=\"" + (p.isOptional() ? "false" : "true") + "\"");
+        if (p.isThreadCount()) {
+            item.append(" tags=\"" + ParamHandler.GKN_THREADS_TAG + "\"");
+        }
     }
 
     private void addDescription(Parameter<?> p, StringBuffer item) {
@@ -66,6 +66,12 @@ public abstract class Parameter<T> implements Serializable {
      */
     private boolean m_isAdvanced;
 
+    /**
+     * Flag indicating if the parameter holds the number of threads the tool
+     * may use.
+     */
+    private boolean m_isThreadCount;
+
     /**
      * Constructor with unique m_key of parameter and generic m_value to store.
      * 
@@ -244,6 +250,27 @@ public abstract class Parameter<T> implements Serializable {
         m_isAdvanced = newAdvanced;
     }
 
+    /**
+     * Return whether the parameter holds the number of threads the tool may
+     * use. Such parameters are filled with the number of cores assigned to the
+     * tool, if the cores are distributed among concurrently running tools.
+     * 
+     * @return True if the parameter is the thread count of the tool.
+     */
+    public boolean isThreadCount() {
+        return m_isThreadCount;
+    }
+
+    /**
+     * Set whether the parameter holds the number of threads the tool may use.
+     * 
+     * @param newThreadCount
+     *            New isThreadCount flag for the parameter.
+     */
+    public final void setThreadCount(final boolean newThreadCount) {
+        m_isThreadCount = newThreadCount;
+    }
+
     /**
      * Checks whether the supplied generic value is compatible with the data
      * type of the parameter.
@@ -184,6 +184,13 @@ public class NodeGenerator {
                             srcDir.getProperty("executor", "LocalToolExecutor"));
                     put("commandGenerator", srcDir.getProperty(
                             "commandGenerator", "CLICommandGenerator"));
+                    // response file settings, see CLICommandGenerator
+                    for (String key : srcDir.getProperties()
+                            .stringPropertyNames()) {
+                        if (key.startsWith("responseFile.")) {
+                            put(key, srcDir.getProperty(key, null));
+                        }
+                    }
                 }
             });
 
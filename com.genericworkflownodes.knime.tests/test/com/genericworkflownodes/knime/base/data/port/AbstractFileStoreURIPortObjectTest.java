@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the URIs created by the {@link AbstractFileStoreURIPortObject}.
+ * 
+ * @author aiche
+ */
+public class AbstractFileStoreURIPortObjectTest {
+
+    private File m_root;
+
+    @Before
+    public void setUp() throws Exception {
+        m_root = Helper.getTempDir("uri_test", true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(m_root);
+    }
+
+    private void assertSameURIAsFile(String relPath) throws Exception {
+        File file = new File(m_root, relPath);
+        assertEquals(file.toURI(), AbstractFileStoreURIPortObject.toURI(
+                m_root.toURI().getPath(), relPath, file));
+    }
+
+    @Test
+    public void testURIsMatchFileURIs() throws Exception {
+        FileUtils.forceMkdir(new File(m_root, "sub dir"));
+        FileUtils.writeStringToFile(new File(m_root, "sub dir/a#1.txt"), "a");
+
+        assertSameURIAsFile("sub dir/a#1.txt");
+        // directories end with a slash
+        assertSameURIAsFile("sub dir");
+        assertSameURIAsFile("missing.txt");
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.zip.ZipEntry;
+
+import org.knime.core.data.uri.URIContent;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.ModelContent;
+import org.knime.core.node.ModelContentWO;
+import org.knime.core.node.port.PortObjectZipInputStream;
+import org.knime.core.node.port.PortObjectZipOutputStream;
+
+/**
+ * Simple benchmark for the {@link CompactContentFormat}. Writes a
+ * {@link FileStorePrefixURIPortObject} with the given number of files
+ * (default: 200000) in the content.xml format of earlier versions, loads it
+ * and saves it again in the binary format. Reports the time and the size of
+ * both formats.
+ * 
+ * Usage: CompactContentFormatBenchmark [files]
+ * 
+ * @author aiche
+ */
+public class CompactContentFormatBenchmark {
+
+    private static final File ROOT = new File(
+            System.getProperty("java.io.tmpdir"), "knime_filestore_0001");
+
+    /**
+     * Creates the content.xml entry as written by earlier versions.
+     */
+    private static byte[] createLegacyContent(int files) throws Exception {
+        ModelContent model = new ModelContent("model.xml");
+        model.addInt("version", 1);
+        model.addString("class_name",
+                FileStorePrefixURIPortObject.class.getName());
+        ModelContentWO subModel = model.addModelContent("model");
+        subModel.addString("prefix", "out.mzML");
+        ModelContentWO parent = subModel.addModelContent("parent");
+        for (int i = 0; i < files; ++i) {
+            String relPath = String.format("out.mzML.idx/%03d/shard_%06d.%s",
+                    i / 1000, i, i % 3 == 0 ? "idXML" : "mzML");
+            ModelContentWO child = parent.addModelContent("file-" + i);
+            new URIContent(new File(ROOT, relPath).toURI(),
+                    relPath.substring(relPath.lastIndexOf('.') + 1))
+                    .save(child);
+            child.addString("rel-path", relPath);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PortObjectZipOutputStream out = new PortObjectZipOutputStream(bytes);
+        out.putNextEntry(new ZipEntry("content.xml"));
+        model.saveToXML(out);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    private static FileStorePrefixURIPortObject load(byte[] content)
+            throws Exception {
+        return FileStorePrefixURIPortObjectSerializer.getSerializer()
+                .loadPortObject(
+                        new PortObjectZipInputStream(new ByteArrayInputStream(
+                                content)), null, new ExecutionMonitor());
+    }
+
+    private static byte[] save(FileStorePrefixURIPortObject portObject)
+            throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PortObjectZipOutputStream out = new PortObjectZipOutputStream(bytes);
+        FileStorePrefixURIPortObjectSerializer.getSerializer().savePortObject(
+                portObject, out, new ExecutionMonitor());
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+        long start = System.currentTimeMillis();
+        byte[] legacy = createLegacyContent(files);
+        long legacySaveTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        FileStorePrefixURIPortObject portObject = load(legacy);
+        long legacyLoadTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        byte[] compact = save(portObject);
+        long saveTime = System.currentTimeMillis() - start;
+
+        start = System.currentTimeMillis();
+        portObject = load(compact);
+        long loadTime = System.currentTimeMillis() - start;
+
+        System.out.println(String.format(
+                "content.xml: %d files, %d bytes, saved in %d ms, "
+                        + "loaded in %d ms", files, legacy.length,
+                legacySaveTime, legacyLoadTime));
+        System.out.println(String.format(
+                "content.bin: %d files, %d bytes, saved in %d ms, "
+                        + "loaded in %d ms", portObject.getRelativePaths()
+                        .size(), compact.length, saveTime, loadTime));
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.port.PortObjectZipInputStream;
+import org.knime.core.node.port.PortObjectZipOutputStream;
+
+/**
+ * Tests for the {@link CompactContentFormat} and the binary serialization of
+ * the file store port objects.
+ * 
+ * @author aiche
+ */
+public class CompactContentFormatTest {
+
+    private static DataInputStream input(ByteArrayOutputStream bytes) {
+        return new DataInputStream(new ByteArrayInputStream(
+                bytes.toByteArray()));
+    }
+
+    private static List<String> createPaths(int n) {
+        List<String> paths = new ArrayList<String>(n);
+        for (int i = 0; i < n; ++i) {
+            paths.add(String.format("out.mzML.idx/%03d/shard_%06d.%s",
+                    i / 1000, i, i % 3 == 0 ? "idXML" : "mzML"));
+        }
+        return paths;
+    }
+
+    @Test
+    public void testVarInts() throws Exception {
+        int[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE };
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int value : values) {
+            CompactContentFormat.writeVarInt(out, value);
+        }
+        DataInputStream in = input(bytes);
+        for (int value : values) {
+            assertEquals(value, CompactContentFormat.readVarInt(in));
+        }
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testOverlongVarIntsAreRejected() throws Exception {
+        // bits 4 to 6 of the fifth byte do not fit into an int
+        byte[][] malformed = { { -1, -1, -1, -1, 0x17 },
+                { -1, -1, -1, -1, 0x77 }, { -1, -1, -1, -1, -1, 0x01 } };
+        for (byte[] bytes : malformed) {
+            try {
+                CompactContentFormat.readVarInt(new DataInputStream(
+                        new ByteArrayInputStream(bytes)));
+                fail("Expected an IOException.");
+            } catch (IOException e) {
+                assertEquals("Malformed port object content.",
+                        e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testStringsRoundTrip() throws Exception {
+        List<String> values = Arrays.asList("", "a", "abc", "abd", "ab",
+                "bäöü", "bäöx", "😀x",
+                "😁y", "");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactContentFormat.writeStrings(new DataOutputStream(bytes), values);
+        assertEquals(values, CompactContentFormat.readStrings(input(bytes)));
+    }
+
+    @Test
+    public void testDictionaryRoundTrip() throws Exception {
+        List<String> values = Arrays.asList("mzML", "idXML", "mzML", "",
+                "mzML");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactContentFormat.writeDictionary(new DataOutputStream(bytes),
+                values);
+        assertEquals(values, CompactContentFormat.readDictionary(input(bytes)));
+    }
+
+    @Test
+    public void testFrontCodingIsCompact() throws Exception {
+        List<String> paths = createPaths(10000);
+        int plain = 0;
+        for (String path : paths) {
+            plain += path.length();
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactContentFormat.writeStrings(new DataOutputStream(bytes), paths);
+        assertTrue(bytes.size() < plain / 3);
+    }
+
+    @Test
+    public void testMalformedContentIsRejected() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CompactContentFormat.writeVarInt(out, 1);
+        // shares more characters than the previous string has
+        CompactContentFormat.writeVarInt(out, 5);
+        CompactContentFormat.writeString(out, "x");
+        try {
+            CompactContentFormat.readStrings(input(bytes));
+            fail("Expected an IOException.");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNewerVersionsAreRejected() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PortObjectZipOutputStream zip = new PortObjectZipOutputStream(bytes);
+        zip.putNextEntry(new ZipEntry(CompactContentFormat.CONTENT_BIN));
+        DataOutputStream out = new DataOutputStream(zip);
+        out.writeBytes("GKNP");
+        CompactContentFormat.writeVarInt(out,
+                CompactContentFormat.VERSION + 1);
+        out.flush();
+        zip.close();
+
+        PortObjectZipInputStream in = new PortObjectZipInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        in.getNextEntry();
+        try {
+            CompactContentFormat.createInput(in);
+            fail("Expected an IOException.");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("version"));
+        }
+    }
+
+    @Test
+    public void testPortObjectRoundTrip() throws Exception {
+        List<String> paths = createPaths(2500);
+        List<String> extensions = new ArrayList<String>();
+        for (String path : paths) {
+            extensions.add(path.substring(path.lastIndexOf('.') + 1));
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(content);
+        CompactContentFormat.writeString(out, "out.mzML");
+        CompactContentFormat.writeDictionary(out, extensions);
+        CompactContentFormat.writeStrings(out, paths);
+        FileStorePrefixURIPortObject portObject = new FileStorePrefixURIPortObject();
+        portObject.load(input(content), null, new ExecutionMonitor());
+        assertEquals(paths, portObject.getRelativePaths());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PortObjectZipOutputStream zip = new PortObjectZipOutputStream(bytes);
+        FileStorePrefixURIPortObjectSerializer.getSerializer()
+                .savePortObject(portObject, zip, new ExecutionMonitor());
+        zip.close();
+
+        PortObjectZipInputStream in = new PortObjectZipInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        FileStorePrefixURIPortObject loaded = FileStorePrefixURIPortObjectSerializer
+                .getSerializer().loadPortObject(in, null,
+                        new ExecutionMonitor());
+        assertEquals(paths, loaded.getRelativePaths());
+
+        // saving the loaded object reproduces the content
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        loaded.save(new DataOutputStream(saved), new ExecutionMonitor());
+        assertTrue(Arrays.equals(content.toByteArray(), saved.toByteArray()));
+    }
+
+    @Test
+    public void testNullExtensionsRoundTrip() throws Exception {
+        List<String> extensions = Arrays.asList("mzML", null, "", null,
+                "mzML");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactContentFormat.writeDictionary(new DataOutputStream(bytes),
+                extensions);
+        assertEquals(extensions,
+                CompactContentFormat.readDictionary(input(bytes)));
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(content);
+        CompactContentFormat.writeString(out, "out");
+        CompactContentFormat.writeDictionary(out, extensions);
+        CompactContentFormat.writeStrings(out, createPaths(5));
+        FileStorePrefixURIPortObject portObject = new FileStorePrefixURIPortObject();
+        portObject.load(input(content), null, new ExecutionMonitor());
+
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        portObject.save(new DataOutputStream(saved), new ExecutionMonitor());
+        DataInputStream in = input(saved);
+        assertEquals("out", CompactContentFormat.readString(in));
+        assertEquals(extensions, CompactContentFormat.readDictionary(in));
+    }
+}
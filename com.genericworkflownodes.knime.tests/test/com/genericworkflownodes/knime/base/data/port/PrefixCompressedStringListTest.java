@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link PrefixCompressedStringList}.
+ * 
+ * @author aiche
+ */
+public class PrefixCompressedStringListTest {
+
+    @Test
+    public void testStringsAreRestored() {
+        List<String> expected = new ArrayList<String>();
+        expected.add("");
+        expected.add("");
+        expected.add("sample.mzML");
+        expected.add("sample.mzML");
+        expected.add("sample");
+        expected.add("subfolder/sample_1.featureXML");
+        expected.add("Probe_äöü_样品.idXML");
+        expected.add("Probe_äöü_样哂.idXML");
+
+        StringBuilder longPath = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            longPath.append("directory").append(i).append('/');
+        }
+        expected.add(longPath.toString());
+        expected.add(longPath.toString() + "file.txt");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            expected.add(String.format("run%d/%s_%05d_%d.mzML",
+                    random.nextInt(3), "sample", i, random.nextInt(10)));
+        }
+
+        PrefixCompressedStringList list = new PrefixCompressedStringList();
+        list.addAll(expected);
+
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), list.get(i));
+        }
+        // iteration and equality work through AbstractList
+        assertEquals(expected, list);
+        assertEquals(expected, new ArrayList<String>(list));
+    }
+
+    @Test
+    public void testSimilarStringsAreCompressed() {
+        PrefixCompressedStringList list = new PrefixCompressedStringList();
+        int uncompressed = 0;
+        for (int i = 0; i < 100000; ++i) {
+            String path = String.format("FeatureFinderCentroided_%06d_0."
+                    + "featureXML", i);
+            uncompressed += path.length();
+            list.add(path);
+        }
+        assertEquals("FeatureFinderCentroided_054321_0.featureXML",
+                list.get(54321));
+        assertTrue(list.getEncodedSize() < uncompressed / 2);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullIsRejected() {
+        new PrefixCompressedStringList().add(null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexIsChecked() {
+        PrefixCompressedStringList list = new PrefixCompressedStringList();
+        list.add("a");
+        list.get(1);
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Simple benchmark for the {@link PrefixFileCollector}. Creates a prefix output
+ * with the given number of shards (default: 50000) next to an unrelated
+ * directory tree of the same size and compares the collector against the
+ * previous approach, which listed the whole parent directory recursively and
+ * filtered the result by prefix.
+ * 
+ * Usage: PrefixFileCollectorBenchmark [shards] [parallelism]
+ * 
+ * @author aiche
+ */
+public class PrefixFileCollectorBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static void createTree(File directory, int files)
+            throws Exception {
+        for (int i = 0; i < files; ++i) {
+            File dir = new File(directory, Integer.toString(i / 1000));
+            dir.mkdirs();
+            new File(dir, "shard_" + i).createNewFile();
+        }
+    }
+
+    private static void listAll(File directory, List<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                listAll(child, files);
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    private static List<String> legacyCollect(File root, String prefix) {
+        File prefixFile = new File(root, prefix);
+        List<File> files = new ArrayList<File>();
+        listAll(prefixFile.getParentFile(), files);
+        List<String> result = new ArrayList<String>();
+        for (File file : files) {
+            if (file.getAbsolutePath().startsWith(
+                    prefixFile.getAbsolutePath())) {
+                result.add(file.getAbsolutePath().substring(
+                        root.getAbsolutePath().length() + 1));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int shards = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        File root = Helper.getTempDir("prefix_benchmark", true);
+        try {
+            createTree(new File(root, "out.idx"), shards);
+            createTree(new File(root, "unrelated"), shards);
+
+            // best of a few rounds to take the JIT and the file system cache
+            // out of the picture
+            long legacyTime = Long.MAX_VALUE;
+            long walkTime = Long.MAX_VALUE;
+            long scanTime = Long.MAX_VALUE;
+            int legacy = 0;
+            int walked = 0;
+            int scanned = 0;
+            for (int round = 0; round < ROUNDS; ++round) {
+                long start = System.currentTimeMillis();
+                legacy = legacyCollect(root, "out").size();
+                legacyTime = Math.min(legacyTime, System.currentTimeMillis()
+                        - start);
+
+                start = System.currentTimeMillis();
+                walked = new PrefixFileCollector(root.toPath(), "out").collect(
+                        1).size();
+                walkTime = Math.min(walkTime, System.currentTimeMillis()
+                        - start);
+
+                start = System.currentTimeMillis();
+                scanned = new PrefixFileCollector(root.toPath(), "out")
+                        .collect(parallelism).size();
+                scanTime = Math.min(scanTime, System.currentTimeMillis()
+                        - start);
+            }
+
+            System.out.println(String.format(
+                    "Recursive listing: %d files in %d ms", legacy,
+                    legacyTime));
+            System.out.println(String.format("Pruning walk: %d files in %d ms",
+                    walked, walkTime));
+            System.out.println(String.format(
+                    "Parallel scan (%d threads): %d files in %d ms",
+                    parallelism, scanned, scanTime));
+        } finally {
+            FileUtils.deleteDirectory(root);
+        }
+    }
+}
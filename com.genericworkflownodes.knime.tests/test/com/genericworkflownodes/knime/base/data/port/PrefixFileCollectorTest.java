@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the {@link PrefixFileCollector}.
+ * 
+ * @author aiche
+ */
+public class PrefixFileCollectorTest {
+
+    private File m_root;
+
+    @Before
+    public void setUp() throws Exception {
+        m_root = Helper.getTempDir("prefix_test", true);
+        for (String path : new String[] { "out.mzML", "out.mzML_1.txt",
+                "out.mzML.idx/shard_1", "out.mzML.idx/shard_2",
+                "out.mzML.idx/sub/deeper/shard_3", "other.txt",
+                "other/out.mzML_2.txt", "ou", "sub/out_1.txt",
+                "sub/out_dir/a.txt", "sub/other.txt" }) {
+            FileUtils.writeStringToFile(new File(m_root, path), path);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(m_root);
+    }
+
+    private static List<String> paths(String... paths) {
+        List<String> result = new ArrayList<String>();
+        for (String path : paths) {
+            result.add(path.replace('/', File.separatorChar));
+        }
+        return result;
+    }
+
+    private List<String> collect(String prefix, int parallelism)
+            throws Exception {
+        return new PrefixFileCollector(m_root.toPath(), prefix)
+                .collect(parallelism);
+    }
+
+    @Test
+    public void testMatchingFilesAndDirectoriesAreCollected()
+            throws Exception {
+        List<String> expected = paths("out.mzML", "out.mzML.idx/shard_1",
+                "out.mzML.idx/shard_2", "out.mzML.idx/sub/deeper/shard_3",
+                "out.mzML_1.txt");
+        assertEquals(expected, collect("out.mzML", 1));
+        assertEquals(expected, collect("out.mzML", 4));
+    }
+
+    @Test
+    public void testPrefixInSubdirectory() throws Exception {
+        List<String> expected = paths("sub/out_1.txt", "sub/out_dir/a.txt");
+        assertEquals(expected, collect("sub/out", 1));
+        assertEquals(expected, collect("sub/out", 4));
+    }
+
+    @Test
+    public void testMissingDirectoryYieldsNoFiles() throws Exception {
+        assertTrue(collect("missing/out", 1).isEmpty());
+        assertTrue(collect("missing/out", 4).isEmpty());
+    }
+
+    @Test
+    public void testLinkCyclesAreSkipped() throws Exception {
+        File index = new File(m_root, "out.mzML.idx");
+        try {
+            Files.createSymbolicLink(new File(index, "loop").toPath(),
+                    index.toPath());
+            Files.createSymbolicLink(new File(index, "up").toPath(),
+                    m_root.toPath());
+        } catch (UnsupportedOperationException e) {
+            // no symbolic links on this platform
+            return;
+        }
+        List<String> sequential = collect("out.mzML.idx", 1);
+        List<String> parallel = collect("out.mzML.idx", 4);
+        assertTrue(sequential.containsAll(paths("out.mzML.idx/shard_1",
+                "out.mzML.idx/sub/deeper/shard_3")));
+        assertTrue(parallel.containsAll(paths("out.mzML.idx/shard_1",
+                "out.mzML.idx/sub/deeper/shard_3")));
+        // the cycles terminate, files behind the links may be reported once
+        assertTrue(sequential.size() < 50);
+        assertTrue(parallel.size() < 50);
+        for (String path : parallel) {
+            assertTrue(path, path.startsWith("out.mzML.idx"));
+        }
+    }
+
+    @Test
+    public void testManyShardsAreCollected() throws Exception {
+        File index = new File(m_root, "many.idx");
+        List<String> expected = new ArrayList<String>();
+        for (int d = 0; d < 10; ++d) {
+            for (int i = 0; i < 100; ++i) {
+                String path = String.format("many.idx/%d/shard_%03d", d, i);
+                new File(m_root, path).getParentFile().mkdirs();
+                new File(m_root, path).createNewFile();
+                expected.add(path.replace('/', File.separatorChar));
+            }
+        }
+        assertTrue(index.isDirectory());
+        assertEquals(expected, collect("many", 1));
+        assertEquals(expected, collect("many", 8));
+        assertEquals(Arrays.asList("many.idx" + File.separator + "0"
+                + File.separator + "shard_000"), collect("many", 8).subList(0,
+                1));
+    }
+}
@@ -22,6 +22,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
@@ -160,6 +162,25 @@ public class AsynchronousToolExecutorTest {
                 dummyTask.isCompleted());
     }
 
+    @Test
+    public void testCompletionListener() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        Runnable listener = new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+        asyncExecutor.addCompletionListener(listener);
+        asyncExecutor.invoke();
+        asyncExecutor.waitUntilFinished();
+        busyWait();
+        // listeners added after completion are invoked immediately
+        asyncExecutor.addCompletionListener(listener);
+        assertTrue("The completion listeners were not invoked",
+                latch.await(5, TimeUnit.SECONDS));
+    }
+
     private void busyWait() {
         while (!asyncExecutor.isDone()) {
             try {
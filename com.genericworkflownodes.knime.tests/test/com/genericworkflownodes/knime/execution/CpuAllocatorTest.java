@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link CpuAllocator}.
+ * 
+ * @author aiche
+ */
+public class CpuAllocatorTest {
+
+    private static Set<String> cpus(CpuAllocator.CpuSet set) {
+        Set<String> cpus = new HashSet<String>();
+        for (String cpu : set.toString().split(",")) {
+            cpus.add(cpu);
+        }
+        return cpus;
+    }
+
+    @Test
+    public void testDisabledAllocatorAssignsNothing() {
+        CpuAllocator allocator = new CpuAllocator(8);
+        assertFalse(allocator.isEnabled());
+        assertNull(allocator.acquire());
+    }
+
+    @Test
+    public void testCoresPerToolIsDerivedFromSchedulerLimit() {
+        CpuAllocator allocator = new CpuAllocator(8);
+        allocator.configure(true, CpuAllocator.AUTOMATIC, 3);
+        assertEquals(2, allocator.getCoresPerTool());
+        allocator.configure(true, CpuAllocator.AUTOMATIC, 16);
+        assertEquals(1, allocator.getCoresPerTool());
+        allocator.configure(true, CpuAllocator.AUTOMATIC,
+                ToolExecutionScheduler.UNLIMITED);
+        assertEquals(8, allocator.getCoresPerTool());
+        allocator.configure(true, 32, 2);
+        assertEquals(8, allocator.getCoresPerTool());
+    }
+
+    @Test
+    public void testConcurrentToolsGetDisjointCores() {
+        CpuAllocator allocator = new CpuAllocator(8);
+        allocator.configure(true, CpuAllocator.AUTOMATIC, 4);
+
+        Set<String> used = new HashSet<String>();
+        for (int i = 0; i < 4; ++i) {
+            CpuAllocator.CpuSet set = allocator.acquire();
+            assertEquals(2, set.size());
+            for (String cpu : cpus(set)) {
+                assertTrue("core " + cpu + " assigned twice", used.add(cpu));
+            }
+        }
+        assertEquals(8, used.size());
+    }
+
+    @Test
+    public void testReleasedCoresAreReused() {
+        CpuAllocator allocator = new CpuAllocator(4);
+        allocator.configure(true, 2, 2);
+
+        CpuAllocator.CpuSet first = allocator.acquire();
+        CpuAllocator.CpuSet second = allocator.acquire();
+        assertEquals("0,1", first.toString());
+        assertEquals("2,3", second.toString());
+
+        allocator.release(first);
+        assertEquals("0,1", allocator.acquire().toString());
+    }
+}
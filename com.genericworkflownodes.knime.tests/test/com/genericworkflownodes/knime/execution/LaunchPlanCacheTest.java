@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.execution.impl.CLICommandGenerator;
+import com.genericworkflownodes.knime.execution.impl.LocalToolExecutor;
+
+/**
+ * Tests for the {@link LaunchPlan} and the {@link LaunchPlanCache}.
+ * 
+ * @author aiche
+ */
+public class LaunchPlanCacheTest {
+
+    private static Map.Entry<String, String> anyEnvironmentVariable() {
+        for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
+            if (!variable.getValue().contains("${")) {
+                return variable;
+            }
+        }
+        throw new IllegalStateException("No environment variable set.");
+    }
+
+    @Test
+    public void testExpandEnvironmentVariables() {
+        Map.Entry<String, String> variable = anyEnvironmentVariable();
+        String reference = "${" + variable.getKey() + "}";
+
+        assertEquals("plain",
+                LaunchPlanCache.expandEnvironmentVariables("plain"));
+        assertEquals(variable.getValue() + "/lib:" + variable.getValue(),
+                LaunchPlanCache.expandEnvironmentVariables(reference
+                        + "/lib:" + reference));
+        assertEquals("a::b", LaunchPlanCache
+                .expandEnvironmentVariables("a:${GKN_SURELY_UNDEFINED_VAR}:b"));
+    }
+
+    @Test
+    public void testPlanCreatesFreshExecutors() throws Exception {
+        LaunchPlan plan = new LaunchPlan(new File("/bin/true"),
+                Collections.singletonMap("GKN_TEST", "value"),
+                LocalToolExecutor.class, CLICommandGenerator.class, 0);
+
+        IToolExecutor first = plan.createToolExecutor();
+        IToolExecutor second = plan.createToolExecutor();
+        assertTrue(first instanceof LocalToolExecutor);
+        assertFalse(first == second);
+        assertEquals("value", plan.getEnvironment().get("GKN_TEST"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPlanIsImmutable() {
+        LaunchPlan plan = new LaunchPlan(new File("/bin/true"),
+                Collections.<String, String> emptyMap(),
+                LocalToolExecutor.class, CLICommandGenerator.class, 0);
+        plan.getEnvironment().put("GKN_TEST", "value");
+    }
+}
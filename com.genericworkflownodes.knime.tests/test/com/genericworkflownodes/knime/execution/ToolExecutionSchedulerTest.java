@@ -0,0 +1,416 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ToolExecutionScheduler}.
+ * 
+ * @author aiche
+ */
+public class ToolExecutionSchedulerTest {
+
+    private static final Map<String, Integer> NO_LIMITS = Collections
+            .emptyMap();
+
+    /**
+     * Creates a task that records its start and blocks until the given latch
+     * is released.
+     */
+    private static FutureTask<Integer> createTask(final int id,
+            final List<Integer> started, final CountDownLatch release) {
+        return new FutureTask<Integer>(new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                synchronized (started) {
+                    started.add(id);
+                }
+                release.await();
+                return id;
+            }
+        });
+    }
+
+    private static void awaitStarted(List<Integer> started, int count)
+            throws InterruptedException {
+        for (int i = 0; i < 1000; ++i) {
+            synchronized (started) {
+                if (started.size() >= count) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testGlobalLimit() throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler();
+        scheduler.configure(2, NO_LIMITS, NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        List<FutureTask<Integer>> tasks = new ArrayList<FutureTask<Integer>>();
+        for (int i = 0; i < 5; ++i) {
+            FutureTask<Integer> task = createTask(i, started, release);
+            tasks.add(task);
+            scheduler.submit(task, "tool", "plugin");
+        }
+
+        assertEquals(2, scheduler.getRunningCount());
+        assertEquals(3, scheduler.getQueuedCount());
+
+        // the running tasks have to record their start before they finish
+        awaitStarted(started, 2);
+        release.countDown();
+        for (FutureTask<Integer> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(5, started.size());
+        assertTrue(started.subList(0, 2).contains(0));
+        assertTrue(started.subList(0, 2).contains(1));
+    }
+
+    @Test
+    public void testQueuedTasksAreStartedInOrder() throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler();
+        scheduler.configure(1, NO_LIMITS, NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        List<FutureTask<Integer>> tasks = new ArrayList<FutureTask<Integer>>();
+        for (int i = 0; i < 4; ++i) {
+            FutureTask<Integer> task = createTask(i, started, release);
+            tasks.add(task);
+            scheduler.submit(task, "tool", "plugin");
+        }
+
+        release.countDown();
+        for (FutureTask<Integer> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(4, started.size());
+        for (int i = 0; i < 4; ++i) {
+            assertEquals(Integer.valueOf(i), started.get(i));
+        }
+    }
+
+    @Test
+    public void testExecutableLimit() throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler();
+        Map<String, Integer> executableLimits = new HashMap<String, Integer>();
+        executableLimits.put("heavy", 1);
+        scheduler.configure(ToolExecutionScheduler.UNLIMITED,
+                executableLimits, NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        FutureTask<Integer> heavy1 = createTask(1, started, release);
+        FutureTask<Integer> heavy2 = createTask(2, started, release);
+        FutureTask<Integer> light = createTask(3, started, release);
+        scheduler.submit(heavy1, "heavy", "plugin");
+        scheduler.submit(heavy2, "heavy", "plugin");
+        scheduler.submit(light, "light", "plugin");
+
+        // the light tool must not be blocked by the queued heavy tool
+        assertEquals(2, scheduler.getRunningCount());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        release.countDown();
+        assertEquals(Integer.valueOf(2), heavy2.get(10, TimeUnit.SECONDS));
+        light.get(10, TimeUnit.SECONDS);
+        heavy1.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testCanceledTasksAreDropped() throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler();
+        scheduler.configure(1, NO_LIMITS, NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        FutureTask<Integer> running = createTask(1, started, release);
+        FutureTask<Integer> queued = createTask(2, started, release);
+        scheduler.submit(running, null, null);
+        scheduler.submit(queued, null, null);
+        assertEquals(1, scheduler.getQueuedCount());
+
+        queued.cancel(false);
+        release.countDown();
+        running.get(10, TimeUnit.SECONDS);
+
+        // wait until the scheduler released the slot of the finished task
+        long deadline = System.currentTimeMillis() + 10000;
+        while (scheduler.getRunningCount() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.getRunningCount());
+        assertEquals(0, scheduler.getQueuedCount());
+        assertEquals(1, started.size());
+    }
+
+    @Test
+    public void testCanceledTasksAreDroppedWhileAllSlotsAreBusy()
+            throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler();
+        scheduler.configure(1, NO_LIMITS, NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        FutureTask<Integer> running = createTask(1, started, release);
+        FutureTask<Integer> canceled = createTask(2, started, release);
+        FutureTask<Integer> queued = createTask(3, started, release);
+        scheduler.submit(running, null, null);
+        scheduler.submit(canceled, null, null);
+        canceled.cancel(false);
+
+        // the slot is still taken when the next task is submitted
+        scheduler.submit(queued, null, null);
+        assertEquals(1, scheduler.getRunningCount());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        release.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+        assertFalse(started.contains(2));
+    }
+
+    /**
+     * Machine with adjustable resources and a disk of 100 bytes.
+     */
+    private static class FakeResources extends SystemResources {
+        private final long m_totalMemory;
+        private volatile long m_memory;
+
+        FakeResources(long memory) {
+            m_totalMemory = memory;
+            m_memory = memory;
+        }
+
+        @Override
+        long getTotalMemory() {
+            return m_totalMemory;
+        }
+
+        @Override
+        long getAvailableMemory() {
+            return m_memory;
+        }
+
+        @Override
+        long getTotalSpace(File directory) {
+            return 100;
+        }
+
+        @Override
+        long getUsableSpace(File directory) {
+            return 100;
+        }
+    }
+
+    @Test
+    public void testToolsAreHeldBackUntilMemoryIsAvailable() throws Exception {
+        FakeResources resources = new FakeResources(20);
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler(
+                resources);
+        scheduler.configure(ToolExecutionScheduler.UNLIMITED, NO_LIMITS,
+                NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        FutureTask<Integer> first = createTask(1, started, release);
+        FutureTask<Integer> big = createTask(2, started, release);
+        FutureTask<Integer> small = createTask(3, started, release);
+        // other processes use 10 bytes
+        resources.m_memory = 10;
+        scheduler.submit(first, "tool", "plugin", new ResourceDemand(8, 0,
+                null));
+        // the first tool allocates its memory
+        resources.m_memory = 2;
+        scheduler.submit(big, "tool", "plugin", new ResourceDemand(8, 0, null));
+        scheduler.submit(small, "tool", "plugin", new ResourceDemand(2, 0,
+                null));
+
+        // 8 of 10 bytes are used by the first tool, the small tool must not
+        // take what the big one waits for
+        assertEquals(1, scheduler.getRunningCount());
+        assertEquals(2, scheduler.getQueuedCount());
+        assertEquals(2, scheduler.getStatistics().getWaitingForResources());
+
+        // memory freed by other processes is picked up by the recheck
+        resources.m_memory = 12;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (scheduler.getQueuedCount() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, scheduler.getQueuedCount());
+
+        release.countDown();
+        big.get(10, TimeUnit.SECONDS);
+        SchedulerStatistics statistics = scheduler.getStatistics();
+        assertEquals(3, statistics.getSubmitted());
+        assertEquals(3, statistics.getStarted());
+        assertEquals(2, statistics.getDeferred());
+        assertTrue(statistics.getMaxWaitMillis() > 0);
+    }
+
+    @Test
+    public void testConsumedMemoryIsNotCountedTwice() throws Exception {
+        FakeResources resources = new FakeResources(100);
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler(
+                resources);
+        scheduler.configure(ToolExecutionScheduler.UNLIMITED, NO_LIMITS,
+                NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        FutureTask<Integer> first = createTask(1, started, release);
+        FutureTask<Integer> second = createTask(2, started, release);
+        FutureTask<Integer> third = createTask(3, started, release);
+        scheduler.submit(first, null, null, new ResourceDemand(30, 0, null));
+        // the first tool already uses its complete demand
+        resources.m_memory = 70;
+        scheduler.submit(second, null, null, new ResourceDemand(60, 0, null));
+        assertEquals(2, scheduler.getRunningCount());
+
+        // the unused part of the demands is still reserved: 100 - 90 bytes
+        resources.m_memory = 60;
+        scheduler.submit(third, null, null, new ResourceDemand(20, 0, null));
+        assertEquals(2, scheduler.getRunningCount());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        release.countDown();
+        third.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testHeldBackToolIsNotOvertakenForever() throws Exception {
+        FakeResources resources = new FakeResources(10);
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler(
+                resources);
+        scheduler.configure(ToolExecutionScheduler.UNLIMITED, NO_LIMITS,
+                NO_LIMITS);
+        scheduler.setMaxOvertakeMillis(200);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        FutureTask<Integer> first = createTask(1, started, releaseFirst);
+        FutureTask<Integer> big = createTask(2, started, release);
+        scheduler.submit(first, null, null, new ResourceDemand(8, 0, null));
+        scheduler.submit(big, null, null, new ResourceDemand(8, 0, null));
+
+        // tools without a declared demand overtake the held back tool ...
+        FutureTask<Integer> early = createTask(3, started, release);
+        scheduler.submit(early, null, null, ResourceDemand.NONE);
+        assertEquals(2, scheduler.getRunningCount());
+
+        // ... but only for a limited time
+        Thread.sleep(300);
+        FutureTask<Integer> late = createTask(4, started, release);
+        scheduler.submit(late, null, null, ResourceDemand.NONE);
+        assertEquals(2, scheduler.getRunningCount());
+        assertEquals(2, scheduler.getQueuedCount());
+
+        // the big tool is started before the late one
+        releaseFirst.countDown();
+        first.get(10, TimeUnit.SECONDS);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (scheduler.getQueuedCount() > 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        big.get(10, TimeUnit.SECONDS);
+        late.get(10, TimeUnit.SECONDS);
+        synchronized (started) {
+            assertTrue(started.indexOf(2) < started.indexOf(4));
+        }
+    }
+
+    @Test
+    public void testScratchSpaceIsReserved() throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler(
+                new FakeResources(SystemResources.UNKNOWN));
+        scheduler.configure(ToolExecutionScheduler.UNLIMITED, NO_LIMITS,
+                NO_LIMITS);
+
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        File dir = new File(".");
+        FutureTask<Integer> first = createTask(1, started, release);
+        FutureTask<Integer> second = createTask(2, started, release);
+        scheduler.submit(first, null, null, new ResourceDemand(0, 60, dir));
+        scheduler.submit(second, null, null, new ResourceDemand(0, 60, dir));
+        assertEquals(1, scheduler.getRunningCount());
+        assertEquals(1, scheduler.getQueuedCount());
+
+        // the space is released with the first tool
+        release.countDown();
+        second.get(10, TimeUnit.SECONDS);
+        assertEquals(2, scheduler.getStatistics().getStarted());
+    }
+
+    @Test
+    public void testOversizedToolRunsAlone() throws Exception {
+        ToolExecutionScheduler scheduler = new ToolExecutionScheduler(
+                new FakeResources(10));
+        List<Integer> started = new ArrayList<Integer>();
+        CountDownLatch release = new CountDownLatch(1);
+        FutureTask<Integer> task = createTask(1, started, release);
+        scheduler.submit(task, null, null, new ResourceDemand(1000, 0, null));
+        assertEquals(1, scheduler.getRunningCount());
+        release.countDown();
+        task.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testParseLimits() {
+        Map<String, Integer> limits = ToolExecutionScheduler
+                .parseLimits(" FeatureFinder=2, de.openms = 4 ,");
+        assertEquals(2, limits.size());
+        assertEquals(Integer.valueOf(2), limits.get("FeatureFinder"));
+        assertEquals(Integer.valueOf(4), limits.get("de.openms"));
+        assertTrue(ToolExecutionScheduler.parseLimits("").isEmpty());
+        assertTrue(ToolExecutionScheduler.parseLimits(null).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseLimitsRejectsMalformedInput() {
+        ToolExecutionScheduler.parseLimits("FeatureFinder=two");
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the {@link ToolExecutionCache}, the {@link CacheKeyBuilder} and the
+ * {@link FileDigester}.
+ * 
+ * @author aiche
+ */
+public class ToolExecutionCacheTest {
+
+    private File m_workDir;
+    private File m_cacheDir;
+    private ToolExecutionCache m_cache;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workDir = Helper.getTempDir("cache_test", true);
+        m_cacheDir = new File(m_workDir, "cache");
+        m_cache = new ToolExecutionCache();
+        m_cache.configure(true, m_cacheDir, 1024);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(m_workDir);
+    }
+
+    private File createFile(String name, int size) throws Exception {
+        File file = new File(m_workDir, name);
+        char[] content = new char[size];
+        Arrays.fill(content, name.charAt(0));
+        FileUtils.writeStringToFile(file, new String(content));
+        return file;
+    }
+
+    private static List<List<File>> ports(File... files) {
+        List<List<File>> ports = new ArrayList<List<File>>();
+        ports.add(Arrays.asList(files));
+        return ports;
+    }
+
+    @Test
+    public void testStoreAndRestore() throws Exception {
+        File output = createFile("a.txt", 100);
+        m_cache.store("key", ports(output));
+
+        File restored = new File(m_workDir, "restored/a.txt");
+        assertTrue(m_cache.restore("key", ports(restored)));
+        assertEquals(FileUtils.readFileToString(output),
+                FileUtils.readFileToString(restored));
+
+        assertFalse(m_cache.restore("other", ports(restored)));
+
+        CacheStatistics stats = m_cache.getStatistics();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getStores());
+        assertEquals(1, stats.getEntries());
+        assertEquals(100, stats.getSizeBytes());
+    }
+
+    @Test
+    public void testEntryIsNotChangedByWritesToTheOutputs() throws Exception {
+        File output = createFile("a.txt", 100);
+        String content = FileUtils.readFileToString(output);
+        m_cache.store("key", ports(output));
+        // overwrites the file in place
+        FileUtils.writeStringToFile(output, "changed");
+
+        File restored = new File(m_workDir, "restored/a.txt");
+        assertTrue(m_cache.restore("key", ports(restored)));
+        assertEquals(content, FileUtils.readFileToString(restored));
+    }
+
+    @Test
+    public void testEntryModifiedThroughRestoredLinkIsDiscarded()
+            throws Exception {
+        m_cache.store("key", ports(createFile("a.txt", 100)));
+        File restored = new File(m_workDir, "restored/a.txt");
+        assertTrue(m_cache.restore("key", ports(restored)));
+        // the restored file is a hard link to the entry file
+        FileUtils.writeStringToFile(restored, "changed");
+
+        assertFalse(m_cache.restore("key",
+                ports(new File(m_workDir, "again.txt"))));
+        assertEquals(0, m_cache.getStatistics().getEntries());
+        assertFalse(new File(m_cacheDir, "key").exists());
+        assertEquals("changed", FileUtils.readFileToString(restored));
+    }
+
+    @Test
+    public void testMismatchingLayoutIsAMiss() throws Exception {
+        m_cache.store("key", ports(createFile("a.txt", 10)));
+        assertFalse(m_cache.restore("key", ports(new File(m_workDir, "x"),
+                new File(m_workDir, "y"))));
+        assertEquals(0, m_cache.getStatistics().getEntries());
+        assertFalse(new File(m_cacheDir, "key").exists());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        m_cache.store("k1", ports(createFile("a.txt", 400)));
+        m_cache.store("k2", ports(createFile("b.txt", 400)));
+        // k1 is now the most recently used entry
+        assertTrue(m_cache.restore("k1", ports(new File(m_workDir, "r1"))));
+        m_cache.store("k3", ports(createFile("c.txt", 400)));
+
+        CacheStatistics stats = m_cache.getStatistics();
+        assertEquals(1, stats.getEvictions());
+        assertEquals(2, stats.getEntries());
+        assertEquals(800, stats.getSizeBytes());
+        assertTrue(new File(m_cacheDir, "k1").exists());
+        assertFalse(new File(m_cacheDir, "k2").exists());
+        assertTrue(new File(m_cacheDir, "k3").exists());
+    }
+
+    @Test
+    public void testOversizedAndIncompleteOutputsAreNotStored()
+            throws Exception {
+        m_cache.store("big", ports(createFile("a.txt", 2000)));
+        m_cache.store("missing", ports(new File(m_workDir, "missing.txt")));
+        assertEquals(0, m_cache.getStatistics().getStores());
+    }
+
+    @Test
+    public void testIndexIsRestoredFromDirectory() throws Exception {
+        m_cache.store("k1", ports(createFile("a.txt", 300)));
+        m_cache.store("k2", ports(createFile("b.txt", 300)));
+
+        ToolExecutionCache reopened = new ToolExecutionCache();
+        reopened.configure(true, m_cacheDir, 1024);
+        assertTrue(reopened.restore("k2", ports(new File(m_workDir, "r2"))));
+        assertEquals(2, reopened.getStatistics().getEntries());
+        assertEquals(600, reopened.getStatistics().getSizeBytes());
+    }
+
+    @Test
+    public void testDisabledCacheIsNotUsed() throws Exception {
+        m_cache.configure(false, m_cacheDir, 1024);
+        m_cache.store("key", ports(createFile("a.txt", 10)));
+        assertFalse(m_cache.restore("key", ports(new File(m_workDir, "r"))));
+        assertEquals(0, m_cache.getStatistics().getMisses());
+        assertEquals(0, m_cache.getStatistics().getStores());
+    }
+
+    @Test
+    public void testKeyBuilder() throws Exception {
+        FileDigester digester = new FileDigester();
+        File input = createFile("in.txt", 50);
+
+        String k1 = new CacheKeyBuilder(digester).add("a", "bc")
+                .addFileContent("in", input).build();
+        String k2 = new CacheKeyBuilder(digester).add("a", "bc")
+                .addFileContent("in", input).build();
+        String k3 = new CacheKeyBuilder(digester).add("ab", "c")
+                .addFileContent("in", input).build();
+        assertEquals(k1, k2);
+        assertFalse(k1.equals(k3));
+        // the content was digested only once
+        assertEquals(1, digester.getComputedDigests());
+
+        FileUtils.writeStringToFile(input, "changed content");
+        String k4 = new CacheKeyBuilder(digester).add("a", "bc")
+                .addFileContent("in", input).build();
+        assertFalse(k1.equals(k4));
+        assertEquals(2, digester.getComputedDigests());
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.execution.batch.LocalSpoolScheduler;
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the {@link BatchToolExecutor} using the
+ * {@link LocalSpoolScheduler}.
+ * 
+ * @author aiche
+ */
+public class BatchToolExecutorTest {
+
+    private File m_workDir;
+    private File m_spoolDir;
+    private LocalSpoolScheduler m_scheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workDir = Helper.getTempDir("batch_test", true);
+        m_spoolDir = new File(m_workDir, "spool");
+        m_scheduler = new LocalSpoolScheduler(m_spoolDir, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        m_scheduler.shutdown();
+        FileUtils.deleteDirectory(m_workDir);
+    }
+
+    private BatchToolExecutor createExecutor(String name, List<String> command,
+            Map<String, String> environment) throws Exception {
+        File jobDir = new File(m_workDir, name);
+        jobDir.mkdirs();
+        BatchToolExecutor executor = new BatchToolExecutor(m_scheduler);
+        executor.setWorkingDirectory(jobDir);
+        executor.setCommand(command, environment);
+        return executor;
+    }
+
+    @Test
+    public void testOutputAndExitCodeAreCollected() throws Exception {
+        Map<String, String> environment = new HashMap<String, String>();
+        environment.put("GKN_TEST_VALUE", "it's quoted");
+        BatchToolExecutor executor = createExecutor("job", Arrays.asList(
+                "/bin/sh", "-c",
+                "echo \"$GKN_TEST_VALUE\"; echo error >&2; exit 3"),
+                environment);
+
+        assertEquals(3, executor.execute());
+        assertEquals(3, executor.getReturnCode());
+        assertEquals(Arrays.asList("it's quoted"), executor.getToolOutput());
+        assertEquals(Arrays.asList("error"), executor.getToolErrorOutput());
+        assertEquals(0, new File(m_spoolDir, "queue").list().length);
+        assertEquals(0, new File(m_spoolDir, "running").list().length);
+    }
+
+    @Test
+    public void testKillCancelsRunningJob() throws Exception {
+        final BatchToolExecutor executor = createExecutor("killed",
+                Arrays.asList("/bin/sh", "-c", "sleep 30"),
+                Collections.<String, String> emptyMap());
+        Thread killer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                executor.kill();
+            }
+        };
+        killer.start();
+
+        long start = System.currentTimeMillis();
+        assertEquals(-1, executor.execute());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        killer.join();
+    }
+
+    @Test
+    public void testQueuedJobCanBeCanceled() throws Exception {
+        // occupy both workers
+        File blocker = new File(m_workDir, "blocker.sh");
+        FileUtils.writeStringToFile(blocker, "sleep 2\n");
+        m_scheduler.submit(blocker, m_workDir);
+        m_scheduler.submit(blocker, m_workDir);
+
+        File marker = new File(m_workDir, "marker");
+        File script = new File(m_workDir, "queued.sh");
+        FileUtils.writeStringToFile(script,
+                "touch " + marker.getAbsolutePath() + "\n");
+        String jobId = m_scheduler.submit(script, m_workDir);
+        assertTrue(m_scheduler.isActive(jobId));
+        m_scheduler.cancel(jobId);
+        assertFalse(m_scheduler.isActive(jobId));
+
+        Thread.sleep(3000);
+        assertFalse(marker.exists());
+    }
+
+    @Test
+    public void testJobScriptQuoting() throws Exception {
+        assertEquals("'plain'", BatchToolExecutor.quote("plain"));
+        assertEquals("'a'\\''b'", BatchToolExecutor.quote("a'b"));
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.genericworkflownodes.knime.cliwrapper.CLI;
+import com.genericworkflownodes.knime.cliwrapper.CLIElement;
+import com.genericworkflownodes.knime.cliwrapper.CLIMapping;
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.parameter.BoolParameter;
+import com.genericworkflownodes.knime.parameter.IntegerParameter;
+import com.genericworkflownodes.knime.parameter.ListParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+import com.genericworkflownodes.knime.parameter.StringListParameter;
+import com.genericworkflownodes.knime.parameter.StringParameter;
+
+/**
+ * Simple benchmark for the {@link CLITemplate}. Renders the command line of a
+ * synthetic tool with the given number of parameters (default: 400) in a loop
+ * that changes a single parameter per iteration, as done by a loop over a
+ * parameter in a workflow. The template is compared to the per-element
+ * interpretation of the CLI used before the templates were introduced.
+ * 
+ * Usage: CLITemplateBenchmark [parameters] [iterations]
+ * 
+ * @author aiche
+ */
+public class CLITemplateBenchmark {
+
+    private static NodeConfiguration createConfiguration(int nParameters) {
+        NodeConfiguration config = new NodeConfiguration();
+        CLI cli = new CLI();
+        cli.getCLIElement().add(CLITemplateTest.element("-fixed option"));
+        for (int i = 0; i < nParameters; ++i) {
+            String key = "tool.section" + (i % 10) + ".param" + i;
+            switch (i % 4) {
+            case 0:
+                config.addParameter(key, new IntegerParameter(key, i));
+                break;
+            case 1:
+                config.addParameter(key, new StringParameter(key, "value" + i));
+                break;
+            case 2:
+                config.addParameter(key, new BoolParameter(key, i % 8 == 2));
+                break;
+            default:
+                config.addParameter(key, new StringListParameter(key,
+                        Arrays.asList("a" + i, "b" + i)));
+            }
+            cli.getCLIElement().add(CLITemplateTest.element("-param" + i, key));
+        }
+        config.setCLI(cli);
+        return config;
+    }
+
+    /**
+     * The interpretation of the CLI as done before the templates, without the
+     * logging.
+     */
+    private static List<String> renderLegacy(INodeConfiguration config) {
+        List<String> commands = new ArrayList<String>();
+        for (CLIElement cliElement : config.getCLI().getCLIElement()) {
+            if (!"".equals(cliElement.getOptionIdentifier())
+                    && cliElement.getMapping().size() == 0) {
+                for (String s : cliElement.getOptionIdentifier().split(" ")) {
+                    commands.add(s);
+                }
+            } else if (cliElement.getMapping().size() == 1
+                    && config.getParameter(cliElement.getMapping().get(0)
+                            .getReferenceName()) instanceof BoolParameter) {
+                if (((BoolParameter) config.getParameter(cliElement
+                        .getMapping().get(0).getReferenceName())).getValue()) {
+                    commands.add(cliElement.getOptionIdentifier());
+                }
+            } else {
+                List<List<String>> values = new ArrayList<List<String>>();
+                for (CLIMapping cliMapping : cliElement.getMapping()) {
+                    if (config.getParameterKeys().contains(
+                            cliMapping.getReferenceName())) {
+                        Parameter<?> p = config.getParameter(cliMapping
+                                .getReferenceName());
+                        if (!p.isNull()) {
+                            if (p instanceof ListParameter) {
+                                values.add(((ListParameter) p).getStrings());
+                            } else {
+                                List<String> l = new ArrayList<String>();
+                                l.add(p.getStringRep());
+                                values.add(l);
+                            }
+                        }
+                    }
+                }
+                if (values.size() != 0) {
+                    for (int i = 0; i < values.get(0).size(); ++i) {
+                        commands.add(cliElement.getOptionIdentifier());
+                        for (List<String> inner : values) {
+                            commands.add(inner.get(i));
+                        }
+                    }
+                }
+            }
+        }
+        return commands;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nParameters = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+
+        NodeConfiguration config = createConfiguration(nParameters);
+        IntegerParameter loopParameter = (IntegerParameter) config
+                .getParameter("tool.section0.param0");
+        CLITemplate template = CLICommandGenerator.getTemplate(config
+                .getCLI());
+        if (!renderLegacy(config).equals(template.render(config))) {
+            throw new IllegalStateException("Command lines differ.");
+        }
+
+        // warm up
+        for (int i = 0; i < iterations / 10; ++i) {
+            renderLegacy(config);
+            template.render(config);
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            loopParameter.setValue(i);
+            checksum += renderLegacy(config).size();
+        }
+        long legacy = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            loopParameter.setValue(i);
+            checksum += template.render(config).size();
+        }
+        long templated = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            loopParameter.setValue(i);
+            checksum += CLITemplate.compile(config.getCLI()).render(config)
+                    .size();
+        }
+        long compiled = System.nanoTime() - start;
+
+        System.out.println(String.format(
+                "%d parameters, %d iterations (checksum %d)", nParameters,
+                iterations, checksum));
+        System.out.println(String.format("Legacy interpretation: %8.1f us/run",
+                legacy / 1000.0 / iterations));
+        System.out.println(String.format("Cached template:       %8.1f us/run",
+                templated / 1000.0 / iterations));
+        System.out.println(String.format("Template per run:      %8.1f us/run",
+                compiled / 1000.0 / iterations));
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.cliwrapper.CLI;
+import com.genericworkflownodes.knime.cliwrapper.CLIElement;
+import com.genericworkflownodes.knime.cliwrapper.CLIMapping;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.parameter.BoolParameter;
+import com.genericworkflownodes.knime.parameter.IntegerParameter;
+import com.genericworkflownodes.knime.parameter.StringListParameter;
+import com.genericworkflownodes.knime.parameter.StringParameter;
+
+/**
+ * Tests for the {@link CLITemplate}.
+ * 
+ * @author aiche
+ */
+public class CLITemplateTest {
+
+    private NodeConfiguration m_config;
+    private CLI m_cli;
+
+    static CLIElement element(String optionIdentifier, String... references) {
+        CLIElement element = new CLIElement();
+        element.setOptionIdentifier(optionIdentifier);
+        for (String reference : references) {
+            CLIMapping mapping = new CLIMapping();
+            mapping.setReferenceName(reference);
+            element.getMapping().add(mapping);
+        }
+        return element;
+    }
+
+    @Before
+    public void setUp() {
+        m_cli = new CLI();
+        m_config = new NodeConfiguration();
+        m_config.setCLI(m_cli);
+    }
+
+    @Test
+    public void testFixedArgumentsAreSplit() throws Exception {
+        m_cli.getCLIElement().add(element("-mode fast"));
+        m_cli.getCLIElement().add(element(""));
+        assertEquals(Arrays.asList("-mode", "fast"),
+                CLITemplate.compile(m_cli).render(m_config));
+    }
+
+    @Test
+    public void testBooleanSwitch() throws Exception {
+        m_config.addParameter("verbose", new BoolParameter("verbose", true));
+        m_config.addParameter("quiet", new BoolParameter("quiet", false));
+        m_cli.getCLIElement().add(element("-verbose", "verbose"));
+        m_cli.getCLIElement().add(element("-quiet", "quiet"));
+        assertEquals(Arrays.asList("-verbose"), CLITemplate.compile(m_cli)
+                .render(m_config));
+    }
+
+    @Test
+    public void testUnsetAndUnknownParametersAreOmitted() throws Exception {
+        m_config.addParameter("threads", new IntegerParameter("threads", 4));
+        m_config.addParameter("optional", new StringParameter("optional",
+                (String) null));
+        m_cli.getCLIElement().add(element("-threads", "threads"));
+        m_cli.getCLIElement().add(element("-optional", "optional"));
+        m_cli.getCLIElement().add(element("-unknown", "unknown"));
+        assertEquals(Arrays.asList("-threads", "4"), CLITemplate
+                .compile(m_cli).render(m_config));
+    }
+
+    @Test
+    public void testListsAreExpandedPairwise() throws Exception {
+        m_config.addParameter("in", new StringListParameter("in",
+                Arrays.asList("a", "b")));
+        m_config.addParameter("out", new StringListParameter("out",
+                Arrays.asList("x", "y")));
+        m_cli.getCLIElement().add(element("-pair", "in", "out"));
+        assertEquals(Arrays.asList("-pair", "a", "x", "-pair", "b", "y"),
+                CLITemplate.compile(m_cli).render(m_config));
+    }
+
+    @Test(expected = Exception.class)
+    public void testListsOfDifferentSizeAreRejected() throws Exception {
+        m_config.addParameter("in", new StringListParameter("in",
+                Arrays.asList("a", "b")));
+        m_config.addParameter("out", new StringListParameter("out",
+                Collections.singletonList("x")));
+        m_cli.getCLIElement().add(element("-pair", "in", "out"));
+        CLITemplate.compile(m_cli).render(m_config);
+    }
+
+    @Test
+    public void testChangedValuesAreRenderedAgain() throws Exception {
+        StringParameter name = new StringParameter("name", "first");
+        m_config.addParameter("name", name);
+        m_config.addParameter("fixed", new StringParameter("fixed", "value"));
+        m_cli.getCLIElement().add(element("-name", "name"));
+        m_cli.getCLIElement().add(element("-fixed", "fixed"));
+        CLITemplate template = CLITemplate.compile(m_cli);
+
+        assertEquals(Arrays.asList("-name", "first", "-fixed", "value"),
+                template.render(m_config));
+        name.setValue("second");
+        assertEquals(Arrays.asList("-name", "second", "-fixed", "value"),
+                template.render(m_config));
+
+        // the template is shared between copies of the configuration
+        NodeConfiguration copy = new NodeConfiguration(m_config);
+        ((StringParameter) copy.getParameter("name")).setValue("third");
+        assertEquals(Arrays.asList("-name", "third", "-fixed", "value"),
+                template.render(copy));
+        assertEquals(Arrays.asList("-name", "second", "-fixed", "value"),
+                template.render(m_config));
+    }
+}
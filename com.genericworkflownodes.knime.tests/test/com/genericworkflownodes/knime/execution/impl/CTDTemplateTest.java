@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.reader.CTDConfigurationReader;
+import com.genericworkflownodes.knime.config.writer.CTDConfigurationWriter;
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.FileParameter;
+import com.genericworkflownodes.knime.parameter.IntegerParameter;
+import com.genericworkflownodes.knime.test.data.TestDataSource;
+
+/**
+ * Tests for the {@link CTDTemplate}.
+ * 
+ * @author aiche
+ */
+public class CTDTemplateTest {
+
+    private INodeConfiguration m_config;
+    private File m_expected;
+    private File m_actual;
+
+    @Before
+    public void setUp() throws Exception {
+        m_config = new CTDConfigurationReader().read(TestDataSource.class
+                .getResourceAsStream("FeatureLinkerUnlabeled.ctd"));
+        m_expected = File.createTempFile("gkn_expected", ".ini");
+        m_actual = File.createTempFile("gkn_actual", ".ini");
+    }
+
+    @After
+    public void tearDown() {
+        m_expected.delete();
+        m_actual.delete();
+    }
+
+    private void assertSameDocument() throws Exception {
+        new CTDConfigurationWriter(m_expected).write(m_config);
+        CTDTemplate.write(m_config, m_actual);
+        assertEquals(FileUtils.readFileToString(m_expected, "UTF-8"),
+                FileUtils.readFileToString(m_actual, "UTF-8"));
+    }
+
+    @Test
+    public void testUnsetFilesAreWrittenLikeTheWriter() throws Exception {
+        assertSameDocument();
+    }
+
+    @Test
+    public void testFileNamesAreSplicedIn() throws Exception {
+        FileListParameter in = (FileListParameter) m_config
+                .getParameter("FeatureLinkerUnlabeled.1.in");
+        FileParameter out = (FileParameter) m_config
+                .getParameter("FeatureLinkerUnlabeled.1.out");
+
+        in.setValue(Arrays.asList("/data/a.featureXML",
+                "/data/b&c.featureXML"));
+        out.setValue("/data/ä<out>.consensusXML");
+        assertSameDocument();
+
+        // next iteration
+        in.setValue(Collections.singletonList("/data/d.featureXML"));
+        out.setValue("/data/e.consensusXML");
+        assertSameDocument();
+
+        in.setValue(Collections.<String> emptyList());
+        assertSameDocument();
+    }
+
+    @Test
+    public void testChangedValuesAreRenderedAgain() throws Exception {
+        assertSameDocument();
+        IntegerParameter threads = (IntegerParameter) m_config
+                .getParameter("FeatureLinkerUnlabeled.1.threads");
+        threads.setValue(threads.getValue() + 1);
+        assertSameDocument();
+    }
+}
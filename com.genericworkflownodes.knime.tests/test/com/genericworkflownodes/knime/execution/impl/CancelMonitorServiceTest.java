@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+import com.genericworkflownodes.knime.execution.AsynchronousToolExecutor;
+import com.genericworkflownodes.knime.execution.IWaitable;
+
+/**
+ * Tests for the {@link CancelMonitorService}.
+ * 
+ * @author aiche
+ */
+public class CancelMonitorServiceTest {
+
+    /**
+     * {@link ExecutionMonitor} that can be canceled from the test.
+     */
+    private static class CancelableExecutionMonitor extends ExecutionMonitor {
+        private volatile boolean m_canceled = false;
+
+        void cancel() {
+            m_canceled = true;
+        }
+
+        @Override
+        public void checkCanceled() throws CanceledExecutionException {
+            if (m_canceled) {
+                throw new CanceledExecutionException();
+            }
+        }
+    }
+
+    @Test
+    public void testCompletedExecutorIsReleased() throws Exception {
+        DummyToolExecutor dummyTask = new DummyToolExecutor();
+        dummyTask.setSleepTime(100);
+        AsynchronousToolExecutor asyncExecutor = new AsynchronousToolExecutor(
+                dummyTask);
+        asyncExecutor.invoke();
+
+        IWaitable monitor = CancelMonitorService.getDefault().monitor(
+                asyncExecutor, new CancelableExecutionMonitor());
+        asyncExecutor.waitUntilFinished();
+        monitor.waitUntilFinished();
+
+        assertTrue("The underlying task did not complete",
+                dummyTask.isCompleted());
+        assertFalse("The underlying task should not have been killed",
+                dummyTask.isKilled());
+    }
+
+    @Test
+    public void testCanceledExecutorsAreKilled() throws Exception {
+        final int nExecutors = 200;
+        DummyToolExecutor[] tasks = new DummyToolExecutor[nExecutors];
+        IWaitable[] monitors = new IWaitable[nExecutors];
+        CancelableExecutionMonitor exec = new CancelableExecutionMonitor();
+
+        for (int i = 0; i < nExecutors; ++i) {
+            tasks[i] = new DummyToolExecutor();
+            tasks[i].setSleepTime(500000);
+            AsynchronousToolExecutor asyncExecutor = new AsynchronousToolExecutor(
+                    tasks[i]);
+            asyncExecutor.invoke();
+            monitors[i] = CancelMonitorService.getDefault().monitor(
+                    asyncExecutor, exec);
+        }
+
+        long start = System.currentTimeMillis();
+        exec.cancel();
+        for (int i = 0; i < nExecutors; ++i) {
+            monitors[i].waitUntilFinished();
+            assertTrue("The underlying task should have been killed",
+                    tasks[i].isKilled());
+        }
+        assertTrue("Killing took too long",
+                System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test
+    public void testFailingCheckDoesNotBlockOtherRegistrations()
+            throws Exception {
+        ExecutionMonitor broken = new ExecutionMonitor() {
+            @Override
+            public void checkCanceled() {
+                throw new IllegalStateException("broken monitor");
+            }
+        };
+        // the broken registrations stay until the end of the test
+        AsynchronousToolExecutor[] brokenExecutors = new AsynchronousToolExecutor[100];
+        IWaitable[] brokenMonitors = new IWaitable[brokenExecutors.length];
+        for (int i = 0; i < brokenExecutors.length; ++i) {
+            DummyToolExecutor task = new DummyToolExecutor();
+            task.setSleepTime(500000);
+            brokenExecutors[i] = new AsynchronousToolExecutor(task);
+            brokenExecutors[i].invoke();
+            brokenMonitors[i] = CancelMonitorService.getDefault().monitor(
+                    brokenExecutors[i], broken);
+        }
+
+        DummyToolExecutor task = new DummyToolExecutor();
+        task.setSleepTime(500000);
+        AsynchronousToolExecutor asyncExecutor = new AsynchronousToolExecutor(
+                task);
+        asyncExecutor.invoke();
+        CancelableExecutionMonitor exec = new CancelableExecutionMonitor();
+        IWaitable monitor = CancelMonitorService.getDefault().monitor(
+                asyncExecutor, exec);
+        exec.cancel();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!task.isKilled() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        boolean killed = task.isKilled();
+        if (!killed) {
+            // do not leave the task behind
+            asyncExecutor.kill();
+        }
+        monitor.waitUntilFinished();
+        assertTrue("The underlying task should have been killed", killed);
+
+        for (int i = 0; i < brokenExecutors.length; ++i) {
+            brokenExecutors[i].kill();
+            brokenMonitors[i].waitUntilFinished();
+        }
+    }
+}
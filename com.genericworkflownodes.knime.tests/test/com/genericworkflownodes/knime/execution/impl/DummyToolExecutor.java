@@ -91,7 +91,6 @@ public class DummyToolExecutor implements IToolExecutor {
     @Override
     public int execute() throws ToolExecutionFailedException {
         completed = false;
-        killed = false;
         if (throwException) {
             throw new ToolExecutionFailedException("I failed");
         }
@@ -102,7 +101,8 @@ public class DummyToolExecutor implements IToolExecutor {
         } catch (InterruptedException e) {
             // ignore
         } finally {
-            completed = true;
+            // a killed execution did not complete
+            completed = !killed;
         }
         return returnCode;
     }
@@ -116,10 +116,10 @@ public class DummyToolExecutor implements IToolExecutor {
 
     @Override
     public void kill() {
+        killed = true;
         synchronized (monitor) {
             monitor.notifyAll();
         }
-        killed = true;
     }
 
     @Override
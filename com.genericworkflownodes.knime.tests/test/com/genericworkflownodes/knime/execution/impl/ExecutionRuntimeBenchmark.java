@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.genericworkflownodes.knime.execution.ExecutionRuntime;
+
+/**
+ * Benchmark for the {@link ExecutionRuntime}. Runs the given numbers of dummy
+ * tools concurrently, each one with a worker and two {@link StreamGobbler}s
+ * like the LocalToolExecutor, and reports the peak number of platform threads
+ * and the peak resident set size of the JVM.
+ * 
+ * The runtime is fixed per JVM, so every mode needs a run of its own:
+ * <ul>
+ * <li><code>legacy</code>: one platform thread per worker and per gobbler</li>
+ * <li><code>platform</code>: platform workers, gobblers on the shared pump</li>
+ * <li><code>virtual</code>: virtual threads (Java 21 and later)</li>
+ * </ul>
+ * 
+ * Usage: ExecutionRuntimeBenchmark [mode] [tool seconds] [counts...]
+ * 
+ * Note that the number of concurrent processes might be limited by
+ * <code>ulimit -u</code>. The JDK keeps one small reaper thread per running
+ * process in every mode.
+ * 
+ * @author aiche
+ */
+public class ExecutionRuntimeBenchmark {
+
+    private static final int[] DEFAULT_COUNTS = { 50, 200, 1000 };
+
+    private static final String LEGACY = "legacy";
+
+    private static long residentSetKB() throws IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(
+                "/proc/self/status"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).trim()
+                            .split("\\s+")[0]);
+                }
+            }
+            return -1;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static Runnable dummyTool(final boolean legacy,
+            final int seconds, final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Process process = new ProcessBuilder("/bin/sh", "-c",
+                            "echo started; sleep " + seconds
+                                    + "; echo finished >&2").start();
+                    Process source = legacy ? null : process;
+                    StreamGobbler out = new StreamGobbler(
+                            process.getInputStream(), source, null,
+                            new BoundedLineBuffer(), null, null);
+                    StreamGobbler err = new StreamGobbler(
+                            process.getErrorStream(), source, null,
+                            new BoundedLineBuffer(), null, null);
+                    out.start();
+                    err.start();
+                    ExecutionRuntime.waitFor(process);
+                    out.join();
+                    err.join();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    done.countDown();
+                }
+            }
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : ExecutionRuntime.MODE_VIRTUAL;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int[] counts = DEFAULT_COUNTS;
+        if (args.length > 2) {
+            counts = new int[args.length - 2];
+            for (int i = 2; i < args.length; ++i) {
+                counts[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+        boolean legacy = LEGACY.equals(mode);
+        System.setProperty(ExecutionRuntime.MODE_PROPERTY,
+                legacy ? ExecutionRuntime.MODE_PLATFORM : mode);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.println(String.format("Mode: %s (runtime: %s)", mode,
+                ExecutionRuntime.getMode()));
+        System.out.println("tools\tpeak threads\tpeak RSS [MB]\ttime [ms]");
+        for (int count : counts) {
+            System.gc();
+            threads.resetPeakThreadCount();
+            long peakRSS = residentSetKB();
+            long start = System.currentTimeMillis();
+
+            ExecutorService workers = legacy ? Executors.newCachedThreadPool()
+                    : ExecutionRuntime.newTaskExecutor("GKN-ToolWorker-");
+            CountDownLatch done = new CountDownLatch(count);
+            for (int i = 0; i < count; ++i) {
+                workers.execute(dummyTool(legacy, seconds, done));
+            }
+            while (done.getCount() > 0) {
+                peakRSS = Math.max(peakRSS, residentSetKB());
+                Thread.sleep(100);
+            }
+            long duration = System.currentTimeMillis() - start;
+            System.out.println(String.format("%d\t%d\t\t%d\t\t%d", count,
+                    threads.getPeakThreadCount(), peakRSS / 1024, duration));
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collections;
+
+/**
+ * Benchmark for the {@link JavaToolRuntime}. Runs the
+ * {@link JavaToolRuntimeTest.SampleTool} repeatedly, once as a separate JVM
+ * per invocation and once in-process, and reports the time per invocation.
+ * 
+ * Usage: JavaToolRuntimeBenchmark [invocations]
+ * 
+ * @author aiche
+ */
+public class JavaToolRuntimeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int invocations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        File classes = new File(JavaToolRuntimeTest.SampleTool.class
+                .getProtectionDomain().getCodeSource().getLocation().toURI());
+        String[] toolArgs = new String[] { "echo", "line 1", "line 2" };
+
+        File java = new File(new File(System.getProperty("java.home"), "bin"),
+                "java");
+        long start = System.nanoTime();
+        for (int i = 0; i < invocations; ++i) {
+            ProcessBuilder builder = new ProcessBuilder(java.getPath(), "-cp",
+                    classes.getPath(),
+                    JavaToolRuntimeTest.SampleTool.class.getName(),
+                    toolArgs[0], toolArgs[1], toolArgs[2]);
+            builder.redirectErrorStream(true);
+            Process process = builder.start();
+            while (process.getInputStream().read() != -1) {
+                // discard the output
+            }
+            process.waitFor();
+        }
+        double processMillis = (System.nanoTime() - start) / 1e6 / invocations;
+
+        JavaToolRuntime runtime = new JavaToolRuntime();
+        JavaEntryPoint entryPoint = new JavaEntryPoint("SampleTool",
+                JavaToolRuntimeTest.SampleTool.class.getName(),
+                Collections.singletonList(classes));
+        start = System.nanoTime();
+        for (int i = 0; i < invocations; ++i) {
+            runtime.newInvocation(entryPoint, toolArgs,
+                    new ByteArrayOutputStream(), new ByteArrayOutputStream())
+                    .run();
+        }
+        double inProcessMillis = (System.nanoTime() - start) / 1e6
+                / invocations;
+
+        System.out.println(String.format("%d invocations of %s",
+                invocations, entryPoint));
+        System.out.println(String.format("separate JVM: %8.2f ms/invocation",
+                processMillis));
+        System.out.println(String.format("in-process:   %8.2f ms/invocation",
+                inProcessMillis));
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link JavaToolRuntime} and the {@link JavaEntryPoint}. The
+ * {@link SampleTool} is loaded from the test classes by the isolated class
+ * loader of the runtime.
+ * 
+ * @author aiche
+ */
+public class JavaToolRuntimeTest {
+
+    /**
+     * Tool whose behaviour is selected by the first argument.
+     */
+    public static class SampleTool {
+
+        private static int s_invocations = 0;
+
+        public static void main(final String[] args) throws Exception {
+            ++s_invocations;
+            String mode = args[0];
+            if ("echo".equals(mode)) {
+                for (int i = 1; i < args.length; ++i) {
+                    System.out.println(args[i]);
+                }
+                System.err.println("done");
+            } else if ("exit".equals(mode)) {
+                System.out.println("before exit");
+                System.exit(Integer.parseInt(args[1]));
+                System.out.println("after exit");
+            } else if ("fail".equals(mode)) {
+                throw new IllegalStateException("sample failure");
+            } else if ("thread".equals(mode)) {
+                new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        System.out.println("from thread");
+                    }
+                }.start();
+            } else if ("count".equals(mode)) {
+                System.out.println(s_invocations);
+                // only the platform classes are inherited
+                System.out.println(SampleTool.class.getClassLoader()
+                        .getParent() == ClassLoader.getSystemClassLoader()
+                        .getParent());
+            } else if ("sleep".equals(mode)) {
+                System.out.println("sleeping");
+                Thread.sleep(60000);
+            }
+        }
+    }
+
+    private JavaToolRuntime m_runtime;
+
+    private JavaEntryPoint m_entryPoint;
+
+    @Before
+    public void setUp() throws Exception {
+        assertTrue(JavaToolRuntime.isAvailable());
+        m_runtime = new JavaToolRuntime();
+        File classes = new File(SampleTool.class.getProtectionDomain()
+                .getCodeSource().getLocation().toURI());
+        m_entryPoint = new JavaEntryPoint("SampleTool",
+                SampleTool.class.getName(), Collections.singletonList(classes));
+    }
+
+    private static LinkedList<String> lines(ByteArrayOutputStream stream) {
+        LinkedList<String> lines = new LinkedList<String>();
+        for (String line : stream.toString().split("\\r?\\n")) {
+            if (line.length() > 0) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private int run(ByteArrayOutputStream out, ByteArrayOutputStream err,
+            String... args) throws Exception {
+        return m_runtime.newInvocation(m_entryPoint, args, out, err).run();
+    }
+
+    @Test
+    public void testOutputIsCapturedPerInvocation() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(0, run(out, err, "echo", "a", "b"));
+        assertEquals("[a, b]", lines(out).toString());
+        assertEquals("[done]", lines(err).toString());
+    }
+
+    @Test
+    public void testExitIsTrapped() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(7, run(out, err, "exit", "7"));
+        assertEquals("[before exit]", lines(out).toString());
+        assertEquals(0, lines(err).size());
+    }
+
+    @Test
+    public void testUncaughtExceptionFailsTheTool() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(JavaToolRuntime.FAILED_EXIT_CODE,
+                run(out, err, "fail"));
+        assertTrue(err.toString().contains("sample failure"));
+    }
+
+    @Test
+    public void testInvocationWaitsForToolThreads() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(0, run(out, err, "thread"));
+        assertEquals("[from thread]", lines(out).toString());
+    }
+
+    @Test
+    public void testClassLoaderIsIsolatedAndCached() throws Exception {
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        run(first, new ByteArrayOutputStream(), "count");
+        run(second, new ByteArrayOutputStream(), "count");
+        // the loader does not see the classes of the test
+        assertEquals("[1, true]", lines(first).toString());
+        // the static state survives in the cached loader
+        assertEquals("[2, true]", lines(second).toString());
+    }
+
+    @Test
+    public void testKillEndsTheInvocation() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final JavaToolRuntime.Invocation invocation = m_runtime.newInvocation(
+                m_entryPoint, new String[] { "sleep" }, out,
+                new ByteArrayOutputStream());
+        new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                invocation.kill();
+            }
+        }.start();
+        long start = System.currentTimeMillis();
+        assertEquals(JavaToolRuntime.KILLED_EXIT_CODE, invocation.run());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        assertEquals("[sleeping]", lines(out).toString());
+    }
+
+    @Test
+    public void testConcurrentInvocationsAreSeparated() throws Exception {
+        final int nInvocations = 8;
+        final ByteArrayOutputStream[] outs = new ByteArrayOutputStream[nInvocations];
+        final AtomicInteger failures = new AtomicInteger();
+        Thread[] threads = new Thread[nInvocations];
+        for (int i = 0; i < nInvocations; ++i) {
+            outs[i] = new ByteArrayOutputStream();
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        if (JavaToolRuntimeTest.this.run(outs[index],
+                                new ByteArrayOutputStream(), "echo",
+                                "tool" + index, "tool" + index) != 0) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, failures.get());
+        for (int i = 0; i < nInvocations; ++i) {
+            assertEquals("[tool" + i + ", tool" + i + "]", lines(outs[i])
+                    .toString());
+        }
+    }
+
+    @Test
+    public void testEntryPointIsReadFromPluginProperties() throws Exception {
+        File executable = new File("/opt/tools/bin/SampleTool");
+        Properties properties = new Properties();
+        assertEquals(null,
+                JavaEntryPoint.find("SampleTool", executable, properties));
+
+        properties.setProperty(JavaEntryPoint.MAIN_CLASS_PROPERTY
+                + "SampleTool", "org.example.Main");
+        properties.setProperty(JavaEntryPoint.CLASS_PATH_PROPERTY
+                + "SampleTool", "../lib/tool.jar" + File.pathSeparator
+                + "/usr/share/java/dep.jar");
+        JavaEntryPoint entryPoint = JavaEntryPoint.find("SampleTool",
+                executable, properties);
+        assertEquals("org.example.Main", entryPoint.getMainClass());
+        assertEquals(2, entryPoint.getClassPath().size());
+        assertEquals(new File("/opt/tools/bin/../lib/tool.jar"), entryPoint
+                .getClassPath().get(0));
+        assertEquals(new File("/usr/share/java/dep.jar"), entryPoint
+                .getClassPath().get(1));
+        assertFalse(entryPoint.equals(m_entryPoint));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmark for the {@link ProcessLauncher}. Spawns a no-op tool
+ * (<code>/bin/true</code>) repeatedly, once directly from this JVM and once
+ * through the launcher process, and reports the spawns per second.
+ * 
+ * To see the effect of a large heap, the benchmark fills the given amount of
+ * heap with live data before spawning (start the JVM with a matching -Xmx).
+ * 
+ * Usage: ProcessLauncherBenchmark [spawns] [parallel spawners] [live heap MB]
+ * 
+ * @author aiche
+ */
+public class ProcessLauncherBenchmark {
+
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    private static double spawnsPerSecond(final ProcessLauncher launcher,
+            int spawns, int parallel) throws Exception {
+        ExecutorService spawners = Executors.newFixedThreadPool(parallel);
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        long start = System.nanoTime();
+        for (int i = 0; i < spawns; ++i) {
+            results.add(spawners.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    Process process = launcher.start(new ProcessBuilder(
+                            "/bin/true"));
+                    process.getInputStream().close();
+                    process.getErrorStream().close();
+                    process.waitFor();
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        long nanos = System.nanoTime() - start;
+        spawners.shutdown();
+        return spawns / (nanos / 1e9);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int spawns = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int parallel = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int liveHeapMB = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        // keep the blocks reachable while spawning
+        byte[][] liveHeap = new byte[liveHeapMB][];
+        for (int i = 0; i < liveHeapMB; ++i) {
+            liveHeap[i] = new byte[BLOCK_SIZE];
+            for (int j = 0; j < BLOCK_SIZE; j += 4096) {
+                liveHeap[i][j] = 1;
+            }
+        }
+
+        ProcessLauncher direct = new ProcessLauncher();
+        ProcessLauncher helper = new ProcessLauncher();
+        helper.configure(true);
+        // warm up both paths (and start the helper)
+        spawnsPerSecond(direct, 100, parallel);
+        spawnsPerSecond(helper, 100, parallel);
+
+        System.out.println(String.format(
+                "%d spawns of /bin/true, %d in parallel, %d MB live heap",
+                spawns, parallel, liveHeap.length));
+        System.out.println(String.format("direct:          %8.1f spawns/s",
+                spawnsPerSecond(direct, spawns, parallel)));
+        System.out.println(String.format("through launcher: %7.1f spawns/s",
+                spawnsPerSecond(helper, spawns, parallel)));
+        helper.shutdown();
+    }
+}
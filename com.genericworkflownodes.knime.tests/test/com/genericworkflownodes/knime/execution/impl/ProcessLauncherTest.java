@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.agent.ToolLauncher;
+
+/**
+ * Tests for the {@link ProcessLauncher} and the {@link LaunchedProcess} using
+ * an in-process {@link ToolLauncher}.
+ * 
+ * @author aiche
+ */
+public class ProcessLauncherTest {
+
+    private static final String TOKEN = "0123456789abcdef";
+
+    private ToolLauncher m_launcher;
+
+    @Before
+    public void setUp() throws Exception {
+        m_launcher = new ToolLauncher(TOKEN);
+        m_launcher.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        m_launcher.stop();
+    }
+
+    private static LinkedList<String> gobble(Process process,
+            boolean errorStream) throws Exception {
+        StreamGobbler gobbler = new StreamGobbler(
+                errorStream ? process.getErrorStream()
+                        : process.getInputStream(), process, null,
+                new BoundedLineBuffer(), null, null);
+        gobbler.start();
+        process.waitFor();
+        gobbler.join();
+        return gobbler.getContent();
+    }
+
+    @Test
+    public void testOutputAndExitCodeAreForwarded() throws Exception {
+        ProcessBuilder builder = new ProcessBuilder("/bin/sh", "-c",
+                "echo $GKN_TEST_VALUE; pwd >&2; exit 3");
+        builder.environment().put("GKN_TEST_VALUE", "forwarded");
+        builder.directory(new java.io.File("/"));
+        LaunchedProcess process = LaunchedProcess.launch(
+                m_launcher.getPort(), TOKEN, builder);
+        assertTrue(process.getPid() > 0);
+
+        LinkedList<String> stdOut = gobble(process, false);
+        LinkedList<String> stdErr = gobble(process, true);
+        assertEquals(3, process.waitFor());
+        assertEquals(3, process.exitValue());
+        assertEquals("forwarded", stdOut.getFirst());
+        assertEquals("/", stdErr.getFirst());
+    }
+
+    @Test
+    public void testInvalidTokenIsRejected() throws Exception {
+        try {
+            LaunchedProcess.launch(m_launcher.getPort(), "wrong",
+                    new ProcessBuilder("/bin/true"));
+            fail("The launcher accepted an invalid token.");
+        } catch (LaunchedProcess.LaunchFailedException e) {
+            assertTrue(e.getMessage().contains("token"));
+        }
+    }
+
+    @Test
+    public void testDestroyTerminatesTheTool() throws Exception {
+        LaunchedProcess process = LaunchedProcess.launch(
+                m_launcher.getPort(), TOKEN, new ProcessBuilder("sleep",
+                        "60"));
+        try {
+            process.exitValue();
+            fail("The tool terminated too early.");
+        } catch (IllegalThreadStateException e) {
+            // expected
+        }
+        long start = System.currentTimeMillis();
+        process.destroy();
+        // 128 + SIGTERM
+        assertEquals(143, process.waitFor());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    public void testToolsAreStartedThroughHelperProcess() throws Exception {
+        ProcessLauncher launcher = new ProcessLauncher();
+        launcher.configure(true);
+        try {
+            Process process = launcher.start(new ProcessBuilder("/bin/sh",
+                    "-c", "echo launched"));
+            assertTrue(process instanceof LaunchedProcess);
+            assertEquals("launched", gobble(process, false).getFirst());
+            assertEquals(0, process.waitFor());
+
+            // a tool that cannot be started is reported as usual
+            try {
+                launcher.start(new ProcessBuilder("/does/not/exist"));
+                fail("Started a non-existing tool.");
+            } catch (LaunchedProcess.LaunchFailedException e) {
+                assertTrue(launcher.isEnabled());
+            }
+        } finally {
+            launcher.shutdown();
+        }
+    }
+}
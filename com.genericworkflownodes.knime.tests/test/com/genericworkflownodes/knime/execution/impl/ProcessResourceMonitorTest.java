@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
+
+/**
+ * Tests for the {@link ProcessResourceMonitor} using a fake proc file system.
+ * 
+ * @author aiche
+ */
+public class ProcessResourceMonitorTest {
+
+    private File m_procRoot;
+
+    @Before
+    public void setUp() throws Exception {
+        m_procRoot = File.createTempFile("gkn_proc", "");
+        m_procRoot.delete();
+        m_procRoot.mkdirs();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(m_procRoot);
+    }
+
+    private void writeProcess(int pid, int ppid, long utime, long stime,
+            long rssKb, long hwmKb, long readBytes, long writeBytes)
+            throws Exception {
+        writeProcess(pid, ppid, utime, stime, 0, 0, rssKb, hwmKb, readBytes,
+                writeBytes);
+    }
+
+    private void writeProcess(int pid, int ppid, long utime, long stime,
+            long cutime, long cstime, long rssKb, long hwmKb, long readBytes,
+            long writeBytes) throws Exception {
+        File dir = new File(m_procRoot, Integer.toString(pid));
+        dir.mkdirs();
+        // pid (comm) state ppid pgrp session tty tpgid flags minflt cminflt
+        // majflt cmajflt utime stime cutime cstime prio nice threads
+        // itrealvalue starttime ...
+        FileUtils.writeStringToFile(new File(dir, "stat"), pid
+                + " (my tool) S " + ppid + " 1 1 0 -1 0 0 0 0 0 " + utime
+                + " " + stime + " " + cutime + " " + cstime
+                + " 20 0 1 0 4711 1000 100\n");
+        FileUtils.writeStringToFile(new File(dir, "status"), "Name:\ttool\n"
+                + "VmHWM:\t" + hwmKb + " kB\nVmRSS:\t" + rssKb + " kB\n");
+        FileUtils.writeStringToFile(new File(dir, "io"), "rchar: 1\n"
+                + "read_bytes: " + readBytes + "\nwrite_bytes: "
+                + writeBytes + "\n");
+    }
+
+    @Test
+    public void testProcessTreeIsAccounted() throws Exception {
+        writeProcess(100, 1, 50, 10, 1000, 1500, 4096, 8192);
+        writeProcess(101, 100, 20, 5, 2000, 2000, 100, 200);
+        writeProcess(102, 101, 10, 5, 500, 500, 0, 0);
+        // not part of the tree
+        writeProcess(200, 1, 1000, 1000, 99999, 99999, 99999, 99999);
+
+        ProcessResourceMonitor monitor = new ProcessResourceMonitor(100,
+                m_procRoot);
+        monitor.sample();
+
+        // the grand child was reaped, the others continue working
+        FileUtils.deleteDirectory(new File(m_procRoot, "102"));
+        writeProcess(100, 1, 70, 20, 1000, 1500, 8192, 8192);
+        writeProcess(101, 100, 20, 5, 12, 6, 2000, 2000, 100, 200);
+        monitor.sample();
+
+        ToolResourceUsage usage = monitor.getUsage(1234);
+        assertEquals(1234, usage.getWallTimeMillis());
+        assertEquals(3, usage.getProcessCount());
+        // the final times of the grand child are part of its parent's cutime
+        // and cstime
+        assertEquals(ProcessResourceMonitor.ticksToMillis(70 + 20 + 12),
+                usage.getUserCpuMillis());
+        assertEquals(ProcessResourceMonitor.ticksToMillis(20 + 5 + 6),
+                usage.getSystemCpuMillis());
+        assertEquals((1000 + 2000 + 500) * 1024, usage.getPeakRssBytes());
+        assertEquals(8192 + 100, usage.getReadBytes());
+        assertEquals(8192 + 200, usage.getWriteBytes());
+    }
+
+    @Test
+    public void testReapedChildrenAreAccounted() throws Exception {
+        // a wrapper whose short-lived children were never sampled
+        writeProcess(100, 1, 1, 1, 300, 50, 1000, 1000, 0, 0);
+        // a child that exits after the last sample of its parent
+        writeProcess(101, 100, 40, 10, 1000, 1000, 0, 0);
+        ProcessResourceMonitor monitor = new ProcessResourceMonitor(100,
+                m_procRoot);
+        monitor.sample();
+
+        ToolResourceUsage usage = monitor.getUsage(1000);
+        assertEquals(ProcessResourceMonitor.ticksToMillis(1 + 300 + 40),
+                usage.getUserCpuMillis());
+        assertEquals(ProcessResourceMonitor.ticksToMillis(1 + 50 + 10),
+                usage.getSystemCpuMillis());
+    }
+
+    @Test
+    public void testMonitorsShareOneScan() throws Exception {
+        writeProcess(100, 1, 50, 10, 1000, 1000, 0, 0);
+        writeProcess(200, 1, 30, 20, 1000, 1000, 0, 0);
+        ProcessResourceMonitor.ProcessTable table = ProcessResourceMonitor.ProcessTable
+                .read(m_procRoot);
+        ProcessResourceMonitor first = new ProcessResourceMonitor(100,
+                m_procRoot);
+        ProcessResourceMonitor second = new ProcessResourceMonitor(200,
+                m_procRoot);
+        first.sample(table);
+        second.sample(table);
+
+        assertEquals(ProcessResourceMonitor.ticksToMillis(50), first
+                .getUsage(1000).getUserCpuMillis());
+        assertEquals(ProcessResourceMonitor.ticksToMillis(30), second
+                .getUsage(1000).getUserCpuMillis());
+    }
+
+    @Test
+    public void testUnknownProcess() throws Exception {
+        ProcessResourceMonitor monitor = new ProcessResourceMonitor(100,
+                m_procRoot);
+        monitor.sample();
+        ToolResourceUsage usage = monitor.getUsage(10);
+        assertFalse(usage.isSampled());
+        assertEquals(ToolResourceUsage.UNKNOWN, usage.getUserCpuMillis());
+        assertEquals(10, usage.getWallTimeMillis());
+    }
+
+    @Test
+    public void testRealProcess() throws Exception {
+        if (!new File("/proc/self/stat").exists()) {
+            // no proc file system available
+            return;
+        }
+        Process process = new ProcessBuilder("sleep", "1").start();
+        ProcessResourceMonitor monitor = ProcessResourceMonitor
+                .create(process);
+        monitor.start();
+        process.waitFor();
+        ToolResourceUsage usage = monitor.stop(1000);
+        assertTrue(usage.isSampled());
+        assertTrue(usage.getPeakRssBytes() > 0);
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ProcessTreeTerminator}. The tests need a /proc file
+ * system and are skipped on other platforms.
+ * 
+ * @author aiche
+ */
+public class ProcessTreeTerminatorTest {
+
+    private Process m_process;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(ProcessResourceMonitor.PROC.isDirectory());
+    }
+
+    @After
+    public void tearDown() {
+        if (m_process != null) {
+            m_process.destroy();
+        }
+    }
+
+    /**
+     * Starts a shell running the given script, which has to print the pids of
+     * its children, and returns these pids.
+     */
+    private List<Integer> startTree(String script, int nChildren)
+            throws Exception {
+        m_process = new ProcessBuilder(Arrays.asList("/bin/sh", "-c", script))
+                .start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                m_process.getInputStream()));
+        List<Integer> pids = new ArrayList<Integer>();
+        for (int i = 0; i < nChildren; ++i) {
+            pids.add(Integer.parseInt(reader.readLine().trim()));
+        }
+        return pids;
+    }
+
+    private static boolean isAlive(int pid) {
+        String[] stat = ProcessResourceMonitor.readStat(
+                ProcessResourceMonitor.PROC, pid);
+        return stat != null
+                && !"Z".equals(stat[ProcessResourceMonitor.STAT_STATE]);
+    }
+
+    @Test
+    public void testDescendantsAreTerminated() throws Exception {
+        List<Integer> children = startTree(
+                "sleep 100 & echo $!; sleep 100 & echo $!; wait", 2);
+        for (int child : children) {
+            assertTrue(isAlive(child));
+        }
+
+        ProcessTreeTerminator.Result result = new ProcessTreeTerminator(5000)
+                .terminate(m_process);
+
+        assertEquals(0, result.getLeftoverProcesses());
+        assertEquals(3, result.getTerminatedProcesses());
+        assertTrue(result.getLatencyMillis() < 5000);
+        for (int child : children) {
+            assertFalse(isAlive(child));
+        }
+    }
+
+    @Test
+    public void testProcessesIgnoringSigtermAreKilled() throws Exception {
+        // ignored signals are inherited by the children
+        List<Integer> children = startTree(
+                "trap '' TERM; sleep 100 & echo $!; wait", 1);
+
+        ProcessTreeTerminator.Result result = new ProcessTreeTerminator(200)
+                .terminate(m_process);
+
+        assertEquals(0, result.getLeftoverProcesses());
+        assertTrue(result.getLatencyMillis() >= 200);
+        assertFalse(isAlive(children.get(0)));
+        m_process.waitFor();
+    }
+}
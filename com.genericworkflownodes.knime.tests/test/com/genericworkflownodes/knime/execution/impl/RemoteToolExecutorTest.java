@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.agent.WorkerAgent;
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+import com.genericworkflownodes.knime.execution.impl.RemoteAgentPool.AgentAddress;
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the {@link RemoteToolExecutor} and the {@link RemoteAgentPool}
+ * using in-process {@link WorkerAgent}s.
+ * 
+ * @author aiche
+ */
+public class RemoteToolExecutorTest {
+
+    private static final String SECRET = "s3cr@t";
+
+    private File m_workDir;
+    private List<WorkerAgent> m_agents;
+    private RemoteAgentPool m_pool;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workDir = Helper.getTempDir("remote_test", true);
+        m_agents = new ArrayList<WorkerAgent>();
+        m_pool = new RemoteAgentPool();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (WorkerAgent agent : m_agents) {
+            agent.stop();
+        }
+        FileUtils.deleteDirectory(m_workDir);
+    }
+
+    private AgentAddress startAgent(int slots) throws Exception {
+        File agentDir = new File(m_workDir, "agent" + m_agents.size());
+        WorkerAgent agent = new WorkerAgent(null, 0, slots, agentDir, SECRET);
+        agent.start();
+        m_agents.add(agent);
+        return new AgentAddress("127.0.0.1", agent.getPort(), SECRET);
+    }
+
+    private RemoteToolExecutor createExecutor(String name) throws Exception {
+        File jobDir = new File(m_workDir, name);
+        jobDir.mkdirs();
+        RemoteToolExecutor executor = new RemoteToolExecutor(m_pool);
+        executor.setWorkingDirectory(jobDir);
+        return executor;
+    }
+
+    @Test
+    public void testParseAgents() {
+        List<AgentAddress> agents = RemoteAgentPool
+                .parseAgents(" a@b@node1:4711, c@node2 ,");
+        assertEquals(2, agents.size());
+        assertEquals(new AgentAddress("node1", 4711, "a@b"), agents.get(0));
+        assertEquals("a@b", agents.get(0).getSecret());
+        assertEquals(47110, agents.get(1).getPort());
+        assertEquals("c", agents.get(1).getSecret());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidAgent() {
+        RemoteAgentPool.parseAgents("secret@node1:abc");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseAgentWithoutSecret() {
+        RemoteAgentPool.parseAgents("node1:4711");
+    }
+
+    @Test
+    public void testAgentRejectsWrongSecret() throws Exception {
+        AgentAddress agent = startAgent(1);
+        AgentAddress impostor = new AgentAddress(agent.getHost(),
+                agent.getPort(), "wrong");
+        m_pool.configure(Arrays.asList(impostor));
+        assertNull(m_pool.tryAcquire());
+        m_pool.configure(Arrays.asList(agent));
+        assertEquals(agent, m_pool.tryAcquire());
+    }
+
+    @Test
+    public void testAgentListensOnLoopbackByDefault() throws Exception {
+        File agentDir = new File(m_workDir, "loopback");
+        WorkerAgent agent = new WorkerAgent(null, 0, 1, agentDir, SECRET);
+        try {
+            assertTrue(agent.getAddress().isLoopbackAddress());
+        } finally {
+            agent.stop();
+        }
+    }
+
+    @Test
+    public void testAgentWithMostFreeSlotsIsChosen() throws Exception {
+        AgentAddress small = startAgent(1);
+        AgentAddress large = startAgent(2);
+        m_pool.configure(Arrays.asList(small, large));
+
+        // the pool accounts for the slots it already handed out
+        assertEquals(large, m_pool.tryAcquire());
+        AgentAddress second = m_pool.tryAcquire();
+        assertTrue(small.equals(second) || large.equals(second));
+        assertTrue(m_pool.tryAcquire() != null);
+        assertNull(m_pool.tryAcquire());
+
+        m_pool.release(small);
+        assertEquals(small, m_pool.tryAcquire());
+    }
+
+    @Test
+    public void testUnreachableAgentIsSkipped() throws Exception {
+        AgentAddress agent = startAgent(1);
+        m_pool.configure(Arrays.asList(new AgentAddress("127.0.0.1", 1,
+                SECRET), agent));
+        assertEquals(agent, m_pool.tryAcquire());
+    }
+
+    @Test
+    public void testFilesAreStagedAndOutputIsStreamed() throws Exception {
+        m_pool.configure(Arrays.asList(startAgent(1)));
+
+        // several chunks and not a multiple of the chunk size
+        byte[] content = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(content);
+        File input = new File(m_workDir, "input.bin");
+        FileUtils.writeByteArrayToFile(input, content);
+        File output = new File(m_workDir, "result/output.bin");
+        output.getParentFile().mkdirs();
+
+        Map<String, File> inputs = new HashMap<String, File>();
+        inputs.put("in/0_input.bin", input);
+        Map<String, File> outputs = new HashMap<String, File>();
+        outputs.put("out/1_output.bin", output);
+
+        final List<String> streamed = Collections
+                .synchronizedList(new ArrayList<String>());
+        RemoteToolExecutor executor = createExecutor("job");
+        executor.addToolOutputListener(new IToolOutputListener() {
+            @Override
+            public void toolOutputReceived(List<String> lines) {
+                streamed.addAll(lines);
+            }
+
+            @Override
+            public void toolErrorOutputReceived(List<String> lines) {
+            }
+        });
+        executor.setJob(Arrays.asList("/bin/sh", "-c",
+                "cp in/0_input.bin out/1_output.bin; echo \"$GKN_TEST_VALUE\";"
+                        + " echo error >&2; exit 3"), Collections
+                .singletonMap("GKN_TEST_VALUE", "remote"), inputs, outputs);
+
+        assertEquals(3, executor.execute());
+        assertEquals(Arrays.asList("remote"), executor.getToolOutput());
+        assertEquals(Arrays.asList("error"), executor.getToolErrorOutput());
+        assertEquals(Arrays.asList("remote"), streamed);
+        assertTrue(Arrays.equals(content,
+                FileUtils.readFileToByteArray(output)));
+
+        // the agent cleans up after sending END
+        File agentDir = new File(m_workDir, "agent0");
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((agentDir.list().length > 0 || m_agents.get(0)
+                .getFreeSlots() < 1)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(0, agentDir.list().length);
+        assertEquals(1, m_agents.get(0).getFreeSlots());
+    }
+
+    @Test
+    public void testKillStopsRemoteTool() throws Exception {
+        m_pool.configure(Arrays.asList(startAgent(1)));
+        final RemoteToolExecutor executor = createExecutor("killed");
+        executor.setJob(Arrays.asList("/bin/sh", "-c", "sleep 30"),
+                Collections.<String, String> emptyMap(),
+                Collections.<String, File> emptyMap(),
+                Collections.<String, File> emptyMap());
+        Thread killer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                executor.kill();
+            }
+        };
+        killer.start();
+
+        long start = System.currentTimeMillis();
+        executor.execute();
+        assertTrue(System.currentTimeMillis() - start < 10000);
+        killer.join();
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the {@link ResourceLimits}, the {@link ResourceLimitPresets} and
+ * the {@link ResourceLimitEnforcer}.
+ * 
+ * @author aiche
+ */
+public class ResourceLimitsTest {
+
+    @Test
+    public void testParsePresets() {
+        Map<String, ResourceLimits> presets = ResourceLimits
+                .parsePresets("default: nice=10, io=idle;\n"
+                        + "FeatureFinder: memory=4G, cpu=60, io=best-effort:7");
+        assertEquals(2, presets.size());
+
+        ResourceLimits defaults = presets.get("default");
+        assertEquals(10, defaults.getNice());
+        assertEquals(ResourceLimits.IO_CLASS_IDLE, defaults.getIoClass());
+        assertEquals(ResourceLimits.UNLIMITED, defaults.getMemoryBytes());
+
+        ResourceLimits featureFinder = presets.get("FeatureFinder");
+        assertEquals(4L * 1024 * 1024 * 1024, featureFinder.getMemoryBytes());
+        assertEquals(60, featureFinder.getCpuSeconds());
+        assertEquals(ResourceLimits.IO_CLASS_BEST_EFFORT,
+                featureFinder.getIoClass());
+        assertEquals(7, featureFinder.getIoLevel());
+
+        assertTrue(ResourceLimits.parsePresets("").isEmpty());
+        assertTrue(ResourceLimits.parsePresets(null).isEmpty());
+    }
+
+    @Test
+    public void testParseRejectsMalformedPresets() {
+        String[] malformed = { "memory=4G", "default: memory=", "a: nice=20",
+                "a: io=realtime", "a: swap=1G", "a: cpu=0", "a: memory=4X" };
+        for (String preset : malformed) {
+            try {
+                ResourceLimits.parsePresets(preset);
+                throw new AssertionError("'" + preset
+                        + "' should be rejected.");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testPresetLookup() {
+        ResourceLimitPresets presets = new ResourceLimitPresets();
+        assertSame(ResourceLimits.NONE, presets.getLimits("FeatureFinder"));
+
+        presets.configure(ResourceLimits
+                .parsePresets("default: nice=5; FeatureFinder: nice=15"));
+        assertEquals(15, presets.getLimits("FeatureFinder").getNice());
+        assertEquals(5, presets.getLimits("FileFilter").getNice());
+        assertEquals(5, presets.getLimits(null).getNice());
+    }
+
+    @Test
+    public void testWrappedCommandEndsWithTool() {
+        assumeTrue(ProcessResourceMonitor.PROC.isDirectory());
+        ResourceLimitEnforcer enforcer = ResourceLimitEnforcer
+                .create(ResourceLimits.parse("nice=10"));
+        assertNotNull(enforcer);
+        List<String> command = enforcer.wrap(Arrays.asList("/bin/echo", "x"));
+        assertEquals("/bin/echo", command.get(command.size() - 2));
+        assertEquals("x", command.get(command.size() - 1));
+        enforcer.close();
+
+        assertNull(ResourceLimitEnforcer.create(ResourceLimits.NONE));
+    }
+
+    @Test
+    public void testCpuLimitIsReported() throws Exception {
+        assumeTrue(ProcessResourceMonitor.PROC.isDirectory()
+                && new File("/usr/bin/prlimit").canExecute());
+        ResourceLimitEnforcer enforcer = ResourceLimitEnforcer
+                .create(ResourceLimits.parse("cpu=1"));
+        Process process = new ProcessBuilder(enforcer.wrap(Arrays.asList(
+                "/bin/sh", "-c", "while :; do :; done"))).start();
+        int returnCode = process.waitFor();
+        assertEquals(ResourceLimitEnforcer.EXIT_SIGXCPU, returnCode);
+        String violation = enforcer.findViolation(returnCode,
+                Collections.<String> emptyList(), null);
+        assertNotNull(violation);
+        assertTrue(violation.contains("CPU time limit of 1 s"));
+        enforcer.close();
+    }
+
+    @Test
+    public void testOutOfMemoryMessagesAreDetected() {
+        assertTrue(ResourceLimitEnforcer.reportsOutOfMemory(Arrays.asList(
+                "loading", "terminate called after throwing an instance of "
+                        + "'std::bad_alloc'")));
+        assertTrue(ResourceLimitEnforcer.reportsOutOfMemory(Arrays
+                .asList("java.lang.OutOfMemoryError: Java heap space")));
+        assertTrue(!ResourceLimitEnforcer.reportsOutOfMemory(Arrays
+                .asList("Error: input file not found")));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static com.genericworkflownodes.knime.execution.impl.CLITemplateTest.element;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.cliwrapper.CLI;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.parameter.StringListParameter;
+
+/**
+ * Tests for the {@link ResponseFileSettings} and their use in the
+ * {@link CLITemplate}.
+ * 
+ * @author aiche
+ */
+public class ResponseFileSettingsTest {
+
+    private File m_workingDirectory;
+    private NodeConfiguration m_config;
+    private CLI m_cli;
+    private Properties m_properties;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workingDirectory = File.createTempFile("gkn_response", "");
+        m_workingDirectory.delete();
+        m_workingDirectory.mkdirs();
+
+        m_cli = new CLI();
+        m_cli.getCLIElement().add(element("-in", "in"));
+        m_config = new NodeConfiguration();
+        m_config.setCLI(m_cli);
+        m_config.addParameter("in", new StringListParameter("in",
+                Arrays.asList("a.txt", "b.txt", "c.txt")));
+        m_properties = new Properties();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(m_workingDirectory);
+    }
+
+    private List<String> render(String executableName) throws Exception {
+        return CLITemplate.compile(m_cli).render(
+                m_config,
+                ResponseFileSettings.fromProperties(m_properties,
+                        executableName), m_workingDirectory);
+    }
+
+    private File responseFile() {
+        return new File(m_workingDirectory, ResponseFileSettings.FILE_PREFIX
+                + "0.txt");
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        assertNull(ResponseFileSettings.fromProperties(m_properties, "tool"));
+        assertEquals(Arrays.asList("-in", "a.txt", "-in", "b.txt", "-in",
+                "c.txt"), render("tool"));
+    }
+
+    @Test
+    public void testShortListsStayOnTheCommandLine() throws Exception {
+        m_properties.setProperty(ResponseFileSettings.THRESHOLD_KEY, "3");
+        assertEquals(Arrays.asList("-in", "a.txt", "-in", "b.txt", "-in",
+                "c.txt"), render("tool"));
+        assertEquals(0, m_workingDirectory.list().length);
+    }
+
+    @Test
+    public void testLongListsAreWrittenToResponseFile() throws Exception {
+        m_properties.setProperty(ResponseFileSettings.THRESHOLD_KEY, "2");
+        assertEquals(Arrays.asList("-in", "@"
+                + responseFile().getAbsolutePath()), render("tool"));
+        assertEquals("a.txt\nb.txt\nc.txt\n",
+                FileUtils.readFileToString(responseFile(), "UTF-8"));
+    }
+
+    @Test
+    public void testExecutableSpecificSettings() throws Exception {
+        m_properties.setProperty(ResponseFileSettings.THRESHOLD_KEY
+                + ".tool", "1");
+        m_properties.setProperty(ResponseFileSettings.SYNTAX_KEY + ".tool",
+                "-in_list {file}");
+        m_properties.setProperty(ResponseFileSettings.SEPARATOR_KEY
+                + ".tool", "nul");
+
+        assertNull(ResponseFileSettings.fromProperties(m_properties, "other"));
+        assertEquals(Arrays.asList("-in_list", responseFile()
+                .getAbsolutePath()), render("tool"));
+        assertEquals("a.txt\0b.txt\0c.txt\0",
+                FileUtils.readFileToString(responseFile(), "UTF-8"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSyntaxWithoutFileIsRejected() {
+        m_properties.setProperty(ResponseFileSettings.THRESHOLD_KEY, "1");
+        m_properties.setProperty(ResponseFileSettings.SYNTAX_KEY, "{option}");
+        ResponseFileSettings.fromProperties(m_properties, "tool");
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * Simple benchmark for the {@link StreamGobbler}. Pushes a synthetic stream of
+ * the given size (default: 1 GB) through a gobbler and samples the used heap
+ * while doing so. The used heap should stay flat regardless of the stream
+ * size.
+ * 
+ * Usage: StreamGobblerBenchmark [megabytes] [spill directory]
+ * 
+ * @author aiche
+ */
+public class StreamGobblerBenchmark {
+
+    /**
+     * Endless supply of tool like progress output, limited to a given number
+     * of bytes.
+     */
+    private static class SyntheticOutputStream extends InputStream {
+        private final byte[] m_line = "Progress: 42.00 % (processing spectrum 4711 of 1000000)\n"
+                .getBytes();
+        private final long m_size;
+        private long m_position;
+
+        SyntheticOutputStream(long size) {
+            m_size = size;
+            m_position = 0;
+        }
+
+        @Override
+        public int read() {
+            if (m_position >= m_size) {
+                return -1;
+            }
+            return m_line[(int) (m_position++ % m_line.length)];
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (m_position >= m_size) {
+                return -1;
+            }
+            int n = (int) Math.min(len, m_size - m_position);
+            for (int i = 0; i < n; ++i) {
+                b[off + i] = m_line[(int) (m_position++ % m_line.length)];
+            }
+            return n;
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    public static void main(String[] args) throws Exception {
+        long megabytes = args.length > 0 ? Long.parseLong(args[0]) : 1024;
+        File spillDir = args.length > 1 ? new File(args[1]) : new File(
+                System.getProperty("java.io.tmpdir"));
+        File spillFile = new File(spillDir, "gkn_gobbler_benchmark.log");
+
+        System.gc();
+        long heapBefore = usedHeap();
+
+        BoundedLineBuffer buffer = new BoundedLineBuffer();
+        StreamGobbler gobbler = new StreamGobbler(new SyntheticOutputStream(
+                megabytes * 1024 * 1024), spillFile, buffer);
+
+        long start = System.currentTimeMillis();
+        gobbler.start();
+        long peakHeap = heapBefore;
+        while (gobbler.isAlive()) {
+            gobbler.join(250);
+            System.gc();
+            peakHeap = Math.max(peakHeap, usedHeap());
+        }
+        long duration = System.currentTimeMillis() - start;
+
+        System.out.println(String.format("Gobbled %d MB (%d lines) in %d ms",
+                megabytes, buffer.getTotalLines(), duration));
+        System.out.println(String.format("Spill file: %s (%d bytes)",
+                spillFile.getAbsolutePath(), spillFile.length()));
+        System.out.println(String.format(
+                "Used heap before: %d KB, peak during capture: %d KB",
+                heapBefore / 1024, peakHeap / 1024));
+        System.out.println(String.format("Retained lines: %d",
+                gobbler.getContent().size()));
+
+        spillFile.delete();
+    }
+}
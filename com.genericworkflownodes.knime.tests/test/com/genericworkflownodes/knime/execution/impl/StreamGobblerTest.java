@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+
+/**
+ * Tests for the {@link StreamGobbler}, the {@link BoundedLineBuffer} and the
+ * {@link ToolOutputChannel}.
+ * 
+ * @author aiche
+ */
+public class StreamGobblerTest {
+
+    private static String createOutput(int nLines) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < nLines; ++i) {
+            sb.append("line ").append(i).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static StreamGobbler gobble(String content, File spillFile,
+            BoundedLineBuffer buffer) throws Exception {
+        StreamGobbler gobbler = new StreamGobbler(new ByteArrayInputStream(
+                content.getBytes()), spillFile, buffer);
+        gobbler.start();
+        gobbler.join();
+        return gobbler;
+    }
+
+    @Test
+    public void testSmallOutputIsKeptCompletely() throws Exception {
+        StreamGobbler gobbler = gobble("a\r\nb\rc\nd", null,
+                new BoundedLineBuffer(10, 10));
+        LinkedList<String> lines = gobbler.getContent();
+        assertEquals(4, lines.size());
+        assertEquals("a", lines.get(0));
+        assertEquals("b", lines.get(1));
+        assertEquals("c", lines.get(2));
+        assertEquals("d", lines.get(3));
+    }
+
+    @Test
+    public void testHeadAndTailAreRetained() throws Exception {
+        BoundedLineBuffer buffer = new BoundedLineBuffer(3, 2);
+        StreamGobbler gobbler = gobble(createOutput(100), null, buffer);
+
+        assertEquals(100, buffer.getTotalLines());
+        assertEquals(95, buffer.getOmittedLines());
+
+        LinkedList<String> lines = gobbler.getContent();
+        assertEquals(6, lines.size());
+        assertEquals("line 0", lines.get(0));
+        assertEquals("line 2", lines.get(2));
+        assertTrue(lines.get(3).contains("95 lines omitted"));
+        assertEquals("line 98", lines.get(4));
+        assertEquals("line 99", lines.get(5));
+    }
+
+    @Test
+    public void testLongLinesAreTruncated() throws Exception {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 3 * StreamGobbler.MAX_LINE_LENGTH; ++i) {
+            longLine.append('x');
+        }
+        StreamGobbler gobbler = gobble(longLine.toString() + "\nshort", null,
+                new BoundedLineBuffer());
+        LinkedList<String> lines = gobbler.getContent();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).length() < 2 * StreamGobbler.MAX_LINE_LENGTH);
+        assertEquals("short", lines.get(1));
+    }
+
+    @Test
+    public void testCompleteOutputIsSpilled() throws Exception {
+        File spillFile = File.createTempFile("gkn_gobbler", ".log");
+        try {
+            String output = createOutput(10000);
+            StreamGobbler gobbler = gobble(output, spillFile,
+                    new BoundedLineBuffer(10, 10));
+            assertEquals(output, FileUtils.readFileToString(spillFile));
+            assertTrue(gobbler.getContent().get(10)
+                    .contains(spillFile.getAbsolutePath()));
+        } finally {
+            spillFile.delete();
+        }
+    }
+
+    @Test
+    public void testLinesArePublishedToChannel() throws Exception {
+        final List<String> stdOut = new ArrayList<String>();
+        final List<String> stdErr = new ArrayList<String>();
+        ToolOutputChannel channel = new ToolOutputChannel();
+        channel.addListener(new IToolOutputListener() {
+            @Override
+            public void toolOutputReceived(List<String> lines) {
+                stdOut.addAll(lines);
+            }
+
+            @Override
+            public void toolErrorOutputReceived(List<String> lines) {
+                stdErr.addAll(lines);
+            }
+        });
+
+        channel.open();
+        StreamGobbler gobbler = new StreamGobbler(new ByteArrayInputStream(
+                createOutput(50).getBytes()), null, new BoundedLineBuffer(),
+                channel, ToolOutputChannel.Stream.STDERR);
+        gobbler.start();
+        gobbler.join();
+        channel.close();
+
+        assertEquals(0, stdOut.size());
+        assertEquals(50, stdErr.size());
+        assertEquals("line 0", stdErr.get(0));
+        assertEquals("line 49", stdErr.get(49));
+    }
+
+    @Test
+    public void testProcessOutputIsCapturedWithoutBlockingReads()
+            throws Exception {
+        Process process = new ProcessBuilder("/bin/sh", "-c",
+                "echo a; sleep 1; printf 'b\\nc'").start();
+        StreamGobbler gobbler = new StreamGobbler(process.getInputStream(),
+                process, null, new BoundedLineBuffer(), null, null);
+        gobbler.start();
+        assertTrue(gobbler.isAlive());
+        assertEquals(0, process.waitFor());
+        gobbler.join();
+
+        assertFalse(gobbler.isAlive());
+        LinkedList<String> lines = gobbler.getContent();
+        assertEquals(3, lines.size());
+        assertEquals("a", lines.get(0));
+        assertEquals("b", lines.get(1));
+        assertEquals("c", lines.get(2));
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.scratch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the {@link ScratchSpaceManager} and the {@link ScratchRoot}.
+ * 
+ * @author aiche
+ */
+public class ScratchSpaceManagerTest {
+
+    private File m_workDir;
+
+    private File m_small;
+
+    private File m_large;
+
+    private ScratchSpaceManager m_manager;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workDir = Helper.getTempDir("scratch_test", true);
+        m_small = new File(m_workDir, "small");
+        m_large = new File(m_workDir, "large");
+        m_small.mkdirs();
+        m_large.mkdirs();
+        m_manager = new ScratchSpaceManager();
+        m_manager.configure(Arrays.asList(new ScratchRoot(m_small, 1000,
+                1500), new ScratchRoot(m_large, ScratchRoot.UNLIMITED,
+                ScratchRoot.UNLIMITED)));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        m_manager.shutdown();
+        FileUtils.deleteDirectory(m_workDir);
+    }
+
+    @Test
+    public void testParseRoots() {
+        List<ScratchRoot> roots = ScratchRoot
+                .parseRoots("/dev/shm/gkn: maxjob=1G, quota=8G;\n"
+                        + "C:\\scratch: quota=10M; /scratch/gkn");
+        assertEquals(3, roots.size());
+        assertEquals(new File("/dev/shm/gkn"), roots.get(0).getDirectory());
+        assertEquals(1L << 30, roots.get(0).getMaxJobBytes());
+        assertEquals(8L << 30, roots.get(0).getQuotaBytes());
+        assertEquals(new File("C:\\scratch"), roots.get(1).getDirectory());
+        assertEquals(ScratchRoot.UNLIMITED, roots.get(1).getMaxJobBytes());
+        assertEquals(10L << 20, roots.get(1).getQuotaBytes());
+        assertEquals(new File("/scratch/gkn"), roots.get(2).getDirectory());
+        assertEquals(ScratchRoot.UNLIMITED, roots.get(2).getQuotaBytes());
+        assertTrue(ScratchRoot.parseRoots("").isEmpty());
+
+        for (String invalid : new String[] { "/tmp: size=1G",
+                "/tmp: quota=lots", ": quota=1G" }) {
+            try {
+                ScratchRoot.parseRoots(invalid);
+                fail("Accepted " + invalid);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testJobsArePlacedByDemandAndQuota() throws Exception {
+        File first = m_manager.allocate("Tool", 800);
+        File second = m_manager.allocate("Tool", 800);
+        File big = m_manager.allocate("Tool", 5000);
+        File unknown = m_manager.allocate("Tool", 0);
+
+        assertEquals(m_small, first.getParentFile().getParentFile());
+        // the quota of the small root is exhausted
+        assertEquals(m_large, second.getParentFile().getParentFile());
+        // the job limit of the small root is exceeded
+        assertEquals(m_large, big.getParentFile().getParentFile());
+        assertEquals(m_small, unknown.getParentFile().getParentFile());
+        assertEquals(800, m_manager.getReservedBytes(m_small));
+        assertEquals(5800, m_manager.getReservedBytes(m_large));
+
+        m_manager.release(first, false);
+        m_manager.release(second, false);
+        m_manager.release(big, false);
+        m_manager.release(unknown, false);
+        assertTrue(m_manager.awaitDeletions(10000));
+        assertEquals(0, m_manager.getReservedBytes(m_small));
+        assertEquals(0, m_manager.getReservedBytes(m_large));
+    }
+
+    @Test
+    public void testQuotaIsEnforced() throws Exception {
+        m_manager.configure(Collections.singletonList(new ScratchRoot(
+                m_small, ScratchRoot.UNLIMITED, 1000)));
+        File job = m_manager.allocate("Tool", 1000);
+        try {
+            m_manager.allocate("Tool", 1);
+            fail("Exceeded the quota.");
+        } catch (IOException e) {
+            // expected
+        }
+        m_manager.release(job, false);
+        assertTrue(m_manager.awaitDeletions(10000));
+        m_manager.release(m_manager.allocate("Tool", 1000), false);
+    }
+
+    @Test
+    public void testReleasedDirectoriesAreDeletedInBackground()
+            throws Exception {
+        File job = m_manager.allocate("Tool with spaces", 0);
+        assertTrue(job.getName().startsWith("Tool_with_spaces_"));
+        FileUtils.writeStringToFile(new File(job, "sub/output.txt"),
+                "0123456789");
+        File kept = m_manager.allocate("Tool", 0);
+
+        m_manager.release(job, false);
+        m_manager.release(kept, true);
+        assertTrue(m_manager.awaitDeletions(10000));
+        assertFalse(job.exists());
+        assertTrue(kept.isDirectory());
+        assertTrue(new File(kept, ScratchSpaceManager.KEEP_FILE).isFile());
+
+        ScratchStatistics statistics = m_manager.getStatistics();
+        assertEquals(2, statistics.getAllocated());
+        assertEquals(0, statistics.getActive());
+        assertEquals(1, statistics.getDeleted());
+        assertEquals(10, statistics.getFreedBytes());
+    }
+
+    @Test
+    public void testConcurrentAllocationsAreUnique() throws Exception {
+        final Set<File> directories = Collections
+                .newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; ++t) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100; ++i) {
+                        try {
+                            directories.add(m_manager.allocate("Tool", 0));
+                        } catch (IOException e) {
+                            return;
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(800, directories.size());
+        for (File directory : directories) {
+            assertTrue(directory.isDirectory());
+        }
+    }
+
+    @Test
+    public void testLeftoversOfCrashedSessionsAreSwept() throws Exception {
+        File crashed = new File(m_large, ScratchSpaceManager.SESSION_PREFIX
+                + "crashed");
+        FileUtils.writeStringToFile(new File(crashed, "Tool_1/output.txt"),
+                "leftover");
+        File lockFile = new File(crashed, ScratchSpaceManager.LOCK_FILE);
+        lockFile.createNewFile();
+        lockFile.setLastModified(System.currentTimeMillis()
+                - 2 * ScratchSpaceManager.SWEEP_GRACE_PERIOD_MS);
+
+        // a session that is alive
+        File alive = m_manager.allocate("Tool", 0).getParentFile();
+
+        ScratchSpaceManager restarted = new ScratchSpaceManager();
+        try {
+            restarted.configure(Collections.singletonList(new ScratchRoot(
+                    m_small, ScratchRoot.UNLIMITED, ScratchRoot.UNLIMITED)));
+            restarted.configure(Collections.singletonList(new ScratchRoot(
+                    m_large, ScratchRoot.UNLIMITED, ScratchRoot.UNLIMITED)));
+            assertTrue(restarted.awaitDeletions(10000));
+            assertFalse(crashed.exists());
+            assertTrue(alive.isDirectory());
+            assertEquals(1, restarted.getStatistics().getSweptSessions());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    public void testKeptDirectoriesStayReservedAndAreBounded()
+            throws Exception {
+        File first = m_manager.allocate("Failed", 800);
+        m_manager.release(first, true);
+        assertEquals(800, m_manager.getReservedBytes(m_small));
+        // the kept directory still counts against the quota
+        File second = m_manager.allocate("Tool", 800);
+        assertEquals(m_large, second.getParentFile().getParentFile());
+        m_manager.release(second, false);
+
+        List<File> kept = new ArrayList<File>();
+        for (int i = 0; i < ScratchSpaceManager.MAX_KEPT_DIRECTORIES; ++i) {
+            File job = m_manager.allocate("Failed", 0);
+            m_manager.release(job, true);
+            kept.add(job);
+        }
+        assertTrue(m_manager.awaitDeletions(10000));
+        // the oldest kept directory made room for the newer ones
+        assertFalse(first.exists());
+        assertEquals(0, m_manager.getReservedBytes(m_small));
+        for (File job : kept) {
+            assertTrue(job.isDirectory());
+        }
+    }
+
+    @Test
+    public void testKeptJobDirectoriesAreNotSwept() throws Exception {
+        File kept = m_manager.allocate("Failed", 0);
+        FileUtils.writeStringToFile(new File(kept, "output.txt"), "kept");
+        File deleted = m_manager.allocate("Tool", 0);
+        File expired = m_manager.allocate("Failed", 0);
+        m_manager.release(kept, true);
+        m_manager.release(expired, true);
+        new File(expired, ScratchSpaceManager.KEEP_FILE).setLastModified(
+                System.currentTimeMillis() - 2
+                        * ScratchSpaceManager.KEEP_RETENTION_MS);
+        File session = kept.getParentFile();
+        File lockFile = new File(session, ScratchSpaceManager.LOCK_FILE);
+
+        // simulate a crash of the session
+        m_manager.shutdown();
+        lockFile.createNewFile();
+        lockFile.setLastModified(System.currentTimeMillis()
+                - 2 * ScratchSpaceManager.SWEEP_GRACE_PERIOD_MS);
+
+        ScratchSpaceManager restarted = new ScratchSpaceManager();
+        try {
+            restarted.configure(Collections.singletonList(new ScratchRoot(
+                    m_small, ScratchRoot.UNLIMITED, ScratchRoot.UNLIMITED)));
+            assertTrue(restarted.awaitDeletions(10000));
+            assertFalse(deleted.exists());
+            assertFalse(expired.exists());
+            assertFalse(lockFile.exists());
+            assertEquals("kept", FileUtils.readFileToString(new File(kept,
+                    "output.txt")));
+            assertEquals(1, restarted.getStatistics().getSweptSessions());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+}
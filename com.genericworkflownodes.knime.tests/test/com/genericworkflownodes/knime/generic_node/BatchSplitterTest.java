@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.generic_node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.FileParameter;
+import com.genericworkflownodes.knime.port.Port;
+
+/**
+ * Tests for the {@link BatchSplitter}.
+ * 
+ * @author aiche
+ */
+public class BatchSplitterTest {
+
+    private static List<String> files(String prefix, int n) {
+        List<String> files = new ArrayList<String>();
+        for (int i = 0; i < n; ++i) {
+            files.add(prefix + i);
+        }
+        return files;
+    }
+
+    private static Port port(String name, boolean isMultiFile) {
+        Port port = new Port();
+        port.setName(name);
+        port.setMultiFile(isMultiFile);
+        return port;
+    }
+
+    private static NodeConfiguration createConfig(int nFiles) {
+        NodeConfiguration config = new NodeConfiguration();
+        config.setName("tool");
+        config.setInports(new Port[] { port("in", true),
+                port("database", false) });
+        config.setOutports(new Port[] { port("out", true) });
+        config.addParameter("in",
+                new FileListParameter("in", files("in_", nFiles)));
+        config.addParameter("database", new FileParameter("database",
+                "db.fasta"));
+        config.addParameter("out",
+                new FileListParameter("out", files("out_", nFiles)));
+        return config;
+    }
+
+    private static List<String> values(INodeConfiguration config, String key) {
+        return ((FileListParameter) config.getParameter(key)).getValue();
+    }
+
+    @Test
+    public void testSplit() {
+        NodeConfiguration config = createConfig(10);
+        assertEquals(10, BatchSplitter.getSplittableSize(config));
+
+        List<INodeConfiguration> shards = BatchSplitter.split(config, 3);
+        assertEquals(3, shards.size());
+
+        // the shards cover all files in order
+        List<String> in = new ArrayList<String>();
+        List<String> out = new ArrayList<String>();
+        for (INodeConfiguration shard : shards) {
+            assertEquals(values(shard, "in").size(), values(shard, "out")
+                    .size());
+            assertEquals("db.fasta", shard.getParameter("database")
+                    .getValue());
+            in.addAll(values(shard, "in"));
+            out.addAll(values(shard, "out"));
+        }
+        assertEquals(files("in_", 10), in);
+        assertEquals(files("out_", 10), out);
+        assertEquals(3, values(shards.get(0), "in").size());
+        assertEquals(4, values(shards.get(2), "in").size());
+
+        // the original configuration is untouched
+        assertEquals(10, values(config, "in").size());
+    }
+
+    @Test
+    public void testShardsAreLimitedByFiles() {
+        assertEquals(2, BatchSplitter.split(createConfig(2), 32).size());
+    }
+
+    @Test
+    public void testSingleFileOutputIsNotSplit() {
+        NodeConfiguration config = createConfig(10);
+        config.setOutports(new Port[] { port("out", false) });
+        config.addParameter("out", new FileParameter("out", "out.mzML"));
+        assertEquals(0, BatchSplitter.getSplittableSize(config));
+
+        List<INodeConfiguration> shards = BatchSplitter.split(config, 4);
+        assertEquals(1, shards.size());
+        assertSame(config, shards.get(0));
+    }
+
+    @Test
+    public void testSingleFileIsNotSplit() {
+        assertEquals(1, BatchSplitter.split(createConfig(1), 4).size());
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.nodes.io.export;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Simple benchmark for the {@link FileExporter}. Exports a number of files
+ * (default: 32 files of 64 MB) once sequentially with
+ * {@link FileUtils#copyFile(File, File)} as the output nodes did before, once
+ * with parallel copies and once with hard links.
+ * 
+ * Usage: FileExporterBenchmark [files] [megabytes per file] [directory]
+ * 
+ * @author aiche
+ */
+public class FileExporterBenchmark {
+
+    private static List<File> createSources(File directory, int files,
+            int megabytes) throws Exception {
+        byte[] block = new byte[1024 * 1024];
+        List<File> sources = new ArrayList<File>();
+        for (int i = 0; i < files; ++i) {
+            File source = new File(directory, "source" + i + ".bin");
+            FileOutputStream out = new FileOutputStream(source);
+            try {
+                for (int j = 0; j < megabytes; ++j) {
+                    block[0] = (byte) j;
+                    out.write(block);
+                }
+            } finally {
+                out.close();
+            }
+            sources.add(source);
+        }
+        return sources;
+    }
+
+    private static List<File> getTargets(File directory, int files) {
+        directory.mkdirs();
+        List<File> targets = new ArrayList<File>();
+        for (int i = 0; i < files; ++i) {
+            targets.add(new File(directory, "target" + i + ".bin"));
+        }
+        return targets;
+    }
+
+    private static void report(String name, long bytes, long millis) {
+        double throughput = ExportStatistics.throughput(bytes, millis);
+        System.out.println(String.format("%-24s %8d ms %10.1f MB/s", name,
+                millis, throughput / 1048576.0));
+    }
+
+    public static void main(String[] args) throws Exception {
+        int files = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int megabytes = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        File directory = new File(args.length > 2 ? args[2]
+                : System.getProperty("java.io.tmpdir"), "gkn_export_benchmark");
+        directory.mkdirs();
+        long bytes = (long) files * megabytes * 1024 * 1024;
+
+        try {
+            List<File> sources = createSources(directory, files, megabytes);
+
+            List<File> targets = getTargets(new File(directory, "sequential"),
+                    files);
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < files; ++i) {
+                FileUtils.copyFile(sources.get(i), targets.get(i));
+            }
+            report("FileUtils.copyFile", bytes, System.currentTimeMillis()
+                    - start);
+
+            FileExporter exporter = new FileExporter();
+            exporter.configure(FileExporter.getDefaultThreads(), false);
+            ExportStatistics statistics = exporter.export(sources,
+                    getTargets(new File(directory, "copies"), files),
+                    new ExecutionMonitor());
+            report("FileExporter", bytes, statistics.getMillis());
+            System.out.println(statistics);
+
+            exporter.configure(FileExporter.getDefaultThreads(), true);
+            statistics = exporter.export(sources,
+                    getTargets(new File(directory, "links"), files),
+                    new ExecutionMonitor());
+            report("FileExporter (links)", bytes, statistics.getMillis());
+            System.out.println(statistics);
+        } finally {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.nodes.io.export;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+
+import com.genericworkflownodes.util.Helper;
+
+/**
+ * Tests for the {@link FileExporter}.
+ * 
+ * @author aiche
+ */
+public class FileExporterTest {
+
+    private File m_workDir;
+
+    private File m_sourceDir;
+
+    private File m_targetDir;
+
+    private FileExporter m_exporter;
+
+    @Before
+    public void setUp() throws Exception {
+        m_workDir = Helper.getTempDir("export_test", true);
+        m_sourceDir = new File(m_workDir, "filestore");
+        m_targetDir = new File(m_workDir, "export");
+        m_sourceDir.mkdirs();
+        m_targetDir.mkdirs();
+        m_exporter = new FileExporter();
+        m_exporter.configure(4, false);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(m_workDir);
+    }
+
+    private File createSource(String name, int size) throws IOException {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        File file = new File(m_sourceDir, name);
+        FileUtils.writeByteArrayToFile(file, content);
+        return file;
+    }
+
+    private ExportStatistics export(File source, File target)
+            throws Exception {
+        return m_exporter.export(Collections.singletonList(source),
+                Collections.singletonList(target), new ExecutionMonitor());
+    }
+
+    private void assertSameContent(File expected, File actual)
+            throws IOException {
+        assertArrayEquals(FileUtils.readFileToByteArray(expected),
+                FileUtils.readFileToByteArray(actual));
+    }
+
+    private void assertNoTemporaryFiles() {
+        for (String name : m_targetDir.list()) {
+            assertFalse(name, name.endsWith(".part"));
+        }
+    }
+
+    @Test
+    public void testFilesAreCopiedInParallel() throws Exception {
+        List<File> sources = new ArrayList<File>();
+        List<File> targets = new ArrayList<File>();
+        for (int i = 0; i < 50; ++i) {
+            sources.add(createSource("file" + i + ".mzML", i * 10000));
+            targets.add(new File(m_targetDir, "file" + i + ".mzML"));
+        }
+        sources.get(7).setLastModified(1000000000000L);
+
+        ExportStatistics statistics = m_exporter.export(sources, targets,
+                new ExecutionMonitor());
+
+        assertEquals(50, statistics.getFiles());
+        assertEquals(50, statistics.getTransfers());
+        assertEquals(0, statistics.getHardLinks());
+        assertEquals(49 * 50 / 2 * 10000L, statistics.getBytes());
+        for (int i = 0; i < 50; ++i) {
+            assertSameContent(sources.get(i), targets.get(i));
+        }
+        assertEquals(sources.get(7).lastModified(), targets.get(7)
+                .lastModified());
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testExistingTargetsAreReplaced() throws Exception {
+        File source = createSource("small.txt", 10);
+        File target = new File(m_targetDir, "small.txt");
+        FileUtils.writeByteArrayToFile(target, new byte[1000]);
+
+        export(source, target);
+        assertSameContent(source, target);
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testLastSourceWinsForDuplicateTargets() throws Exception {
+        File first = createSource("a/result.txt", 100);
+        File second = createSource("b/result.txt", 200);
+        File target = new File(m_targetDir, "result.txt");
+
+        ExportStatistics statistics = m_exporter.export(
+                Arrays.asList(first, second), Arrays.asList(target, target),
+                new ExecutionMonitor());
+        assertEquals(1, statistics.getFiles());
+        assertSameContent(second, target);
+    }
+
+    @Test
+    public void testHardLinksAreOptional() throws Exception {
+        File source = createSource("linked.txt", 1000);
+        File target = new File(m_targetDir, "linked.txt");
+
+        m_exporter.configure(2, true);
+        assertEquals(1, export(source, target).getHardLinks());
+        assertTrue(Files.isSameFile(source.toPath(), target.toPath()));
+        // exporting again keeps the link
+        assertEquals(1, export(source, target).getHardLinks());
+        assertSameContent(createSource("expected.txt", 1000), target);
+
+        // replacing the link with a copy must not touch the source
+        m_exporter.configure(2, false);
+        assertEquals(1, export(source, target).getTransfers());
+        assertFalse(Files.isSameFile(source.toPath(), target.toPath()));
+        assertEquals(1000, source.length());
+        assertSameContent(source, target);
+    }
+
+    @Test
+    public void testLargeFilesAreExported() throws Exception {
+        File source = createSource("large.bin",
+                (int) FileExporter.REFLINK_THRESHOLD + 12345);
+        File target = new File(m_targetDir, "large.bin");
+
+        ExportStatistics statistics = export(source, target);
+        assertEquals(1, statistics.getReflinks() + statistics.getTransfers());
+        assertSameContent(source, target);
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testFailedExportLeavesNoTemporaryFiles() throws Exception {
+        File source = createSource("file.txt", 100);
+        File target = new File(m_targetDir, "file.txt");
+        target.mkdirs();
+        try {
+            export(source, target);
+            fail("Replaced a directory.");
+        } catch (IOException e) {
+            // expected
+        }
+        assertTrue(target.isDirectory());
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void testMissingTargetDirectoriesAreCreated() throws Exception {
+        File source = createSource("file.txt", 100);
+        File target = new File(m_targetDir, "sub/dir/file.txt");
+        export(source, target);
+        assertSameContent(source, target);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreadCount() {
+        m_exporter.configure(0, false);
+    }
+}
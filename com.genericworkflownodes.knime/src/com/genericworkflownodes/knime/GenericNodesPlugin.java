@@ -1,27 +1,46 @@
 /**
  * Copyright (c) 2011-2012, Marc Röttig, Stephan Aiche.
- *
+ * 
  * This file is part of GenericKnimeNodes.
  * 
  * GenericKnimeNodes is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
+ * 
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- *
+ * 
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package com.genericworkflownodes.knime;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.knime.core.node.NodeLogger;
 import org.osgi.framework.BundleContext;
 
+import com.genericworkflownodes.knime.execution.CpuAllocator;
+import com.genericworkflownodes.knime.execution.ToolExecutionScheduler;
+import com.genericworkflownodes.knime.execution.batch.BatchSchedulerRegistry;
+import com.genericworkflownodes.knime.execution.cache.ToolExecutionCache;
+import com.genericworkflownodes.knime.execution.impl.JavaToolRuntime;
+import com.genericworkflownodes.knime.execution.impl.ProcessLauncher;
+import com.genericworkflownodes.knime.execution.impl.RemoteAgentPool;
+import com.genericworkflownodes.knime.execution.impl.ResourceLimitPresets;
+import com.genericworkflownodes.knime.execution.impl.ResourceLimits;
+import com.genericworkflownodes.knime.execution.scratch.ScratchRoot;
+import com.genericworkflownodes.knime.execution.scratch.ScratchSpaceManager;
+import com.genericworkflownodes.knime.nodes.io.export.FileExporter;
+import com.genericworkflownodes.knime.preferences.PreferenceInitializer;
+
 /**
  * This is the OSGI bundle activator.
  * 
@@ -77,6 +96,174 @@ public class GenericNodesPlugin extends AbstractUIPlugin {
     public void start(final BundleContext context) throws Exception {
         super.start(context);
         gknPLugin = this;
+        configureScheduler();
+        configureExecutionCache();
+        configureBatchScheduler();
+        configureRemoteAgents();
+        configureResourceLimits();
+        configureProcessLauncher();
+        configureJavaToolRuntime();
+        configureScratchSpace();
+        configureFileExport();
+    }
+
+    /**
+     * Transfers the scheduler settings from the preference store into the
+     * {@link ToolExecutionScheduler} and the {@link CpuAllocator}.
+     */
+    private void configureScheduler() {
+        IPreferenceStore store = getPreferenceStore();
+        try {
+            int maxConcurrentTools = store
+                    .getInt(PreferenceInitializer.PREF_MAX_CONCURRENT_TOOLS);
+            Map<String, Integer> executableLimits = ToolExecutionScheduler
+                    .parseLimits(store
+                            .getString(PreferenceInitializer.PREF_EXECUTABLE_LIMITS));
+            Map<String, Integer> pluginLimits = ToolExecutionScheduler
+                    .parseLimits(store
+                            .getString(PreferenceInitializer.PREF_PLUGIN_LIMITS));
+            ToolExecutionScheduler.getDefault().configure(maxConcurrentTools,
+                    executableLimits, pluginLimits);
+            CpuAllocator.getDefault().configure(
+                    store.getBoolean(PreferenceInitializer.PREF_CPU_PINNING),
+                    store.getInt(PreferenceInitializer.PREF_CORES_PER_TOOL),
+                    maxConcurrentTools);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid tool scheduler settings, using defaults.", e);
+        }
+    }
+
+    /**
+     * Transfers the execution cache settings from the preference store into
+     * the {@link ToolExecutionCache}.
+     */
+    private void configureExecutionCache() {
+        IPreferenceStore store = getPreferenceStore();
+        String directory = store
+                .getString(PreferenceInitializer.PREF_CACHE_DIRECTORY);
+        try {
+            ToolExecutionCache.getDefault().configure(
+                    store.getBoolean(PreferenceInitializer.PREF_CACHE_ENABLED),
+                    "".equals(directory) ? ToolExecutionCache
+                            .getDefaultDirectory() : new File(directory),
+                    store.getInt(PreferenceInitializer.PREF_CACHE_MAX_SIZE)
+                            * 1024L * 1024L);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid execution cache settings, cache disabled.", e);
+        }
+    }
+
+    /**
+     * Transfers the batch scheduler settings from the preference store into
+     * the {@link BatchSchedulerRegistry}.
+     */
+    private void configureBatchScheduler() {
+        IPreferenceStore store = getPreferenceStore();
+        String spoolDirectory = store
+                .getString(PreferenceInitializer.PREF_BATCH_SPOOL_DIRECTORY);
+        int workers = store.getInt(PreferenceInitializer.PREF_BATCH_WORKERS);
+        String submitCommand = store
+                .getString(PreferenceInitializer.PREF_BATCH_SUBMIT_COMMAND);
+        String statusCommand = store
+                .getString(PreferenceInitializer.PREF_BATCH_STATUS_COMMAND);
+        String cancelCommand = store
+                .getString(PreferenceInitializer.PREF_BATCH_CANCEL_COMMAND);
+        try {
+            BatchSchedulerRegistry.getDefault().configure(
+                    "".equals(spoolDirectory) ? BatchSchedulerRegistry
+                            .getDefaultSpoolDirectory() : new File(
+                            spoolDirectory), workers, submitCommand,
+                    statusCommand, cancelCommand);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid batch scheduler settings, using defaults.", e);
+        }
+    }
+
+    /**
+     * Transfers the worker agents from the preference store into the
+     * {@link RemoteAgentPool}.
+     */
+    private void configureRemoteAgents() {
+        try {
+            RemoteAgentPool.getDefault().configure(
+                    RemoteAgentPool.parseAgents(getPreferenceStore().getString(
+                            PreferenceInitializer.PREF_REMOTE_AGENTS)));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid worker agent settings, no agents available.",
+                    e);
+        }
+    }
+
+    /**
+     * Transfers the resource limit presets from the preference store into the
+     * {@link ResourceLimitPresets}.
+     */
+    private void configureResourceLimits() {
+        try {
+            ResourceLimitPresets.getDefault().configure(
+                    ResourceLimits.parsePresets(getPreferenceStore().getString(
+                            PreferenceInitializer.PREF_RESOURCE_LIMITS)));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid resource limit settings, tools are started "
+                    + "without limits.", e);
+        }
+    }
+
+    /**
+     * Transfers the process launcher flag from the preference store into the
+     * {@link ProcessLauncher}.
+     */
+    private void configureProcessLauncher() {
+        ProcessLauncher.getDefault().configure(
+                getPreferenceStore().getBoolean(
+                        PreferenceInitializer.PREF_PROCESS_LAUNCHER));
+    }
+
+    /**
+     * Transfers the concurrency limit of in-process Java tools from the
+     * preference store into the {@link JavaToolRuntime}.
+     */
+    private void configureJavaToolRuntime() {
+        try {
+            JavaToolRuntime.getDefault().configure(
+                    getPreferenceStore().getInt(
+                            PreferenceInitializer.PREF_JAVA_TOOL_CONCURRENCY));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid Java tool settings, using defaults.", e);
+        }
+    }
+
+    /**
+     * Transfers the roots of the job directories from the preference store
+     * into the {@link ScratchSpaceManager}.
+     */
+    private void configureScratchSpace() {
+        try {
+            ScratchSpaceManager.getDefault().configure(
+                    ScratchRoot.parseRoots(getPreferenceStore().getString(
+                            PreferenceInitializer.PREF_SCRATCH_ROOTS)));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid job directory roots, using the system temp "
+                    + "directory.", e);
+            ScratchSpaceManager.getDefault().configure(
+                    new ArrayList<ScratchRoot>());
+        }
+    }
+
+    /**
+     * Transfers the export settings of the output nodes from the preference
+     * store into the {@link FileExporter}.
+     */
+    private void configureFileExport() {
+        try {
+            FileExporter.getDefault().configure(
+                    getPreferenceStore().getInt(
+                            PreferenceInitializer.PREF_EXPORT_THREADS),
+                    getPreferenceStore().getBoolean(
+                            PreferenceInitializer.PREF_EXPORT_HARD_LINKS));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Invalid export settings, using defaults.", e);
+        }
     }
 
     /**
@@ -89,6 +276,8 @@ public class GenericNodesPlugin extends AbstractUIPlugin {
      */
     @Override
     public void stop(final BundleContext context) throws Exception {
+        ProcessLauncher.getDefault().shutdown();
+        ScratchSpaceManager.getDefault().shutdown();
         gknPLugin = null;
         super.stop(context);
     }
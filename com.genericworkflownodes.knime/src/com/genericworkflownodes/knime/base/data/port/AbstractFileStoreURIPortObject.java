@@ -18,11 +18,19 @@
  */
 package com.genericworkflownodes.knime.base.data.port;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.JComponent;
 
@@ -57,21 +65,37 @@ public abstract class AbstractFileStoreURIPortObject extends
     private static final String SETTINGS_KEY_REL_PATH = "rel-path";
 
     /**
-     * List of files stored in the port object.
+     * List of paths stored inside the underlying filestore, relative to it's
+     * location. The {@link URIContent}s are created from them on demand.
      */
-    private List<URIContent> m_uriContents;
+    private PrefixCompressedStringList m_relPaths;
 
     /**
-     * List of paths stored inside the underlying filestore, relative to it's
-     * location.
+     * The distinct file extensions in the order of their first use.
+     */
+    private List<String> m_extensions;
+
+    /**
+     * Index of every extension in {@link #m_extensions}.
      */
-    private List<String> m_relPaths;
+    private Map<String, Integer> m_extensionIndex;
+
+    /**
+     * Index of the extension of every file in {@link #m_extensions}.
+     */
+    private int[] m_fileExtensions;
 
     /**
      * The PortObjectSpec of the underlying content.
      */
     private URIPortObjectSpec m_uriPortObjectSpec;
 
+    /**
+     * The path of the file store root as used in file URIs, determined on
+     * first use.
+     */
+    private String m_rootPath;
+
     /**
      * Creates {@link FileStoreURIPortObject} with the given {@link FileStore}.
      *
@@ -80,8 +104,7 @@ public abstract class AbstractFileStoreURIPortObject extends
      */
     public AbstractFileStoreURIPortObject(FileStore fs) {
         super(Collections.singletonList(fs));
-        m_uriContents = new ArrayList<URIContent>();
-        m_relPaths = new ArrayList<String>();
+        clear();
     }
 
     /**
@@ -89,8 +112,14 @@ public abstract class AbstractFileStoreURIPortObject extends
      * FileStoreURIPortObjectSerializer.
      */
     AbstractFileStoreURIPortObject() {
-        m_uriContents = new ArrayList<URIContent>();
-        m_relPaths = new ArrayList<String>();
+        clear();
+    }
+
+    private void clear() {
+        m_relPaths = new PrefixCompressedStringList();
+        m_extensions = new ArrayList<String>();
+        m_extensionIndex = new HashMap<String, Integer>();
+        m_fileExtensions = new int[16];
     }
 
     /**
@@ -122,18 +151,117 @@ public abstract class AbstractFileStoreURIPortObject extends
      * @return A {@link File} object pointing to the registered file.
      */
     public File registerFile(String filename) {
-        // register the URIContent
-        File child = new File(getFileStoreRootDirectory(), filename);
-        URIContent uric = new URIContent(child.toURI(),
-                MIMETypeHelper.getMIMEtypeExtension(filename));
-
-        // update content and spec accordingly
-        m_uriContents.add(uric);
-        m_uriPortObjectSpec = URIPortObjectSpec.create(m_uriContents);
-        m_relPaths.add(filename);
+        if (addFile(filename, MIMETypeHelper.getMIMEtypeExtension(filename))) {
+            updateSpec();
+        }
 
         // give the file object to the client so he can work with it
-        return child;
+        return new File(getFileStoreRootDirectory(), filename);
+    }
+
+    /**
+     * Adds the given files to the {@link FileStoreURIPortObject}. Prefer this
+     * method over {@link #registerFile(String)} for many files.
+     *
+     * @param filenames
+     *            The relative paths that should be stored inside the
+     *            file-store.
+     * @return {@link File} objects pointing to the registered files.
+     */
+    public List<File> registerFiles(List<String> filenames) {
+        File root = getFileStoreRootDirectory();
+        List<File> files = new ArrayList<File>(filenames.size());
+        boolean newExtensions = false;
+        for (String filename : filenames) {
+            newExtensions |= addFile(filename,
+                    MIMETypeHelper.getMIMEtypeExtension(filename));
+            files.add(new File(root, filename));
+        }
+        if (newExtensions) {
+            updateSpec();
+        }
+        return files;
+    }
+
+    /**
+     * Appends a file to the content.
+     *
+     * @param relPath
+     *            The path of the file relative to the file store.
+     * @param extension
+     *            The file extension.
+     * @return True if the extension was not used before.
+     */
+    private boolean addFile(String relPath, String extension) {
+        Integer index = m_extensionIndex.get(extension);
+        boolean newExtension = index == null;
+        if (newExtension) {
+            index = m_extensions.size();
+            m_extensions.add(extension);
+            m_extensionIndex.put(extension, index);
+        }
+        int i = m_relPaths.size();
+        if (i == m_fileExtensions.length) {
+            m_fileExtensions = Arrays.copyOf(m_fileExtensions, 2 * i);
+        }
+        m_fileExtensions[i] = index;
+        m_relPaths.add(relPath);
+        return newExtension;
+    }
+
+    /**
+     * Creates the spec from the used extensions, which is equivalent to
+     * {@link URIPortObjectSpec#create} on all {@link URIContent}s.
+     */
+    private void updateSpec() {
+        m_uriPortObjectSpec = new URIPortObjectSpec(new ArrayList<String>(
+                m_extensions));
+    }
+
+    /**
+     * Creates the {@link URIContent} of the i-th file.
+     *
+     * @param i
+     *            The index of the file.
+     * @return The {@link URIContent}.
+     */
+    private URIContent getURIContent(int i) {
+        if (m_rootPath == null) {
+            String rootPath = getFileStoreRootDirectory().toURI().getPath();
+            m_rootPath = rootPath.endsWith("/") ? rootPath : rootPath + "/";
+        }
+        String relPath = m_relPaths.get(i);
+        try {
+            return new URIContent(toURI(m_rootPath, relPath, new File(
+                    getFileStoreRootDirectory(), relPath)),
+                    m_extensions.get(m_fileExtensions[i]));
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates the same URI as {@link File#toURI()} for a file below the file
+     * store root without making the path absolute and normalizing it again.
+     * Like {@link File#toURI()}, directories get a trailing slash.
+     *
+     * @param rootPath
+     *            The URI path of the root directory, ending with a slash.
+     * @param relPath
+     *            The path of the file relative to the root directory.
+     * @param file
+     *            The file.
+     * @return The file URI.
+     * @throws URISyntaxException
+     *             If the path cannot be represented as URI.
+     */
+    static URI toURI(String rootPath, String relPath, File file)
+            throws URISyntaxException {
+        String path = rootPath + relPath.replace(File.separatorChar, '/');
+        if (!path.endsWith("/") && file.isDirectory()) {
+            path += "/";
+        }
+        return new URI("file", null, path, null);
     }
 
     @Override
@@ -165,9 +293,9 @@ public abstract class AbstractFileStoreURIPortObject extends
     void save(final ModelContentWO model, final ExecutionMonitor exec)
             throws CanceledExecutionException {
         // store manged URIs
-        for (int i = 0; i < m_uriContents.size() && i < m_relPaths.size(); ++i) {
+        for (int i = 0; i < m_relPaths.size(); ++i) {
             ModelContentWO child = model.addModelContent("file-" + i);
-            m_uriContents.get(i).save(child);
+            getURIContent(i).save(child);
             child.addString(SETTINGS_KEY_REL_PATH, m_relPaths.get(i));
         }
     }
@@ -188,24 +316,79 @@ public abstract class AbstractFileStoreURIPortObject extends
      */
     void load(final ModelContentRO model, PortObjectSpec spec,
             ExecutionMonitor exec) throws InvalidSettingsException {
-        List<URIContent> list = new ArrayList<URIContent>();
-        List<String> relPathList = new ArrayList<String>();
+        clear();
         for (String key : model.keySet()) {
             if (key.startsWith("file-")) {
                 ModelContentRO child = model.getModelContent(key);
-                list.add(URIContent.load(child));
-                relPathList.add(child.getString(SETTINGS_KEY_REL_PATH));
+                // the URI points to the old location, only the extension is
+                // kept
+                String extension = URIContent.load(child).getExtension();
+                addFile(child.getString(SETTINGS_KEY_REL_PATH), extension);
             }
         }
 
-        m_uriContents = list;
-        m_relPaths = relPathList;
+        m_uriPortObjectSpec = (URIPortObjectSpec) spec;
+    }
+
+    /**
+     * Save the currently managed files in the {@link CompactContentFormat}.
+     *
+     * @param out
+     *            The output to write the list of files to.
+     * @param exec
+     *            The associated execution context.
+     * @throws IOException
+     *             If writing fails.
+     */
+    void save(final DataOutput out, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+        exec.checkCanceled();
+        CompactContentFormat.writeDictionary(out, m_extensions,
+                m_fileExtensions, m_relPaths.size());
+        CompactContentFormat.writeStrings(out, m_relPaths);
+    }
+
+    /**
+     * Reconstruct the {@link AbstractFileStoreURIPortObject} from content
+     * written by {@link #save(DataOutput, ExecutionMonitor)}.
+     *
+     * @param in
+     *            The input to read the list of files from.
+     * @param spec
+     *            The expected {@link PortObjectSpec}.
+     * @param exec
+     *            The current {@link ExecutionContext}.
+     * @throws IOException
+     *             Thrown if the content is invalid.
+     */
+    void load(final DataInput in, PortObjectSpec spec, ExecutionMonitor exec)
+            throws IOException {
+        clear();
+        List<String> extensions = CompactContentFormat.readDictionary(in);
+        List<String> relPaths = CompactContentFormat.readStrings(in);
+        if (extensions.size() != relPaths.size()) {
+            throw new IOException("Malformed port object content.");
+        }
+        for (int i = 0; i < relPaths.size(); ++i) {
+            addFile(relPaths.get(i), extensions.get(i));
+        }
+
         m_uriPortObjectSpec = (URIPortObjectSpec) spec;
     }
 
     @Override
     public List<URIContent> getURIContents() {
-        return m_uriContents;
+        return new AbstractList<URIContent>() {
+            @Override
+            public URIContent get(int index) {
+                return getURIContent(index);
+            }
+
+            @Override
+            public int size() {
+                return m_relPaths.size();
+            }
+        };
     }
 
     @Override
@@ -218,25 +401,16 @@ public abstract class AbstractFileStoreURIPortObject extends
         // call super if they have something todo
         super.postConstruct();
 
-        List<URIContent> relocatedURIContents = new ArrayList<URIContent>();
-
-        //
-        for (int i = 0; i < m_uriContents.size() && i < m_relPaths.size(); ++i) {
-            File fileInNewFileStore = new File(getFileStoreRootDirectory(),
-                    m_relPaths.get(i));
-            if (!fileInNewFileStore.exists()) {
+        // the URIContents are created relative to the new location
+        m_rootPath = null;
+        File root = getFileStoreRootDirectory();
+        for (String relPath : m_relPaths) {
+            if (!new File(root, relPath).exists()) {
                 throw new IOException(String.format(
                         "Could not locate file %s in FileStoreURIPortObject.",
-                        m_relPaths.get(i)));
+                        relPath));
             }
-
-            // create new URIContent using the rel path and the old extension
-            // infos
-            relocatedURIContents.add(new URIContent(fileInNewFileStore.toURI(),
-                    m_uriContents.get(i).getExtension()));
         }
-
-        m_uriContents = relocatedURIContents;
     }
 
     /**
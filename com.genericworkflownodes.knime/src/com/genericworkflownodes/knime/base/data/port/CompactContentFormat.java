@@ -0,0 +1,383 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+
+import org.knime.core.data.util.NonClosableInputStream;
+import org.knime.core.node.port.PortObjectZipInputStream;
+import org.knime.core.node.port.PortObjectZipOutputStream;
+
+/**
+ * Binary content format of the file store port objects, replacing the
+ * content.xml written by earlier versions.
+ * 
+ * The content starts with a magic number and the format version. Numbers are
+ * written as variable length integers, strings as length-prefixed UTF-8 and
+ * lists of strings front-coded, i.e., every string only stores the part that
+ * differs from its predecessor. Repeating values like file extensions are
+ * written once and referenced by index; they may be null.
+ * 
+ * @author aiche
+ */
+final class CompactContentFormat {
+
+    /**
+     * Name of the zip entry holding the binary content.
+     */
+    static final String CONTENT_BIN = "content.bin";
+
+    /**
+     * The current format version. Version 1 is the content.xml format.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Marks the start of the content, "GKNP".
+     */
+    private static final int MAGIC = 0x474B4E50;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CompactContentFormat() {
+    }
+
+    /**
+     * Starts the content entry in the given zip stream and writes the header.
+     * The returned stream has to be flushed, but not closed, after writing the
+     * content.
+     * 
+     * @param out
+     *            The stream of the port object.
+     * @return The stream to write the content to.
+     * @throws IOException
+     *             If the header cannot be written.
+     */
+    static DataOutputStream createOutput(PortObjectZipOutputStream out)
+            throws IOException {
+        out.putNextEntry(new ZipEntry(CONTENT_BIN));
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(
+                out, BUFFER_SIZE));
+        data.writeInt(MAGIC);
+        writeVarInt(data, VERSION);
+        return data;
+    }
+
+    /**
+     * Reads and checks the header of the current content entry of the given
+     * zip stream.
+     * 
+     * @param in
+     *            The stream of the port object, positioned at the
+     *            {@link #CONTENT_BIN} entry.
+     * @return The stream to read the content from.
+     * @throws IOException
+     *             If the header is invalid or of a newer version.
+     */
+    static DataInputStream createInput(PortObjectZipInputStream in)
+            throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(
+                new NonClosableInputStream.Zip(in), BUFFER_SIZE));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Invalid port object content.");
+        }
+        int version = readVarInt(data);
+        if (version > VERSION) {
+            throw new IOException(String.format(
+                    "Port object content was written in format version %d, "
+                            + "only versions up to %d are supported.",
+                    version, VERSION));
+        }
+        return data;
+    }
+
+    /**
+     * Writes a non-negative number using 7 bits per byte.
+     * 
+     * @param out
+     *            The output.
+     * @param value
+     *            The value to write.
+     * @throws IOException
+     *             If writing fails.
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads a number written by {@link #writeVarInt(DataOutput, int)}.
+     * 
+     * @param in
+     *            The input.
+     * @return The value.
+     * @throws IOException
+     *             If reading fails or the value is malformed.
+     */
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            if (shift == 28 && b > 0x07) {
+                // the last byte may only carry bits 28 to 30
+                break;
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed port object content.");
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     * 
+     * @param out
+     *            The output.
+     * @param value
+     *            The string.
+     * @throws IOException
+     *             If writing fails.
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     * 
+     * @param in
+     *            The input.
+     * @return The string.
+     * @throws IOException
+     *             If reading fails.
+     */
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Writes a string that may be null. The length is incremented by one, 0
+     * marks null.
+     * 
+     * @param out
+     *            The output.
+     * @param value
+     *            The string or null.
+     * @throws IOException
+     *             If writing fails.
+     */
+    static void writeNullableString(DataOutput out, String value)
+            throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF8);
+        writeVarInt(out, bytes.length + 1);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by
+     * {@link #writeNullableString(DataOutput, String)}.
+     * 
+     * @param in
+     *            The input.
+     * @return The string or null.
+     * @throws IOException
+     *             If reading fails.
+     */
+    static String readNullableString(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Writes a list of strings front-coded. Works best for sorted lists, e.g.,
+     * the relative paths of a file store.
+     * 
+     * @param out
+     *            The output.
+     * @param values
+     *            The strings.
+     * @throws IOException
+     *             If writing fails.
+     */
+    static void writeStrings(DataOutput out, List<String> values)
+            throws IOException {
+        writeVarInt(out, values.size());
+        String last = "";
+        for (String value : values) {
+            int max = Math.min(last.length(), value.length());
+            int shared = 0;
+            while (shared < max
+                    && last.charAt(shared) == value.charAt(shared)) {
+                ++shared;
+            }
+            // never split a surrogate pair
+            if (shared > 0
+                    && Character.isHighSurrogate(value.charAt(shared - 1))) {
+                --shared;
+            }
+            writeVarInt(out, shared);
+            writeString(out, value.substring(shared));
+            last = value;
+        }
+    }
+
+    /**
+     * Reads a list written by {@link #writeStrings(DataOutput, List)}.
+     * 
+     * @param in
+     *            The input.
+     * @return The strings.
+     * @throws IOException
+     *             If reading fails or the list is malformed.
+     */
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = readVarInt(in);
+        // do not trust the size for the allocation of corrupt content
+        List<String> values = new ArrayList<String>(Math.min(size, 1024));
+        String last = "";
+        for (int i = 0; i < size; ++i) {
+            int shared = readVarInt(in);
+            if (shared > last.length()) {
+                throw new IOException("Malformed port object content.");
+            }
+            last = last.substring(0, shared) + readString(in);
+            values.add(last);
+        }
+        return values;
+    }
+
+    /**
+     * Writes a list of strings with few distinct values, e.g., file
+     * extensions, as a table of the distinct values and an index per element.
+     * The strings may be null.
+     * 
+     * @param out
+     *            The output.
+     * @param values
+     *            The strings.
+     * @throws IOException
+     *             If writing fails.
+     */
+    static void writeDictionary(DataOutput out, List<String> values)
+            throws IOException {
+        List<String> distinct = new ArrayList<String>();
+        Map<String, Integer> indices = new HashMap<String, Integer>();
+        int[] elements = new int[values.size()];
+        for (int i = 0; i < elements.length; ++i) {
+            Integer index = indices.get(values.get(i));
+            if (index == null) {
+                index = distinct.size();
+                distinct.add(values.get(i));
+                indices.put(values.get(i), index);
+            }
+            elements[i] = index;
+        }
+        writeDictionary(out, distinct, elements, elements.length);
+    }
+
+    /**
+     * Writes an already dictionary encoded list of strings.
+     * 
+     * @param out
+     *            The output.
+     * @param distinct
+     *            The distinct values, may contain null.
+     * @param elements
+     *            The index of every element in distinct.
+     * @param size
+     *            The number of elements.
+     * @throws IOException
+     *             If writing fails.
+     */
+    static void writeDictionary(DataOutput out, List<String> distinct,
+            int[] elements, int size) throws IOException {
+        writeVarInt(out, distinct.size());
+        for (String value : distinct) {
+            writeNullableString(out, value);
+        }
+        writeVarInt(out, size);
+        for (int i = 0; i < size; ++i) {
+            writeVarInt(out, elements[i]);
+        }
+    }
+
+    /**
+     * Reads a list written by {@link #writeDictionary(DataOutput, List)}.
+     * 
+     * @param in
+     *            The input.
+     * @return The strings.
+     * @throws IOException
+     *             If reading fails or the list is malformed.
+     */
+    static List<String> readDictionary(DataInput in) throws IOException {
+        int nDistinct = readVarInt(in);
+        List<String> distinct = new ArrayList<String>(Math.min(nDistinct,
+                1024));
+        for (int i = 0; i < nDistinct; ++i) {
+            distinct.add(readNullableString(in));
+        }
+        int size = readVarInt(in);
+        List<String> values = new ArrayList<String>(Math.min(size, 1024));
+        for (int i = 0; i < size; ++i) {
+            int index = readVarInt(in);
+            if (index >= distinct.size()) {
+                throw new IOException("Malformed port object content.");
+            }
+            values.add(distinct.get(index));
+        }
+        return values;
+    }
+}
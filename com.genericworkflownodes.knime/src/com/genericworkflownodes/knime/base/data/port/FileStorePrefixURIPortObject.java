@@ -18,11 +18,12 @@
  */
 package com.genericworkflownodes.knime.base.data.port;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
-import java.util.Iterator;
+import java.io.IOException;
+import java.util.List;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.knime.core.data.filestore.FileStore;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionMonitor;
@@ -100,6 +101,20 @@ public class FileStorePrefixURIPortObject extends
         super.save(model.addModelContent(SETTINGS_KEY_PARENT_SETTINGS), exec);
     }
 
+    @Override
+    void load(DataInput in, PortObjectSpec spec, ExecutionMonitor exec)
+            throws IOException {
+        m_prefix = CompactContentFormat.readString(in);
+        super.load(in, spec, exec);
+    }
+
+    @Override
+    void save(DataOutput out, ExecutionMonitor exec) throws IOException,
+            CanceledExecutionException {
+        CompactContentFormat.writeString(out, m_prefix);
+        super.save(out, exec);
+    }
+
     @Override
     public String getPrefix() {
         return (new File(getFileStoreRootDirectory(), m_prefix))
@@ -110,33 +125,30 @@ public class FileStorePrefixURIPortObject extends
      * Triggers the re-indexing of the current content of the port, by
      * collecting all files that share the given prefix. This method should be
      * called after all content was generated inside the file store.
+     * 
+     * @throws IOException
+     *             If the file store cannot be read.
+     */
+    public void collectFiles() throws IOException {
+        collectFiles(1);
+    }
+
+    /**
+     * Like {@link #collectFiles()}, but scans the subdirectories of the
+     * prefix in parallel, e.g., for tools writing many files to a network
+     * file system.
+     * 
+     * @param parallelism
+     *            Number of threads scanning directories.
+     * @throws IOException
+     *             If the file store cannot be read.
      */
-    public void collectFiles() {
-        // we have generated a list of files based on a prefix
-        final File f = new File(getPrefix());
-
-        Iterator<File> fIt = FileUtils.iterateFiles(f.getParentFile(),
-                TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE);
-
-        while (fIt.hasNext()) {
-            File tf = fIt.next();
-            if (!tf.isDirectory()) {
-                final String abs_path = tf.getAbsolutePath();
-                if (abs_path.startsWith(getPrefix())) {
-                    // get relative path to filestore as string
-                    File relPath = new File(tf.getName());
-                    File parent = tf.getParentFile();
-                    while (!parent.equals(getFileStoreRootDirectory())) {
-                        relPath = new File(parent.getName(), relPath.toString());
-                        parent = parent.getParentFile();
-                    }
-
-                    // register the found file at the underlying
-                    // FileStoreURIPortObject
-                    registerFile(relPath.toString());
-                }
-            }
-        }
+    public void collectFiles(int parallelism) throws IOException {
+        List<String> relPaths = new PrefixFileCollector(
+                getFileStoreRootDirectory().toPath(), m_prefix)
+                .collect(parallelism);
 
+        // register the found files at the underlying FileStoreURIPortObject
+        registerFiles(relPaths);
     }
 }
@@ -18,8 +18,12 @@
  */
 package com.genericworkflownodes.knime.base.data.port;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -220,6 +224,77 @@ public class FileStoreReferenceURIPortObject extends FileStorePortObject
 
     }
 
+    /**
+     * Save the currently managed files in the {@link CompactContentFormat}.
+     * 
+     * @param out
+     *            The output to write the list of files to.
+     * @param exec
+     *            The associated execution context.
+     * @throws IOException
+     *             If writing fails.
+     */
+    void save(final DataOutput out, final ExecutionMonitor exec)
+            throws IOException, CanceledExecutionException {
+        exec.checkCanceled();
+        int size = Math.min(m_uriContents.size(),
+                Math.min(m_relPaths.size(), m_fsIndices.size()));
+        List<String> uris = new ArrayList<String>(size);
+        List<String> extensions = new ArrayList<String>(size);
+        for (URIContent uriContent : m_uriContents.subList(0, size)) {
+            uris.add(uriContent.getURI().toString());
+            extensions.add(uriContent.getExtension());
+        }
+        CompactContentFormat.writeStrings(out, uris);
+        CompactContentFormat.writeDictionary(out, extensions);
+        CompactContentFormat.writeStrings(out, m_relPaths.subList(0, size));
+        for (int i = 0; i < size; ++i) {
+            // -1 marks files outside of a file store
+            CompactContentFormat.writeVarInt(out, m_fsIndices.get(i) + 1);
+        }
+    }
+
+    /**
+     * Reconstruct the {@link FileStoreReferenceURIPortObject} from content
+     * written by {@link #save(DataOutput, ExecutionMonitor)}.
+     * 
+     * @param in
+     *            The input to read the list of files from.
+     * @param spec
+     *            The expected {@link PortObjectSpec}.
+     * @param exec
+     *            The current {@link ExecutionContext}.
+     * @throws IOException
+     *             Thrown if the content is invalid.
+     */
+    void load(final DataInput in, PortObjectSpec spec, ExecutionMonitor exec)
+            throws IOException {
+        List<String> uris = CompactContentFormat.readStrings(in);
+        List<String> extensions = CompactContentFormat.readDictionary(in);
+        List<String> relPaths = CompactContentFormat.readStrings(in);
+        if (extensions.size() != uris.size()
+                || relPaths.size() != uris.size()) {
+            throw new IOException("Malformed port object content.");
+        }
+        List<URIContent> uriContents = new ArrayList<URIContent>(uris.size());
+        List<Integer> fsIndices = new ArrayList<Integer>(uris.size());
+        for (int i = 0; i < uris.size(); ++i) {
+            try {
+                uriContents.add(new URIContent(new URI(uris.get(i)),
+                        extensions.get(i)));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid URI in port object content: "
+                        + uris.get(i), e);
+            }
+            fsIndices.add(CompactContentFormat.readVarInt(in) - 1);
+        }
+
+        m_uriContents = uriContents;
+        m_relPaths = relPaths;
+        m_fsIndices = fsIndices;
+        m_uriPortObjectSpec = (URIPortObjectSpec) spec;
+    }
+
     @Override
     protected void postConstruct() throws IOException {
         // call super if they have something todo
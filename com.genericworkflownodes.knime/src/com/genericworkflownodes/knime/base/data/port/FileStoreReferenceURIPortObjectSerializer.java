@@ -18,6 +18,7 @@
  */
 package com.genericworkflownodes.knime.base.data.port;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.zip.ZipEntry;
 
@@ -27,7 +28,6 @@ import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.ModelContent;
 import org.knime.core.node.ModelContentRO;
-import org.knime.core.node.ModelContentWO;
 import org.knime.core.node.port.PortObject.PortObjectSerializer;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortObjectZipInputStream;
@@ -78,16 +78,10 @@ public class FileStoreReferenceURIPortObjectSerializer extends
     public void savePortObject(FileStoreReferenceURIPortObject portObject,
             PortObjectZipOutputStream out, ExecutionMonitor exec)
             throws IOException, CanceledExecutionException {
-        // save some general information
-        ModelContent model = new ModelContent("model.xml");
-        model.addInt("version", 1);
-        model.addString("class_name", portObject.getClass().getName());
-        // get model content from PortObject
-        ModelContentWO subModel = model.addModelContent(MODEL_IDENTIFIER);
-        portObject.save(subModel, exec);
-        // save model content to stream
-        out.putNextEntry(new ZipEntry(CONTENT_XML));
-        model.saveToXML(out);
+        // write the compact binary content, content.xml is only read
+        DataOutputStream data = CompactContentFormat.createOutput(out);
+        portObject.save(data, exec);
+        data.flush();
     }
 
     @Override
@@ -97,6 +91,13 @@ public class FileStoreReferenceURIPortObjectSerializer extends
             CanceledExecutionException {
         // retrieve model content from stream
         ZipEntry entry = in.getNextEntry();
+        if (CompactContentFormat.CONTENT_BIN.equals(entry.getName())) {
+            FileStoreReferenceURIPortObject result = new FileStoreReferenceURIPortObject();
+            result.load(CompactContentFormat.createInput(in), spec, exec);
+            return result;
+        }
+
+        // content written by earlier versions
         if (!CONTENT_XML.equals(entry.getName())) {
             throw new IOException("Expected zip entry content.xml, got "
                     + entry.getName());
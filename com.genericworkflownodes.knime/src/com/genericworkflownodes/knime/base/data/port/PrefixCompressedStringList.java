@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Append-only list of strings with a small memory footprint, used for large
+ * numbers of similar strings like the relative paths of the files in a port
+ * object. The strings are stored UTF-8 encoded in a single byte array, each
+ * one as the length of the prefix it shares with its predecessor followed by
+ * the remaining bytes. Every {@link #BLOCK_SIZE}th string is stored
+ * completely, so accessing a string decodes at most one block.
+ * 
+ * The list is not synchronized.
+ * 
+ * @author aiche
+ */
+final class PrefixCompressedStringList extends AbstractList<String> implements
+        RandomAccess {
+
+    /**
+     * Number of strings per block.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The encoded strings.
+     */
+    private byte[] m_data;
+
+    /**
+     * Number of used bytes in {@link #m_data}.
+     */
+    private int m_length;
+
+    /**
+     * Offset of the first string of every block in {@link #m_data}.
+     */
+    private int[] m_blockOffsets;
+
+    /**
+     * Number of strings in the list.
+     */
+    private int m_size;
+
+    /**
+     * The encoded last string, shares its prefix with the next one.
+     */
+    private byte[] m_last;
+
+    /**
+     * C'tor.
+     */
+    PrefixCompressedStringList() {
+        m_data = new byte[64];
+        m_length = 0;
+        m_blockOffsets = new int[4];
+        m_size = 0;
+        m_last = new byte[0];
+    }
+
+    @Override
+    public boolean add(String s) {
+        if (s == null) {
+            throw new NullPointerException("Cannot store null.");
+        }
+        byte[] bytes = s.getBytes(UTF8);
+        int shared = 0;
+        if (m_size % BLOCK_SIZE == 0) {
+            if (m_size / BLOCK_SIZE == m_blockOffsets.length) {
+                m_blockOffsets = Arrays.copyOf(m_blockOffsets,
+                        2 * m_blockOffsets.length);
+            }
+            m_blockOffsets[m_size / BLOCK_SIZE] = m_length;
+        } else {
+            int max = Math.min(bytes.length, m_last.length);
+            while (shared < max && bytes[shared] == m_last[shared]) {
+                ++shared;
+            }
+        }
+
+        int suffix = bytes.length - shared;
+        ensureCapacity(m_length + 10 + suffix);
+        writeVarInt(shared);
+        writeVarInt(suffix);
+        System.arraycopy(bytes, shared, m_data, m_length, suffix);
+        m_length += suffix;
+
+        m_last = bytes;
+        ++m_size;
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= m_size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                    + m_size);
+        }
+        int block = index / BLOCK_SIZE;
+        int position = m_blockOffsets[block];
+        byte[] buffer = new byte[32];
+        int length = 0;
+        for (int i = block * BLOCK_SIZE; i <= index; ++i) {
+            int shared = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = m_data[position++];
+                shared |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            int suffix = 0;
+            shift = 0;
+            do {
+                b = m_data[position++];
+                suffix |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+
+            length = shared + suffix;
+            if (length > buffer.length) {
+                buffer = Arrays.copyOf(buffer,
+                        Math.max(length, 2 * buffer.length));
+            }
+            System.arraycopy(m_data, position, buffer, shared, suffix);
+            position += suffix;
+        }
+        return new String(buffer, 0, length, UTF8);
+    }
+
+    @Override
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * Returns the number of bytes used to store the strings.
+     * 
+     * @return The size of the encoded strings.
+     */
+    int getEncodedSize() {
+        return m_length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > m_data.length) {
+            m_data = Arrays.copyOf(m_data,
+                    Math.max(capacity, m_data.length + (m_data.length >> 1)));
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            m_data[m_length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        m_data[m_length++] = (byte) value;
+    }
+}
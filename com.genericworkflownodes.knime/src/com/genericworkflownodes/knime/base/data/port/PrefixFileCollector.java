@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.base.data.port;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Collects the files written by a tool for an output prefix, i.e., all files
+ * whose path starts with the prefix, including the contents of directories
+ * whose names start with it.
+ * 
+ * Only the entries of the directory containing the prefix are compared to it:
+ * a subtree either matches completely or not at all, so non-matching subtrees
+ * are never entered. Symbolic links are followed, cycles are skipped.
+ * 
+ * @author aiche
+ */
+final class PrefixFileCollector {
+
+    /**
+     * The root relative to which the paths are returned.
+     */
+    private final Path m_root;
+
+    /**
+     * The directory containing the prefix.
+     */
+    private final Path m_directory;
+
+    /**
+     * The last name component of the prefix.
+     */
+    private final String m_namePrefix;
+
+    /**
+     * C'tor.
+     * 
+     * @param root
+     *            The root directory, e.g., of a file store.
+     * @param prefix
+     *            The prefix relative to the root, e.g., out.mzML or
+     *            sub/out.mzML.
+     */
+    PrefixFileCollector(Path root, String prefix) {
+        m_root = root.toAbsolutePath();
+        if (prefix.isEmpty()) {
+            // everything inside the root
+            m_directory = m_root;
+            m_namePrefix = "";
+        } else {
+            Path prefixPath = m_root.resolve(prefix);
+            m_directory = prefixPath.getParent();
+            m_namePrefix = prefixPath.getFileName().toString();
+        }
+    }
+
+    /**
+     * Collects the matching files.
+     * 
+     * @param parallelism
+     *            The number of threads used to scan subdirectories in
+     *            parallel. With 1 the tree is walked by the calling thread.
+     * @return The sorted paths of the files relative to the root.
+     * @throws IOException
+     *             If a directory cannot be read.
+     */
+    List<String> collect(int parallelism) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(
+                    "At least one thread is needed.");
+        }
+        if (!Files.isDirectory(m_directory)) {
+            return new ArrayList<String>();
+        }
+        List<Path> files = parallelism == 1 ? walk() : scan(parallelism);
+
+        List<String> relPaths = new ArrayList<String>(files.size());
+        for (Path file : files) {
+            relPaths.add(m_root.relativize(file).toString());
+        }
+        Collections.sort(relPaths);
+        return relPaths;
+    }
+
+    private boolean matches(Path entry) {
+        return entry.getFileName().toString().startsWith(m_namePrefix);
+    }
+
+    /**
+     * Collects the files with a single {@link Files#walkFileTree} walk.
+     */
+    private List<Path> walk() throws IOException {
+        final List<Path> files = new ArrayList<Path>();
+        Files.walkFileTree(m_directory,
+                EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult preVisitDirectory(Path dir,
+                            BasicFileAttributes attrs) {
+                        // deeper directories are only reached through a
+                        // matching one
+                        if (m_directory.equals(dir.getParent())
+                                && !matches(dir)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFile(Path file,
+                            BasicFileAttributes attrs) {
+                        if (!m_directory.equals(file.getParent())
+                                || matches(file)) {
+                            files.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file,
+                            IOException e) throws IOException {
+                        if (e instanceof FileSystemLoopException
+                                || e instanceof NoSuchFileException) {
+                            // a link cycle or a dangling link
+                            return FileVisitResult.CONTINUE;
+                        }
+                        throw e;
+                    }
+                });
+        return files;
+    }
+
+    /**
+     * Collects the files by scanning every directory in its own fork/join
+     * task.
+     */
+    private List<Path> scan(int parallelism) throws IOException {
+        List<Path> files = Collections.synchronizedList(new ArrayList<Path>());
+        Set<Object> visited = Collections
+                .newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+        Object topKey = Files.readAttributes(m_directory,
+                BasicFileAttributes.class).fileKey();
+        if (topKey != null) {
+            visited.add(topKey);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ScanTask(m_directory, true, files, visited));
+        } catch (ScanException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        return files;
+    }
+
+    /**
+     * Carries an {@link IOException} out of a {@link ScanTask}.
+     */
+    private static final class ScanException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        ScanException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    /**
+     * Scans a single directory and forks a task for each of its
+     * subdirectories.
+     */
+    private final class ScanTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path m_dir;
+        private final boolean m_top;
+        private final List<Path> m_files;
+        private final Set<Object> m_visited;
+
+        ScanTask(Path dir, boolean top, List<Path> files, Set<Object> visited) {
+            m_dir = dir;
+            m_top = top;
+            m_files = files;
+            m_visited = visited;
+        }
+
+        @Override
+        protected void compute() {
+            List<ScanTask> subtasks = new ArrayList<ScanTask>();
+            List<Path> files = new ArrayList<Path>();
+            try {
+                DirectoryStream<Path> entries = Files.newDirectoryStream(m_dir);
+                try {
+                    for (Path entry : entries) {
+                        if (m_top && !matches(entry)) {
+                            continue;
+                        }
+                        BasicFileAttributes attrs;
+                        try {
+                            attrs = Files.readAttributes(entry,
+                                    BasicFileAttributes.class);
+                        } catch (NoSuchFileException e) {
+                            // a dangling link
+                            continue;
+                        }
+                        if (!attrs.isDirectory()) {
+                            files.add(entry);
+                        } else if (attrs.fileKey() == null
+                                || m_visited.add(attrs.fileKey())) {
+                            subtasks.add(new ScanTask(entry, false, m_files,
+                                    m_visited));
+                        }
+                    }
+                } finally {
+                    entries.close();
+                }
+            } catch (IOException e) {
+                throw new ScanException(e);
+            }
+            m_files.addAll(files);
+            invokeAll(subtasks);
+        }
+    }
+}
@@ -139,6 +139,17 @@ public final class BinaryManager {
         return environmentVariables;
     }
 
+    /**
+     * Returns the modification time of the bundle containing the binaries,
+     * which changes if the plugin is updated.
+     * 
+     * @return The modification time or 0 if the bundle is not known.
+     */
+    public long getBundleLastModified() {
+        Bundle bundle = FrameworkUtil.getBundle(classInBundle);
+        return bundle == null ? 0 : bundle.getLastModified();
+    }
+
     private File findShippedBinary(final String executableName) {
         File shippedBinary = findFileInBundle(executableName);
         if (shippedBinary != null) {
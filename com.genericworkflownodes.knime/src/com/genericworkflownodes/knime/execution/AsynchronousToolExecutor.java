@@ -18,11 +18,11 @@
  */
 package com.genericworkflownodes.knime.execution;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -40,17 +40,32 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author Luis de la Garza
  */
 public class AsynchronousToolExecutor implements IWaitable {
-    // all instances will use the same thread pool
-    // using a cached thread pool has the following advantages:
-    // 1. if after some time no threads are used, the pool will shrink
-    // 2. the pool grows as needed
-    private static final ExecutorService EXECUTOR_SERVICE = Executors
-            .newCachedThreadPool();
 
     /**
      * The executor which should be handled asynchronously.
      */
     private final IToolExecutor m_executor;
+    /**
+     * The name of the executable run by the executor, used for scheduling.
+     */
+    private final String m_executableName;
+    /**
+     * The id of the plug-in providing the executable, used for scheduling.
+     */
+    private final String m_pluginId;
+    /**
+     * The resources needed by the executor, used for scheduling.
+     */
+    private final ResourceDemand m_demand;
+    /**
+     * Time the task was handed to the scheduler.
+     */
+    private volatile long m_submitTime;
+    /**
+     * Time the task spent in the queue of the scheduler, -1 if it was not
+     * started yet.
+     */
+    private volatile long m_queueWaitMillis;
     /**
      * Determines if the invoke method has already been called.
      */
@@ -63,6 +78,16 @@ public class AsynchronousToolExecutor implements IWaitable {
      * The future that wraps around the callable.
      */
     private FutureTask<Integer> futureTask;
+    /**
+     * Callbacks that will be notified once the task completed, was killed or
+     * failed.
+     */
+    private final List<Runnable> completionListeners;
+    /**
+     * Determines if the completion listeners were already notified. Guarded
+     * by {@link #completionListeners}.
+     */
+    private boolean completionFired;
 
     /**
      * C'tor.
@@ -71,15 +96,99 @@ public class AsynchronousToolExecutor implements IWaitable {
      *            The executor which should be handled asynchronously.
      */
     public AsynchronousToolExecutor(final IToolExecutor executor) {
+        this(executor, null, null);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param executor
+     *            The executor which should be handled asynchronously.
+     * @param executableName
+     *            The name of the executable run by the executor. Used to apply
+     *            the per-executable limits of the
+     *            {@link ToolExecutionScheduler}, may be null.
+     * @param pluginId
+     *            The id of the plug-in providing the executable. Used to apply
+     *            the per-plug-in limits of the {@link ToolExecutionScheduler},
+     *            may be null.
+     */
+    public AsynchronousToolExecutor(final IToolExecutor executor,
+            final String executableName, final String pluginId) {
+        this(executor, executableName, pluginId, ResourceDemand.NONE);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param executor
+     *            The executor which should be handled asynchronously.
+     * @param executableName
+     *            The name of the executable run by the executor. Used to apply
+     *            the per-executable limits of the
+     *            {@link ToolExecutionScheduler}, may be null.
+     * @param pluginId
+     *            The id of the plug-in providing the executable. Used to apply
+     *            the per-plug-in limits of the {@link ToolExecutionScheduler},
+     *            may be null.
+     * @param demand
+     *            The memory and scratch space needed by the executor. The
+     *            {@link ToolExecutionScheduler} starts the executor only if
+     *            the machine provides them.
+     */
+    public AsynchronousToolExecutor(final IToolExecutor executor,
+            final String executableName, final String pluginId,
+            final ResourceDemand demand) {
         m_executor = executor;
+        m_executableName = executableName;
+        m_pluginId = pluginId;
+        m_demand = demand;
+        m_queueWaitMillis = -1;
         countdownLatch = new CountDownLatch(1);
         invokeAlreadyCalled = new AtomicBoolean(false);
+        completionListeners = new ArrayList<Runnable>();
+        completionFired = false;
         futureTask = new FutureTask<Integer>(new Callable<Integer>() {
             @Override
             public Integer call() throws Exception {
                 return doCall();
             }
-        });
+        }) {
+            @Override
+            protected void done() {
+                fireCompletion();
+            }
+        };
+    }
+
+    /**
+     * Registers a callback that is invoked once the underlying task has
+     * completed, regardless of its status. If the task is already done, the
+     * callback is invoked immediately by the calling thread.
+     * 
+     * @param listener
+     *            The callback.
+     */
+    public void addCompletionListener(final Runnable listener) {
+        synchronized (completionListeners) {
+            if (!completionFired) {
+                completionListeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    private void fireCompletion() {
+        List<Runnable> listeners;
+        synchronized (completionListeners) {
+            completionFired = true;
+            listeners = new ArrayList<Runnable>(completionListeners);
+            completionListeners.clear();
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
     }
 
     /**
@@ -104,7 +213,19 @@ public class AsynchronousToolExecutor implements IWaitable {
         return futureTask.get();
     }
 
+    /**
+     * Returns the time the task spent in the queue of the
+     * {@link ToolExecutionScheduler} before it was started.
+     * 
+     * @return The waiting time in milliseconds or -1 if the task was not
+     *         started.
+     */
+    public long getQueueWaitMillis() {
+        return m_queueWaitMillis;
+    }
+
     private int doCall() throws Exception {
+        m_queueWaitMillis = System.currentTimeMillis() - m_submitTime;
         try {
             return m_executor.execute();
         } finally {
@@ -117,7 +238,8 @@ public class AsynchronousToolExecutor implements IWaitable {
     /**
      * Invokes the {@link IToolExecutor#execute()} method in an asynchronous
      * way, that is, the invoker will not block while the underlying
-     * {@link IToolExecutor} performs its tasks.
+     * {@link IToolExecutor} performs its tasks. The execution is started by
+     * the {@link ToolExecutionScheduler} as soon as its limits permit.
      * 
      * @return The return code of the underlying executor.
      */
@@ -128,7 +250,9 @@ public class AsynchronousToolExecutor implements IWaitable {
             throw new IllegalStateException(
                     "The method 'invoke()' can be executed only once!");
         }
-        EXECUTOR_SERVICE.execute(futureTask);
+        m_submitTime = System.currentTimeMillis();
+        ToolExecutionScheduler.getDefault().submit(futureTask,
+                m_executableName, m_pluginId, m_demand);
     }
 
     /**
@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.parameter.InvalidParameterValueException;
+import com.genericworkflownodes.knime.parameter.Parameter;
+
+/**
+ * Distributes the cores of the machine among concurrently running tools to
+ * avoid oversubscription, e.g., when several tools that default to using all
+ * cores run in parallel.
+ * 
+ * Every tool is assigned a fixed number of cores (see
+ * {@link #getCoresPerTool()}). When the tool starts, it acquires a set of the
+ * least used cores, so concurrently running tools get disjoint sets as long as
+ * there are enough cores. The tool is bound to its cores (using
+ * <code>taskset</code> on Linux) and the usual thread count variables like
+ * <code>OMP_NUM_THREADS</code> are set. Parameters tagged with
+ * <code>gkn-threads</code> in the CTD are filled with the number of cores.
+ * 
+ * @author aiche
+ */
+public final class CpuAllocator {
+
+    /**
+     * Value indicating that the number of cores per tool should be derived
+     * from the global limit of the {@link ToolExecutionScheduler}.
+     */
+    public static final int AUTOMATIC = 0;
+
+    /**
+     * Environment variables limiting the threads of common runtimes.
+     */
+    public static final List<String> THREAD_VARIABLES = Collections
+            .unmodifiableList(Arrays.asList("OMP_NUM_THREADS",
+                    "MKL_NUM_THREADS", "OPENBLAS_NUM_THREADS",
+                    "VECLIB_MAXIMUM_THREADS", "NUMEXPR_NUM_THREADS"));
+
+    /**
+     * Locations of the taskset executable.
+     */
+    private static final String[] TASKSET_LOCATIONS = { "/usr/bin/taskset",
+            "/bin/taskset" };
+
+    /**
+     * NodeLogger used for this allocator.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(CpuAllocator.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final CpuAllocator INSTANCE = new CpuAllocator(Runtime
+            .getRuntime().availableProcessors());
+
+    /**
+     * The cores assigned to a single tool run.
+     */
+    public static final class CpuSet {
+        private final int[] m_cpus;
+
+        CpuSet(int[] cpus) {
+            m_cpus = cpus;
+        }
+
+        /**
+         * Returns the number of cores in the set.
+         * 
+         * @return The number of cores.
+         */
+        public int size() {
+            return m_cpus.length;
+        }
+
+        /**
+         * Returns the set as CPU list as expected by <code>taskset -c</code>,
+         * e.g., <code>0,1,4</code>.
+         * 
+         * @return The CPU list.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < m_cpus.length; ++i) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(m_cpus[i]);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Number of tools currently using each core.
+     */
+    private final int[] m_load;
+
+    /**
+     * Indicates if the cores should be distributed at all.
+     */
+    private boolean m_enabled;
+
+    /**
+     * The number of cores assigned to each tool.
+     */
+    private int m_coresPerTool;
+
+    /**
+     * The taskset executable or null if it is not available.
+     */
+    private final File m_taskset;
+
+    /**
+     * C'tor.
+     * 
+     * @param nCores
+     *            The number of cores of the machine.
+     */
+    CpuAllocator(int nCores) {
+        m_load = new int[nCores];
+        m_enabled = false;
+        m_coresPerTool = nCores;
+        m_taskset = findTaskset();
+    }
+
+    /**
+     * Returns the shared instance.
+     * 
+     * @return The allocator.
+     */
+    public static CpuAllocator getDefault() {
+        return INSTANCE;
+    }
+
+    private static File findTaskset() {
+        for (String location : TASKSET_LOCATIONS) {
+            File taskset = new File(location);
+            if (taskset.canExecute()) {
+                return taskset;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Updates the settings of the allocator. Already running tools keep their
+     * cores.
+     * 
+     * @param enabled
+     *            Indicates if the cores should be distributed.
+     * @param coresPerTool
+     *            The number of cores assigned to each tool or
+     *            {@link #AUTOMATIC}.
+     * @param maxConcurrentTools
+     *            The global limit of the {@link ToolExecutionScheduler}, used
+     *            to divide the cores if <code>coresPerTool</code> is
+     *            {@link #AUTOMATIC}. If it is
+     *            {@link ToolExecutionScheduler#UNLIMITED}, every tool gets all
+     *            cores.
+     */
+    public synchronized void configure(boolean enabled, int coresPerTool,
+            int maxConcurrentTools) {
+        if (coresPerTool < 0) {
+            throw new IllegalArgumentException(
+                    "The number of cores per tool must not be negative.");
+        }
+        m_enabled = enabled;
+        if (coresPerTool == AUTOMATIC) {
+            if (maxConcurrentTools == ToolExecutionScheduler.UNLIMITED) {
+                coresPerTool = m_load.length;
+            } else {
+                coresPerTool = m_load.length / maxConcurrentTools;
+            }
+        }
+        m_coresPerTool = Math.max(1, Math.min(coresPerTool, m_load.length));
+    }
+
+    /**
+     * Checks if the cores are distributed among the tools.
+     * 
+     * @return True if the allocator is enabled.
+     */
+    public synchronized boolean isEnabled() {
+        return m_enabled;
+    }
+
+    /**
+     * Returns the number of cores assigned to each tool.
+     * 
+     * @return The number of cores per tool.
+     */
+    public synchronized int getCoresPerTool() {
+        return m_coresPerTool;
+    }
+
+    /**
+     * Assigns the least used cores to a starting tool. The set has to be
+     * returned using {@link #release(CpuSet)} once the tool terminated.
+     * 
+     * @return The cores of the tool or null if the allocator is disabled.
+     */
+    public synchronized CpuSet acquire() {
+        if (!m_enabled) {
+            return null;
+        }
+        int[] cpus = new int[m_coresPerTool];
+        boolean[] taken = new boolean[m_load.length];
+        for (int i = 0; i < cpus.length; ++i) {
+            int best = -1;
+            for (int cpu = 0; cpu < m_load.length; ++cpu) {
+                if (!taken[cpu] && (best == -1 || m_load[cpu] < m_load[best])) {
+                    best = cpu;
+                }
+            }
+            taken[best] = true;
+            cpus[i] = best;
+        }
+        Arrays.sort(cpus);
+        for (int cpu : cpus) {
+            ++m_load[cpu];
+        }
+        return new CpuSet(cpus);
+    }
+
+    /**
+     * Returns the cores of a terminated tool.
+     * 
+     * @param cpus
+     *            The set returned by {@link #acquire()}, may be null.
+     */
+    public synchronized void release(CpuSet cpus) {
+        if (cpus == null) {
+            return;
+        }
+        for (int cpu : cpus.m_cpus) {
+            --m_load[cpu];
+        }
+    }
+
+    /**
+     * Returns the command prefix binding a process to the given cores.
+     * 
+     * @param cpus
+     *            The cores of the tool.
+     * @return The prefix or an empty list if processes cannot be bound on
+     *         this platform.
+     */
+    public List<String> getAffinityCommand(CpuSet cpus) {
+        List<String> command = new ArrayList<String>();
+        if (m_taskset != null) {
+            command.add(m_taskset.getPath());
+            command.add("-c");
+            command.add(cpus.toString());
+        }
+        return command;
+    }
+
+    /**
+     * Fills the thread count parameters of the given configuration with the
+     * number of cores per tool. The configuration itself is not modified.
+     * 
+     * @param config
+     *            The configuration of the tool.
+     * @return A copy of the configuration with the filled parameters or the
+     *         configuration itself if the allocator is disabled or the tool
+     *         has no thread count parameter.
+     */
+    public INodeConfiguration applyThreadCount(INodeConfiguration config) {
+        if (!isEnabled()) {
+            return config;
+        }
+        String threads = Integer.toString(getCoresPerTool());
+        INodeConfiguration copy = null;
+        for (String key : config.getParameterKeys()) {
+            if (!config.getParameter(key).isThreadCount()) {
+                continue;
+            }
+            if (copy == null) {
+                copy = new NodeConfiguration(config);
+            }
+            Parameter<?> p = copy.getParameter(key);
+            try {
+                p.fillFromString(threads);
+            } catch (InvalidParameterValueException e) {
+                LOGGER.warn("Cannot set the thread count " + key + " to "
+                        + threads, e);
+            }
+        }
+        return copy == null ? config : copy;
+    }
+}
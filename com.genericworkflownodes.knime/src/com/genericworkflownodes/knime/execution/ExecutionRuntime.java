@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Decides on which kind of threads the per-tool roles (the worker executing
+ * the tool and the gobblers capturing its output) run.
+ * 
+ * On JVMs supporting virtual threads (Java 21 and later) every role gets its
+ * own virtual thread, which costs a few hundred bytes of heap instead of a
+ * platform thread with its own stack. On older JVMs the workers remain
+ * platform threads while the output of all tools is pumped by a small shared
+ * set of threads (see
+ * {@link com.genericworkflownodes.knime.execution.impl.StreamGobbler}).
+ * 
+ * The runtime can be forced by setting the system property
+ * {@value #MODE_PROPERTY} to {@value #MODE_VIRTUAL} or {@value #MODE_PLATFORM}.
+ * The virtual threads are accessed reflectively since the plug-in is compiled
+ * for older Java versions.
+ * 
+ * @author aiche
+ */
+public final class ExecutionRuntime {
+
+    /**
+     * System property selecting the runtime.
+     */
+    public static final String MODE_PROPERTY = "gkn.execution.runtime";
+
+    /**
+     * Run the per-tool roles on virtual threads (if supported).
+     */
+    public static final String MODE_VIRTUAL = "virtual";
+
+    /**
+     * Run the workers on platform threads and share the output pump.
+     */
+    public static final String MODE_PLATFORM = "platform";
+
+    /**
+     * Initial interval when polling a process on a virtual thread without
+     * {@code Process.onExit()}.
+     */
+    private static final long MIN_POLL_INTERVAL_MS = 1;
+
+    /**
+     * Maximal interval when polling a process on a virtual thread without
+     * {@code Process.onExit()}.
+     */
+    private static final long MAX_POLL_INTERVAL_MS = 50;
+
+    /**
+     * NodeLogger used for the runtime.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ExecutionRuntime.class);
+
+    /**
+     * Reflective access to the virtual thread API of Java 21.
+     */
+    private static final class VirtualThreads {
+        private final Method m_ofVirtual;
+        private final Method m_name;
+        private final Method m_namePrefix;
+        private final Method m_start;
+        private final Method m_factory;
+        private final Method m_newThreadPerTaskExecutor;
+
+        VirtualThreads() throws Exception {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            m_ofVirtual = Thread.class.getMethod("ofVirtual");
+            m_name = builder.getMethod("name", String.class);
+            m_namePrefix = builder.getMethod("name", String.class,
+                    long.class);
+            m_start = builder.getMethod("start", Runnable.class);
+            m_factory = builder.getMethod("factory");
+            m_newThreadPerTaskExecutor = Executors.class.getMethod(
+                    "newThreadPerTaskExecutor", ThreadFactory.class);
+            // fails if virtual threads are a disabled preview feature
+            newFactory("GKN-Probe-");
+        }
+
+        Thread start(String name, Runnable task) throws Exception {
+            Object builder = m_name.invoke(m_ofVirtual.invoke(null), name);
+            return (Thread) m_start.invoke(builder, task);
+        }
+
+        ThreadFactory newFactory(String namePrefix) throws Exception {
+            Object builder = m_namePrefix.invoke(m_ofVirtual.invoke(null),
+                    namePrefix, 0L);
+            return (ThreadFactory) m_factory.invoke(builder);
+        }
+
+        ExecutorService newExecutor(String namePrefix) throws Exception {
+            return (ExecutorService) m_newThreadPerTaskExecutor.invoke(null,
+                    newFactory(namePrefix));
+        }
+    }
+
+    /**
+     * The virtual thread API, null if the platform runtime is used.
+     */
+    private static final VirtualThreads VIRTUAL_THREADS = detectVirtualThreads();
+
+    /**
+     * {@code Process.onExit()} of Java 9, null on older JVMs.
+     */
+    private static final Method ON_EXIT = detectOnExit();
+
+    private ExecutionRuntime() {
+    }
+
+    private static Method detectOnExit() {
+        try {
+            return Process.class.getMethod("onExit");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static VirtualThreads detectVirtualThreads() {
+        String mode = System.getProperty(MODE_PROPERTY, MODE_VIRTUAL);
+        if (MODE_PLATFORM.equalsIgnoreCase(mode)) {
+            return null;
+        }
+        if (!MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            LOGGER.warn("Unknown execution runtime '" + mode
+                    + "', using virtual threads if supported.");
+        }
+        try {
+            return new VirtualThreads();
+        } catch (Throwable t) {
+            // pre Java 21 or preview features are disabled
+            return null;
+        }
+    }
+
+    /**
+     * Indicates whether the per-tool roles run on virtual threads.
+     * 
+     * @return True if virtual threads are used.
+     */
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_THREADS != null;
+    }
+
+    /**
+     * Returns a short description of the runtime in use.
+     * 
+     * @return {@value #MODE_VIRTUAL} or {@value #MODE_PLATFORM}.
+     */
+    public static String getMode() {
+        return usesVirtualThreads() ? MODE_VIRTUAL : MODE_PLATFORM;
+    }
+
+    /**
+     * Starts the given task on a new virtual thread, or on a new daemon
+     * platform thread if virtual threads are not used.
+     * 
+     * @param name
+     *            The name of the thread.
+     * @param task
+     *            The task to run.
+     * @return The started thread.
+     */
+    public static Thread startThread(String name, Runnable task) {
+        if (VIRTUAL_THREADS != null) {
+            try {
+                return VIRTUAL_THREADS.start(name, task);
+            } catch (Exception e) {
+                throw new IllegalStateException(
+                        "Failed to start virtual thread " + name,
+                        unwrap(e));
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Creates an executor running every task on its own thread. With virtual
+     * threads every task gets a new virtual thread, otherwise a cached pool of
+     * platform threads is used.
+     * 
+     * @param namePrefix
+     *            Prefix of the thread names.
+     * @return The executor.
+     */
+    public static ExecutorService newTaskExecutor(String namePrefix) {
+        if (VIRTUAL_THREADS != null) {
+            try {
+                return VIRTUAL_THREADS.newExecutor(namePrefix);
+            } catch (Exception e) {
+                LOGGER.warn("Failed to create virtual thread executor, "
+                        + "falling back to platform threads.", unwrap(e));
+            }
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Waits for the given process to terminate.
+     * 
+     * {@link Process#waitFor()} blocks in {@link Object#wait()}, which pins a
+     * virtual thread to its carrier thread. On virtual threads the future
+     * returned by {@code Process.onExit()} is awaited instead, which parks the
+     * thread and releases the carrier. Should that fail, the process is polled
+     * with an increasing interval.
+     * 
+     * @param process
+     *            The process to wait for.
+     * @return The exit code of the process.
+     * @throws InterruptedException
+     *             If the current thread was interrupted while waiting.
+     */
+    public static int waitFor(Process process) throws InterruptedException {
+        if (VIRTUAL_THREADS == null) {
+            return process.waitFor();
+        }
+        if (ON_EXIT != null) {
+            try {
+                ((Future<?>) ON_EXIT.invoke(process)).get();
+                return process.exitValue();
+            } catch (IllegalAccessException e) {
+                LOGGER.debug("Failed to await process exit.", e);
+            } catch (InvocationTargetException e) {
+                LOGGER.debug("Failed to await process exit.", unwrap(e));
+            } catch (ExecutionException e) {
+                LOGGER.debug("Failed to await process exit.", e.getCause());
+            }
+        }
+        long interval = MIN_POLL_INTERVAL_MS;
+        while (true) {
+            try {
+                return process.exitValue();
+            } catch (IllegalThreadStateException e) {
+                Thread.sleep(interval);
+                interval = Math.min(2 * interval, MAX_POLL_INTERVAL_MS);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Exception e) {
+        if (e instanceof InvocationTargetException
+                && e.getCause() != null) {
+            return e.getCause();
+        }
+        return e;
+    }
+}
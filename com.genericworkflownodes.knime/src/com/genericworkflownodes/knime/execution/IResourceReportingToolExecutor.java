@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+/**
+ * An {@link IToolExecutor} that accounts the resources consumed by the tool.
+ * 
+ * @author aiche
+ */
+public interface IResourceReportingToolExecutor extends IToolExecutor {
+
+    /**
+     * Returns the resources consumed by the last call to
+     * {@link IToolExecutor#execute()}.
+     * 
+     * @return The resource usage or null if the tool was not executed yet.
+     */
+    ToolResourceUsage getResourceUsage();
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+/**
+ * An {@link IToolExecutor} that publishes the output of the tool while it is
+ * still running.
+ * 
+ * @author aiche
+ */
+public interface IStreamingToolExecutor extends IToolExecutor {
+
+    /**
+     * Registers a listener that will be notified about new output of the
+     * tool. Listeners need to be registered before {@link #execute()} is
+     * called.
+     * 
+     * @param listener
+     *            The listener to add.
+     */
+    void addToolOutputListener(IToolOutputListener listener);
+
+    /**
+     * Removes a previously registered listener.
+     * 
+     * @param listener
+     *            The listener to remove.
+     */
+    void removeToolOutputListener(IToolOutputListener listener);
+}
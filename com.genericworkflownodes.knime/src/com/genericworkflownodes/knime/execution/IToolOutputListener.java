@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.util.List;
+
+/**
+ * Receives the output of a running tool in batches of lines.
+ * 
+ * Implementations are notified from a background thread and should return
+ * quickly.
+ * 
+ * @author aiche
+ */
+public interface IToolOutputListener {
+
+    /**
+     * Called when new lines were written by the tool to stdout.
+     * 
+     * @param lines
+     *            The new lines, in the order they were written.
+     */
+    void toolOutputReceived(List<String> lines);
+
+    /**
+     * Called when new lines were written by the tool to stderr.
+     * 
+     * @param lines
+     *            The new lines, in the order they were written.
+     */
+    void toolErrorOutputReceived(List<String> lines);
+}
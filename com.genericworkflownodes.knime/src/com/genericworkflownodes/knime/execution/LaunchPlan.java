@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Everything needed to launch a tool that does not depend on the parameters
+ * of a single run: the resolved executable, its expanded environment and the
+ * classes of the {@link IToolExecutor} and {@link ICommandGenerator}. Plans
+ * are immutable and shared between all runs of a node, see
+ * {@link LaunchPlanCache}.
+ * 
+ * @author aiche
+ */
+public final class LaunchPlan {
+
+    /**
+     * The resolved executable.
+     */
+    private final File m_executable;
+
+    /**
+     * The environment of the tool with all variable references expanded.
+     */
+    private final Map<String, String> m_environment;
+
+    /**
+     * The executor class.
+     */
+    private final Class<? extends IToolExecutor> m_executorClass;
+
+    /**
+     * The command generator class.
+     */
+    private final Class<? extends ICommandGenerator> m_generatorClass;
+
+    /**
+     * Modification time of the plugin bundle when the plan was created.
+     */
+    private final long m_bundleLastModified;
+
+    /**
+     * C'tor.
+     * 
+     * @param executable
+     *            The resolved executable.
+     * @param environment
+     *            The expanded environment of the tool.
+     * @param executorClass
+     *            The executor class.
+     * @param generatorClass
+     *            The command generator class.
+     * @param bundleLastModified
+     *            Modification time of the plugin bundle.
+     */
+    LaunchPlan(File executable, Map<String, String> environment,
+            Class<? extends IToolExecutor> executorClass,
+            Class<? extends ICommandGenerator> generatorClass,
+            long bundleLastModified) {
+        m_executable = executable;
+        m_environment = Collections
+                .unmodifiableMap(new TreeMap<String, String>(environment));
+        m_executorClass = executorClass;
+        m_generatorClass = generatorClass;
+        m_bundleLastModified = bundleLastModified;
+    }
+
+    /**
+     * @return The resolved executable as canonical path.
+     */
+    public File getExecutable() {
+        return m_executable;
+    }
+
+    /**
+     * @return The environment of the tool, variable references like
+     *         <code>${VNAME}</code> are already expanded.
+     */
+    public Map<String, String> getEnvironment() {
+        return m_environment;
+    }
+
+    /**
+     * @return The executor class.
+     */
+    public Class<? extends IToolExecutor> getExecutorClass() {
+        return m_executorClass;
+    }
+
+    /**
+     * @return The command generator class.
+     */
+    public Class<? extends ICommandGenerator> getCommandGeneratorClass() {
+        return m_generatorClass;
+    }
+
+    /**
+     * @return Modification time of the plugin bundle when the plan was
+     *         created.
+     */
+    long getBundleLastModified() {
+        return m_bundleLastModified;
+    }
+
+    /**
+     * Creates a new {@link IToolExecutor} configured with a new
+     * {@link ICommandGenerator} without querying the extension registry.
+     * 
+     * @return The executor.
+     * @throws UnknownToolExecutorException
+     *             If the executor could not be instantiated.
+     * @throws UnknownCommandGeneratorException
+     *             If the command generator could not be instantiated.
+     */
+    public IToolExecutor createToolExecutor()
+            throws UnknownToolExecutorException,
+            UnknownCommandGeneratorException {
+        IToolExecutor executor;
+        try {
+            executor = m_executorClass.newInstance();
+        } catch (InstantiationException e) {
+            throw new UnknownToolExecutorException(m_executorClass.getName(),
+                    e);
+        } catch (IllegalAccessException e) {
+            throw new UnknownToolExecutorException(m_executorClass.getName(),
+                    e);
+        }
+        try {
+            executor.setCommandGenerator(m_generatorClass.newInstance());
+        } catch (InstantiationException e) {
+            throw new UnknownCommandGeneratorException(
+                    m_generatorClass.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new UnknownCommandGeneratorException(
+                    m_generatorClass.getName(), e);
+        }
+        return executor;
+    }
+}
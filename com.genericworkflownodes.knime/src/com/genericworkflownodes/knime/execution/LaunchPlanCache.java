@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.custom.config.BinaryManager;
+import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
+import com.genericworkflownodes.knime.custom.config.NoBinaryAvailableException;
+
+/**
+ * Caches the {@link LaunchPlan}s of all tools. Resolving a plan scans the
+ * plugin bundle for the binary and the binaries.ini and queries the extension
+ * registry for the executor and command generator, which is expensive
+ * compared to short running tools executed in a loop.
+ * 
+ * A plan is recreated if the plugin bundle was updated. {@link #clear()} has
+ * to be called if settings influencing the plans change.
+ * 
+ * @author aiche
+ */
+public final class LaunchPlanCache {
+
+    /**
+     * Matches variable references of the form <code>${VNAME}</code>.
+     */
+    private static final Pattern VARIABLE_PATTERN = Pattern
+            .compile("\\$\\{([^}]+)\\}");
+
+    /**
+     * The shared instance.
+     */
+    private static final LaunchPlanCache INSTANCE = new LaunchPlanCache();
+
+    /**
+     * Returns the cache shared by all nodes.
+     * 
+     * @return The shared cache.
+     */
+    public static LaunchPlanCache getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * The plans by plugin, executable, executor and command generator.
+     */
+    private final Map<String, LaunchPlan> m_plans;
+
+    /**
+     * C'tor.
+     */
+    LaunchPlanCache() {
+        m_plans = new HashMap<String, LaunchPlan>();
+    }
+
+    /**
+     * Returns the plan for the tool of the given node, creating it if
+     * necessary.
+     * 
+     * @param nodeConfiguration
+     *            The configuration of the node.
+     * @param pluginConfiguration
+     *            The configuration of the plugin providing the node.
+     * @return The launch plan.
+     * @throws NoBinaryAvailableException
+     *             If the executable could not be found.
+     * @throws UnknownToolExecutorException
+     *             If the executor of the plugin is unknown.
+     * @throws UnknownCommandGeneratorException
+     *             If the command generator of the plugin is unknown.
+     */
+    public LaunchPlan getPlan(INodeConfiguration nodeConfiguration,
+            IPluginConfiguration pluginConfiguration)
+            throws NoBinaryAvailableException, UnknownToolExecutorException,
+            UnknownCommandGeneratorException {
+        String executableName = nodeConfiguration.getExecutableName();
+        String executor = pluginConfiguration.getPluginProperties()
+                .getProperty("executor");
+        String generator = pluginConfiguration.getPluginProperties()
+                .getProperty("commandGenerator");
+        String key = pluginConfiguration.getPluginId() + '\0'
+                + executableName + '\0' + executor + '\0' + generator;
+        BinaryManager binaryManager = pluginConfiguration.getBinaryManager();
+        long bundleLastModified = binaryManager.getBundleLastModified();
+
+        synchronized (this) {
+            LaunchPlan plan = m_plans.get(key);
+            if (plan != null
+                    && plan.getBundleLastModified() == bundleLastModified) {
+                return plan;
+            }
+        }
+
+        // resolve outside of the lock, concurrent resolutions of the same
+        // plan are harmless
+        File executable = binaryManager.findBinary(executableName);
+        try {
+            executable = executable.getCanonicalFile();
+        } catch (IOException e) {
+            // keep the path reported by the binary manager
+            executable = executable.getAbsoluteFile();
+        }
+        Map<String, String> environment = new TreeMap<String, String>();
+        for (Map.Entry<String, String> variable : binaryManager
+                .getProcessEnvironment(executableName).entrySet()) {
+            environment.put(variable.getKey(),
+                    expandEnvironmentVariables(variable.getValue()));
+        }
+        LaunchPlan plan = new LaunchPlan(executable, environment,
+                ToolExecutorFactory.getToolExecutorClass(executor),
+                ToolExecutorFactory.getCommandGeneratorClass(generator),
+                bundleLastModified);
+
+        synchronized (this) {
+            m_plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Drops all plans.
+     */
+    public synchronized void clear() {
+        m_plans.clear();
+    }
+
+    /**
+     * Replaces references of the form <code>${VNAME}</code> by the value of
+     * the corresponding system environment variable. Unknown variables are
+     * replaced by the empty string.
+     * 
+     * @param value
+     *            The string where the variables should be replaced.
+     * @return The string with replaced variables.
+     */
+    static String expandEnvironmentVariables(String value) {
+        Matcher m = VARIABLE_PATTERN.matcher(value);
+        if (!m.find()) {
+            return value;
+        }
+        StringBuffer sb = new StringBuffer();
+        do {
+            String replacement = System.getenv(m.group(1));
+            m.appendReplacement(sb, Matcher
+                    .quoteReplacement(replacement == null ? "" : replacement));
+        } while (m.find());
+        m.appendTail(sb);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.ResourceFormula;
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.FileParameter;
+import com.genericworkflownodes.knime.parameter.IFileParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+import com.genericworkflownodes.knime.port.Port;
+
+/**
+ * The memory and scratch space a tool run is expected to need, derived from
+ * the requirements declared in the CTD (see
+ * {@link INodeConfiguration#getMemoryRequirement()} and
+ * {@link INodeConfiguration#getScratchRequirement()}). Used by the
+ * {@link ToolExecutionScheduler} to start a tool only if the machine provides
+ * the resources.
+ * 
+ * @author aiche
+ */
+public final class ResourceDemand {
+
+    /**
+     * Demand of tools without declared requirements.
+     */
+    public static final ResourceDemand NONE = new ResourceDemand(0, 0, null);
+
+    /**
+     * Expected peak memory in bytes.
+     */
+    private final long m_memoryBytes;
+
+    /**
+     * Expected scratch space in bytes.
+     */
+    private final long m_scratchBytes;
+
+    /**
+     * The directory where the scratch space is consumed, may be null.
+     */
+    private final File m_scratchDirectory;
+
+    /**
+     * C'tor.
+     * 
+     * @param memoryBytes
+     *            Expected peak memory in bytes.
+     * @param scratchBytes
+     *            Expected scratch space in bytes.
+     * @param scratchDirectory
+     *            The directory where the scratch space is consumed, may be
+     *            null if no scratch space is needed.
+     */
+    public ResourceDemand(long memoryBytes, long scratchBytes,
+            File scratchDirectory) {
+        if (memoryBytes < 0 || scratchBytes < 0) {
+            throw new IllegalArgumentException(
+                    "Resource demands must not be negative.");
+        }
+        m_memoryBytes = memoryBytes;
+        m_scratchBytes = scratchBytes;
+        m_scratchDirectory = scratchDirectory;
+    }
+
+    /**
+     * Evaluates the requirements declared by the given configuration for its
+     * current input files.
+     * 
+     * @param config
+     *            The configuration of the tool run.
+     * @param workingDirectory
+     *            The directory where the tool consumes its scratch space.
+     * @return The demand of the tool run, {@link #NONE} if the configuration
+     *         declares no requirements.
+     */
+    public static ResourceDemand estimate(INodeConfiguration config,
+            File workingDirectory) {
+        ResourceFormula memory = config.getMemoryRequirement();
+        ResourceFormula scratch = config.getScratchRequirement();
+        if (memory == null && scratch == null) {
+            return NONE;
+        }
+        Map<String, Long> inputSizes = getInputSizes(config);
+        return new ResourceDemand(memory == null ? 0
+                : memory.evaluate(inputSizes), scratch == null ? 0
+                : scratch.evaluate(inputSizes), workingDirectory);
+    }
+
+    /**
+     * Computes the total size of the files bound to each input port.
+     * 
+     * @param config
+     *            The configuration of the tool run.
+     * @return The sizes per port name, the size of all inputs is stored as
+     *         {@link ResourceFormula#TOTAL_INPUT_SIZE}.
+     */
+    static Map<String, Long> getInputSizes(INodeConfiguration config) {
+        Set<String> inputPorts = new HashSet<String>();
+        for (Port port : config.getInputPorts()) {
+            inputPorts.add(port.getName());
+        }
+        Map<String, Long> sizes = new HashMap<String, Long>();
+        long total = 0;
+        for (String key : config.getParameterKeys()) {
+            Parameter<?> p = config.getParameter(key);
+            if (!(p instanceof IFileParameter)
+                    || ((IFileParameter) p).getPort() == null
+                    || !inputPorts.contains(((IFileParameter) p).getPort()
+                            .getName())) {
+                continue;
+            }
+            List<String> files = Collections.emptyList();
+            if (p instanceof FileParameter) {
+                files = Collections.singletonList(((FileParameter) p)
+                        .getValue());
+            } else if (p instanceof FileListParameter) {
+                files = ((FileListParameter) p).getValue();
+            }
+            long size = 0;
+            for (String file : files) {
+                if (file != null && !"".equals(file)) {
+                    size += new File(file).length();
+                }
+            }
+            sizes.put(((IFileParameter) p).getPort().getName(), size);
+            total += size;
+        }
+        sizes.put(ResourceFormula.TOTAL_INPUT_SIZE, total);
+        return sizes;
+    }
+
+    /**
+     * Returns the expected peak memory.
+     * 
+     * @return The memory in bytes.
+     */
+    public long getMemoryBytes() {
+        return m_memoryBytes;
+    }
+
+    /**
+     * Returns the expected scratch space.
+     * 
+     * @return The scratch space in bytes.
+     */
+    public long getScratchBytes() {
+        return m_scratchBytes;
+    }
+
+    /**
+     * Returns the directory where the scratch space is consumed.
+     * 
+     * @return The directory or null.
+     */
+    public File getScratchDirectory() {
+        return m_scratchDirectory;
+    }
+
+    /**
+     * Checks if the tool run declares any demand.
+     * 
+     * @return True if memory or scratch space is required.
+     */
+    public boolean isEmpty() {
+        return m_memoryBytes == 0 && m_scratchBytes == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("memory: %d MB, scratch: %d MB",
+                m_memoryBytes / (1024 * 1024), m_scratchBytes / (1024 * 1024));
+    }
+}
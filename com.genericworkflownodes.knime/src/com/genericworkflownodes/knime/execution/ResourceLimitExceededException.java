@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+/**
+ * Indicates that a tool was stopped because it exceeded one of the resource
+ * limits configured for it, e.g., its memory limit.
+ * 
+ * @author aiche
+ */
+public class ResourceLimitExceededException extends
+        ToolExecutionFailedException {
+
+    /**
+     * serialVersionUID.
+     */
+    private static final long serialVersionUID = -2349126541095126170L;
+
+    /**
+     * C'tor.
+     * 
+     * @param message
+     *            A description of the exceeded limit.
+     */
+    public ResourceLimitExceededException(String message) {
+        super(message);
+    }
+}
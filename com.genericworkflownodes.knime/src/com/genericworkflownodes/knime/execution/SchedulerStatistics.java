@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+/**
+ * Snapshot of the queue and wait counters of a {@link ToolExecutionScheduler}.
+ * 
+ * @author aiche
+ */
+public class SchedulerStatistics {
+
+    private final long m_submitted;
+    private final long m_started;
+    private final int m_queued;
+    private final int m_waitingForResources;
+    private final long m_deferred;
+    private final long m_totalWaitMillis;
+    private final long m_maxWaitMillis;
+
+    /**
+     * C'tor.
+     * 
+     * @param submitted
+     *            Number of tools submitted to the scheduler.
+     * @param started
+     *            Number of tools started by the scheduler.
+     * @param queued
+     *            Current number of queued tools.
+     * @param waitingForResources
+     *            Current number of queued tools that were held back due to
+     *            insufficient memory or scratch space.
+     * @param deferred
+     *            Number of tools that were held back at least once due to
+     *            insufficient memory or scratch space.
+     * @param totalWaitMillis
+     *            Accumulated time the started tools spent in the queue.
+     * @param maxWaitMillis
+     *            Longest time a started tool spent in the queue.
+     */
+    public SchedulerStatistics(long submitted, long started, int queued,
+            int waitingForResources, long deferred, long totalWaitMillis,
+            long maxWaitMillis) {
+        m_submitted = submitted;
+        m_started = started;
+        m_queued = queued;
+        m_waitingForResources = waitingForResources;
+        m_deferred = deferred;
+        m_totalWaitMillis = totalWaitMillis;
+        m_maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * @return Number of tools submitted to the scheduler.
+     */
+    public long getSubmitted() {
+        return m_submitted;
+    }
+
+    /**
+     * @return Number of tools started by the scheduler.
+     */
+    public long getStarted() {
+        return m_started;
+    }
+
+    /**
+     * @return Current number of queued tools.
+     */
+    public int getQueued() {
+        return m_queued;
+    }
+
+    /**
+     * @return Current number of queued tools held back due to insufficient
+     *         memory or scratch space.
+     */
+    public int getWaitingForResources() {
+        return m_waitingForResources;
+    }
+
+    /**
+     * @return Number of tools held back at least once due to insufficient
+     *         memory or scratch space.
+     */
+    public long getDeferred() {
+        return m_deferred;
+    }
+
+    /**
+     * @return Accumulated time the started tools spent in the queue.
+     */
+    public long getTotalWaitMillis() {
+        return m_totalWaitMillis;
+    }
+
+    /**
+     * @return Longest time a started tool spent in the queue.
+     */
+    public long getMaxWaitMillis() {
+        return m_maxWaitMillis;
+    }
+
+    /**
+     * @return The average time a started tool spent in the queue, 0 if no
+     *         tool was started.
+     */
+    public double getAverageWaitMillis() {
+        return m_started == 0 ? 0.0 : (double) m_totalWaitMillis / m_started;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("submitted=%d, started=%d, queued=%d "
+                + "(%d waiting for resources), deferred=%d, "
+                + "average wait=%.0f ms, max wait=%d ms", m_submitted,
+                m_started, m_queued, m_waitingForResources, m_deferred,
+                getAverageWaitMillis(), m_maxWaitMillis);
+    }
+}
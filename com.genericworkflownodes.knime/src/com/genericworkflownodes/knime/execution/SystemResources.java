@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Probes the total memory and disk space of the machine and what is still
+ * available for new tools. Used by the {@link ToolExecutionScheduler} for
+ * admission control.
+ * 
+ * @author aiche
+ */
+class SystemResources {
+
+    /**
+     * Value indicating that a resource could not be determined.
+     */
+    static final long UNKNOWN = -1;
+
+    /**
+     * File providing the memory statistics on Linux.
+     */
+    private static final File MEMINFO = new File("/proc/meminfo");
+
+    /**
+     * Returns the memory available for new processes without swapping.
+     * 
+     * @return The available memory in bytes or {@link #UNKNOWN}.
+     */
+    long getAvailableMemory() {
+        long available = readMemInfo("MemAvailable:");
+        if (available != UNKNOWN) {
+            return available;
+        }
+        // fall back to the free physical memory reported by the JVM, which
+        // does not include the page cache
+        return queryOperatingSystem("getFreePhysicalMemorySize");
+    }
+
+    /**
+     * Returns the physical memory of the machine.
+     * 
+     * @return The total memory in bytes or {@link #UNKNOWN}.
+     */
+    long getTotalMemory() {
+        long total = readMemInfo("MemTotal:");
+        if (total != UNKNOWN) {
+            return total;
+        }
+        return queryOperatingSystem("getTotalPhysicalMemorySize");
+    }
+
+    private static long queryOperatingSystem(String getter) {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        try {
+            Method method = os.getClass().getMethod(getter);
+            method.setAccessible(true);
+            return ((Number) method.invoke(os)).longValue();
+        } catch (Exception e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static long readMemInfo(String key) {
+        if (!MEMINFO.canRead()) {
+            return UNKNOWN;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(MEMINFO));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // MemAvailable:   12345678 kB
+                if (line.startsWith(key)) {
+                    String[] tokens = line.split("\\s+");
+                    return Long.parseLong(tokens[1]) * 1024;
+                }
+            }
+        } catch (IOException e) {
+            // ignore
+        } catch (RuntimeException e) {
+            // unexpected format
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Returns the space available on the file system of the given directory.
+     * If the directory does not exist yet, its closest existing ancestor is
+     * used.
+     * 
+     * @param directory
+     *            The directory.
+     * @return The usable space in bytes or {@link #UNKNOWN}.
+     */
+    long getUsableSpace(File directory) {
+        File existing = getExistingAncestor(directory);
+        if (existing == null) {
+            return UNKNOWN;
+        }
+        return existing.getUsableSpace();
+    }
+
+    /**
+     * Returns the size of the file system of the given directory. If the
+     * directory does not exist yet, its closest existing ancestor is used.
+     * 
+     * @param directory
+     *            The directory.
+     * @return The total space in bytes or {@link #UNKNOWN}.
+     */
+    long getTotalSpace(File directory) {
+        File existing = getExistingAncestor(directory);
+        if (existing == null) {
+            return UNKNOWN;
+        }
+        return existing.getTotalSpace();
+    }
+
+    private static File getExistingAncestor(File directory) {
+        File existing = directory.getAbsoluteFile();
+        while (existing != null && !existing.exists()) {
+            existing = existing.getParentFile();
+        }
+        return existing;
+    }
+}
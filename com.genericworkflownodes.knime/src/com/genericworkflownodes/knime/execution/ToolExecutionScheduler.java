@@ -0,0 +1,579 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Schedules the execution of all tools started through
+ * {@link AsynchronousToolExecutor}s.
+ * 
+ * The scheduler enforces a global limit of concurrently running tools as well
+ * as optional limits per executable (see
+ * {@link com.genericworkflownodes.knime.config.INodeConfiguration#getExecutableName()}
+ * ) and per plug-in. Tools that cannot be started immediately are queued and
+ * started in FIFO order as soon as all limits permit. Queued tools do not hold
+ * any thread or OS process.
+ * 
+ * Tools declaring a {@link ResourceDemand} are only started if the memory and
+ * the disk space of their working directory cover the demand. The free amount
+ * is the total capacity minus what is reserved for the already running tools,
+ * but at most what is currently available. The available amount already
+ * shrinks as the running tools consume their share, so their demand is not
+ * subtracted from it a second time. As long as such a tool is held back, the
+ * resources are rechecked periodically. A tool is always started if no other
+ * tool is running, since waiting would not free any resources.
+ * 
+ * The demand of the oldest held back tool is reserved as well, so later tools
+ * cannot starve it by taking the resources it waits for. Once it has waited
+ * for {@link #MAX_OVERTAKE_MS}, no later tool is started before it.
+ * 
+ * @author aiche
+ */
+public final class ToolExecutionScheduler {
+
+    /**
+     * Value indicating that no limit should be applied.
+     */
+    public static final int UNLIMITED = 0;
+
+    /**
+     * The shared instance.
+     */
+    private static final ToolExecutionScheduler INSTANCE = new ToolExecutionScheduler();
+
+    /**
+     * Interval in which held back tools are rechecked.
+     */
+    static final long RECHECK_INTERVAL_MS = 1000;
+
+    /**
+     * Time after which a tool held back for resources is no longer overtaken
+     * by later tools.
+     */
+    static final long MAX_OVERTAKE_MS = 60000;
+
+    /**
+     * A tool waiting for or during its execution.
+     */
+    private static class Job {
+        private final FutureTask<?> m_task;
+        private final String m_executableName;
+        private final String m_pluginId;
+        private final ResourceDemand m_demand;
+        private final long m_submitTime;
+        private boolean m_deferred;
+        private long m_deferredSince;
+
+        Job(FutureTask<?> task, String executableName, String pluginId,
+                ResourceDemand demand) {
+            m_task = task;
+            m_executableName = executableName;
+            m_pluginId = pluginId;
+            m_demand = demand;
+            m_submitTime = System.currentTimeMillis();
+            m_deferred = false;
+        }
+    }
+
+    // using a cached thread pool has the following advantages:
+    // 1. if after some time no threads are used, the pool will shrink
+    // 2. the pool grows as needed, the number of threads is bounded by the
+    // limits of the scheduler
+    private final ExecutorService m_workers;
+
+    /**
+     * Jobs waiting for execution in FIFO order.
+     */
+    private final LinkedList<Job> m_queue;
+
+    /**
+     * Number of running jobs per executable.
+     */
+    private final Map<String, Integer> m_runningPerExecutable;
+
+    /**
+     * Number of running jobs per plug-in.
+     */
+    private final Map<String, Integer> m_runningPerPlugin;
+
+    /**
+     * Total number of running jobs.
+     */
+    private int m_running;
+
+    /**
+     * Maximal number of concurrently running jobs.
+     */
+    private int m_maxConcurrentTools;
+
+    /**
+     * Maximal number of concurrently running jobs per executable.
+     */
+    private Map<String, Integer> m_executableLimits;
+
+    /**
+     * Maximal number of concurrently running jobs per plug-in.
+     */
+    private Map<String, Integer> m_pluginLimits;
+
+    /**
+     * Probe for the available memory and disk space.
+     */
+    private final SystemResources m_resources;
+
+    /**
+     * Memory reserved for the running jobs.
+     */
+    private long m_reservedMemory;
+
+    /**
+     * Scratch space reserved for the running jobs.
+     */
+    private long m_reservedScratch;
+
+    /**
+     * Timer triggering the recheck of held back jobs, created on demand.
+     */
+    private Timer m_recheckTimer;
+
+    /**
+     * Indicates that a recheck is already scheduled.
+     */
+    private boolean m_recheckPending;
+
+    /**
+     * Time after which a held back job is no longer overtaken.
+     */
+    private long m_maxOvertakeMillis;
+
+    private long m_submitted;
+    private long m_started;
+    private long m_deferred;
+    private long m_totalWaitMillis;
+    private long m_maxWaitMillis;
+
+    /**
+     * C'tor.
+     */
+    ToolExecutionScheduler() {
+        this(new SystemResources());
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param resources
+     *            Probe for the available memory and disk space.
+     */
+    ToolExecutionScheduler(SystemResources resources) {
+        m_resources = resources;
+        m_workers = ExecutionRuntime.newTaskExecutor("GKN-ToolWorker-");
+        m_queue = new LinkedList<Job>();
+        m_runningPerExecutable = new HashMap<String, Integer>();
+        m_runningPerPlugin = new HashMap<String, Integer>();
+        m_running = 0;
+        m_maxConcurrentTools = getDefaultMaxConcurrentTools();
+        m_executableLimits = Collections.emptyMap();
+        m_pluginLimits = Collections.emptyMap();
+        m_maxOvertakeMillis = MAX_OVERTAKE_MS;
+    }
+
+    /**
+     * Returns the shared instance.
+     * 
+     * @return The scheduler.
+     */
+    public static ToolExecutionScheduler getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * The default global limit, i.e., the number of available processors.
+     * 
+     * @return The default number of concurrently running tools.
+     */
+    public static int getDefaultMaxConcurrentTools() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Updates the limits of the scheduler. Already running tools are not
+     * affected, raising a limit immediately starts queued tools.
+     * 
+     * @param maxConcurrentTools
+     *            Maximal number of concurrently running tools or
+     *            {@link #UNLIMITED}.
+     * @param executableLimits
+     *            Maximal number of concurrently running tools per executable
+     *            name. Executables without entry are only limited by the
+     *            global limit.
+     * @param pluginLimits
+     *            Maximal number of concurrently running tools per plug-in id.
+     *            Plug-ins without entry are only limited by the global limit.
+     */
+    public synchronized void configure(int maxConcurrentTools,
+            Map<String, Integer> executableLimits,
+            Map<String, Integer> pluginLimits) {
+        if (maxConcurrentTools < 0) {
+            throw new IllegalArgumentException(
+                    "The number of concurrent tools must not be negative.");
+        }
+        m_maxConcurrentTools = maxConcurrentTools;
+        m_executableLimits = new HashMap<String, Integer>(executableLimits);
+        m_pluginLimits = new HashMap<String, Integer>(pluginLimits);
+        dispatch();
+    }
+
+    /**
+     * Queues the given task. The task will be executed as soon as all limits
+     * permit.
+     * 
+     * @param task
+     *            The task to execute. If the task is canceled while it is
+     *            queued, it will be dropped.
+     * @param executableName
+     *            The name of the executable run by the task, may be null.
+     * @param pluginId
+     *            The id of the plug-in providing the executable, may be null.
+     */
+    public synchronized void submit(FutureTask<?> task, String executableName,
+            String pluginId) {
+        submit(task, executableName, pluginId, ResourceDemand.NONE);
+    }
+
+    /**
+     * Queues the given task. The task will be executed as soon as all limits
+     * permit and the machine provides the resources demanded by the task.
+     * 
+     * @param task
+     *            The task to execute. If the task is canceled while it is
+     *            queued, it will be dropped.
+     * @param executableName
+     *            The name of the executable run by the task, may be null.
+     * @param pluginId
+     *            The id of the plug-in providing the executable, may be null.
+     * @param demand
+     *            The memory and scratch space needed by the task.
+     */
+    public synchronized void submit(FutureTask<?> task, String executableName,
+            String pluginId, ResourceDemand demand) {
+        m_queue.add(new Job(task, executableName, pluginId, demand));
+        ++m_submitted;
+        dispatch();
+    }
+
+    /**
+     * Returns the number of currently running tools.
+     * 
+     * @return The number of running tools.
+     */
+    public synchronized int getRunningCount() {
+        return m_running;
+    }
+
+    /**
+     * Sets the time after which a tool held back for resources is no longer
+     * overtaken by later tools.
+     * 
+     * @param maxOvertakeMillis
+     *            The time in milliseconds.
+     */
+    synchronized void setMaxOvertakeMillis(long maxOvertakeMillis) {
+        m_maxOvertakeMillis = maxOvertakeMillis;
+    }
+
+    /**
+     * Returns the number of tools waiting for execution.
+     * 
+     * @return The number of queued tools.
+     */
+    public synchronized int getQueuedCount() {
+        return m_queue.size();
+    }
+
+    /**
+     * Returns a snapshot of the queue and wait counters.
+     * 
+     * @return The statistics of the scheduler.
+     */
+    public synchronized SchedulerStatistics getStatistics() {
+        int waitingForResources = 0;
+        for (Job job : m_queue) {
+            if (job.m_deferred) {
+                ++waitingForResources;
+            }
+        }
+        return new SchedulerStatistics(m_submitted, m_started,
+                m_queue.size(), waitingForResources, m_deferred,
+                m_totalWaitMillis, m_maxWaitMillis);
+    }
+
+    /**
+     * Parses a limit specification of the form
+     * <code>name1=limit1, name2=limit2</code>.
+     * 
+     * @param specification
+     *            The specification to parse, may be null or empty.
+     * @return A map containing the limit for each name.
+     * @throws IllegalArgumentException
+     *             If the specification is malformed.
+     */
+    public static Map<String, Integer> parseLimits(String specification) {
+        Map<String, Integer> limits = new HashMap<String, Integer>();
+        if (specification == null) {
+            return limits;
+        }
+        for (String entry : specification.split("[,;\\n]")) {
+            if ("".equals(entry.trim())) {
+                continue;
+            }
+            String[] keyValue = entry.split("=");
+            if (keyValue.length != 2 || "".equals(keyValue[0].trim())) {
+                throw new IllegalArgumentException("Invalid limit '"
+                        + entry.trim() + "', expected <name>=<limit>.");
+            }
+            try {
+                int limit = Integer.parseInt(keyValue[1].trim());
+                if (limit < 0) {
+                    throw new NumberFormatException();
+                }
+                limits.put(keyValue[0].trim(), limit);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid limit '"
+                        + entry.trim() + "', expected a non-negative number.");
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * Starts all queued jobs (in FIFO order) that are permitted by the
+     * limits.
+     */
+    private void dispatch() {
+        // drop jobs canceled while waiting, even if no slot is free
+        Iterator<Job> it = m_queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().m_task.isDone()) {
+                it.remove();
+            }
+        }
+
+        // the oldest job held back for resources
+        Job blocked = null;
+        it = m_queue.iterator();
+        while (it.hasNext() && !isFull(m_running, m_maxConcurrentTools)) {
+            final Job job = it.next();
+            if (job.m_task.isDone()) {
+                // canceled while we were dispatching
+                it.remove();
+                continue;
+            }
+            if (!canRun(job)) {
+                continue;
+            }
+            if (!canAdmit(job, blocked)) {
+                if (!job.m_deferred) {
+                    job.m_deferred = true;
+                    job.m_deferredSince = System.currentTimeMillis();
+                    ++m_deferred;
+                }
+                if (blocked == null) {
+                    blocked = job;
+                    long waiting = System.currentTimeMillis()
+                            - job.m_deferredSince;
+                    if (waiting >= m_maxOvertakeMillis) {
+                        // let the running jobs drain until it fits
+                        break;
+                    }
+                }
+                continue;
+            }
+            it.remove();
+            acquire(job);
+            m_workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        job.m_task.run();
+                    } finally {
+                        release(job);
+                    }
+                }
+            });
+        }
+        if (blocked != null) {
+            // resources might be freed by processes we do not control
+            scheduleRecheck();
+        }
+    }
+
+    private boolean canRun(Job job) {
+        return !isFull(count(m_runningPerExecutable, job.m_executableName),
+                limit(m_executableLimits, job.m_executableName))
+                && !isFull(count(m_runningPerPlugin, job.m_pluginId),
+                        limit(m_pluginLimits, job.m_pluginId));
+    }
+
+    /**
+     * Checks if the resources demanded by the job are available.
+     * 
+     * @param job
+     *            The job to check.
+     * @param blocked
+     *            An earlier job held back for resources whose demand is
+     *            reserved as well, may be null.
+     * @return True if the job can be started.
+     */
+    private boolean canAdmit(Job job, Job blocked) {
+        ResourceDemand demand = job.m_demand;
+        if (demand.isEmpty() || m_running == 0) {
+            return true;
+        }
+        long heldMemory = 0;
+        long heldScratch = 0;
+        if (blocked != null) {
+            heldMemory = blocked.m_demand.getMemoryBytes();
+            heldScratch = blocked.m_demand.getScratchBytes();
+        }
+        if (demand.getMemoryBytes() > 0) {
+            long free = getFree(m_resources.getTotalMemory(),
+                    m_resources.getAvailableMemory(), m_reservedMemory);
+            if (free != SystemResources.UNKNOWN
+                    && free - heldMemory < demand.getMemoryBytes()) {
+                return false;
+            }
+        }
+        if (demand.getScratchBytes() > 0
+                && demand.getScratchDirectory() != null) {
+            File directory = demand.getScratchDirectory();
+            long free = getFree(m_resources.getTotalSpace(directory),
+                    m_resources.getUsableSpace(directory), m_reservedScratch);
+            if (free != SystemResources.UNKNOWN
+                    && free - heldScratch < demand.getScratchBytes()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the amount of a resource that is free for a new tool.
+     * 
+     * @param capacity
+     *            The total amount, {@link SystemResources#UNKNOWN} if unknown.
+     * @param available
+     *            The currently available amount, which already lacks what
+     *            the running tools consume.
+     * @param reserved
+     *            The demand of the running tools.
+     * @return The free amount or {@link SystemResources#UNKNOWN}.
+     */
+    private static long getFree(long capacity, long available, long reserved) {
+        if (available == SystemResources.UNKNOWN) {
+            return SystemResources.UNKNOWN;
+        }
+        if (capacity == SystemResources.UNKNOWN) {
+            // cannot tell what the running tools already consume
+            return available - reserved;
+        }
+        return Math.min(capacity - reserved, available);
+    }
+
+    private void scheduleRecheck() {
+        if (m_recheckPending) {
+            return;
+        }
+        if (m_recheckTimer == null) {
+            m_recheckTimer = new Timer("GKN scheduler recheck", true);
+        }
+        m_recheckPending = true;
+        m_recheckTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                synchronized (ToolExecutionScheduler.this) {
+                    m_recheckPending = false;
+                    dispatch();
+                }
+            }
+        }, RECHECK_INTERVAL_MS);
+    }
+
+    private void acquire(Job job) {
+        long wait = System.currentTimeMillis() - job.m_submitTime;
+        ++m_started;
+        m_totalWaitMillis += wait;
+        m_maxWaitMillis = Math.max(m_maxWaitMillis, wait);
+        m_reservedMemory += job.m_demand.getMemoryBytes();
+        m_reservedScratch += job.m_demand.getScratchBytes();
+        ++m_running;
+        increment(m_runningPerExecutable, job.m_executableName, 1);
+        increment(m_runningPerPlugin, job.m_pluginId, 1);
+    }
+
+    private synchronized void release(Job job) {
+        m_reservedMemory -= job.m_demand.getMemoryBytes();
+        m_reservedScratch -= job.m_demand.getScratchBytes();
+        --m_running;
+        increment(m_runningPerExecutable, job.m_executableName, -1);
+        increment(m_runningPerPlugin, job.m_pluginId, -1);
+        dispatch();
+    }
+
+    private static boolean isFull(int running, int limit) {
+        return limit != UNLIMITED && running >= limit;
+    }
+
+    private static int limit(Map<String, Integer> limits, String key) {
+        if (key == null || !limits.containsKey(key)) {
+            return UNLIMITED;
+        }
+        return limits.get(key);
+    }
+
+    private static int count(Map<String, Integer> counts, String key) {
+        if (key == null || !counts.containsKey(key)) {
+            return 0;
+        }
+        return counts.get(key);
+    }
+
+    private static void increment(Map<String, Integer> counts, String key,
+            int delta) {
+        if (key == null) {
+            return;
+        }
+        int value = count(counts, key) + delta;
+        if (value == 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, value);
+        }
+    }
+}
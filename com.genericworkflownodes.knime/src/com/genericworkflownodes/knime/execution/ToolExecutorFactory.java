@@ -64,6 +64,41 @@ public class ToolExecutorFactory {
         return executor;
     }
 
+    /**
+     * Resolves the class of the {@link IToolExecutor} registered under the
+     * given name. Further instances can be created from the class without
+     * querying the extension registry again.
+     * 
+     * @param executorClassName
+     *            The name the executor was registered with.
+     * @return The executor class.
+     * @throws UnknownToolExecutorException
+     *             If no matching IToolExecutor was found or the given name was
+     *             empty.
+     */
+    public static Class<? extends IToolExecutor> getToolExecutorClass(
+            final String executorClassName)
+            throws UnknownToolExecutorException {
+        return getExecutor(executorClassName).getClass();
+    }
+
+    /**
+     * Resolves the class of the {@link ICommandGenerator} registered under the
+     * given name.
+     * 
+     * @param commandGeneratorClassName
+     *            The name the command generator was registered with.
+     * @return The command generator class.
+     * @throws UnknownCommandGeneratorException
+     *             If no matching ICommandGenerator was found or the given name
+     *             was empty.
+     */
+    public static Class<? extends ICommandGenerator> getCommandGeneratorClass(
+            final String commandGeneratorClassName)
+            throws UnknownCommandGeneratorException {
+        return getCommandGenerator(commandGeneratorClassName).getClass();
+    }
+
     /**
      * Queries the extension registry for a matching command generator.
      * 
@@ -0,0 +1,364 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution;
+
+import java.util.List;
+
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.ModelContentRO;
+import org.knime.core.node.ModelContentWO;
+
+/**
+ * Resources consumed by a single tool run, i.e., by the started process and
+ * all of its descendants.
+ * 
+ * Except for the wall time all values are sampled while the tool is running
+ * and hence are lower bounds, processes living shorter than the sampling
+ * interval may be missed. Values that could not be determined (e.g., on
+ * systems without a /proc file system) are reported as {@link #UNKNOWN}.
+ * 
+ * If the tool was killed, the time needed to terminate the process tree and
+ * the number of processes that survived the termination are recorded as well.
+ * 
+ * @author aiche
+ */
+public class ToolResourceUsage {
+
+    /**
+     * Value of all properties that could not be determined.
+     */
+    public static final long UNKNOWN = -1;
+
+    private static final String KEY_WALL_TIME = "wallTimeMillis";
+    private static final String KEY_USER_CPU = "userCpuMillis";
+    private static final String KEY_SYSTEM_CPU = "systemCpuMillis";
+    private static final String KEY_PEAK_RSS = "peakRssBytes";
+    private static final String KEY_READ_BYTES = "readBytes";
+    private static final String KEY_WRITE_BYTES = "writeBytes";
+    private static final String KEY_PROCESS_COUNT = "processCount";
+    private static final String KEY_KILL_LATENCY = "killLatencyMillis";
+    private static final String KEY_LEFTOVER_PROCESSES = "leftoverProcesses";
+
+    private final long m_wallTimeMillis;
+    private final long m_userCpuMillis;
+    private final long m_systemCpuMillis;
+    private final long m_peakRssBytes;
+    private final long m_readBytes;
+    private final long m_writeBytes;
+    private final int m_processCount;
+    private final long m_killLatencyMillis;
+    private final int m_leftoverProcesses;
+
+    /**
+     * C'tor.
+     * 
+     * @param wallTimeMillis
+     *            The elapsed real time.
+     * @param userCpuMillis
+     *            The CPU time spent in user mode.
+     * @param systemCpuMillis
+     *            The CPU time spent in kernel mode.
+     * @param peakRssBytes
+     *            The maximal resident set size of the process tree.
+     * @param readBytes
+     *            The number of bytes fetched from the storage layer.
+     * @param writeBytes
+     *            The number of bytes sent to the storage layer.
+     * @param processCount
+     *            The number of processes observed in the process tree.
+     */
+    public ToolResourceUsage(long wallTimeMillis, long userCpuMillis,
+            long systemCpuMillis, long peakRssBytes, long readBytes,
+            long writeBytes, int processCount) {
+        this(wallTimeMillis, userCpuMillis, systemCpuMillis, peakRssBytes,
+                readBytes, writeBytes, processCount, UNKNOWN, (int) UNKNOWN);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param wallTimeMillis
+     *            The elapsed real time.
+     * @param userCpuMillis
+     *            The CPU time spent in user mode.
+     * @param systemCpuMillis
+     *            The CPU time spent in kernel mode.
+     * @param peakRssBytes
+     *            The maximal resident set size of the process tree.
+     * @param readBytes
+     *            The number of bytes fetched from the storage layer.
+     * @param writeBytes
+     *            The number of bytes sent to the storage layer.
+     * @param processCount
+     *            The number of processes observed in the process tree.
+     * @param killLatencyMillis
+     *            The time needed to terminate the process tree, or
+     *            {@link #UNKNOWN} if the tool was not killed.
+     * @param leftoverProcesses
+     *            The number of processes that survived the termination, or
+     *            {@link #UNKNOWN} if the tool was not killed or the survivors
+     *            could not be determined.
+     */
+    public ToolResourceUsage(long wallTimeMillis, long userCpuMillis,
+            long systemCpuMillis, long peakRssBytes, long readBytes,
+            long writeBytes, int processCount, long killLatencyMillis,
+            int leftoverProcesses) {
+        m_wallTimeMillis = wallTimeMillis;
+        m_userCpuMillis = userCpuMillis;
+        m_systemCpuMillis = systemCpuMillis;
+        m_peakRssBytes = peakRssBytes;
+        m_readBytes = readBytes;
+        m_writeBytes = writeBytes;
+        m_processCount = processCount;
+        m_killLatencyMillis = killLatencyMillis;
+        m_leftoverProcesses = leftoverProcesses;
+    }
+
+    /**
+     * Creates a record for a run where only the wall time is known.
+     * 
+     * @param wallTimeMillis
+     *            The elapsed real time.
+     * @return The resource usage.
+     */
+    public static ToolResourceUsage wallTimeOnly(long wallTimeMillis) {
+        return new ToolResourceUsage(wallTimeMillis, UNKNOWN, UNKNOWN,
+                UNKNOWN, UNKNOWN, UNKNOWN, 0);
+    }
+
+    /**
+     * Combines the records of several tool runs that were executed in
+     * parallel. CPU times, I/O and process counts are summed up. The peak RSS
+     * is the sum of the single peaks, i.e., an upper bound since the peaks do
+     * not necessarily coincide.
+     * 
+     * @param usages
+     *            The records to combine.
+     * @param wallTimeMillis
+     *            The elapsed real time of all runs.
+     * @return The combined record.
+     */
+    public static ToolResourceUsage combine(List<ToolResourceUsage> usages,
+            long wallTimeMillis) {
+        long userCpu = 0;
+        long systemCpu = 0;
+        long peakRss = 0;
+        long readBytes = 0;
+        long writeBytes = 0;
+        int processCount = 0;
+        long killLatency = UNKNOWN;
+        int leftover = (int) UNKNOWN;
+        for (ToolResourceUsage usage : usages) {
+            userCpu = add(userCpu, usage.m_userCpuMillis);
+            systemCpu = add(systemCpu, usage.m_systemCpuMillis);
+            peakRss = add(peakRss, usage.m_peakRssBytes);
+            readBytes = add(readBytes, usage.m_readBytes);
+            writeBytes = add(writeBytes, usage.m_writeBytes);
+            processCount += usage.m_processCount;
+            // the shards are killed in parallel
+            killLatency = Math.max(killLatency, usage.m_killLatencyMillis);
+            if (usage.m_leftoverProcesses != UNKNOWN) {
+                leftover = Math.max(leftover, 0) + usage.m_leftoverProcesses;
+            }
+        }
+        return new ToolResourceUsage(wallTimeMillis, userCpu, systemCpu,
+                peakRss, readBytes, writeBytes, processCount, killLatency,
+                leftover);
+    }
+
+    /**
+     * Creates a copy of this record including the outcome of killing the
+     * tool.
+     * 
+     * @param killLatencyMillis
+     *            The time needed to terminate the process tree.
+     * @param leftoverProcesses
+     *            The number of processes that survived the termination or
+     *            {@link #UNKNOWN}.
+     * @return The extended record.
+     */
+    public ToolResourceUsage withTermination(long killLatencyMillis,
+            int leftoverProcesses) {
+        return new ToolResourceUsage(m_wallTimeMillis, m_userCpuMillis,
+                m_systemCpuMillis, m_peakRssBytes, m_readBytes, m_writeBytes,
+                m_processCount, killLatencyMillis, leftoverProcesses);
+    }
+
+    private static long add(long sum, long value) {
+        if (sum == UNKNOWN || value == UNKNOWN) {
+            return UNKNOWN;
+        }
+        return sum + value;
+    }
+
+    /**
+     * Returns the elapsed real time of the run.
+     * 
+     * @return The wall time in milliseconds.
+     */
+    public long getWallTimeMillis() {
+        return m_wallTimeMillis;
+    }
+
+    /**
+     * Returns the CPU time spent in user mode by the process tree.
+     * 
+     * @return The user CPU time in milliseconds or {@link #UNKNOWN}.
+     */
+    public long getUserCpuMillis() {
+        return m_userCpuMillis;
+    }
+
+    /**
+     * Returns the CPU time spent in kernel mode by the process tree.
+     * 
+     * @return The system CPU time in milliseconds or {@link #UNKNOWN}.
+     */
+    public long getSystemCpuMillis() {
+        return m_systemCpuMillis;
+    }
+
+    /**
+     * Returns the maximal resident set size of the process tree.
+     * 
+     * @return The peak RSS in bytes or {@link #UNKNOWN}.
+     */
+    public long getPeakRssBytes() {
+        return m_peakRssBytes;
+    }
+
+    /**
+     * Returns the number of bytes read from the storage layer.
+     * 
+     * @return The number of bytes read or {@link #UNKNOWN}.
+     */
+    public long getReadBytes() {
+        return m_readBytes;
+    }
+
+    /**
+     * Returns the number of bytes written to the storage layer.
+     * 
+     * @return The number of bytes written or {@link #UNKNOWN}.
+     */
+    public long getWriteBytes() {
+        return m_writeBytes;
+    }
+
+    /**
+     * Returns the number of processes observed in the process tree.
+     * 
+     * @return The number of processes, 0 if the tree was not sampled.
+     */
+    public int getProcessCount() {
+        return m_processCount;
+    }
+
+    /**
+     * Returns the time needed to terminate the process tree after the tool
+     * was killed.
+     * 
+     * @return The kill latency in milliseconds or {@link #UNKNOWN} if the tool
+     *         was not killed.
+     */
+    public long getKillLatencyMillis() {
+        return m_killLatencyMillis;
+    }
+
+    /**
+     * Returns the number of processes of the tree that were still alive after
+     * the tool was killed.
+     * 
+     * @return The number of surviving processes or {@link #UNKNOWN}.
+     */
+    public int getLeftoverProcesses() {
+        return m_leftoverProcesses;
+    }
+
+    /**
+     * Checks if the process tree was sampled, i.e., if more than the wall
+     * time is known.
+     * 
+     * @return True if CPU, memory and I/O values are available.
+     */
+    public boolean isSampled() {
+        return m_processCount > 0;
+    }
+
+    /**
+     * Stores the record in the given model content.
+     * 
+     * @param model
+     *            The model content to write to.
+     */
+    public void save(ModelContentWO model) {
+        model.addLong(KEY_WALL_TIME, m_wallTimeMillis);
+        model.addLong(KEY_USER_CPU, m_userCpuMillis);
+        model.addLong(KEY_SYSTEM_CPU, m_systemCpuMillis);
+        model.addLong(KEY_PEAK_RSS, m_peakRssBytes);
+        model.addLong(KEY_READ_BYTES, m_readBytes);
+        model.addLong(KEY_WRITE_BYTES, m_writeBytes);
+        model.addInt(KEY_PROCESS_COUNT, m_processCount);
+        model.addLong(KEY_KILL_LATENCY, m_killLatencyMillis);
+        model.addInt(KEY_LEFTOVER_PROCESSES, m_leftoverProcesses);
+    }
+
+    /**
+     * Restores a record stored with {@link #save(ModelContentWO)}.
+     * 
+     * @param model
+     *            The model content to read from.
+     * @return The restored record.
+     * @throws InvalidSettingsException
+     *             If the model content does not contain a valid record.
+     */
+    public static ToolResourceUsage load(ModelContentRO model)
+            throws InvalidSettingsException {
+        return new ToolResourceUsage(model.getLong(KEY_WALL_TIME),
+                model.getLong(KEY_USER_CPU), model.getLong(KEY_SYSTEM_CPU),
+                model.getLong(KEY_PEAK_RSS), model.getLong(KEY_READ_BYTES),
+                model.getLong(KEY_WRITE_BYTES),
+                model.getInt(KEY_PROCESS_COUNT),
+                // not available in records of older versions
+                model.getLong(KEY_KILL_LATENCY, UNKNOWN), model.getInt(
+                        KEY_LEFTOVER_PROCESSES, (int) UNKNOWN));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("wall=").append(m_wallTimeMillis).append("ms");
+        if (isSampled()) {
+            sb.append(", user=").append(m_userCpuMillis).append("ms");
+            sb.append(", sys=").append(m_systemCpuMillis).append("ms");
+            sb.append(", peakRSS=").append(m_peakRssBytes / 1024)
+                    .append("KB");
+            sb.append(", read=").append(m_readBytes).append("B");
+            sb.append(", write=").append(m_writeBytes).append("B");
+            sb.append(", processes=").append(m_processCount);
+        }
+        if (m_killLatencyMillis != UNKNOWN) {
+            sb.append(", killed in ").append(m_killLatencyMillis).append("ms");
+            if (m_leftoverProcesses != UNKNOWN) {
+                sb.append(", leftover=").append(m_leftoverProcesses);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.batch;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Holds the {@link IBatchScheduler} used by all batch executions. If no
+ * submit command is configured, jobs are run by a {@link LocalSpoolScheduler}.
+ * 
+ * @author aiche
+ */
+public final class BatchSchedulerRegistry {
+
+    /**
+     * Name of the default spool directory below java.io.tmpdir.
+     */
+    public static final String DEFAULT_SPOOL_DIRECTORY_NAME = "gkn_batch_spool";
+
+    /**
+     * The shared instance.
+     */
+    private static final BatchSchedulerRegistry INSTANCE = new BatchSchedulerRegistry();
+
+    /**
+     * Returns the registry shared by all nodes.
+     * 
+     * @return The shared registry.
+     */
+    public static BatchSchedulerRegistry getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the default location of the spool directory of the local
+     * scheduler.
+     * 
+     * @return The default spool directory.
+     */
+    public static File getDefaultSpoolDirectory() {
+        return new File(System.getProperty("java.io.tmpdir"),
+                DEFAULT_SPOOL_DIRECTORY_NAME);
+    }
+
+    /**
+     * Returns the default number of workers of the local scheduler.
+     * 
+     * @return The default number of workers.
+     */
+    public static int getDefaultWorkers() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    private File m_spoolDirectory;
+    private int m_workers;
+    private String m_submitCommand;
+    private String m_statusCommand;
+    private String m_cancelCommand;
+
+    /**
+     * The scheduler created for the current settings, created lazily.
+     */
+    private IBatchScheduler m_scheduler;
+
+    /**
+     * C'tor.
+     */
+    private BatchSchedulerRegistry() {
+        m_spoolDirectory = getDefaultSpoolDirectory();
+        m_workers = getDefaultWorkers();
+        m_submitCommand = "";
+        m_statusCommand = "";
+        m_cancelCommand = "";
+        m_scheduler = null;
+    }
+
+    /**
+     * Changes the settings of the batch scheduler. Jobs that were already
+     * submitted are finished by the previous scheduler.
+     * 
+     * @param spoolDirectory
+     *            The spool directory of the local scheduler.
+     * @param workers
+     *            Number of parallel jobs of the local scheduler.
+     * @param submitCommand
+     *            The submit command template of an external scheduler, if
+     *            empty the local scheduler is used.
+     * @param statusCommand
+     *            The status command template of an external scheduler.
+     * @param cancelCommand
+     *            The cancel command template of an external scheduler.
+     * @see CommandBatchScheduler
+     */
+    public synchronized void configure(File spoolDirectory, int workers,
+            String submitCommand, String statusCommand, String cancelCommand) {
+        if (workers < 1) {
+            throw new IllegalArgumentException(
+                    "At least one batch worker is required.");
+        }
+        m_spoolDirectory = spoolDirectory;
+        m_workers = workers;
+        m_submitCommand = submitCommand == null ? "" : submitCommand.trim();
+        m_statusCommand = statusCommand;
+        m_cancelCommand = cancelCommand;
+        if (m_scheduler instanceof LocalSpoolScheduler) {
+            ((LocalSpoolScheduler) m_scheduler).shutdown();
+        }
+        m_scheduler = null;
+    }
+
+    /**
+     * Returns the scheduler for the current settings.
+     * 
+     * @return The batch scheduler.
+     * @throws IOException
+     *             If the spool directory of the local scheduler could not be
+     *             created.
+     */
+    public synchronized IBatchScheduler getScheduler() throws IOException {
+        if (m_scheduler == null) {
+            if ("".equals(m_submitCommand)) {
+                m_scheduler = new LocalSpoolScheduler(m_spoolDirectory,
+                        m_workers);
+            } else {
+                m_scheduler = new CommandBatchScheduler(m_submitCommand,
+                        m_statusCommand, m_cancelCommand);
+            }
+        }
+        return m_scheduler;
+    }
+}
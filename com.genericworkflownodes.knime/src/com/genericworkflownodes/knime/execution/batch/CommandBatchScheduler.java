@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.batch;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch scheduler delegating to the command line tools of an external queueing
+ * system, e.g., SLURM, SGE or PBS. The commands are given as templates where
+ * the following placeholders are replaced:
+ * <ul>
+ * <li><code>{script}</code>: the absolute path of the job script</li>
+ * <li><code>{workdir}</code>: the absolute path of the working directory</li>
+ * <li><code>{jobid}</code>: the id of the job</li>
+ * </ul>
+ * 
+ * The submit command has to print the job id as the first line of its output
+ * (e.g., <code>sbatch --parsable {script}</code> or
+ * <code>qsub -cwd {script}</code> with <code>-terse</code>). The status command
+ * is considered to report an active job if it terminates successfully and
+ * prints anything (e.g., <code>squeue -h -j {jobid}</code>).
+ * 
+ * @author aiche
+ */
+public class CommandBatchScheduler implements IBatchScheduler {
+
+    private final String m_submitCommand;
+    private final String m_statusCommand;
+    private final String m_cancelCommand;
+
+    /**
+     * C'tor.
+     * 
+     * @param submitCommand
+     *            The template of the submit command.
+     * @param statusCommand
+     *            The template of the status command, if empty the job is
+     *            considered to be active until it writes its exit code.
+     * @param cancelCommand
+     *            The template of the cancel command, if empty jobs cannot be
+     *            canceled.
+     */
+    public CommandBatchScheduler(String submitCommand, String statusCommand,
+            String cancelCommand) {
+        if (submitCommand == null || "".equals(submitCommand.trim())) {
+            throw new IllegalArgumentException(
+                    "The submit command must not be empty.");
+        }
+        m_submitCommand = submitCommand;
+        m_statusCommand = statusCommand == null ? "" : statusCommand.trim();
+        m_cancelCommand = cancelCommand == null ? "" : cancelCommand.trim();
+    }
+
+    @Override
+    public String submit(File jobScript, File workingDirectory)
+            throws IOException {
+        List<String> output = new ArrayList<String>();
+        int exitCode = run(expand(m_submitCommand, jobScript,
+                workingDirectory, null), workingDirectory, output);
+        if (exitCode != 0 || output.isEmpty()
+                || "".equals(output.get(0).trim())) {
+            throw new IOException("Failed to submit job " + jobScript
+                    + " (exit code " + exitCode + "): " + output);
+        }
+        return output.get(0).trim();
+    }
+
+    @Override
+    public boolean isActive(String jobId) throws IOException {
+        if ("".equals(m_statusCommand)) {
+            return true;
+        }
+        List<String> output = new ArrayList<String>();
+        int exitCode = run(expand(m_statusCommand, null, null, jobId), null,
+                output);
+        if (exitCode != 0) {
+            return false;
+        }
+        for (String line : output) {
+            if (!"".equals(line.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void cancel(String jobId) throws IOException {
+        if ("".equals(m_cancelCommand)) {
+            return;
+        }
+        List<String> output = new ArrayList<String>();
+        int exitCode = run(expand(m_cancelCommand, null, null, jobId), null,
+                output);
+        if (exitCode != 0) {
+            throw new IOException("Failed to cancel job " + jobId
+                    + " (exit code " + exitCode + "): " + output);
+        }
+    }
+
+    /**
+     * Splits the template into arguments and replaces the placeholders.
+     * 
+     * @param template
+     *            The command template.
+     * @param jobScript
+     *            The job script, may be null.
+     * @param workingDirectory
+     *            The working directory, may be null.
+     * @param jobId
+     *            The job id, may be null.
+     * @return The command.
+     */
+    static List<String> expand(String template, File jobScript,
+            File workingDirectory, String jobId) {
+        List<String> command = new ArrayList<String>();
+        for (String token : template.trim().split("\\s+")) {
+            if (jobScript != null) {
+                token = token.replace("{script}", jobScript.getAbsolutePath());
+            }
+            if (workingDirectory != null) {
+                token = token.replace("{workdir}",
+                        workingDirectory.getAbsolutePath());
+            }
+            if (jobId != null) {
+                token = token.replace("{jobid}", jobId);
+            }
+            command.add(token);
+        }
+        return command;
+    }
+
+    private static int run(List<String> command, File directory,
+            List<String> output) throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        if (directory != null) {
+            builder.directory(directory);
+        }
+        Process process = builder.start();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                process.getInputStream()));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+            }
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running " + command, e);
+        } finally {
+            reader.close();
+        }
+    }
+}
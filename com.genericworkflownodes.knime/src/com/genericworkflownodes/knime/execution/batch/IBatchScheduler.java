@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.batch;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A batch queue accepting job scripts, e.g., a cluster scheduler.
+ * 
+ * The scheduler is only responsible for running the script somewhere. The job
+ * script itself redirects stdout/stderr into the working directory and writes
+ * the exit code of the tool into {@link #EXIT_CODE_FILE} once it is finished,
+ * hence the working directory has to be visible to the host running the job
+ * (e.g., a shared file system).
+ * 
+ * @author aiche
+ */
+public interface IBatchScheduler {
+
+    /**
+     * Name of the file in the working directory receiving the exit code of
+     * the tool.
+     */
+    String EXIT_CODE_FILE = "gkn_exitcode";
+
+    /**
+     * Submits a job script.
+     * 
+     * @param jobScript
+     *            The (executable) shell script to run.
+     * @param workingDirectory
+     *            The directory the script should be run in.
+     * @return The id of the job assigned by the scheduler.
+     * @throws IOException
+     *             If the job could not be submitted.
+     */
+    String submit(File jobScript, File workingDirectory) throws IOException;
+
+    /**
+     * Checks if a job is still queued or running. Used to detect jobs which
+     * were removed by the scheduler without writing an exit code.
+     * 
+     * @param jobId
+     *            The id of the job.
+     * @return True if the job is queued or running.
+     * @throws IOException
+     *             If the state of the job could not be determined.
+     */
+    boolean isActive(String jobId) throws IOException;
+
+    /**
+     * Cancels a queued or running job.
+     * 
+     * @param jobId
+     *            The id of the job.
+     * @throws IOException
+     *             If the job could not be canceled.
+     */
+    void cancel(String jobId) throws IOException;
+}
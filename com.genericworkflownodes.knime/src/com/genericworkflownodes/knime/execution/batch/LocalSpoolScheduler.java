@@ -0,0 +1,352 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Batch scheduler running the jobs on the local host. Jobs are spooled as
+ * files into a queue directory and drained by a fixed number of workers, each
+ * running one job script at a time as a separate process.
+ * 
+ * A job is claimed by atomically moving its file from the <i>queue</i> into
+ * the <i>running</i> directory and afterwards moved into the <i>done</i>
+ * directory, hence several schedulers (e.g., of different KNIME instances) can
+ * share one spool directory. This scheduler is mainly intended to test batch
+ * execution without a cluster, but can also be used to decouple the tool
+ * processes from the workflow.
+ * 
+ * @author aiche
+ */
+public class LocalSpoolScheduler implements IBatchScheduler {
+
+    /**
+     * Name of the directory holding the queued jobs.
+     */
+    static final String QUEUE_DIRECTORY = "queue";
+
+    /**
+     * Name of the directory holding the running jobs.
+     */
+    static final String RUNNING_DIRECTORY = "running";
+
+    /**
+     * Name of the directory holding the finished jobs.
+     */
+    static final String DONE_DIRECTORY = "done";
+
+    /**
+     * Suffix of the job files.
+     */
+    private static final String JOB_SUFFIX = ".job";
+
+    /**
+     * Name of the file in the working directory receiving the output of the
+     * job script itself.
+     */
+    private static final String JOB_LOG_FILE = "gkn_job.log";
+
+    /**
+     * Interval in which idle workers look for jobs submitted by other
+     * schedulers.
+     */
+    private static final long IDLE_POLL_INTERVAL_MS = 1000;
+
+    /**
+     * The logger.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(LocalSpoolScheduler.class);
+
+    /**
+     * Counter used to create unique job ids.
+     */
+    private static final AtomicLong JOB_COUNTER = new AtomicLong();
+
+    private final File m_queueDirectory;
+    private final File m_runningDirectory;
+    private final File m_doneDirectory;
+    private final int m_workers;
+
+    /**
+     * The processes of the jobs run by this scheduler.
+     */
+    private final Map<String, Process> m_processes;
+
+    /**
+     * Jobs that were canceled after they were claimed but before their
+     * process was started.
+     */
+    private final Set<String> m_canceled;
+
+    /**
+     * Lock the idle workers wait on.
+     */
+    private final Object m_lock;
+
+    private boolean m_started;
+    private boolean m_shutdown;
+
+    /**
+     * C'tor.
+     * 
+     * @param spoolDirectory
+     *            The directory holding the job files.
+     * @param workers
+     *            Number of jobs running in parallel.
+     * @throws IOException
+     *             If the spool directories could not be created.
+     */
+    public LocalSpoolScheduler(File spoolDirectory, int workers)
+            throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException(
+                    "At least one worker is required.");
+        }
+        m_queueDirectory = new File(spoolDirectory, QUEUE_DIRECTORY);
+        m_runningDirectory = new File(spoolDirectory, RUNNING_DIRECTORY);
+        m_doneDirectory = new File(spoolDirectory, DONE_DIRECTORY);
+        FileUtils.forceMkdir(m_queueDirectory);
+        FileUtils.forceMkdir(m_runningDirectory);
+        FileUtils.forceMkdir(m_doneDirectory);
+        m_workers = workers;
+        m_processes = new HashMap<String, Process>();
+        m_canceled = new HashSet<String>();
+        m_lock = new Object();
+        m_started = false;
+        m_shutdown = false;
+    }
+
+    /**
+     * @return Number of jobs running in parallel.
+     */
+    public int getWorkers() {
+        return m_workers;
+    }
+
+    @Override
+    public String submit(File jobScript, File workingDirectory)
+            throws IOException {
+        String jobId = String.format("%d_%06d", System.currentTimeMillis(),
+                JOB_COUNTER.incrementAndGet());
+        Properties job = new Properties();
+        job.setProperty("script", jobScript.getAbsolutePath());
+        job.setProperty("directory", workingDirectory.getAbsolutePath());
+
+        // write the job under a name the workers ignore and publish it
+        // atomically
+        File tmpFile = new File(m_queueDirectory, jobId + ".tmp");
+        writeJob(job, tmpFile);
+        if (!tmpFile.renameTo(getJobFile(m_queueDirectory, jobId))) {
+            tmpFile.delete();
+            throw new IOException("Failed to spool job " + jobId + " to "
+                    + m_queueDirectory.getAbsolutePath());
+        }
+
+        synchronized (m_lock) {
+            if (m_shutdown) {
+                throw new IOException("The scheduler was shut down.");
+            }
+            startWorkers();
+            m_lock.notifyAll();
+        }
+        return jobId;
+    }
+
+    @Override
+    public boolean isActive(String jobId) {
+        return getJobFile(m_queueDirectory, jobId).exists()
+                || getJobFile(m_runningDirectory, jobId).exists();
+    }
+
+    @Override
+    public void cancel(String jobId) throws IOException {
+        // a queued job is simply moved to the finished jobs
+        if (getJobFile(m_queueDirectory, jobId).renameTo(
+                getJobFile(m_doneDirectory, jobId))) {
+            return;
+        }
+        synchronized (m_lock) {
+            Process process = m_processes.get(jobId);
+            if (process != null) {
+                process.destroy();
+            } else if (isActive(jobId)) {
+                m_canceled.add(jobId);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers once the queue is drained.
+     */
+    public void shutdown() {
+        synchronized (m_lock) {
+            m_shutdown = true;
+            m_lock.notifyAll();
+        }
+    }
+
+    private void startWorkers() {
+        if (m_started) {
+            return;
+        }
+        m_started = true;
+        for (int i = 0; i < m_workers; ++i) {
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    drainQueue();
+                }
+            }, "GKN-SpoolWorker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    private void drainQueue() {
+        while (true) {
+            String jobId = claimJob();
+            if (jobId != null) {
+                runJob(jobId);
+                continue;
+            }
+            synchronized (m_lock) {
+                if (m_shutdown) {
+                    return;
+                }
+                try {
+                    m_lock.wait(IDLE_POLL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the oldest queued job into the running directory.
+     * 
+     * @return The id of the claimed job or null if the queue is empty.
+     */
+    private String claimJob() {
+        String[] queued = m_queueDirectory.list();
+        if (queued == null) {
+            return null;
+        }
+        // the job ids start with the submission time
+        Arrays.sort(queued);
+        for (String fileName : queued) {
+            if (!fileName.endsWith(JOB_SUFFIX)) {
+                continue;
+            }
+            String jobId = fileName.substring(0, fileName.length()
+                    - JOB_SUFFIX.length());
+            // fails if another worker was faster
+            if (new File(m_queueDirectory, fileName).renameTo(getJobFile(
+                    m_runningDirectory, jobId))) {
+                return jobId;
+            }
+        }
+        return null;
+    }
+
+    private void runJob(String jobId) {
+        File jobFile = getJobFile(m_runningDirectory, jobId);
+        try {
+            Properties job = readJob(jobFile);
+            File directory = new File(job.getProperty("directory"));
+            List<String> command = new ArrayList<String>();
+            command.add("/bin/sh");
+            command.add(job.getProperty("script"));
+            ProcessBuilder builder = new ProcessBuilder(command);
+            builder.directory(directory);
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(ProcessBuilder.Redirect.appendTo(new File(
+                    directory, JOB_LOG_FILE)));
+
+            Process process;
+            synchronized (m_lock) {
+                if (m_canceled.remove(jobId)) {
+                    return;
+                }
+                process = builder.start();
+                m_processes.put(jobId, process);
+            }
+            try {
+                int exitCode = process.waitFor();
+                LOGGER.debug("Spooled job " + jobId + " finished with "
+                        + exitCode);
+            } finally {
+                synchronized (m_lock) {
+                    m_processes.remove(jobId);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to run spooled job " + jobId, e);
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while running spooled job " + jobId, e);
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!jobFile.renameTo(getJobFile(m_doneDirectory, jobId))) {
+                jobFile.delete();
+            }
+        }
+    }
+
+    private static File getJobFile(File directory, String jobId) {
+        return new File(directory, jobId + JOB_SUFFIX);
+    }
+
+    private static void writeJob(Properties job, File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            job.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static Properties readJob(File file) throws IOException {
+        Properties job = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            job.load(in);
+        } finally {
+            in.close();
+        }
+        return job;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+
+/**
+ * Incrementally builds the key of a {@link ToolExecutionCache} entry. Every
+ * component is added as a length prefixed name/value pair, so different
+ * combinations of components can never produce the same byte sequence.
+ * 
+ * @author aiche
+ */
+public class CacheKeyBuilder {
+
+    /**
+     * Charset used to encode the key components.
+     */
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * The digest receiving the key components.
+     */
+    private final MessageDigest m_digest;
+
+    /**
+     * Digester used for file contents.
+     */
+    private final FileDigester m_fileDigester;
+
+    /**
+     * C'tor.
+     * 
+     * @param fileDigester
+     *            The digester used to hash file contents.
+     */
+    public CacheKeyBuilder(FileDigester fileDigester) {
+        m_digest = FileDigester.createMessageDigest();
+        m_fileDigester = fileDigester;
+    }
+
+    /**
+     * Adds a named value to the key.
+     * 
+     * @param name
+     *            The name of the component.
+     * @param value
+     *            The value of the component, may be null.
+     * @return This builder.
+     */
+    public CacheKeyBuilder add(String name, String value) {
+        update(name);
+        update(value == null ? "\u0000null" : value);
+        return this;
+    }
+
+    /**
+     * Adds the content of a file to the key. The name of the file is not part
+     * of the key.
+     * 
+     * @param name
+     *            The name of the component.
+     * @param file
+     *            The file whose content should be added.
+     * @return This builder.
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    public CacheKeyBuilder addFileContent(String name, File file)
+            throws IOException {
+        return add(name, m_fileDigester.digest(file));
+    }
+
+    /**
+     * Finishes the key. The builder must not be used afterwards.
+     * 
+     * @return The hex encoded key.
+     */
+    public String build() {
+        return FileDigester.toHex(m_digest.digest());
+    }
+
+    private void update(String s) {
+        byte[] bytes = s.getBytes(UTF8);
+        int length = bytes.length;
+        m_digest.update((byte) (length >>> 24));
+        m_digest.update((byte) (length >>> 16));
+        m_digest.update((byte) (length >>> 8));
+        m_digest.update((byte) length);
+        m_digest.update(bytes);
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.cache;
+
+/**
+ * Snapshot of the counters of a {@link ToolExecutionCache}.
+ * 
+ * @author aiche
+ */
+public class CacheStatistics {
+
+    private final long m_hits;
+    private final long m_misses;
+    private final long m_stores;
+    private final long m_evictions;
+    private final int m_entries;
+    private final long m_sizeBytes;
+
+    /**
+     * C'tor.
+     * 
+     * @param hits
+     *            Number of lookups answered from the cache.
+     * @param misses
+     *            Number of lookups not answered from the cache.
+     * @param stores
+     *            Number of entries added to the cache.
+     * @param evictions
+     *            Number of entries evicted from the cache.
+     * @param entries
+     *            Current number of entries.
+     * @param sizeBytes
+     *            Current size of all entries in bytes.
+     */
+    public CacheStatistics(long hits, long misses, long stores,
+            long evictions, int entries, long sizeBytes) {
+        m_hits = hits;
+        m_misses = misses;
+        m_stores = stores;
+        m_evictions = evictions;
+        m_entries = entries;
+        m_sizeBytes = sizeBytes;
+    }
+
+    /**
+     * @return Number of lookups answered from the cache.
+     */
+    public long getHits() {
+        return m_hits;
+    }
+
+    /**
+     * @return Number of lookups not answered from the cache.
+     */
+    public long getMisses() {
+        return m_misses;
+    }
+
+    /**
+     * @return Number of entries added to the cache.
+     */
+    public long getStores() {
+        return m_stores;
+    }
+
+    /**
+     * @return Number of entries evicted from the cache.
+     */
+    public long getEvictions() {
+        return m_evictions;
+    }
+
+    /**
+     * @return Current number of entries.
+     */
+    public int getEntries() {
+        return m_entries;
+    }
+
+    /**
+     * @return Current size of all entries in bytes.
+     */
+    public long getSizeBytes() {
+        return m_sizeBytes;
+    }
+
+    /**
+     * @return The fraction of lookups answered from the cache, 0 if there
+     *         were no lookups.
+     */
+    public double getHitRatio() {
+        long lookups = m_hits + m_misses;
+        return lookups == 0 ? 0.0 : (double) m_hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "hits=%d, misses=%d (hit ratio %.1f%%), stores=%d, "
+                        + "evictions=%d, entries=%d, size=%d MB", m_hits,
+                m_misses, 100.0 * getHitRatio(), m_stores, m_evictions,
+                m_entries, m_sizeBytes / (1024 * 1024));
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes SHA-256 digests of file contents. Digests are memoized by
+ * canonical path, size and modification time so that the (potentially large)
+ * inputs of a workflow are only read once as long as they do not change.
+ * 
+ * @author aiche
+ */
+public class FileDigester {
+
+    /**
+     * Default number of memoized digests.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The digest algorithm.
+     */
+    static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Size of the read buffer.
+     */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * A memoized digest together with the file state it was computed for.
+     */
+    private static final class MemoizedDigest {
+        private final long m_length;
+        private final long m_lastModified;
+        private final String m_digest;
+
+        MemoizedDigest(long length, long lastModified, String digest) {
+            m_length = length;
+            m_lastModified = lastModified;
+            m_digest = digest;
+        }
+    }
+
+    /**
+     * The memoized digests in access order.
+     */
+    private final Map<String, MemoizedDigest> m_memo;
+
+    /**
+     * Number of digests that were actually computed.
+     */
+    private long m_computedDigests;
+
+    /**
+     * C'tor using {@link #DEFAULT_CAPACITY}.
+     */
+    public FileDigester() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param capacity
+     *            Maximal number of memoized digests.
+     */
+    public FileDigester(final int capacity) {
+        m_memo = new LinkedHashMap<String, MemoizedDigest>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, MemoizedDigest> eldest) {
+                return size() > capacity;
+            }
+        };
+        m_computedDigests = 0;
+    }
+
+    /**
+     * Returns the hex encoded SHA-256 digest of the content of the given
+     * file.
+     * 
+     * @param file
+     *            The file to digest.
+     * @return The digest of the file content.
+     * @throws IOException
+     *             If the file could not be read.
+     */
+    public String digest(File file) throws IOException {
+        String path = file.getCanonicalPath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        synchronized (m_memo) {
+            MemoizedDigest entry = m_memo.get(path);
+            if (entry != null && entry.m_length == length
+                    && entry.m_lastModified == lastModified) {
+                return entry.m_digest;
+            }
+        }
+
+        // compute outside of the lock, the same file may be digested twice
+        // in rare cases which is harmless
+        String digest = computeDigest(file);
+        synchronized (m_memo) {
+            m_memo.put(path,
+                    new MemoizedDigest(length, lastModified, digest));
+            ++m_computedDigests;
+        }
+        return digest;
+    }
+
+    /**
+     * Returns the number of digests that were computed, i.e., that were not
+     * answered from the memo.
+     * 
+     * @return The number of computed digests.
+     */
+    public long getComputedDigests() {
+        synchronized (m_memo) {
+            return m_computedDigests;
+        }
+    }
+
+    private static String computeDigest(File file) throws IOException {
+        MessageDigest md = createMessageDigest();
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                md.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return toHex(md.digest());
+    }
+
+    /**
+     * Creates a new {@link MessageDigest} for {@link #ALGORITHM}.
+     * 
+     * @return The message digest.
+     */
+    static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE has to provide SHA-256
+            throw new IllegalStateException(ALGORITHM + " is not available.",
+                    e);
+        }
+    }
+
+    /**
+     * Converts the given bytes into a lower case hex string.
+     * 
+     * @param bytes
+     *            The bytes to convert.
+     * @return The hex string.
+     */
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(2 * bytes.length);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,753 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.cache;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.Platform;
+import org.knime.core.node.NodeLogger;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
+import com.genericworkflownodes.knime.custom.config.NoBinaryAvailableException;
+import com.genericworkflownodes.knime.execution.LaunchPlan;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.UnknownCommandGeneratorException;
+import com.genericworkflownodes.knime.execution.UnknownToolExecutorException;
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.FileParameter;
+import com.genericworkflownodes.knime.parameter.IFileParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+import com.genericworkflownodes.knime.port.Port;
+
+/**
+ * Content addressed cache for the output files of tool executions.
+ * 
+ * The key of an entry is a digest over everything that determines the result
+ * of a tool run: the contents of the input files, the canonical parameter
+ * values, the resolved binary, the process environment and the versions of
+ * GKN and of the plugin providing the tool (see
+ * {@link #createKey(INodeConfiguration, IPluginConfiguration)}). On a hit the
+ * cached output files are hard linked (or copied if the file system does not
+ * support hard links) to the locations the tool would have written, so the
+ * tool does not need to be executed at all. Entries themselves are private
+ * copies of the outputs; entries modified through a restored hard link are
+ * detected and discarded (see {@link #checkEntry(File, List)}).
+ * 
+ * Every entry is a directory below the cache directory named after its key.
+ * The total size of the cache is bounded, the least recently used entries are
+ * evicted first. The modification time of the entry directories is used to
+ * restore the LRU order when the cache directory is reopened.
+ * 
+ * @author aiche
+ */
+public final class ToolExecutionCache {
+
+    /**
+     * Default maximal size of the cache in MB.
+     */
+    public static final int DEFAULT_MAX_SIZE_MB = 10240;
+
+    /**
+     * Name of the default cache directory below java.io.tmpdir.
+     */
+    public static final String DEFAULT_DIRECTORY_NAME = "gkn_execution_cache";
+
+    /**
+     * Name of the file describing the content of an entry.
+     */
+    static final String ENTRY_DESCRIPTOR = "entry.properties";
+
+    /**
+     * Suffix of the temporary directories of entries that are currently
+     * written.
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * The logger.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ToolExecutionCache.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final ToolExecutionCache INSTANCE = new ToolExecutionCache();
+
+    /**
+     * Returns the cache shared by all nodes.
+     * 
+     * @return The shared cache.
+     */
+    public static ToolExecutionCache getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the default location of the cache directory.
+     * 
+     * @return The default cache directory.
+     */
+    public static File getDefaultDirectory() {
+        return new File(System.getProperty("java.io.tmpdir"),
+                DEFAULT_DIRECTORY_NAME);
+    }
+
+    /**
+     * Digester used for the input files.
+     */
+    private final FileDigester m_fileDigester;
+
+    /**
+     * Indicates if the cache should be used.
+     */
+    private boolean m_enabled;
+
+    /**
+     * The directory holding the entries.
+     */
+    private File m_directory;
+
+    /**
+     * Maximal size of all entries in bytes.
+     */
+    private long m_maxSizeBytes;
+
+    /**
+     * Size of each entry, ordered from least to most recently used.
+     */
+    private final LinkedHashMap<String, Long> m_entries;
+
+    /**
+     * Indicates if {@link #m_entries} reflects the content of
+     * {@link #m_directory}.
+     */
+    private boolean m_indexLoaded;
+
+    /**
+     * Size of all entries in bytes.
+     */
+    private long m_sizeBytes;
+
+    /**
+     * Number of running restores of each entry directory.
+     */
+    private final Map<File, Integer> m_pins;
+
+    /**
+     * Pinned entry directories that are deleted once they are unpinned.
+     */
+    private final Set<File> m_removed;
+
+    /**
+     * Counter making the temporary directories of concurrent stores unique.
+     */
+    private long m_tempCounter;
+
+    private long m_hits;
+    private long m_misses;
+    private long m_stores;
+    private long m_evictions;
+
+    /**
+     * C'tor. The cache is disabled until it is configured.
+     */
+    ToolExecutionCache() {
+        m_fileDigester = new FileDigester();
+        m_enabled = false;
+        m_directory = getDefaultDirectory().getAbsoluteFile();
+        m_maxSizeBytes = DEFAULT_MAX_SIZE_MB * 1024L * 1024L;
+        m_entries = new LinkedHashMap<String, Long>(16, 0.75f, true);
+        m_indexLoaded = false;
+        m_sizeBytes = 0;
+        m_pins = new HashMap<File, Integer>();
+        m_removed = new HashSet<File>();
+    }
+
+    /**
+     * Changes the settings of the cache. Entries exceeding the new size limit
+     * are evicted immediately.
+     * 
+     * @param enabled
+     *            Whether the cache should be used.
+     * @param directory
+     *            The directory holding the entries.
+     * @param maxSizeBytes
+     *            Maximal size of all entries in bytes.
+     */
+    public synchronized void configure(boolean enabled, File directory,
+            long maxSizeBytes) {
+        if (maxSizeBytes < 0) {
+            throw new IllegalArgumentException(
+                    "The maximal cache size must not be negative.");
+        }
+        File absoluteDirectory = directory.getAbsoluteFile();
+        if (!absoluteDirectory.equals(m_directory)) {
+            m_entries.clear();
+            m_sizeBytes = 0;
+            m_indexLoaded = false;
+        }
+        m_enabled = enabled;
+        m_directory = absoluteDirectory;
+        m_maxSizeBytes = maxSizeBytes;
+        if (m_indexLoaded) {
+            evict();
+        }
+    }
+
+    /**
+     * @return True if the cache should be used.
+     */
+    public synchronized boolean isEnabled() {
+        return m_enabled;
+    }
+
+    /**
+     * @return The directory holding the entries.
+     */
+    public synchronized File getDirectory() {
+        return m_directory;
+    }
+
+    /**
+     * Computes the cache key of a tool run. The configuration must already
+     * contain the final input and output files.
+     * 
+     * Input files contribute their name and content, output files only their
+     * name since their location changes from run to run. Tools with prefix
+     * ports are not cacheable since the files behind a prefix are not known
+     * in advance.
+     * 
+     * @param nodeConfig
+     *            The configuration of the tool run.
+     * @param pluginConfig
+     *            The configuration of the plugin providing the tool.
+     * @return The key or null if the run cannot be cached.
+     * @throws IOException
+     *             If an input file could not be read.
+     */
+    public String createKey(INodeConfiguration nodeConfig,
+            IPluginConfiguration pluginConfig) throws IOException {
+        Set<String> inputPorts = new HashSet<String>();
+        for (Port port : nodeConfig.getInputPorts()) {
+            if (port.isPrefix()) {
+                return null;
+            }
+            inputPorts.add(port.getName());
+        }
+        for (Port port : nodeConfig.getOutputPorts()) {
+            if (port.isPrefix()) {
+                return null;
+            }
+        }
+
+        LaunchPlan plan;
+        try {
+            plan = LaunchPlanCache.getDefault().getPlan(nodeConfig,
+                    pluginConfig);
+        } catch (NoBinaryAvailableException e) {
+            return null;
+        } catch (UnknownToolExecutorException e) {
+            return null;
+        } catch (UnknownCommandGeneratorException e) {
+            return null;
+        }
+        File binary = plan.getExecutable();
+
+        CacheKeyBuilder key = new CacheKeyBuilder(m_fileDigester);
+        key.add("gkn.version", getBundleVersion(FrameworkUtil
+                .getBundle(ToolExecutionCache.class)));
+        key.add("plugin.id", pluginConfig.getPluginId());
+        key.add("plugin.version",
+                getBundleVersion(Platform.getBundle(pluginConfig
+                        .getPluginId())));
+        key.add("plugin.executor", pluginConfig.getPluginProperties()
+                .getProperty("executor"));
+        key.add("plugin.commandGenerator", pluginConfig.getPluginProperties()
+                .getProperty("commandGenerator"));
+        key.add("tool.name", nodeConfig.getName());
+        key.add("tool.version", nodeConfig.getVersion());
+        key.add("tool.executable", nodeConfig.getExecutableName());
+        key.add("binary.path", binary.getCanonicalPath());
+        key.add("binary.length", Long.toString(binary.length()));
+        key.add("binary.lastModified", Long.toString(binary.lastModified()));
+
+        // the environment of the plan is sorted
+        for (Map.Entry<String, String> variable : plan.getEnvironment()
+                .entrySet()) {
+            key.add("env." + variable.getKey(), variable.getValue());
+        }
+
+        List<String> parameterKeys = new ArrayList<String>(
+                nodeConfig.getParameterKeys());
+        Collections.sort(parameterKeys);
+        for (String parameterKey : parameterKeys) {
+            Parameter<?> p = nodeConfig.getParameter(parameterKey);
+            boolean isInput = p instanceof IFileParameter
+                    && ((IFileParameter) p).getPort() != null
+                    && inputPorts.contains(((IFileParameter) p).getPort()
+                            .getName());
+            if (p instanceof FileParameter) {
+                addFile(key, "param." + parameterKey,
+                        ((FileParameter) p).getValue(), isInput);
+            } else if (p instanceof FileListParameter) {
+                List<String> files = ((FileListParameter) p).getValue();
+                key.add("param." + parameterKey + ".size",
+                        Integer.toString(files.size()));
+                for (int i = 0; i < files.size(); ++i) {
+                    addFile(key, "param." + parameterKey + "." + i,
+                            files.get(i), isInput);
+                }
+            } else {
+                key.add("param." + parameterKey, p.getStringRep());
+            }
+        }
+        return key.build();
+    }
+
+    private static void addFile(CacheKeyBuilder key, String name,
+            String path, boolean isInput) throws IOException {
+        if (path == null || "".equals(path)) {
+            key.add(name, null);
+            return;
+        }
+        File file = new File(path);
+        key.add(name + ".name", file.getName());
+        if (isInput) {
+            key.addFileContent(name + ".content", file);
+        }
+    }
+
+    private static String getBundleVersion(Bundle bundle) {
+        if (bundle == null || bundle.getVersion() == null) {
+            return "unknown";
+        }
+        return bundle.getVersion().toString();
+    }
+
+    /**
+     * Restores the output files of a cached tool run. The entry is pinned
+     * while its files are linked, so the cache lock is not held during the
+     * file operations and the entry cannot be evicted meanwhile.
+     * 
+     * @param key
+     *            The key of the tool run.
+     * @param outputs
+     *            For each output port the files the tool would have written.
+     * @return True if all output files were restored, false if the run is not
+     *         cached.
+     */
+    public boolean restore(String key, List<List<File>> outputs) {
+        File entryDirectory;
+        synchronized (this) {
+            if (!m_enabled) {
+                return false;
+            }
+            loadIndex();
+            // get (unlike containsKey) updates the access order
+            if (m_entries.get(key) == null) {
+                ++m_misses;
+                return false;
+            }
+            entryDirectory = new File(m_directory, key);
+            pin(entryDirectory);
+        }
+
+        List<File> restored = new ArrayList<File>();
+        IOException failure = null;
+        try {
+            checkEntry(entryDirectory, outputs);
+            for (int port = 0; port < outputs.size(); ++port) {
+                List<File> files = outputs.get(port);
+                for (int i = 0; i < files.size(); ++i) {
+                    File target = files.get(i);
+                    linkOrCopy(new File(entryDirectory, getEntryFileName(
+                            port, i)), target);
+                    restored.add(target);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            for (File file : restored) {
+                file.delete();
+            }
+        }
+
+        synchronized (this) {
+            unpin(entryDirectory);
+            if (failure != null) {
+                LOGGER.warn("Failed to restore cache entry " + key
+                        + ", the entry is discarded.", failure);
+                if (entryDirectory.getParentFile().equals(m_directory)) {
+                    removeEntry(key);
+                }
+                ++m_misses;
+                return false;
+            }
+            // mark as most recently used, also for the next session
+            entryDirectory.setLastModified(System.currentTimeMillis());
+            ++m_hits;
+            return true;
+        }
+    }
+
+    /**
+     * Adds the output files of a successful tool run to the cache. Runs whose
+     * outputs are incomplete or exceed the size limit are not cached.
+     * 
+     * The files are copied (not linked) into a private temporary directory
+     * without holding the cache lock, so later in-place writes to the output
+     * files cannot change the entry. The lock is only taken to publish the
+     * entry and to evict old ones.
+     * 
+     * @param key
+     *            The key of the tool run.
+     * @param outputs
+     *            For each output port the files written by the tool.
+     * @throws IOException
+     *             If the entry could not be written.
+     */
+    public void store(String key, List<List<File>> outputs)
+            throws IOException {
+        File directory;
+        long maxSizeBytes;
+        long tempId;
+        synchronized (this) {
+            if (!m_enabled) {
+                return;
+            }
+            loadIndex();
+            if (m_entries.containsKey(key)) {
+                return;
+            }
+            directory = m_directory;
+            maxSizeBytes = m_maxSizeBytes;
+            tempId = ++m_tempCounter;
+        }
+
+        long size = 0;
+        for (List<File> files : outputs) {
+            for (File file : files) {
+                if (!file.isFile()) {
+                    LOGGER.debug("Not caching tool run, output file "
+                            + file.getAbsolutePath() + " does not exist.");
+                    return;
+                }
+                size += file.length();
+            }
+        }
+        if (size > maxSizeBytes) {
+            LOGGER.debug("Not caching tool run, the outputs exceed the "
+                    + "maximal cache size.");
+            return;
+        }
+
+        File tmpDirectory = new File(directory, key + "-" + tempId
+                + TEMP_SUFFIX);
+        File entryDirectory = new File(directory, key);
+        try {
+            FileUtils.deleteQuietly(tmpDirectory);
+            FileUtils.forceMkdir(tmpDirectory);
+            Properties descriptor = new Properties();
+            descriptor.setProperty("ports", Integer.toString(outputs.size()));
+            for (int port = 0; port < outputs.size(); ++port) {
+                List<File> files = outputs.get(port);
+                descriptor.setProperty("port." + port + ".files",
+                        Integer.toString(files.size()));
+                for (int i = 0; i < files.size(); ++i) {
+                    String name = getEntryFileName(port, i);
+                    File copy = new File(tmpDirectory, name);
+                    Files.copy(files.get(i).toPath(), copy.toPath());
+                    descriptor.setProperty(name + ".length",
+                            Long.toString(copy.length()));
+                    descriptor.setProperty(name + ".lastModified",
+                            Long.toString(copy.lastModified()));
+                }
+            }
+            OutputStream out = new FileOutputStream(new File(tmpDirectory,
+                    ENTRY_DESCRIPTOR));
+            try {
+                descriptor.store(out, null);
+            } finally {
+                out.close();
+            }
+
+            synchronized (this) {
+                if (!m_enabled || !directory.equals(m_directory)
+                        || m_entries.containsKey(key)) {
+                    // reconfigured or stored concurrently by another run
+                    return;
+                }
+                if (!tmpDirectory.renameTo(entryDirectory)) {
+                    throw new IOException("Failed to move cache entry to "
+                            + entryDirectory.getAbsolutePath());
+                }
+                m_entries.put(key, size);
+                m_sizeBytes += size;
+                ++m_stores;
+                evict();
+            }
+        } finally {
+            FileUtils.deleteQuietly(tmpDirectory);
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public synchronized void clear() {
+        loadIndex();
+        for (String key : new ArrayList<String>(m_entries.keySet())) {
+            removeEntry(key);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the cache counters.
+     * 
+     * @return The current statistics.
+     */
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(m_hits, m_misses, m_stores, m_evictions,
+                m_entries.size(), m_sizeBytes);
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = m_entries.entrySet()
+                .iterator();
+        while (m_sizeBytes > m_maxSizeBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            File entryDirectory = new File(m_directory, eldest.getKey());
+            if (m_pins.containsKey(entryDirectory)) {
+                // currently restored, evicted once it is unpinned
+                continue;
+            }
+            it.remove();
+            m_sizeBytes -= eldest.getValue();
+            FileUtils.deleteQuietly(entryDirectory);
+            ++m_evictions;
+        }
+    }
+
+    private void removeEntry(String key) {
+        Long size = m_entries.remove(key);
+        if (size != null) {
+            m_sizeBytes -= size;
+        }
+        File entryDirectory = new File(m_directory, key);
+        if (m_pins.containsKey(entryDirectory)) {
+            m_removed.add(entryDirectory);
+        } else {
+            FileUtils.deleteQuietly(entryDirectory);
+        }
+    }
+
+    /**
+     * Protects an entry from being deleted while its files are restored.
+     * 
+     * @param entryDirectory
+     *            The directory of the entry.
+     */
+    private void pin(File entryDirectory) {
+        Integer pins = m_pins.get(entryDirectory);
+        m_pins.put(entryDirectory, pins == null ? 1 : pins + 1);
+    }
+
+    /**
+     * Releases a pin taken by {@link #pin(File)}. Deletions and evictions
+     * postponed while the entry was pinned are carried out by the last pin.
+     * 
+     * @param entryDirectory
+     *            The directory of the entry.
+     */
+    private void unpin(File entryDirectory) {
+        int pins = m_pins.get(entryDirectory);
+        if (pins > 1) {
+            m_pins.put(entryDirectory, pins - 1);
+            return;
+        }
+        m_pins.remove(entryDirectory);
+        if (m_removed.remove(entryDirectory)) {
+            FileUtils.deleteQuietly(entryDirectory);
+        }
+        if (m_indexLoaded) {
+            evict();
+        }
+    }
+
+    /**
+     * Builds the in-memory index from the entries found in the cache
+     * directory, oldest entries first.
+     */
+    private void loadIndex() {
+        if (m_indexLoaded) {
+            return;
+        }
+        m_indexLoaded = true;
+        m_entries.clear();
+        m_sizeBytes = 0;
+
+        File[] directories = m_directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isDirectory();
+            }
+        });
+        if (directories == null) {
+            return;
+        }
+        Arrays.sort(directories, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                long m1 = f1.lastModified();
+                long m2 = f2.lastModified();
+                return m1 < m2 ? -1 : (m1 == m2 ? 0 : 1);
+            }
+        });
+        for (File directory : directories) {
+            if (directory.getName().endsWith(TEMP_SUFFIX)
+                    || !new File(directory, ENTRY_DESCRIPTOR).isFile()) {
+                // left over from an interrupted store
+                FileUtils.deleteQuietly(directory);
+                continue;
+            }
+            long size = 0;
+            for (File file : FileUtils.listFiles(directory, null, false)) {
+                if (!ENTRY_DESCRIPTOR.equals(file.getName())) {
+                    size += file.length();
+                }
+            }
+            m_entries.put(directory.getName(), size);
+            m_sizeBytes += size;
+        }
+        evict();
+    }
+
+    /**
+     * Checks that an entry matches the output ports of the tool and that its
+     * files were not modified since they were stored. Restored files are hard
+     * links to the entry files, so an in-place write to a restored file (or to
+     * a hard linked export of it) changes the entry as well. Such entries are
+     * detected by their changed length or modification time and discarded
+     * instead of being restored.
+     * 
+     * @param entryDirectory
+     *            The directory of the entry.
+     * @param outputs
+     *            For each output port the files the tool would have written.
+     * @throws IOException
+     *             If the entry cannot be used.
+     */
+    private static void checkEntry(File entryDirectory,
+            List<List<File>> outputs) throws IOException {
+        Properties descriptor = new Properties();
+        InputStream in = new FileInputStream(new File(entryDirectory,
+                ENTRY_DESCRIPTOR));
+        try {
+            descriptor.load(in);
+        } finally {
+            in.close();
+        }
+        boolean matches = Integer.toString(outputs.size()).equals(
+                descriptor.getProperty("ports"));
+        for (int port = 0; matches && port < outputs.size(); ++port) {
+            matches = Integer.toString(outputs.get(port).size()).equals(
+                    descriptor.getProperty("port." + port + ".files"));
+        }
+        if (!matches) {
+            throw new IOException("The cache entry "
+                    + entryDirectory.getName()
+                    + " does not match the output ports of the tool.");
+        }
+        for (int port = 0; port < outputs.size(); ++port) {
+            for (int i = 0; i < outputs.get(port).size(); ++i) {
+                String name = getEntryFileName(port, i);
+                File file = new File(entryDirectory, name);
+                if (!Long.toString(file.length()).equals(
+                        descriptor.getProperty(name + ".length"))
+                        || !Long.toString(file.lastModified()).equals(
+                                descriptor.getProperty(name
+                                        + ".lastModified"))) {
+                    throw new IOException("The file " + name
+                            + " of the cache entry " + entryDirectory.getName()
+                            + " was modified.");
+                }
+            }
+        }
+    }
+
+    private static String getEntryFileName(int port, int index) {
+        return "p" + port + "_" + index;
+    }
+
+    /**
+     * Creates a hard link to the source file or copies it if hard links are
+     * not supported, e.g., since source and target are on different file
+     * systems.
+     * 
+     * @param source
+     *            The existing file.
+     * @param target
+     *            The file to create.
+     * @throws IOException
+     *             If the file could neither be linked nor copied.
+     */
+    static void linkOrCopy(File source, File target) throws IOException {
+        if (target.getParentFile() != null) {
+            FileUtils.forceMkdir(target.getParentFile());
+        }
+        Files.deleteIfExists(target.toPath());
+        try {
+            Files.createLink(target.toPath(), source.toPath());
+            return;
+        } catch (IOException e) {
+            LOGGER.debug("Could not link " + source.getAbsolutePath()
+                    + ", copying it instead: " + e.getMessage());
+        } catch (UnsupportedOperationException e) {
+            LOGGER.debug("Hard links are not supported, copying "
+                    + source.getAbsolutePath() + " instead.");
+        }
+        Files.copy(source.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+}
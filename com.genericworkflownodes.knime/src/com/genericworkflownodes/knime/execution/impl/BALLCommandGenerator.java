@@ -23,13 +23,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.genericworkflownodes.knime.config.INodeConfiguration;
-import com.genericworkflownodes.knime.config.writer.CTDConfigurationWriter;
 import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
 import com.genericworkflownodes.knime.execution.ICommandGenerator;
 
 /**
  * Implements the BALL specific generation of a command line.
  * 
+ * The par file is written from a cached {@link CTDTemplate}, so repeated
+ * executions with different files only splice in the new file names.
+ * 
  * @author aiche
  */
 public class BALLCommandGenerator implements ICommandGenerator {
@@ -61,8 +63,7 @@ public class BALLCommandGenerator implements ICommandGenerator {
     private File writePARFile(INodeConfiguration nodeConfiguration,
             File workingDirectory) throws Exception {
         File paramFile = new File(workingDirectory, PAR_FILE_NAME);
-        CTDConfigurationWriter writer = new CTDConfigurationWriter(paramFile);
-        writer.write(nodeConfiguration);
+        CTDTemplate.write(nodeConfiguration, paramFile);
         return paramFile;
     }
 
@@ -0,0 +1,381 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
+import com.genericworkflownodes.knime.execution.ICommandGenerator;
+import com.genericworkflownodes.knime.execution.IToolExecutor;
+import com.genericworkflownodes.knime.execution.LaunchPlan;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.ToolExecutionFailedException;
+import com.genericworkflownodes.knime.execution.batch.BatchSchedulerRegistry;
+import com.genericworkflownodes.knime.execution.batch.IBatchScheduler;
+
+/**
+ * Executes the tool as a job of a batch queue instead of a child process of
+ * the KNIME JVM. The command line created by the {@link ICommandGenerator} is
+ * wrapped into a shell script which is submitted to the
+ * {@link IBatchScheduler} configured in the {@link BatchSchedulerRegistry}.
+ * The executor polls the working directory for the exit code written by the
+ * script and afterwards collects the stdout/stderr files.
+ * 
+ * The job script requires a POSIX shell on the execution host and the working
+ * directory has to be visible there under the same path.
+ * 
+ * @author aiche
+ */
+public class BatchToolExecutor implements IToolExecutor {
+
+    /**
+     * Name of the job script in the working directory.
+     */
+    public static final String JOB_SCRIPT = "gkn_job.sh";
+
+    /**
+     * Interval in which the working directory is checked for the exit code.
+     */
+    static final long POLL_INTERVAL_MS = 250;
+
+    /**
+     * Interval in which the scheduler is asked if the job is still alive.
+     */
+    static final long LIVENESS_CHECK_INTERVAL_MS = 5000;
+
+    /**
+     * Time to wait for the exit code after the scheduler reported the job as
+     * finished, e.g., to compensate attribute caching of network file systems.
+     */
+    static final long EXIT_CODE_GRACE_PERIOD_MS = 30000;
+
+    /**
+     * NodeLogger used for this executor.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(BatchToolExecutor.class);
+
+    /**
+     * The scheduler, null if the one of the {@link BatchSchedulerRegistry}
+     * should be used.
+     */
+    private final IBatchScheduler m_fixedScheduler;
+
+    /**
+     * The scheduler the job was submitted to.
+     */
+    private volatile IBatchScheduler m_scheduler;
+
+    /**
+     * The id of the submitted job.
+     */
+    private volatile String m_jobId;
+
+    /**
+     * Indicates that the execution was canceled.
+     */
+    private volatile boolean m_killed;
+
+    private File m_workingDirectory;
+    private ICommandGenerator m_generator;
+
+    /**
+     * The executable followed by its arguments.
+     */
+    private List<String> m_command;
+
+    /**
+     * The environment variables set for the tool.
+     */
+    private final Map<String, String> m_environmentVariables;
+
+    private int m_returnCode;
+    private LinkedList<String> m_stdOut;
+    private LinkedList<String> m_stdErr;
+
+    /**
+     * C'tor.
+     */
+    public BatchToolExecutor() {
+        this(null);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param scheduler
+     *            The scheduler receiving the jobs, if null the scheduler of the
+     *            {@link BatchSchedulerRegistry} is used.
+     */
+    BatchToolExecutor(IBatchScheduler scheduler) {
+        m_fixedScheduler = scheduler;
+        m_environmentVariables = new TreeMap<String, String>();
+        m_returnCode = -1;
+        m_stdOut = new LinkedList<String>();
+        m_stdErr = new LinkedList<String>();
+        m_killed = false;
+    }
+
+    @Override
+    public void setCommandGenerator(ICommandGenerator generator) {
+        m_generator = generator;
+    }
+
+    @Override
+    public void setWorkingDirectory(File directory) throws IOException {
+        if (!directory.isDirectory()) {
+            throw new IOException(directory + " is not a directory!");
+        }
+        m_workingDirectory = directory;
+    }
+
+    @Override
+    public void prepareExecution(INodeConfiguration nodeConfiguration,
+            IPluginConfiguration pluginConfiguration) throws Exception {
+        LaunchPlan plan = LaunchPlanCache.getDefault().getPlan(
+                nodeConfiguration, pluginConfiguration);
+        List<String> command = new ArrayList<String>();
+        command.add(plan.getExecutable().getPath());
+        command.addAll(m_generator.generateCommands(nodeConfiguration,
+                pluginConfiguration, m_workingDirectory));
+        setCommand(command, plan.getEnvironment());
+    }
+
+    /**
+     * Sets the command that should be executed.
+     * 
+     * @param command
+     *            The executable followed by its arguments.
+     * @param environmentVariables
+     *            Additional environment variables of the tool.
+     */
+    void setCommand(List<String> command,
+            Map<String, String> environmentVariables) {
+        m_command = command;
+        m_environmentVariables.putAll(environmentVariables);
+    }
+
+    @Override
+    public int execute() throws ToolExecutionFailedException {
+        String toolName = new File(m_command.get(0)).getName();
+        File exitCodeFile = new File(m_workingDirectory,
+                IBatchScheduler.EXIT_CODE_FILE);
+        try {
+            File script = new File(m_workingDirectory, JOB_SCRIPT);
+            writeJobScript(script, m_workingDirectory, m_command,
+                    m_environmentVariables);
+            FileUtils.deleteQuietly(exitCodeFile);
+
+            synchronized (this) {
+                if (m_killed) {
+                    return m_returnCode;
+                }
+                m_scheduler = m_fixedScheduler != null ? m_fixedScheduler
+                        : BatchSchedulerRegistry.getDefault().getScheduler();
+                m_jobId = m_scheduler.submit(script, m_workingDirectory);
+            }
+            LOGGER.debug("Submitted " + toolName + " as batch job " + m_jobId);
+
+            m_returnCode = waitForExitCode(exitCodeFile);
+            m_stdOut = readOutput(LocalToolExecutor.STDOUT_SPILL_FILE);
+            m_stdErr = readOutput(LocalToolExecutor.STDERR_SPILL_FILE);
+        } catch (InterruptedException e) {
+            // the execution was canceled, make sure the job does not survive
+            kill();
+            throw new ToolExecutionFailedException("Execution of tool "
+                    + toolName + " was interrupted", e);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to execute tool " + toolName, e);
+            throw new ToolExecutionFailedException("Failed to execute tool "
+                    + toolName, e);
+        }
+        return m_returnCode;
+    }
+
+    /**
+     * Polls the working directory for the exit code of the job.
+     * 
+     * @param exitCodeFile
+     *            The file receiving the exit code.
+     * @return The exit code, -1 if the job was canceled.
+     * @throws IOException
+     *             If the job vanished without writing an exit code.
+     * @throws InterruptedException
+     *             If the waiting thread was interrupted.
+     */
+    private int waitForExitCode(File exitCodeFile) throws IOException,
+            InterruptedException {
+        long lastLivenessCheck = System.currentTimeMillis();
+        long inactiveSince = -1;
+        while (!exitCodeFile.exists()) {
+            if (m_killed) {
+                return -1;
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+
+            long now = System.currentTimeMillis();
+            if (inactiveSince < 0
+                    && now - lastLivenessCheck >= LIVENESS_CHECK_INTERVAL_MS) {
+                lastLivenessCheck = now;
+                if (!m_scheduler.isActive(m_jobId)) {
+                    inactiveSince = now;
+                }
+            }
+            if (inactiveSince >= 0
+                    && now - inactiveSince > EXIT_CODE_GRACE_PERIOD_MS) {
+                throw new IOException("Batch job " + m_jobId
+                        + " finished without writing an exit code.");
+            }
+        }
+        String exitCode = FileUtils.readFileToString(exitCodeFile).trim();
+        try {
+            return Integer.parseInt(exitCode);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid exit code of batch job " + m_jobId
+                    + ": " + exitCode, e);
+        }
+    }
+
+    private LinkedList<String> readOutput(String fileName) throws IOException {
+        File file = new File(m_workingDirectory, fileName);
+        BoundedLineBuffer buffer = new BoundedLineBuffer();
+        if (file.exists()) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(file)));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    buffer.add(line);
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return buffer.getLines("complete output in " + file.getAbsolutePath());
+    }
+
+    /**
+     * Writes the shell script running the tool. The script redirects the
+     * output streams of the tool into the working directory and atomically
+     * publishes the exit code once the tool finished.
+     * 
+     * @param script
+     *            The script file to write.
+     * @param workingDirectory
+     *            The working directory of the tool.
+     * @param command
+     *            The executable followed by its arguments.
+     * @param environmentVariables
+     *            Additional environment variables of the tool.
+     * @throws IOException
+     *             If the script could not be written.
+     */
+    static void writeJobScript(File script, File workingDirectory,
+            List<String> command, Map<String, String> environmentVariables)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("#!/bin/sh\n");
+        sb.append("# generated by GenericKnimeNodes\n");
+        sb.append("cd ").append(quote(workingDirectory.getAbsolutePath()))
+                .append(" || exit 1\n");
+        for (Map.Entry<String, String> variable : environmentVariables
+                .entrySet()) {
+            sb.append("export ").append(variable.getKey()).append('=')
+                    .append(quote(variable.getValue())).append('\n');
+        }
+        for (String argument : command) {
+            sb.append(quote(argument)).append(' ');
+        }
+        sb.append('>').append(LocalToolExecutor.STDOUT_SPILL_FILE)
+                .append(" 2>").append(LocalToolExecutor.STDERR_SPILL_FILE)
+                .append('\n');
+        sb.append("echo $? >").append(IBatchScheduler.EXIT_CODE_FILE)
+                .append(".tmp\n");
+        sb.append("mv ").append(IBatchScheduler.EXIT_CODE_FILE)
+                .append(".tmp ").append(IBatchScheduler.EXIT_CODE_FILE)
+                .append('\n');
+
+        Writer writer = new OutputStreamWriter(new FileOutputStream(script),
+                "UTF-8");
+        try {
+            writer.write(sb.toString());
+        } finally {
+            writer.close();
+        }
+        script.setExecutable(true);
+    }
+
+    /**
+     * Quotes the given string for a POSIX shell.
+     * 
+     * @param s
+     *            The string to quote.
+     * @return The quoted string.
+     */
+    static String quote(String s) {
+        return "'" + s.replace("'", "'\\''") + "'";
+    }
+
+    @Override
+    public void kill() {
+        synchronized (this) {
+            m_killed = true;
+            if (m_jobId == null) {
+                // not submitted yet, execute() will not submit anymore
+                return;
+            }
+        }
+        try {
+            m_scheduler.cancel(m_jobId);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to cancel batch job " + m_jobId, e);
+        }
+    }
+
+    @Override
+    public int getReturnCode() {
+        return m_returnCode;
+    }
+
+    @Override
+    public LinkedList<String> getToolOutput() {
+        return m_stdOut;
+    }
+
+    @Override
+    public LinkedList<String> getToolErrorOutput() {
+        return m_stdErr;
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Line buffer with a fixed memory footprint. The first
+ * {@link #getHeadCapacity()} lines are kept forever, afterwards only the last
+ * {@link #getTailCapacity()} lines are retained in a ring buffer. Everything in
+ * between is counted but dropped.
+ * 
+ * @author aiche
+ */
+public class BoundedLineBuffer {
+
+    /**
+     * Default number of lines retained from the start of the stream.
+     */
+    public static final int DEFAULT_HEAD_LINES = 500;
+
+    /**
+     * Default number of lines retained from the end of the stream.
+     */
+    public static final int DEFAULT_TAIL_LINES = 2000;
+
+    /**
+     * The first lines of the stream.
+     */
+    private final List<String> m_head;
+
+    /**
+     * Maximal size of {@link #m_head}.
+     */
+    private final int m_headCapacity;
+
+    /**
+     * Ring buffer holding the last lines of the stream.
+     */
+    private final String[] m_tail;
+
+    /**
+     * Index of the oldest element in {@link #m_tail}.
+     */
+    private int m_tailStart;
+
+    /**
+     * Number of valid elements in {@link #m_tail}.
+     */
+    private int m_tailSize;
+
+    /**
+     * Total number of lines added to the buffer.
+     */
+    private long m_totalLines;
+
+    /**
+     * C'tor using {@link #DEFAULT_HEAD_LINES} and {@link #DEFAULT_TAIL_LINES}.
+     */
+    public BoundedLineBuffer() {
+        this(DEFAULT_HEAD_LINES, DEFAULT_TAIL_LINES);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param headCapacity
+     *            Number of lines retained from the start of the stream.
+     * @param tailCapacity
+     *            Number of lines retained from the end of the stream.
+     */
+    public BoundedLineBuffer(int headCapacity, int tailCapacity) {
+        if (headCapacity < 0 || tailCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "Buffer capacities must not be negative.");
+        }
+        m_headCapacity = headCapacity;
+        m_head = new ArrayList<String>(Math.min(headCapacity, 64));
+        m_tail = new String[tailCapacity];
+        m_tailStart = 0;
+        m_tailSize = 0;
+        m_totalLines = 0;
+    }
+
+    /**
+     * Adds a single line to the buffer.
+     * 
+     * @param line
+     *            The line to add.
+     */
+    public synchronized void add(String line) {
+        addLine(line);
+    }
+
+    /**
+     * Adds a batch of lines to the buffer.
+     * 
+     * @param lines
+     *            The lines to add.
+     */
+    public synchronized void addAll(List<String> lines) {
+        for (String line : lines) {
+            addLine(line);
+        }
+    }
+
+    private void addLine(String line) {
+        ++m_totalLines;
+        if (m_head.size() < m_headCapacity) {
+            m_head.add(line);
+            return;
+        }
+        if (m_tail.length == 0) {
+            return;
+        }
+        if (m_tailSize < m_tail.length) {
+            m_tail[(m_tailStart + m_tailSize) % m_tail.length] = line;
+            ++m_tailSize;
+        } else {
+            // overwrite the oldest line
+            m_tail[m_tailStart] = line;
+            m_tailStart = (m_tailStart + 1) % m_tail.length;
+        }
+    }
+
+    /**
+     * Returns the number of lines retained from the start of the stream.
+     * 
+     * @return The head capacity.
+     */
+    public int getHeadCapacity() {
+        return m_headCapacity;
+    }
+
+    /**
+     * Returns the number of lines retained from the end of the stream.
+     * 
+     * @return The tail capacity.
+     */
+    public int getTailCapacity() {
+        return m_tail.length;
+    }
+
+    /**
+     * Returns the total number of lines that were added to the buffer.
+     * 
+     * @return The total number of lines.
+     */
+    public synchronized long getTotalLines() {
+        return m_totalLines;
+    }
+
+    /**
+     * Returns the number of lines that were dropped since they were neither
+     * part of the head nor of the tail.
+     * 
+     * @return The number of omitted lines.
+     */
+    public synchronized long getOmittedLines() {
+        return m_totalLines - m_head.size() - m_tailSize;
+    }
+
+    /**
+     * Returns a copy of the retained lines. If lines were dropped a single
+     * marker line is inserted between head and tail.
+     * 
+     * @param omissionNote
+     *            Additional text appended to the marker line, e.g., the
+     *            location of the complete output. May be null.
+     * @return The retained lines.
+     */
+    public synchronized LinkedList<String> getLines(String omissionNote) {
+        LinkedList<String> lines = new LinkedList<String>(m_head);
+        long omitted = getOmittedLines();
+        if (omitted > 0) {
+            StringBuilder marker = new StringBuilder();
+            marker.append("[... ").append(omitted).append(" lines omitted");
+            if (omissionNote != null) {
+                marker.append(", ").append(omissionNote);
+            }
+            marker.append(" ...]");
+            lines.add(marker.toString());
+        }
+        for (int i = 0; i < m_tailSize; ++i) {
+            lines.add(m_tail[(m_tailStart + i) % m_tail.length]);
+        }
+        return lines;
+    }
+}
@@ -20,25 +20,29 @@ package com.genericworkflownodes.knime.execution.impl;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.knime.core.node.NodeLogger;
 
-import com.genericworkflownodes.knime.cliwrapper.CLIElement;
-import com.genericworkflownodes.knime.cliwrapper.CLIMapping;
+import com.genericworkflownodes.knime.cliwrapper.CLI;
 import com.genericworkflownodes.knime.config.INodeConfiguration;
 import com.genericworkflownodes.knime.config.PlainNodeConfigurationWriter;
 import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
+import com.genericworkflownodes.knime.GenericNodesPlugin;
 import com.genericworkflownodes.knime.execution.ICommandGenerator;
-import com.genericworkflownodes.knime.parameter.BoolParameter;
-import com.genericworkflownodes.knime.parameter.ListParameter;
-import com.genericworkflownodes.knime.parameter.Parameter;
 
 /**
  * Generates the command line call given a {@link INodeConfiguration} containing
  * CLI information.
  * 
+ * The CLI of each tool is compiled only once into a {@link CLITemplate}, which
+ * is shared by all executions of the tool. Long lists are passed in response
+ * files if configured in the plugin properties, see
+ * {@link ResponseFileSettings}.
+ * 
  * @author aiche
  */
 public class CLICommandGenerator implements ICommandGenerator {
@@ -46,204 +50,62 @@ public class CLICommandGenerator implements ICommandGenerator {
     protected static final NodeLogger logger = NodeLogger
             .getLogger(CLICommandGenerator.class);
 
-    private INodeConfiguration nodeConfig;
+    /**
+     * The compiled templates. The CLI is shared by all copies of a node
+     * configuration, so the template is dropped together with the node.
+     */
+    private static final Map<CLI, CLITemplate> TEMPLATES = Collections
+            .synchronizedMap(new WeakHashMap<CLI, CLITemplate>());
 
     @Override
     public List<String> generateCommands(INodeConfiguration nodeConfiguration,
             IPluginConfiguration pluginConfiguration, File workingDirectory)
             throws Exception {
 
-        // ease the passing around of variables
-        nodeConfig = nodeConfiguration;
-
-        // export the node configuration as plain text, for debugging and
-        // logging
-        exportPlainConfiguration(workingDirectory);
-
-        List<String> commands;
-
-        try {
-            commands = processCLI();
-        } catch (Exception e) {
-            throw e;
-        } finally {
-            nodeConfig = null;
+        // export the node configuration as plain text, only needed for
+        // debugging
+        if (GenericNodesPlugin.isDebug()) {
+            exportPlainConfiguration(nodeConfiguration, workingDirectory);
         }
 
-        return commands;
-    }
-
-    /**
-     * Converts the CLI part of the configuration to a list of commands that can
-     * be send to the shell.
-     * 
-     * @return A configured list of commands.
-     * @throws Exception
-     *             Is thrown if the configuration values are invalid.
-     */
-    private List<String> processCLI() throws Exception {
-        List<String> commands = new ArrayList<String>();
-
-        for (CLIElement cliElement : nodeConfig.getCLI().getCLIElement()) {
-            logger.info("CLIElement: " + cliElement.getOptionIdentifier());
-
-            if (!"".equals(cliElement.getOptionIdentifier())
-                    && cliElement.getMapping().size() == 0) {
-                // simple fixed argument for the command line, no mapping to
-                // params given
-
-                // to avoid problems with spaces in commands we split fixed
-                // values
-                String[] splitResult = cliElement.getOptionIdentifier().split(
-                        " ");
-                for (String splittedCommand : splitResult) {
-                    commands.add(splittedCommand);
-                }
-            } else if (isMappedToBooleanParameter(cliElement)) {
-                // it is mapped to bool
-                handleBooleanParameter(commands, cliElement);
-            } else {
-
-                List<List<String>> extractedParameterValues = extractParamterValues(cliElement);
-                validateExtractedParameters(extractedParameterValues);
-
-                // we only add those parameters to the command line if they
-                // contain any values, this removes optional parameters if they
-                // were not set
-                if (extractedParameterValues.size() != 0) {
-                    expandParameters(extractedParameterValues, cliElement,
-                            commands);
-                }
-            }
+        ResponseFileSettings settings = null;
+        if (pluginConfiguration != null) {
+            settings = ResponseFileSettings.fromProperties(
+                    pluginConfiguration.getPluginProperties(),
+                    nodeConfiguration.getExecutableName());
         }
-        return commands;
-    }
-
-    /**
-     * Add the extracted parameter values to the command line.
-     * 
-     * @note This method requires, that all contained lists have the same size.
-     * 
-     * @param extractedParameterValues
-     * @param cliElement
-     * @param commands
-     */
-    private void expandParameters(List<List<String>> extractedParameterValues,
-            CLIElement cliElement, List<String> commands) {
-        // since we assume that the outer list is not empty this will always
-        // work
-        int listSize = extractedParameterValues.get(0).size();
-
-        // in each iteration we expand the i-th element of each internal list to
-        // the command line prefixed with the cliElement optionIdentifier (if it
-        // has one)
-        for (int i = 0; i < listSize; ++i) {
-            // add the command prefix in each iteration
-            if (!"".equals(cliElement.getOptionIdentifier())) {
-                commands.add(cliElement.getOptionIdentifier());
-            }
-
-            // add the actual values
-            for (List<String> innerList : extractedParameterValues) {
-                commands.add(innerList.get(i));
-            }
-        }
-    }
-
-    /**
-     * Given the provided list of parameter values this method should ensure
-     * that all mapped lists have the same length.
-     * 
-     * @param extractedParameterValues
-     * @throws Exception
-     *             If not all contained lists have the same size.
-     */
-    private void validateExtractedParameters(
-            List<List<String>> extractedParameterValues) throws Exception {
-
-        int currentSize = -1;
-        for (List<String> currentList : extractedParameterValues) {
-            if (currentSize != -1 && currentSize != currentList.size()) {
-                throw new Exception(
-                        "All mapped value lists must have the same size.");
-            }
-            currentSize = currentList.size();
-        }
-    }
-
-    /**
-     * Given the cliElement create a list containing for each mapped parameter a
-     * list with the mapped values.
-     * 
-     * @param cliElement
-     *            The current cliElement.
-     * @return
-     */
-    private List<List<String>> extractParamterValues(CLIElement cliElement) {
-
-        List<List<String>> extractedParameterValues = new ArrayList<List<String>>();
-
-        for (CLIMapping cliMapping : cliElement.getMapping()) {
-            if (nodeConfig.getParameterKeys().contains(
-                    cliMapping.getReferenceName())) {
-
-                Parameter<?> p = nodeConfig.getParameter(cliMapping
-                        .getReferenceName());
-                if (!p.isNull()) {
-                    if (p instanceof ListParameter) {
-                        ListParameter lp = (ListParameter) p;
-                        if (lp.getStrings().size() > 0) {
-                            extractedParameterValues.add(lp.getStrings());
-                        }
-                    } else {
-                        List<String> l = new ArrayList<String>();
-                        l.add(p.getStringRep());
-                        extractedParameterValues.add(l);
-                    }
-                }
-            }
-        }
-
-        return extractedParameterValues;
-    }
-
-    /**
-     * Returns true if the given CLIElement maps to a boolean parameter.
-     * 
-     * @param cliElement
-     * @return
-     */
-    private boolean isMappedToBooleanParameter(CLIElement cliElement) {
-        return cliElement.getMapping().size() == 1
-                && nodeConfig.getParameter(cliElement.getMapping().get(0)
-                        .getReferenceName()) instanceof BoolParameter;
+        return getTemplate(nodeConfiguration.getCLI()).render(
+                nodeConfiguration, settings, workingDirectory);
     }
 
     /**
-     * Interpret boolean parameter on the command line -> if true, add text
-     * field, if false, do not add text field.
+     * Returns the compiled template of the given CLI.
      * 
-     * @param commands
-     *            The list of commands that will be executed later.
-     * @param cliElement
-     *            The currently interpreted clielement.
+     * @param cli
+     *            The CLI of the tool.
+     * @return The template.
      */
-    private void handleBooleanParameter(List<String> commands,
-            CLIElement cliElement) {
-        if (((BoolParameter) nodeConfig.getParameter(cliElement.getMapping()
-                .get(0).getReferenceName())).getValue()) {
-            commands.add(cliElement.getOptionIdentifier());
+    static CLITemplate getTemplate(CLI cli) {
+        CLITemplate template = TEMPLATES.get(cli);
+        if (template == null) {
+            // concurrent compilations of the same CLI are harmless
+            template = CLITemplate.compile(cli);
+            TEMPLATES.put(cli, template);
         }
+        return template;
     }
 
     /**
      * Exports all configuration settings to the working directory.
      * 
-     * @param configStore
+     * @param nodeConfig
+     *            The configuration to export.
+     * @param workingDirectory
+     *            The working directory of the tool.
      * @throws IOException
      */
-    private void exportPlainConfiguration(File workingDirectory)
-            throws IOException {
+    private void exportPlainConfiguration(INodeConfiguration nodeConfig,
+            File workingDirectory) throws IOException {
         PlainNodeConfigurationWriter writer = new PlainNodeConfigurationWriter();
         writer.init(nodeConfig);
         writer.write(workingDirectory.getAbsolutePath() + File.separator
@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.genericworkflownodes.knime.cliwrapper.CLI;
+import com.genericworkflownodes.knime.cliwrapper.CLIElement;
+import com.genericworkflownodes.knime.cliwrapper.CLIMapping;
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.parameter.BoolParameter;
+import com.genericworkflownodes.knime.parameter.ListParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+
+/**
+ * The {@link CLI} of a tool compiled into a sequence of slots. Fixed arguments
+ * are split once, mapped elements only keep the names of their parameters.
+ * Rendering a command line then boils down to one map lookup per mapped
+ * parameter.
+ * Templates are immutable and can be shared between threads.
+ * 
+ * If {@link ResponseFileSettings} are given, long lists are written into
+ * response files in the working directory instead.
+ * 
+ * @author aiche
+ */
+final class CLITemplate {
+
+    /**
+     * A part of the command line.
+     */
+    private interface Slot {
+        /**
+         * Appends the arguments of this slot to the command line.
+         * 
+         * @param config
+         *            The configuration providing the parameter values.
+         * @param commands
+         *            The command line.
+         * @param responseFiles
+         *            Destination of long lists, may be null.
+         * @throws Exception
+         *             If the parameter values are invalid.
+         */
+        void render(INodeConfiguration config, List<String> commands,
+                ResponseFiles responseFiles) throws Exception;
+    }
+
+    /**
+     * Creates the response files of a single rendering.
+     */
+    private static final class ResponseFiles {
+        private final ResponseFileSettings m_settings;
+        private final File m_directory;
+        private int m_count;
+
+        ResponseFiles(ResponseFileSettings settings, File directory) {
+            m_settings = settings;
+            m_directory = directory;
+            m_count = 0;
+        }
+
+        List<String> write(String optionIdentifier, List<String> values)
+                throws Exception {
+            File file = new File(m_directory,
+                    ResponseFileSettings.FILE_PREFIX + (m_count++) + ".txt");
+            return m_settings.write(optionIdentifier, values, file);
+        }
+    }
+
+    /**
+     * Arguments that do not depend on any parameter.
+     */
+    private static final class FixedSlot implements Slot {
+        private final List<String> m_arguments;
+
+        FixedSlot(String optionIdentifier) {
+            // to avoid problems with spaces in commands we split fixed values
+            m_arguments = Collections.unmodifiableList(Arrays
+                    .asList(optionIdentifier.split(" ")));
+        }
+
+        @Override
+        public void render(INodeConfiguration config, List<String> commands,
+                ResponseFiles responseFiles) {
+            commands.addAll(m_arguments);
+        }
+    }
+
+    /**
+     * An element mapped to one or more parameters. The i-th values of all
+     * mapped parameters are appended after the option identifier.
+     */
+    private static final class MappedSlot implements Slot {
+        private final String m_optionIdentifier;
+        private final String[] m_parameterKeys;
+
+        MappedSlot(String optionIdentifier, String[] parameterKeys) {
+            m_optionIdentifier = optionIdentifier;
+            m_parameterKeys = parameterKeys;
+        }
+
+        @Override
+        public void render(INodeConfiguration config, List<String> commands,
+                ResponseFiles responseFiles) throws Exception {
+            if (m_parameterKeys.length == 1) {
+                Parameter<?> p = config.getParameter(m_parameterKeys[0]);
+                if (p instanceof BoolParameter) {
+                    // switch, the identifier is only added if it is set
+                    if (((BoolParameter) p).getValue()) {
+                        commands.add(m_optionIdentifier);
+                    }
+                    return;
+                }
+            }
+
+            List<List<String>> values = extractValues(config);
+            if (responseFiles != null && values.size() == 1
+                    && responseFiles.m_settings.applies(values.get(0).size())) {
+                commands.addAll(responseFiles.write(m_optionIdentifier,
+                        values.get(0)));
+                return;
+            }
+            expand(values, commands);
+        }
+
+        /**
+         * Creates a list containing for each set parameter a list with its
+         * values. Unknown and unset parameters are skipped.
+         */
+        private List<List<String>> extractValues(INodeConfiguration config)
+                throws Exception {
+            List<List<String>> values = new ArrayList<List<String>>(
+                    m_parameterKeys.length);
+            int size = -1;
+            for (String key : m_parameterKeys) {
+                Parameter<?> p = config.getParameter(key);
+                if (p == null || p.isNull()) {
+                    continue;
+                }
+                List<String> value;
+                if (p instanceof ListParameter) {
+                    value = ((ListParameter) p).getStrings();
+                    if (value.isEmpty()) {
+                        continue;
+                    }
+                } else {
+                    value = Collections.singletonList(p.getStringRep());
+                }
+                if (size != -1 && size != value.size()) {
+                    throw new Exception(
+                            "All mapped value lists must have the same size.");
+                }
+                size = value.size();
+                values.add(value);
+            }
+            return values;
+        }
+
+        /**
+         * Appends the i-th value of each list, prefixed by the option
+         * identifier (if there is one).
+         */
+        private void expand(List<List<String>> values, List<String> commands) {
+            if (values.isEmpty()) {
+                // optional parameters that were not set are omitted
+                return;
+            }
+            int listSize = values.get(0).size();
+            for (int i = 0; i < listSize; ++i) {
+                if (!"".equals(m_optionIdentifier)) {
+                    commands.add(m_optionIdentifier);
+                }
+                for (List<String> value : values) {
+                    commands.add(value.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Compiles the given {@link CLI}.
+     * 
+     * @param cli
+     *            The CLI of the tool.
+     * @return The template.
+     */
+    static CLITemplate compile(CLI cli) {
+        List<Slot> slots = new ArrayList<Slot>();
+        for (CLIElement cliElement : cli.getCLIElement()) {
+            String optionIdentifier = cliElement.getOptionIdentifier();
+            if (optionIdentifier == null) {
+                optionIdentifier = "";
+            }
+            List<CLIMapping> mappings = cliElement.getMapping();
+            if (mappings.isEmpty()) {
+                if (!"".equals(optionIdentifier)) {
+                    slots.add(new FixedSlot(optionIdentifier));
+                }
+                continue;
+            }
+            String[] parameterKeys = new String[mappings.size()];
+            for (int i = 0; i < parameterKeys.length; ++i) {
+                parameterKeys[i] = mappings.get(i).getReferenceName();
+            }
+            slots.add(new MappedSlot(optionIdentifier, parameterKeys));
+        }
+        return new CLITemplate(slots);
+    }
+
+    /**
+     * The slots in command line order.
+     */
+    private final Slot[] m_slots;
+
+    /**
+     * Initial capacity of the rendered command line.
+     */
+    private final int m_expectedSize;
+
+    private CLITemplate(List<Slot> slots) {
+        m_slots = slots.toArray(new Slot[slots.size()]);
+        m_expectedSize = 2 * m_slots.length;
+    }
+
+    /**
+     * Renders the command line for the given configuration.
+     * 
+     * @param config
+     *            The configuration providing the parameter values.
+     * @return The arguments of the command line.
+     * @throws Exception
+     *             If the parameter values are invalid.
+     */
+    List<String> render(INodeConfiguration config) throws Exception {
+        return render(config, null, null);
+    }
+
+    /**
+     * Renders the command line for the given configuration, long lists are
+     * written into response files.
+     * 
+     * @param config
+     *            The configuration providing the parameter values.
+     * @param settings
+     *            The response file settings of the tool, may be null.
+     * @param workingDirectory
+     *            The directory receiving the response files.
+     * @return The arguments of the command line.
+     * @throws Exception
+     *             If the parameter values are invalid or a response file
+     *             could not be written.
+     */
+    List<String> render(INodeConfiguration config,
+            ResponseFileSettings settings, File workingDirectory)
+            throws Exception {
+        ResponseFiles responseFiles = null;
+        if (settings != null) {
+            responseFiles = new ResponseFiles(settings, workingDirectory);
+        }
+        List<String> commands = new ArrayList<String>(m_expectedSize);
+        for (Slot slot : m_slots) {
+            slot.render(config, commands, responseFiles);
+        }
+        return commands;
+    }
+}
@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.apache.commons.lang.StringEscapeUtils;
+
+import com.genericworkflownodes.knime.cliwrapper.CLI;
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.writer.CTDConfigurationWriter;
+import com.genericworkflownodes.knime.parameter.IFileParameter;
+import com.genericworkflownodes.knime.parameter.ListParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+
+/**
+ * The parameter document (OpenMS ini, BALL par) of a tool, rendered once with
+ * placeholders for the values of all file parameters. The document is stored
+ * as pre-encoded byte segments, writing it for a configuration only splices
+ * the current file names between these segments.
+ * 
+ * Inside loops usually only the file parameters change between iterations. A
+ * template is reused as long as all other values are unchanged, otherwise it
+ * is rendered again. The written document is identical to the one written by
+ * the {@link CTDConfigurationWriter}.
+ * 
+ * @author aiche
+ */
+final class CTDTemplate {
+
+    /**
+     * Encoding of the parameter documents.
+     */
+    private static final String ENCODING = "UTF-8";
+
+    /**
+     * Size of the output buffer.
+     */
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Marks a placeholder in the rendered document.
+     */
+    private static final String PLACEHOLDER_MARK = "@@GKN_VALUE_";
+
+    /**
+     * The last template of each tool. The CLI is shared by all copies of a
+     * node configuration, so the template is dropped together with the node.
+     */
+    private static final Map<CLI, CTDTemplate> TEMPLATES = Collections
+            .synchronizedMap(new WeakHashMap<CLI, CTDTemplate>());
+
+    /**
+     * Writer replacing the values of file parameters by placeholders.
+     */
+    private static final class PlaceholderWriter extends
+            CTDConfigurationWriter {
+        private final List<String> m_keys = new ArrayList<String>();
+        private final List<Boolean> m_lists = new ArrayList<Boolean>();
+
+        PlaceholderWriter(BufferedWriter out) {
+            super(out);
+        }
+
+        private String placeholder(String key, boolean list) {
+            m_keys.add(key);
+            m_lists.add(list);
+            return PLACEHOLDER_MARK + (m_keys.size() - 1) + "@@";
+        }
+
+        @Override
+        protected String getItemValue(String key, Parameter<?> p) {
+            if (p instanceof IFileParameter) {
+                return placeholder(key, false);
+            }
+            return super.getItemValue(key, p);
+        }
+
+        @Override
+        protected List<String> getListItemValues(String key, ListParameter p) {
+            if (p instanceof IFileParameter) {
+                return Collections.singletonList(placeholder(key, true));
+            }
+            return super.getListItemValues(key, p);
+        }
+    }
+
+    /**
+     * Writes the parameter document of the given configuration, reusing the
+     * cached template of the tool if possible.
+     * 
+     * @param config
+     *            The configuration to write.
+     * @param target
+     *            The file receiving the document.
+     * @throws IOException
+     *             If the document could not be written.
+     */
+    static void write(INodeConfiguration config, File target)
+            throws IOException {
+        CLI cli = config.getCLI();
+        if (cli == null) {
+            new CTDConfigurationWriter(target).write(config);
+            return;
+        }
+        String fingerprint = fingerprint(config);
+        CTDTemplate template = TEMPLATES.get(cli);
+        if (template == null || !template.m_fingerprint.equals(fingerprint)) {
+            template = compile(config, fingerprint);
+            TEMPLATES.put(cli, template);
+        }
+        template.render(config, target);
+    }
+
+    /**
+     * Summarizes everything the document depends on, apart from the values of
+     * the file parameters.
+     */
+    private static String fingerprint(INodeConfiguration config) {
+        StringBuilder sb = new StringBuilder();
+        for (String key : config.getParameterKeys()) {
+            Parameter<?> p = config.getParameter(key);
+            sb.append(key).append('\0');
+            if (p instanceof IFileParameter) {
+                sb.append('\1');
+            } else if (p instanceof ListParameter) {
+                for (String value : ((ListParameter) p).getStrings()) {
+                    sb.append(value).append('\0');
+                }
+            } else if (p.getValue() != null) {
+                sb.append(p.getValue().toString());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Renders the document of the given configuration with placeholders and
+     * splits it into segments.
+     */
+    static CTDTemplate compile(INodeConfiguration config, String fingerprint)
+            throws IOException {
+        StringWriter document = new StringWriter();
+        PlaceholderWriter writer = new PlaceholderWriter(new BufferedWriter(
+                document));
+        writer.write(config);
+        String text = document.toString();
+
+        int nSlots = writer.m_keys.size();
+        byte[][] segments = new byte[nSlots + 1][];
+        Slot[] slots = new Slot[nSlots];
+        int start = 0;
+        for (int i = 0; i < nSlots; ++i) {
+            String placeholder = PLACEHOLDER_MARK + i + "@@";
+            int begin = text.indexOf(placeholder, start);
+            int end = begin + placeholder.length();
+            if (writer.m_lists.get(i)) {
+                // a list slot repeats the complete <LISTITEM/> line
+                int lineBegin = text.lastIndexOf('\n', begin) + 1;
+                int lineEnd = text.indexOf('\n', end) + 1;
+                slots[i] = new Slot(writer.m_keys.get(i), text.substring(
+                        lineBegin, begin), text.substring(end, lineEnd));
+                begin = lineBegin;
+                end = lineEnd;
+            } else {
+                slots[i] = new Slot(writer.m_keys.get(i), null, null);
+            }
+            segments[i] = text.substring(start, begin).getBytes(ENCODING);
+            start = end;
+        }
+        segments[nSlots] = text.substring(start).getBytes(ENCODING);
+        return new CTDTemplate(fingerprint, segments, slots);
+    }
+
+    /**
+     * The position of a file parameter in the document.
+     */
+    private static final class Slot {
+        private final String m_key;
+        private final byte[] m_linePrefix;
+        private final byte[] m_lineSuffix;
+
+        /**
+         * C'tor.
+         * 
+         * @param key
+         *            The key of the parameter.
+         * @param linePrefix
+         *            Text preceding each value of a list, null for single
+         *            values.
+         * @param lineSuffix
+         *            Text following each value of a list, null for single
+         *            values.
+         */
+        Slot(String key, String linePrefix, String lineSuffix)
+                throws IOException {
+            m_key = key;
+            m_linePrefix = linePrefix == null ? null : linePrefix
+                    .getBytes(ENCODING);
+            m_lineSuffix = lineSuffix == null ? null : lineSuffix
+                    .getBytes(ENCODING);
+        }
+
+        void render(INodeConfiguration config, OutputStream out)
+                throws IOException {
+            Parameter<?> p = config.getParameter(m_key);
+            if (m_linePrefix == null) {
+                writeValue(p.getValue() == null ? null : p.getValue()
+                        .toString(), out);
+                return;
+            }
+            for (String value : ((ListParameter) p).getStrings()) {
+                out.write(m_linePrefix);
+                writeValue(value, out);
+                out.write(m_lineSuffix);
+            }
+        }
+
+        private static void writeValue(String value, OutputStream out)
+                throws IOException {
+            if (value != null) {
+                out.write(StringEscapeUtils.escapeXml(value).getBytes(
+                        ENCODING));
+            }
+        }
+    }
+
+    /**
+     * The non-file values the template was rendered from.
+     */
+    private final String m_fingerprint;
+
+    /**
+     * The static parts of the document, one more than {@link #m_slots}.
+     */
+    private final byte[][] m_segments;
+
+    /**
+     * The file parameters between the segments.
+     */
+    private final Slot[] m_slots;
+
+    private CTDTemplate(String fingerprint, byte[][] segments, Slot[] slots) {
+        m_fingerprint = fingerprint;
+        m_segments = segments;
+        m_slots = slots;
+    }
+
+    /**
+     * Writes the document for the given configuration.
+     * 
+     * @param config
+     *            The configuration providing the file names.
+     * @param target
+     *            The file receiving the document.
+     * @throws IOException
+     *             If the document could not be written.
+     */
+    void render(INodeConfiguration config, File target) throws IOException {
+        OutputStream out = new BufferedOutputStream(
+                new FileOutputStream(target), BUFFER_SIZE);
+        try {
+            for (int i = 0; i < m_slots.length; ++i) {
+                out.write(m_segments[i]);
+                m_slots[i].render(config, out);
+            }
+            out.write(m_segments[m_slots.length]);
+        } finally {
+            out.close();
+        }
+    }
+}
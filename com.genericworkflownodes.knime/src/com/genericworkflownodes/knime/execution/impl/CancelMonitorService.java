@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.execution.AsynchronousToolExecutor;
+import com.genericworkflownodes.knime.execution.IWaitable;
+
+/**
+ * Watches all running {@link AsynchronousToolExecutor}s and kills them as soon
+ * as the user cancels the execution of the corresponding node.
+ * 
+ * A single scheduler thread checks the {@link ExecutionMonitor}s of all
+ * registered executors every {@link #POLL_INTERVAL_MS} milliseconds, hence a
+ * cancel request is handled within this latency, independent of the number of
+ * running tools. Executors are removed from the service through a completion
+ * callback as soon as their task finished. The actual kill is delegated to a
+ * separate pool of at most {@link #KILL_THREADS} threads, so a slow kill does
+ * not delay the cancellation of other tools.
+ * 
+ * @author aiche
+ */
+public final class CancelMonitorService {
+
+    /**
+     * Interval between two checks of the registered execution monitors.
+     */
+    public static final long POLL_INTERVAL_MS = 50;
+
+    /**
+     * Maximal number of executors killed concurrently. A kill returns as soon
+     * as the process tree exited, so few threads suffice even if a loop with
+     * hundreds of running tools is canceled.
+     */
+    static final int KILL_THREADS = 16;
+
+    /**
+     * NodeLogger used for this service.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(CancelMonitorService.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final CancelMonitorService INSTANCE = new CancelMonitorService();
+
+    /**
+     * Creates daemon threads with the given name.
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+        private final String m_name;
+
+        DaemonThreadFactory(String name) {
+            m_name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, m_name);
+            t.setDaemon(true);
+            return t;
+        }
+    }
+
+    /**
+     * A single monitored executor.
+     */
+    private final class Registration implements IWaitable, Runnable {
+        private final AsynchronousToolExecutor m_asyncExecutor;
+        private final ExecutionMonitor m_exec;
+        private final CountDownLatch m_finished;
+        private final AtomicBoolean m_done;
+
+        Registration(AsynchronousToolExecutor asyncExecutor,
+                ExecutionMonitor exec) {
+            m_asyncExecutor = asyncExecutor;
+            m_exec = exec;
+            m_finished = new CountDownLatch(1);
+            m_done = new AtomicBoolean(false);
+        }
+
+        /**
+         * Checks if a cancel was requested and kills the executor if needed.
+         */
+        void check() {
+            try {
+                // if cancel was requested, an exception will be thrown
+                m_exec.checkCanceled();
+            } catch (CanceledExecutionException e) {
+                if (!m_done.getAndSet(true)) {
+                    m_registrations.remove(this);
+                    m_killPool.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                m_asyncExecutor.kill();
+                            } finally {
+                                m_finished.countDown();
+                            }
+                        }
+                    });
+                }
+            }
+        }
+
+        /**
+         * Invoked once the executor completed.
+         */
+        @Override
+        public void run() {
+            if (!m_done.getAndSet(true)) {
+                m_registrations.remove(this);
+                m_finished.countDown();
+            }
+        }
+
+        @Override
+        public void waitUntilFinished() {
+            try {
+                m_finished.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * The currently monitored executors.
+     */
+    private final Set<Registration> m_registrations;
+
+    /**
+     * Thread polling the registered execution monitors.
+     */
+    private final ScheduledExecutorService m_scheduler;
+
+    /**
+     * Threads killing canceled executors.
+     */
+    private final ExecutorService m_killPool;
+
+    private CancelMonitorService() {
+        m_registrations = Collections
+                .newSetFromMap(new ConcurrentHashMap<Registration, Boolean>());
+        m_scheduler = Executors
+                .newSingleThreadScheduledExecutor(new DaemonThreadFactory(
+                        "GKN-CancelMonitor"));
+        ThreadPoolExecutor killPool = new ThreadPoolExecutor(KILL_THREADS,
+                KILL_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory(
+                        "GKN-ToolKiller"));
+        killPool.allowCoreThreadTimeOut(true);
+        m_killPool = killPool;
+        m_scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkAll();
+            }
+        }, POLL_INTERVAL_MS, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared instance.
+     * 
+     * @return The cancel monitor service.
+     */
+    public static CancelMonitorService getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts monitoring the given executor. The executor will be killed if a
+     * cancel is requested through the given {@link ExecutionMonitor}.
+     * 
+     * @param asyncExecutor
+     *            The executor to monitor.
+     * @param exec
+     *            The {@link ExecutionMonitor} of the node running the
+     *            executor.
+     * @return An {@link IWaitable} that finishes once the executor completed
+     *         or was killed.
+     */
+    public IWaitable monitor(final AsynchronousToolExecutor asyncExecutor,
+            final ExecutionMonitor exec) {
+        Registration registration = new Registration(asyncExecutor, exec);
+        m_registrations.add(registration);
+        // removes the registration again once the executor is done (invoked
+        // immediately if it is already done)
+        asyncExecutor.addCompletionListener(registration);
+        return registration;
+    }
+
+    /**
+     * Returns the number of currently monitored executors.
+     * 
+     * @return The number of monitored executors.
+     */
+    public int getMonitoredCount() {
+        return m_registrations.size();
+    }
+
+    private void checkAll() {
+        for (Registration registration : m_registrations) {
+            try {
+                registration.check();
+            } catch (RuntimeException e) {
+                // never let a single registration stop the periodic check
+                LOGGER.warn("CancelMonitorService: Failed to check for cancel.",
+                        e);
+            }
+        }
+    }
+}
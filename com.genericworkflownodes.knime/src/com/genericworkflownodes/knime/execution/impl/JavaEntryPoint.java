@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+import org.apache.commons.lang.StringUtils;
+
+/**
+ * The main class and class path of a tool that can be run inside the KNIME
+ * JVM by the {@link JavaToolExecutor}.
+ * 
+ * A plugin declares the entry point of an executable with the plugin
+ * properties <code>java.mainClass.&lt;executable&gt;</code> and (optionally)
+ * <code>java.classPath.&lt;executable&gt;</code>. The class path lists jars
+ * or directories separated by the platform path separator; relative entries
+ * are resolved against the directory of the executable. Without a class path
+ * the executable itself has to be a jar. Executables that are jars with a
+ * <code>Main-Class</code> in their manifest need no declaration at all.
+ * 
+ * @author aiche
+ */
+public final class JavaEntryPoint {
+
+    /**
+     * Prefix of the plugin properties declaring the main class.
+     */
+    public static final String MAIN_CLASS_PROPERTY = "java.mainClass.";
+
+    /**
+     * Prefix of the plugin properties declaring the class path.
+     */
+    public static final String CLASS_PATH_PROPERTY = "java.classPath.";
+
+    /**
+     * The name of the executable.
+     */
+    private final String m_name;
+
+    /**
+     * The fully qualified name of the class declaring <code>main</code>.
+     */
+    private final String m_mainClass;
+
+    /**
+     * The jars and directories of the tool.
+     */
+    private final List<File> m_classPath;
+
+    /**
+     * C'tor.
+     * 
+     * @param name
+     *            The name of the executable.
+     * @param mainClass
+     *            The fully qualified name of the class declaring
+     *            <code>main</code>.
+     * @param classPath
+     *            The jars and directories of the tool.
+     */
+    public JavaEntryPoint(String name, String mainClass, List<File> classPath) {
+        if (classPath.isEmpty()) {
+            throw new IllegalArgumentException("Class path of " + name
+                    + " is empty.");
+        }
+        m_name = name;
+        m_mainClass = mainClass;
+        m_classPath = Collections.unmodifiableList(new ArrayList<File>(
+                classPath));
+    }
+
+    /**
+     * Finds the entry point of the given executable.
+     * 
+     * @param executableName
+     *            The name of the executable.
+     * @param executable
+     *            The executable found for the tool.
+     * @param pluginProperties
+     *            The properties of the plugin providing the tool.
+     * @return The entry point or null if the executable is no Java tool.
+     * @throws IOException
+     *             If the manifest of the executable could not be read.
+     */
+    public static JavaEntryPoint find(String executableName, File executable,
+            Properties pluginProperties) throws IOException {
+        String mainClass = pluginProperties.getProperty(MAIN_CLASS_PROPERTY
+                + executableName);
+        String classPath = pluginProperties.getProperty(CLASS_PATH_PROPERTY
+                + executableName);
+        if (mainClass == null) {
+            mainClass = readMainClass(executable);
+            if (mainClass == null) {
+                return null;
+            }
+        }
+
+        List<File> entries = new ArrayList<File>();
+        if (classPath == null || "".equals(classPath.trim())) {
+            entries.add(executable);
+        } else {
+            File base = executable.getAbsoluteFile().getParentFile();
+            for (String entry : StringUtils.split(classPath,
+                    File.pathSeparatorChar)) {
+                File file = new File(entry.trim());
+                entries.add(file.isAbsolute() ? file : new File(base, entry
+                        .trim()));
+            }
+        }
+        return new JavaEntryPoint(executableName, mainClass.trim(), entries);
+    }
+
+    /**
+     * Reads the main class from the manifest of the given file.
+     * 
+     * @param file
+     *            The file.
+     * @return The main class or null if the file is no executable jar.
+     * @throws IOException
+     *             If the manifest could not be read.
+     */
+    private static String readMainClass(File file) throws IOException {
+        if (!file.isFile() || !file.getName().toLowerCase().endsWith(".jar")) {
+            return null;
+        }
+        JarFile jar = new JarFile(file);
+        try {
+            Manifest manifest = jar.getManifest();
+            if (manifest == null) {
+                return null;
+            }
+            return manifest.getMainAttributes().getValue(
+                    Attributes.Name.MAIN_CLASS);
+        } finally {
+            jar.close();
+        }
+    }
+
+    /**
+     * @return The name of the executable.
+     */
+    public String getName() {
+        return m_name;
+    }
+
+    /**
+     * @return The fully qualified name of the class declaring
+     *         <code>main</code>.
+     */
+    public String getMainClass() {
+        return m_mainClass;
+    }
+
+    /**
+     * @return The jars and directories of the tool.
+     */
+    public List<File> getClassPath() {
+        return m_classPath;
+    }
+
+    /**
+     * Converts the class path into URLs for a class loader.
+     * 
+     * @return The URLs of the class path entries.
+     * @throws MalformedURLException
+     *             If an entry cannot be converted.
+     */
+    public URL[] getClassPathURLs() throws MalformedURLException {
+        URL[] urls = new URL[m_classPath.size()];
+        for (int i = 0; i < urls.length; ++i) {
+            urls[i] = m_classPath.get(i).toURI().toURL();
+        }
+        return urls;
+    }
+
+    /**
+     * Returns the latest modification time of the class path entries, used to
+     * notice updated tools. Changes inside class directories are not
+     * detected.
+     * 
+     * @return The latest modification time.
+     */
+    public long getLastModified() {
+        long lastModified = 0;
+        for (File entry : m_classPath) {
+            lastModified = Math.max(lastModified, entry.lastModified());
+        }
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof JavaEntryPoint)) {
+            return false;
+        }
+        JavaEntryPoint other = (JavaEntryPoint) obj;
+        return m_name.equals(other.m_name)
+                && m_mainClass.equals(other.m_mainClass)
+                && m_classPath.equals(other.m_classPath);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * m_name.hashCode() + m_mainClass.hashCode())
+                + m_classPath.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return m_mainClass + " ("
+                + StringUtils.join(m_classPath, File.pathSeparator) + ")";
+    }
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
+import com.genericworkflownodes.knime.execution.CpuAllocator;
+import com.genericworkflownodes.knime.execution.ICommandGenerator;
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+import com.genericworkflownodes.knime.execution.LaunchPlan;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.ToolExecutionFailedException;
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
+import com.genericworkflownodes.util.StringUtils;
+
+/**
+ * Runs Java tools inside the KNIME JVM instead of starting a JVM for every
+ * invocation, see {@link JavaToolRuntime}. Tools are recognized by their
+ * {@link JavaEntryPoint}; all other tools (and all tools if the runtime is
+ * not available) are executed as local processes like the
+ * {@link LocalToolExecutor} does.
+ * 
+ * In-process tools share the JVM of KNIME: they run in the current working
+ * directory of KNIME (the command generators pass absolute paths), do not see
+ * the environment variables of the plugin, ignore the resource limits of
+ * local processes and cannot read from stdin. The first in-process tool
+ * installs a security manager and replaces the standard streams of the whole
+ * JVM.
+ * 
+ * @author aiche
+ */
+public class JavaToolExecutor extends LocalToolExecutor {
+
+    /**
+     * NodeLogger used for this executor.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(JavaToolExecutor.class);
+
+    private ICommandGenerator m_generator;
+
+    /**
+     * The configurations of the tool, kept to fall back to a local process
+     * if the runtime cannot be installed.
+     */
+    private INodeConfiguration m_nodeConfiguration;
+    private IPluginConfiguration m_pluginConfiguration;
+
+    /**
+     * Publishes the output of in-process tools while they are running.
+     */
+    private final ToolOutputChannel m_outputChannel;
+
+    /**
+     * The entry point of the tool, null if it is run as a process.
+     */
+    private volatile JavaEntryPoint m_entryPoint;
+
+    /**
+     * The arguments passed to the tool.
+     */
+    private List<String> m_arguments;
+
+    /**
+     * The running invocation, null if the tool was not started yet.
+     */
+    private JavaToolRuntime.Invocation m_invocation;
+
+    /**
+     * Indicates that the execution was killed.
+     */
+    private boolean m_killed;
+
+    private int m_returnCode;
+    private LinkedList<String> m_stdOut;
+    private LinkedList<String> m_stdErr;
+
+    /**
+     * The resources consumed by the last execution.
+     */
+    private ToolResourceUsage m_resourceUsage;
+
+    /**
+     * C'tor.
+     */
+    public JavaToolExecutor() {
+        m_outputChannel = new ToolOutputChannel();
+        m_returnCode = -1;
+        m_stdOut = new LinkedList<String>();
+        m_stdErr = new LinkedList<String>();
+    }
+
+    /**
+     * @return True if the tool is run in-process.
+     */
+    public boolean isInProcess() {
+        return m_entryPoint != null;
+    }
+
+    @Override
+    public void prepareExecution(INodeConfiguration nodeConfiguration,
+            IPluginConfiguration pluginConfiguration) throws Exception {
+        m_entryPoint = null;
+        m_nodeConfiguration = nodeConfiguration;
+        m_pluginConfiguration = pluginConfiguration;
+        if (JavaToolRuntime.isAvailable()) {
+            LaunchPlan plan = LaunchPlanCache.getDefault().getPlan(
+                    nodeConfiguration, pluginConfiguration);
+            m_entryPoint = JavaEntryPoint.find(
+                    nodeConfiguration.getExecutableName(),
+                    plan.getExecutable(),
+                    pluginConfiguration.getPluginProperties());
+        }
+        if (m_entryPoint == null) {
+            super.prepareExecution(nodeConfiguration, pluginConfiguration);
+            return;
+        }
+        // thread count parameters reflect the share of cores of the tool
+        nodeConfiguration = CpuAllocator.getDefault().applyThreadCount(
+                nodeConfiguration);
+        m_arguments = m_generator.generateCommands(nodeConfiguration,
+                pluginConfiguration, getWorkingDirectory());
+    }
+
+    @Override
+    public void setCommandGenerator(ICommandGenerator generator) {
+        super.setCommandGenerator(generator);
+        m_generator = generator;
+    }
+
+    @Override
+    public int execute() throws ToolExecutionFailedException {
+        if (m_entryPoint == null) {
+            return super.execute();
+        }
+        if (!JavaToolRuntime.ensureInstalled()) {
+            String name = m_entryPoint.getName();
+            m_entryPoint = null;
+            try {
+                super.prepareExecution(m_nodeConfiguration,
+                        m_pluginConfiguration);
+            } catch (Exception e) {
+                throw new ToolExecutionFailedException(
+                        "Failed to prepare execution of tool " + name, e);
+            }
+            return super.execute();
+        }
+
+        m_resourceUsage = null;
+        ToolOutputChannel channel = null;
+        if (m_outputChannel.hasListeners()) {
+            channel = m_outputChannel;
+            channel.open();
+        }
+        StreamGobbler stdOutGobbler = new StreamGobbler(
+                getSpillFile(STDOUT_SPILL_FILE), new BoundedLineBuffer(),
+                channel, ToolOutputChannel.Stream.STDOUT);
+        StreamGobbler stdErrGobbler = new StreamGobbler(
+                getSpillFile(STDERR_SPILL_FILE), new BoundedLineBuffer(),
+                channel, ToolOutputChannel.Stream.STDERR);
+        OutputStream stdOut = null;
+        OutputStream stdErr = null;
+        try {
+            stdOut = stdOutGobbler.openSink();
+            stdErr = stdErrGobbler.openSink();
+
+            LOGGER.debug("Executing in-process: " + m_entryPoint + " "
+                    + StringUtils.join(m_arguments, " "));
+
+            JavaToolRuntime.Invocation invocation = JavaToolRuntime
+                    .getDefault().newInvocation(m_entryPoint,
+                            m_arguments.toArray(new String[0]), stdOut,
+                            stdErr);
+            synchronized (this) {
+                m_invocation = invocation;
+                if (m_killed) {
+                    invocation.kill();
+                }
+            }
+            long startTime = System.currentTimeMillis();
+            m_returnCode = invocation.run();
+            m_resourceUsage = ToolResourceUsage.wallTimeOnly(System
+                    .currentTimeMillis() - startTime);
+        } catch (InterruptedException e) {
+            throw new ToolExecutionFailedException("Execution of tool "
+                    + m_entryPoint.getName() + " was interrupted", e);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to execute tool " + m_entryPoint.getName(), e);
+            throw new ToolExecutionFailedException("Failed to execute tool "
+                    + m_entryPoint.getName(), e);
+        } finally {
+            // completes the capture of the output
+            closeQuietly(stdOut);
+            closeQuietly(stdErr);
+            m_stdOut = stdOutGobbler.getContent();
+            m_stdErr = stdErrGobbler.getContent();
+            // deliver the remaining output to the listeners
+            m_outputChannel.close();
+        }
+        return m_returnCode;
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close tool output.", e);
+        }
+    }
+
+    @Override
+    public void kill() {
+        if (m_entryPoint == null) {
+            super.kill();
+            return;
+        }
+        synchronized (this) {
+            m_killed = true;
+            if (m_invocation != null) {
+                m_invocation.kill();
+            }
+        }
+    }
+
+    @Override
+    public int getReturnCode() {
+        return m_entryPoint == null ? super.getReturnCode() : m_returnCode;
+    }
+
+    @Override
+    public LinkedList<String> getToolOutput() {
+        return m_entryPoint == null ? super.getToolOutput() : m_stdOut;
+    }
+
+    @Override
+    public LinkedList<String> getToolErrorOutput() {
+        return m_entryPoint == null ? super.getToolErrorOutput() : m_stdErr;
+    }
+
+    @Override
+    public ToolResourceUsage getResourceUsage() {
+        return m_entryPoint == null ? super.getResourceUsage()
+                : m_resourceUsage;
+    }
+
+    @Override
+    public void addToolOutputListener(IToolOutputListener listener) {
+        super.addToolOutputListener(listener);
+        m_outputChannel.addListener(listener);
+    }
+
+    @Override
+    public void removeToolOutputListener(IToolOutputListener listener) {
+        super.removeToolOutputListener(listener);
+        m_outputChannel.removeListener(listener);
+    }
+}
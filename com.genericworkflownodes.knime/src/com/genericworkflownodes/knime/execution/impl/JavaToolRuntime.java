@@ -0,0 +1,660 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URLClassLoader;
+import java.security.Permission;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Runs the <code>main</code> method of Java tools inside the KNIME JVM.
+ * 
+ * Every tool gets a class loader of its own that only sees the tool's class
+ * path and the platform classes, not the classes of KNIME. The loader is
+ * cached, hence classes are loaded (and compiled by the JIT) once instead of
+ * for every invocation; static state of the tool survives between
+ * invocations. If the class path changes, a new loader is created.
+ * 
+ * The first invocation replaces {@link System#out} and {@link System#err} by
+ * streams that forward the output of a thread to the invocation it belongs
+ * to, including the threads started by the tool. Everything else is written
+ * to the original streams. Likewise {@link System#exit(int)} called by a tool
+ * only ends the invocation with the given exit code; it is trapped with a
+ * {@link SecurityManager}, so in-process execution is not available if no
+ * security manager can be installed (e.g., on Java 18 and later unless
+ * started with <code>-Djava.security.manager=allow</code>). Note that both
+ * are JVM-wide changes that stay in place for the rest of the KNIME session,
+ * hence they are only made once a tool is actually run in-process.
+ * 
+ * Like the JVM, an invocation ends when <code>main</code> and all non-daemon
+ * threads started by the tool finished, or when the tool calls
+ * {@link System#exit(int)}. The number of concurrent invocations is limited
+ * since all of them share the heap of KNIME.
+ * 
+ * @author aiche
+ */
+public final class JavaToolRuntime {
+
+    /**
+     * Exit code of killed invocations, the one of a process terminated by
+     * SIGTERM.
+     */
+    public static final int KILLED_EXIT_CODE = 143;
+
+    /**
+     * Exit code of invocations where <code>main</code> failed with an
+     * exception.
+     */
+    public static final int FAILED_EXIT_CODE = 1;
+
+    /**
+     * Interval in which the threads of a tool are checked after
+     * <code>main</code> returned.
+     */
+    static final long THREAD_CHECK_INTERVAL_MS = 10;
+
+    /**
+     * NodeLogger used for the runtime.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(JavaToolRuntime.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final JavaToolRuntime INSTANCE = new JavaToolRuntime();
+
+    /**
+     * The invocation the current thread belongs to, inherited by the threads
+     * started by a tool.
+     */
+    private static final InheritableThreadLocal<Invocation> CURRENT = new InheritableThreadLocal<Invocation>();
+
+    /**
+     * Indicates whether the streams and the exit trap were installed, null
+     * if this was not tried yet.
+     */
+    private static Boolean s_installed;
+
+    /**
+     * The cached class loaders by executable name.
+     */
+    private final Map<String, ToolClassLoader> m_loaders;
+
+    /**
+     * Limits the number of concurrent invocations.
+     */
+    private Semaphore m_permits;
+
+    /**
+     * The maximal number of concurrent invocations.
+     */
+    private int m_maxConcurrent;
+
+    /**
+     * C'tor.
+     */
+    JavaToolRuntime() {
+        m_loaders = new HashMap<String, ToolClassLoader>();
+        m_maxConcurrent = getDefaultMaxConcurrent();
+        m_permits = new Semaphore(m_maxConcurrent, true);
+    }
+
+    /**
+     * Returns the runtime shared by all nodes.
+     * 
+     * @return The shared runtime.
+     */
+    public static JavaToolRuntime getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return The default number of concurrent invocations, the number of
+     *         cores.
+     */
+    public static int getDefaultMaxConcurrent() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Changes the number of concurrent invocations. Running invocations are
+     * not affected.
+     * 
+     * @param maxConcurrent
+     *            The maximal number of concurrent invocations.
+     */
+    public synchronized void configure(int maxConcurrent) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException(
+                    "At least one Java tool has to run at a time, got "
+                            + maxConcurrent + ".");
+        }
+        if (maxConcurrent != m_maxConcurrent) {
+            m_maxConcurrent = maxConcurrent;
+            m_permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+
+    /**
+     * @return The maximal number of concurrent invocations.
+     */
+    public synchronized int getMaxConcurrent() {
+        return m_maxConcurrent;
+    }
+
+    /**
+     * Indicates whether tools can be run in-process, i.e., whether the exit
+     * trap can be installed. The trap itself is only installed by the first
+     * invocation.
+     * 
+     * @return True if tools can be run in-process.
+     */
+    public static synchronized boolean isAvailable() {
+        if (s_installed == null) {
+            return canInstall();
+        }
+        return s_installed;
+    }
+
+    /**
+     * Installs the streams and the exit trap unless this was tried before.
+     * 
+     * @return True if tools can be run in-process.
+     */
+    static synchronized boolean ensureInstalled() {
+        if (s_installed == null) {
+            s_installed = install();
+        }
+        return s_installed;
+    }
+
+    /**
+     * Checks whether a security manager may be installed without installing
+     * it.
+     */
+    private static boolean canInstall() {
+        SecurityManager current = System.getSecurityManager();
+        if (current != null) {
+            try {
+                current.checkPermission(new RuntimePermission(
+                        "setSecurityManager"));
+                return true;
+            } catch (SecurityException e) {
+                return false;
+            }
+        }
+        String mode = System.getProperty("java.security.manager");
+        if ("disallow".equals(mode)) {
+            return false;
+        }
+        // security managers are disallowed by default since Java 18
+        return "allow".equals(mode) || getJavaVersion() < 18;
+    }
+
+    private static int getJavaVersion() {
+        String version = System.getProperty("java.specification.version",
+                "1.7");
+        if (version.startsWith("1.")) {
+            version = version.substring(2);
+        }
+        int dot = version.indexOf('.');
+        if (dot >= 0) {
+            version = version.substring(0, dot);
+        }
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static boolean install() {
+        try {
+            System.setSecurityManager(new ExitTrap(System
+                    .getSecurityManager()));
+        } catch (SecurityException e) {
+            LOGGER.warn("Cannot trap System.exit, Java tools are run as "
+                    + "separate processes.", e);
+            return false;
+        } catch (UnsupportedOperationException e) {
+            LOGGER.warn("Cannot trap System.exit since the JVM does not "
+                    + "permit a security manager, Java tools are run as "
+                    + "separate processes.");
+            return false;
+        }
+        System.setOut(new PrintStream(new RoutingOutputStream(System.out,
+                false), true));
+        System.setErr(new PrintStream(new RoutingOutputStream(System.err,
+                true), true));
+        return true;
+    }
+
+    /**
+     * Prepares the invocation of a tool.
+     * 
+     * @param entryPoint
+     *            The entry point of the tool.
+     * @param args
+     *            The arguments passed to <code>main</code>.
+     * @param out
+     *            The stream receiving the std-out of the tool.
+     * @param err
+     *            The stream receiving the std-err of the tool.
+     * @return The invocation, started by {@link Invocation#run()}.
+     */
+    Invocation newInvocation(JavaEntryPoint entryPoint, String[] args,
+            OutputStream out, OutputStream err) {
+        return new Invocation(entryPoint, args, out, err);
+    }
+
+    private synchronized Semaphore getPermits() {
+        return m_permits;
+    }
+
+    /**
+     * Returns the main method of the tool, loading it with the cached class
+     * loader of the tool.
+     * 
+     * @param entryPoint
+     *            The entry point of the tool.
+     * @return The main method.
+     * @throws Exception
+     *             If the main method could not be loaded.
+     */
+    synchronized Method getMainMethod(JavaEntryPoint entryPoint)
+            throws Exception {
+        long lastModified = entryPoint.getLastModified();
+        ToolClassLoader loader = m_loaders.get(entryPoint.getName());
+        if (loader == null || !loader.m_entryPoint.equals(entryPoint)
+                || loader.m_lastModified != lastModified) {
+            // replaced loaders are not closed, running invocations might
+            // still load classes through them
+            loader = new ToolClassLoader(entryPoint, lastModified);
+            m_loaders.put(entryPoint.getName(), loader);
+            LOGGER.debug("Created class loader for " + entryPoint);
+        }
+        Method main = loader.m_mainMethods.get(entryPoint.getMainClass());
+        if (main == null) {
+            Class<?> mainClass = Class.forName(entryPoint.getMainClass(),
+                    false, loader.m_loader);
+            main = mainClass.getMethod("main", String[].class);
+            if (!Modifier.isStatic(main.getModifiers())) {
+                throw new NoSuchMethodException("main of "
+                        + entryPoint.getMainClass() + " is not static.");
+            }
+            loader.m_mainMethods.put(entryPoint.getMainClass(), main);
+        }
+        return main;
+    }
+
+    /**
+     * A cached class loader of a tool.
+     */
+    private static final class ToolClassLoader {
+
+        private final JavaEntryPoint m_entryPoint;
+
+        private final long m_lastModified;
+
+        private final ClassLoader m_loader;
+
+        private final Map<String, Method> m_mainMethods;
+
+        ToolClassLoader(JavaEntryPoint entryPoint, long lastModified)
+                throws IOException {
+            m_entryPoint = entryPoint;
+            m_lastModified = lastModified;
+            // the parent of the system class loader only knows the platform
+            // classes
+            m_loader = new URLClassLoader(entryPoint.getClassPathURLs(),
+                    ClassLoader.getSystemClassLoader().getParent());
+            m_mainMethods = new HashMap<String, Method>();
+        }
+    }
+
+    /**
+     * A single run of a tool.
+     */
+    final class Invocation {
+
+        private final JavaEntryPoint m_entryPoint;
+
+        private final String[] m_args;
+
+        private final OutputStream m_out;
+
+        private final OutputStream m_err;
+
+        /**
+         * The threads of the tool, null until started.
+         */
+        private ThreadGroup m_group;
+
+        /**
+         * The thread running <code>main</code>, null until started.
+         */
+        private Thread m_mainThread;
+
+        /**
+         * Indicates that <code>main</code> returned or failed.
+         */
+        private boolean m_mainFinished;
+
+        /**
+         * Indicates that <code>main</code> failed with an exception.
+         */
+        private boolean m_mainFailed;
+
+        /**
+         * The code passed to {@link System#exit(int)}, null if not called.
+         */
+        private Integer m_exitCode;
+
+        private boolean m_killed;
+
+        private volatile boolean m_finished;
+
+        Invocation(JavaEntryPoint entryPoint, String[] args, OutputStream out,
+                OutputStream err) {
+            m_entryPoint = entryPoint;
+            m_args = args;
+            m_out = out;
+            m_err = err;
+        }
+
+        /**
+         * Runs the tool and waits until it finished.
+         * 
+         * @return The exit code of the tool.
+         * @throws InterruptedException
+         *             If the current thread was interrupted while waiting.
+         * @throws Exception
+         *             If the tool could not be loaded.
+         */
+        int run() throws Exception {
+            if (!ensureInstalled()) {
+                throw new IllegalStateException(
+                        "Java tools cannot be run in-process.");
+            }
+            Semaphore permits = getPermits();
+            permits.acquire();
+            try {
+                final Method main = getMainMethod(m_entryPoint);
+                synchronized (this) {
+                    if (m_killed) {
+                        return KILLED_EXIT_CODE;
+                    }
+                    m_group = new ToolThreadGroup(this);
+                    m_mainThread = new Thread(m_group, new Runnable() {
+                        @Override
+                        public void run() {
+                            invokeMain(main);
+                        }
+                    }, "GKN-JavaTool-" + m_entryPoint.getName());
+                    m_mainThread.setDaemon(false);
+                    m_mainThread.setContextClassLoader(main
+                            .getDeclaringClass().getClassLoader());
+                    m_mainThread.start();
+                }
+                return waitForTool();
+            } finally {
+                m_finished = true;
+                permits.release();
+            }
+        }
+
+        private void invokeMain(Method main) {
+            CURRENT.set(this);
+            try {
+                main.invoke(null, (Object) m_args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof ExitTrappedException)) {
+                    mainFailed(e.getCause());
+                }
+            } catch (Exception e) {
+                mainFailed(e);
+            } finally {
+                synchronized (this) {
+                    m_mainFinished = true;
+                    notifyAll();
+                }
+            }
+        }
+
+        private void mainFailed(Throwable t) {
+            synchronized (this) {
+                m_mainFailed = true;
+            }
+            reportFailure(Thread.currentThread(), t);
+        }
+
+        /**
+         * Reports an exception that ended a thread of the tool like the JVM
+         * does.
+         */
+        private void reportFailure(Thread thread, Throwable t) {
+            PrintStream err = new PrintStream(m_err, true);
+            err.print("Exception in thread \"" + thread.getName() + "\" ");
+            t.printStackTrace(err);
+            err.flush();
+        }
+
+        private synchronized int waitForTool() throws InterruptedException {
+            try {
+                while (m_exitCode == null && !m_killed
+                        && (!m_mainFinished || hasLiveThreads())) {
+                    wait(THREAD_CHECK_INTERVAL_MS);
+                }
+            } catch (InterruptedException e) {
+                kill();
+                throw e;
+            }
+            if (m_exitCode != null) {
+                // the remaining threads would have died with the JVM
+                m_group.interrupt();
+                return m_exitCode;
+            }
+            if (m_killed) {
+                return KILLED_EXIT_CODE;
+            }
+            return m_mainFailed ? FAILED_EXIT_CODE : 0;
+        }
+
+        /**
+         * @return True if a non-daemon thread started by the tool is alive.
+         */
+        private boolean hasLiveThreads() {
+            Thread[] threads = new Thread[m_group.activeCount() + 16];
+            int count = m_group.enumerate(threads, true);
+            for (int i = 0; i < count; ++i) {
+                // the main thread might still be exiting
+                if (threads[i] != m_mainThread && threads[i].isAlive()
+                        && !threads[i].isDaemon()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Records the exit code passed to {@link System#exit(int)}. The first
+         * call wins.
+         */
+        private synchronized void exit(int status) {
+            if (m_exitCode == null) {
+                m_exitCode = status;
+            }
+            notifyAll();
+        }
+
+        /**
+         * Stops the tool by interrupting its threads. Threads that ignore the
+         * interrupt keep running in the background but their output is
+         * discarded.
+         */
+        synchronized void kill() {
+            m_killed = true;
+            if (m_group != null) {
+                m_group.interrupt();
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Contains the threads of an invocation and reports their uncaught
+     * exceptions to the std-err of the invocation.
+     */
+    private static final class ToolThreadGroup extends ThreadGroup {
+
+        private final Invocation m_invocation;
+
+        ToolThreadGroup(Invocation invocation) {
+            super("GKN-JavaTool-" + invocation.m_entryPoint.getName());
+            m_invocation = invocation;
+        }
+
+        @Override
+        public void uncaughtException(Thread t, Throwable e) {
+            if (!(e instanceof ExitTrappedException)) {
+                m_invocation.reportFailure(t, e);
+            }
+        }
+    }
+
+    /**
+     * Thrown in the thread of a tool calling {@link System#exit(int)}.
+     */
+    private static final class ExitTrappedException extends SecurityException {
+
+        private static final long serialVersionUID = 2826404591858587342L;
+
+        ExitTrappedException(int status) {
+            super("System.exit(" + status + ") called by an in-process tool.");
+        }
+    }
+
+    /**
+     * Security manager trapping {@link System#exit(int)} in the threads of a
+     * tool. All other checks are delegated to the previously installed
+     * security manager, if any.
+     */
+    private static final class ExitTrap extends SecurityManager {
+
+        private final SecurityManager m_previous;
+
+        ExitTrap(SecurityManager previous) {
+            m_previous = previous;
+        }
+
+        @Override
+        public void checkExit(int status) {
+            Invocation invocation = CURRENT.get();
+            if (invocation != null) {
+                // also applies to threads that outlived a killed invocation
+                invocation.exit(status);
+                throw new ExitTrappedException(status);
+            }
+            if (m_previous != null) {
+                m_previous.checkExit(status);
+            }
+        }
+
+        @Override
+        public void checkPermission(Permission perm) {
+            if (m_previous != null) {
+                m_previous.checkPermission(perm);
+            }
+        }
+
+        @Override
+        public void checkPermission(Permission perm, Object context) {
+            if (m_previous != null) {
+                m_previous.checkPermission(perm, context);
+            }
+        }
+    }
+
+    /**
+     * Forwards the output of the threads of a tool to its invocation and
+     * everything else to the original stream.
+     */
+    private static final class RoutingOutputStream extends OutputStream {
+
+        private final OutputStream m_original;
+
+        private final boolean m_stdErr;
+
+        RoutingOutputStream(OutputStream original, boolean stdErr) {
+            m_original = original;
+            m_stdErr = stdErr;
+        }
+
+        /**
+         * @return The stream receiving the output of the current thread, null
+         *         if the output belongs to a finished invocation and is
+         *         discarded.
+         */
+        private OutputStream getTarget() {
+            Invocation invocation = CURRENT.get();
+            if (invocation == null) {
+                return m_original;
+            }
+            if (invocation.m_finished) {
+                return null;
+            }
+            return m_stdErr ? invocation.m_err : invocation.m_out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            OutputStream target = getTarget();
+            if (target != null) {
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            OutputStream target = getTarget();
+            if (target != null) {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            OutputStream target = getTarget();
+            if (target != null) {
+                target.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+import com.genericworkflownodes.knime.agent.protocol.MessageConnection;
+
+/**
+ * A process spawned by the
+ * {@link com.genericworkflownodes.knime.agent.ToolLauncher} on behalf of the
+ * {@link ProcessLauncher}. The output received from the launcher is fed into
+ * pipes, so the process can be handled like a local one.
+ * 
+ * @author aiche
+ */
+final class LaunchedProcess extends Process {
+
+    /**
+     * Exit code reported if the connection to the launcher was lost.
+     */
+    static final int CONNECTION_LOST = -1;
+
+    /**
+     * Size of the pipes buffering stdout and stderr.
+     */
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    /**
+     * NodeLogger used for the launched processes.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(LaunchedProcess.class);
+
+    /**
+     * Thrown if the launcher works, but could not start the tool.
+     */
+    static final class LaunchFailedException extends IOException {
+        private static final long serialVersionUID = 3473862915306455262L;
+
+        LaunchFailedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Replaces the stdin of the tool, which is closed by the launcher.
+     */
+    private static final class ClosedOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private final MessageConnection m_connection;
+    private final int m_pid;
+    private final PipedInputStream m_stdOut;
+    private final PipedInputStream m_stdErr;
+    private final CountDownLatch m_exited;
+    private volatile int m_exitCode;
+    private volatile boolean m_killed;
+
+    private LaunchedProcess(MessageConnection connection, int pid) {
+        m_connection = connection;
+        m_pid = pid;
+        m_stdOut = new PipedInputStream(PIPE_SIZE);
+        m_stdErr = new PipedInputStream(PIPE_SIZE);
+        m_exited = new CountDownLatch(1);
+        m_killed = false;
+    }
+
+    /**
+     * Asks the launcher listening on the given port to start the process
+     * described by the builder.
+     * 
+     * @param port
+     *            The port of the launcher.
+     * @param token
+     *            The secret token of the launcher.
+     * @param builder
+     *            Command, environment and working directory of the process.
+     * @return The started process.
+     * @throws LaunchFailedException
+     *             If the launcher could not start the process.
+     * @throws IOException
+     *             If the launcher could not be reached.
+     */
+    static LaunchedProcess launch(int port, String token,
+            ProcessBuilder builder) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getByName(null),
+                    port), RemoteAgentPool.CONNECT_TIMEOUT_MS);
+            MessageConnection connection = new MessageConnection(socket);
+            connection.handshake();
+            File directory = builder.directory();
+            connection.message(AgentProtocol.LAUNCH).writeString(token)
+                    .writeStrings(builder.command())
+                    .writeMap(builder.environment())
+                    .writeString(directory == null ? "" : directory
+                            .getAbsolutePath()).send();
+            byte type = connection.readType();
+            if (type == AgentProtocol.ERROR) {
+                throw new LaunchFailedException(connection.readString());
+            }
+            connection.checkType(type, AgentProtocol.STARTED);
+            LaunchedProcess process = new LaunchedProcess(connection,
+                    connection.readInt());
+            process.startReceiver();
+            return process;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the pid of the process.
+     * 
+     * @return The pid or -1 if the launcher could not determine it.
+     */
+    int getPid() {
+        return m_pid;
+    }
+
+    private void startReceiver() throws IOException {
+        final PipedOutputStream stdOut = new PipedOutputStream(m_stdOut);
+        final PipedOutputStream stdErr = new PipedOutputStream(m_stdErr);
+        Thread receiver = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                int exitCode = CONNECTION_LOST;
+                try {
+                    exitCode = receive(stdOut, stdErr);
+                } catch (IOException e) {
+                    if (!m_killed) {
+                        LOGGER.warn("Lost connection to the process launcher.",
+                                e);
+                    }
+                } finally {
+                    closeQuietly(stdOut);
+                    closeQuietly(stdErr);
+                    try {
+                        m_connection.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                    m_exitCode = exitCode;
+                    m_exited.countDown();
+                }
+            }
+        }, "GKN-LaunchedProcess-" + m_pid);
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    private int receive(OutputStream stdOut, OutputStream stdErr)
+            throws IOException {
+        while (true) {
+            byte type = m_connection.readType();
+            if (type != AgentProtocol.DATA) {
+                m_connection.checkType(type, AgentProtocol.EXIT);
+                return m_connection.readInt();
+            }
+            byte stream = m_connection.readByte();
+            byte[] data = m_connection.readBytes();
+            OutputStream target = stream == AgentProtocol.STDERR ? stdErr
+                    : stdOut;
+            try {
+                target.write(data);
+            } catch (IOException e) {
+                // nobody reads the stream anymore, drop the output
+            }
+        }
+    }
+
+    private static void closeQuietly(OutputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return new ClosedOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return m_stdOut;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return m_stdErr;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        m_exited.await();
+        return m_exitCode;
+    }
+
+    @Override
+    public int exitValue() {
+        if (m_exited.getCount() > 0) {
+            throw new IllegalThreadStateException("process hasn't exited");
+        }
+        return m_exitCode;
+    }
+
+    @Override
+    public void destroy() {
+        if (m_exited.getCount() == 0) {
+            return;
+        }
+        m_killed = true;
+        try {
+            m_connection.message(AgentProtocol.KILL).send();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to send KILL to the process launcher.", e);
+        }
+    }
+}
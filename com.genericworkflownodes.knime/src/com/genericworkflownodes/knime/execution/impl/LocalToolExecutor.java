@@ -1,44 +1,46 @@
 /**
  * Copyright (c) 2012, Stephan Aiche.
- *
+ * 
  * This file is part of GenericKnimeNodes.
  * 
  * GenericKnimeNodes is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
+ * 
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- *
+ * 
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package com.genericworkflownodes.knime.execution.impl;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.knime.core.node.NodeLogger;
 
 import com.genericworkflownodes.knime.config.INodeConfiguration;
 import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
-import com.genericworkflownodes.knime.custom.config.NoBinaryAvailableException;
+import com.genericworkflownodes.knime.execution.CpuAllocator;
+import com.genericworkflownodes.knime.execution.ExecutionRuntime;
 import com.genericworkflownodes.knime.execution.ICommandGenerator;
-import com.genericworkflownodes.knime.execution.IToolExecutor;
+import com.genericworkflownodes.knime.execution.IResourceReportingToolExecutor;
+import com.genericworkflownodes.knime.execution.IStreamingToolExecutor;
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+import com.genericworkflownodes.knime.execution.LaunchPlan;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.ResourceLimitExceededException;
 import com.genericworkflownodes.knime.execution.ToolExecutionFailedException;
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
 import com.genericworkflownodes.util.StringUtils;
 
 /**
@@ -47,75 +49,26 @@ import com.genericworkflownodes.util.StringUtils;
  * 
  * @author aiche
  */
-public class LocalToolExecutor implements IToolExecutor {
+public class LocalToolExecutor implements IStreamingToolExecutor,
+        IResourceReportingToolExecutor {
 
     /**
-     * Captures the stderr/stdout stream of the running process to avoid
-     * deadlocks.
-     * 
-     * Inspired by
-     * http://www.javaworld.com/jw-12-2000/jw-1229-traps.html?page=4.
-     * 
-     * and
-     * 
-     * org.knime.base.node.util.exttool.CommandExecution#StdErrCatchRunnable
-     * 
-     * @author aiche
+     * NodeLogger used for this executor.
      */
-    private static class StreamGobbler extends Thread {
-        /**
-         * The stream that is gobbled.
-         */
-        final InputStream m_is;
-
-        /**
-         * The string where the extracted messages are stored.
-         */
-        final LinkedList<String> m_buffer;
-
-        StreamGobbler(InputStream is) {
-            m_is = is;
-            m_buffer = new LinkedList<String>();
-        }
-
-        @Override
-        public void run() {
-            InputStreamReader isr = new InputStreamReader(m_is);
-            BufferedReader br = new BufferedReader(isr);
-
-            try {
-                String line = null;
-                while ((line = br.readLine()) != null) {
-                    synchronized (m_buffer) {
-                        m_buffer.add(line);
-                    }
-                }
-            } catch (IOException ioe) {
-                LOGGER.error("LocalToolExecutor: Error in stream gobbler.", ioe);
-            } finally {
-                try {
-                    br.close();
-                } catch (IOException ioe) {
-                    // then don't close it..
-                }
-            }
-        }
+    protected static final NodeLogger LOGGER = NodeLogger
+            .getLogger(LocalToolExecutor.class);
 
-        /**
-         * Gives access to the gobbled string.
-         * 
-         * @return
-         */
-        public LinkedList<String> getContent() {
-            return m_buffer;
-        }
-    }
+    /**
+     * Name of the file in the working directory receiving the complete
+     * std-out of the tool.
+     */
+    public static final String STDOUT_SPILL_FILE = "gkn_stdout.log";
 
     /**
-     * NodeLogger used for this executor.
+     * Name of the file in the working directory receiving the complete
+     * std-err of the tool.
      */
-    protected static final NodeLogger LOGGER = NodeLogger
-            .getLogger(LocalToolExecutor.class);
+    public static final String STDERR_SPILL_FILE = "gkn_stderr.log";
 
     /**
      * The working directory where the process will be executed.
@@ -142,7 +95,7 @@ public class LocalToolExecutor implements IToolExecutor {
      */
     private LinkedList<String> m_stdErr;
 
-    private Process m_process;
+    private volatile Process m_process;
 
     private ICommandGenerator m_generator;
 
@@ -153,14 +106,36 @@ public class LocalToolExecutor implements IToolExecutor {
 
     private List<String> m_commands;
 
+    /**
+     * Publishes the output of the tool while it is running.
+     */
+    private final ToolOutputChannel m_outputChannel;
+
+    /**
+     * The resources consumed by the last execution.
+     */
+    private ToolResourceUsage m_resourceUsage;
+
+    /**
+     * The outcome of killing the last execution, null if it was not killed.
+     */
+    private volatile ProcessTreeTerminator.Result m_termination;
+
+    /**
+     * The limits applied to the tool process.
+     */
+    private ResourceLimits m_limits;
+
     /**
      * C'tor.
      */
     public LocalToolExecutor() {
+        m_outputChannel = new ToolOutputChannel();
         m_environmentVariables = new TreeMap<String, String>();
         m_returnCode = -1;
         m_stdErr = new LinkedList<String>();
         m_stdOut = new LinkedList<String>();
+        m_limits = ResourceLimits.NONE;
     }
 
     /**
@@ -187,9 +162,9 @@ public class LocalToolExecutor implements IToolExecutor {
      * <code>newEnvironmentVariables</code> to the environment variables of the
      * tool.
      * 
-     * @note If the given variables reference existing variables with the syntax
-     *       <code>${VNAME}</code> they will be extended by the corresponding
-     *       system values.
+     * @note References to existing variables with the syntax
+     *       <code>${VNAME}</code> are expected to be expanded already, see
+     *       {@link LaunchPlan#getEnvironment()}.
      * 
      * @note Existing values with equal keys will be overwritten.
      * 
@@ -223,11 +198,25 @@ public class LocalToolExecutor implements IToolExecutor {
     }
 
     /**
-     * Kills the running process.
+     * Kills the running process together with all processes it started, e.g.,
+     * the tools called by a wrapper script.
      */
     @Override
     public void kill() {
-        m_process.destroy();
+        // the process might not have been started yet, e.g., if the tool is
+        // still waiting in the queue of the scheduler
+        if (m_process != null) {
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        ProcessTreeTerminator.Result termination = new ProcessTreeTerminator()
+                .terminate(m_process);
+        LOGGER.debug("Terminated " + termination.getTerminatedProcesses()
+                + " processes of " + m_executable.getName() + " in "
+                + termination.getLatencyMillis() + "ms");
+        m_termination = termination;
     }
 
     /**
@@ -242,84 +231,139 @@ public class LocalToolExecutor implements IToolExecutor {
     @Override
     public int execute() throws ToolExecutionFailedException {
 
+        m_resourceUsage = null;
+        m_termination = null;
+        ProcessResourceMonitor monitor = null;
+        CpuAllocator.CpuSet cpus = CpuAllocator.getDefault().acquire();
+        ResourceLimitEnforcer enforcer = null;
         try {
             List<String> command = new ArrayList<String>();
-            command.add(m_executable.getCanonicalPath());
+            if (cpus != null) {
+                // bind the tool to its share of the cores
+                command.addAll(CpuAllocator.getDefault().getAffinityCommand(
+                        cpus));
+            }
+            command.add(m_executable.getPath());
             command.addAll(m_commands);
+            enforcer = ResourceLimitEnforcer.create(m_limits);
+            if (enforcer != null) {
+                command = enforcer.wrap(command);
+            }
 
             // emit command
             LOGGER.debug("Executing: " + StringUtils.join(command, " "));
 
             // build process
             ProcessBuilder builder = new ProcessBuilder(command);
-            setupProcessEnvironment(builder);
+            setupProcessEnvironment(builder, cpus);
 
             if (m_workingDirectory != null) {
                 builder.directory(m_workingDirectory);
             }
 
             // execute
-            m_process = builder.start();
+            long startTime = System.currentTimeMillis();
+            m_process = ProcessLauncher.getDefault().start(builder);
+
+            // sample the resources consumed by the process tree (if the
+            // platform permits)
+            monitor = ProcessResourceMonitor.create(m_process);
+            if (monitor != null) {
+                monitor.start();
+            }
 
-            // prepare capture of cerr/cout streams
+            // prepare capture of cerr/cout streams, the complete streams are
+            // spilled into the working directory while only head and tail
+            // are kept in memory
+            ToolOutputChannel channel = null;
+            if (m_outputChannel.hasListeners()) {
+                channel = m_outputChannel;
+                channel.open();
+            }
             StreamGobbler stdOutGobbler = new StreamGobbler(
-                    m_process.getInputStream());
+                    m_process.getInputStream(), m_process,
+                    getSpillFile(STDOUT_SPILL_FILE), new BoundedLineBuffer(),
+                    channel, ToolOutputChannel.Stream.STDOUT);
             StreamGobbler stdErrGobbler = new StreamGobbler(
-                    m_process.getErrorStream());
+                    m_process.getErrorStream(), m_process,
+                    getSpillFile(STDERR_SPILL_FILE), new BoundedLineBuffer(),
+                    channel, ToolOutputChannel.Stream.STDERR);
 
-            // start separate threads to capture the cerr/cout streams
+            // capture the cerr/cout streams without blocking this thread
             stdErrGobbler.start();
             stdOutGobbler.start();
 
             // fetch return code
-            m_returnCode = m_process.waitFor();
+            m_returnCode = ExecutionRuntime.waitFor(m_process);
+            long wallTime = System.currentTimeMillis() - startTime;
+            if (monitor != null) {
+                m_resourceUsage = monitor.stop(wallTime);
+            } else {
+                m_resourceUsage = ToolResourceUsage.wallTimeOnly(wallTime);
+            }
+            LOGGER.debug("Resource usage of " + m_executable.getName() + ": "
+                    + m_resourceUsage);
+
+            // make sure the gobblers consumed the remaining output
+            stdOutGobbler.join();
+            stdErrGobbler.join();
 
             // extract messages from stderr and stdout
             m_stdOut = stdOutGobbler.getContent();
             m_stdErr = stdErrGobbler.getContent();
+
+            // report tools stopped due to their limits as such
+            if (enforcer != null) {
+                String violation = enforcer.findViolation(m_returnCode,
+                        m_stdErr, m_resourceUsage);
+                if (violation != null) {
+                    throw new ResourceLimitExceededException("Tool "
+                            + m_executable.getName() + " " + violation + " ("
+                            + m_limits + ").");
+                }
+            }
+        } catch (InterruptedException e) {
+            // the execution was canceled, make sure the tool does not survive
+            if (m_process != null) {
+                terminate();
+            }
+            throw new ToolExecutionFailedException("Execution of tool "
+                    + m_executable.getName() + " was interrupted", e);
+        } catch (ResourceLimitExceededException e) {
+            throw e;
         } catch (Exception e) {
             LOGGER.warn("Failed to execute tool " + m_executable.getName(), e);
             throw new ToolExecutionFailedException("Failed to execute tool "
                     + m_executable.getName(), e);
+        } finally {
+            CpuAllocator.getDefault().release(cpus);
+            if (enforcer != null) {
+                enforcer.close();
+            }
+            // deliver the remaining output to the listeners
+            m_outputChannel.close();
+            // make sure the sampling stops if the execution failed
+            if (monitor != null && m_resourceUsage == null) {
+                monitor.stop(0);
+            }
         }
 
         return m_returnCode;
     }
 
     /**
-     * Expand environment variables in the given string referenced by
-     * <code>${VNAME}</code>.
+     * Returns the file in the working directory where the given stream should
+     * be spilled to.
      * 
-     * @param value
-     *            The string where the variables should be replaced.
-     * @return The string with replaced variables.
+     * @param fileName
+     *            The name of the spill file.
+     * @return The spill file or null if no working directory was set.
      */
-    private String expandEnvironmentVariables(String value) {
-        // matching pattern for ${VNAME}
-        final Pattern variableNamePattern = Pattern.compile("\\$\\{([^}]+)\\}");
-
-        // expand variables in value
-        boolean found = true;
-        while (found) {
-            Matcher m = variableNamePattern.matcher(value);
-            found = m.find();
-            if (found) {
-                String variableName = m.group(1);
-                // extract current variable value
-                String replacement = "";
-                if (System.getenv(variableName) != null) {
-                    replacement = System.getenv(variableName);
-                }
-
-                Pattern specificVariablePattern = Pattern.compile("\\$\\{"
-                        + variableName + "\\}");
-
-                Matcher replaceMatcher = specificVariablePattern.matcher(value);
-                value = replaceMatcher.replaceAll(replacement);
-            }
+    protected File getSpillFile(String fileName) {
+        if (m_workingDirectory == null) {
+            return null;
         }
-
-        return value;
+        return new File(m_workingDirectory, fileName);
     }
 
     /**
@@ -330,12 +374,21 @@ public class LocalToolExecutor implements IToolExecutor {
      * 
      * @param builder
      *            The builder that should be initialized.
+     * @param cpus
+     *            The cores assigned to the tool, may be null. The common
+     *            thread count variables are limited to the number of cores
+     *            unless the plugin sets them explicitly.
      */
-    private void setupProcessEnvironment(ProcessBuilder builder) {
-        for (String key : m_environmentVariables.keySet()) {
-            String value = expandEnvironmentVariables(m_environmentVariables
-                    .get(key));
-            builder.environment().put(key, value);
+    private void setupProcessEnvironment(ProcessBuilder builder,
+            CpuAllocator.CpuSet cpus) {
+        builder.environment().putAll(m_environmentVariables);
+        if (cpus != null) {
+            for (String variable : CpuAllocator.THREAD_VARIABLES) {
+                if (!m_environmentVariables.containsKey(variable)) {
+                    builder.environment().put(variable,
+                            Integer.toString(cpus.size()));
+                }
+            }
         }
     }
 
@@ -348,28 +401,19 @@ public class LocalToolExecutor implements IToolExecutor {
     @Override
     public void prepareExecution(INodeConfiguration nodeConfiguration,
             IPluginConfiguration pluginConfiguration) throws Exception {
-        findExecutable(nodeConfiguration, pluginConfiguration);
-
-        addEnvironmentVariables(pluginConfiguration.getBinaryManager()
-                .getProcessEnvironment(nodeConfiguration.getExecutableName()));
+        LaunchPlan plan = LaunchPlanCache.getDefault().getPlan(
+                nodeConfiguration, pluginConfiguration);
+        m_executable = plan.getExecutable();
+        addEnvironmentVariables(plan.getEnvironment());
+        m_limits = ResourceLimitPresets.getDefault().getLimits(
+                nodeConfiguration.getName());
+        // thread count parameters reflect the share of cores of the tool
+        nodeConfiguration = CpuAllocator.getDefault().applyThreadCount(
+                nodeConfiguration);
         m_commands = m_generator.generateCommands(nodeConfiguration,
                 pluginConfiguration, m_workingDirectory);
     }
 
-    /**
-     * Tries to find the needed tool by searching in the
-     * PluginPreferenceToolLocator and the plug-in package.
-     * 
-     * @throws NoBinaryAvailableException
-     *             If no matching binary was found.
-     */
-    private void findExecutable(INodeConfiguration nodeConfiguration,
-            IPluginConfiguration pluginConfiguration)
-            throws NoBinaryAvailableException {
-        m_executable = pluginConfiguration.getBinaryManager().findBinary(
-                nodeConfiguration.getExecutableName());
-    }
-
     @Override
     public void setCommandGenerator(ICommandGenerator generator) {
         m_generator = generator;
@@ -379,4 +423,29 @@ public class LocalToolExecutor implements IToolExecutor {
     public LinkedList<String> getToolErrorOutput() {
         return m_stdErr;
     }
+
+    @Override
+    public ToolResourceUsage getResourceUsage() {
+        ProcessTreeTerminator.Result termination = m_termination;
+        if (termination == null) {
+            return m_resourceUsage;
+        }
+        ToolResourceUsage usage = m_resourceUsage;
+        if (usage == null) {
+            // killed before the tool completed
+            usage = ToolResourceUsage.wallTimeOnly(ToolResourceUsage.UNKNOWN);
+        }
+        return usage.withTermination(termination.getLatencyMillis(),
+                termination.getLeftoverProcesses());
+    }
+
+    @Override
+    public void addToolOutputListener(IToolOutputListener listener) {
+        m_outputChannel.addListener(listener);
+    }
+
+    @Override
+    public void removeToolOutputListener(IToolOutputListener listener) {
+        m_outputChannel.removeListener(listener);
+    }
 }
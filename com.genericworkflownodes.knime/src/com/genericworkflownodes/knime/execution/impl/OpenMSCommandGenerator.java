@@ -24,13 +24,15 @@ import java.util.List;
 
 import com.genericworkflownodes.knime.config.INodeConfiguration;
 import com.genericworkflownodes.knime.config.NodeConfiguration;
-import com.genericworkflownodes.knime.config.writer.CTDConfigurationWriter;
 import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
 import com.genericworkflownodes.knime.execution.ICommandGenerator;
 
 /**
  * Implements the OpenMS specific generation of a command line.
  * 
+ * The ini file is written from a cached {@link CTDTemplate}, so repeated
+ * executions with different files only splice in the new file names.
+ * 
  * @author aiche
  */
 public class OpenMSCommandGenerator implements ICommandGenerator {
@@ -75,8 +77,7 @@ public class OpenMSCommandGenerator implements ICommandGenerator {
     private File createINIFile(INodeConfiguration nodeConfiguration,
             File workingDirectory) throws Exception {
         File iniFile = new File(workingDirectory, INI_FILE_NAME);
-        CTDConfigurationWriter writer = new CTDConfigurationWriter(iniFile);
-        writer.write(nodeConfiguration);
+        CTDTemplate.write(nodeConfiguration, iniFile);
         return iniFile;
     }
 }
@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.agent.ToolLauncher;
+
+/**
+ * Starts the processes of the {@link LocalToolExecutor}.
+ * 
+ * By default the processes are started directly by the KNIME JVM. If the
+ * launcher is enabled, a small {@link ToolLauncher} helper process is started
+ * once and spawns the tools instead, which avoids the cost of forking a JVM
+ * with a large heap for every tool. The returned {@link Process} behaves like
+ * a local one. If the helper cannot be started or dies, the processes are
+ * started directly again.
+ * 
+ * @author aiche
+ */
+public final class ProcessLauncher {
+
+    /**
+     * Maximal heap of the helper process.
+     */
+    static final String HELPER_HEAP = "-Xmx16m";
+
+    /**
+     * NodeLogger used for the launcher.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ProcessLauncher.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final ProcessLauncher INSTANCE = new ProcessLauncher();
+
+    /**
+     * Indicates whether tools are started through the helper.
+     */
+    private boolean m_enabled;
+
+    /**
+     * The helper process, null if not running.
+     */
+    private Process m_helper;
+
+    /**
+     * The port the helper listens on.
+     */
+    private int m_port;
+
+    /**
+     * The secret token expected by the helper.
+     */
+    private String m_token;
+
+    /**
+     * C'tor.
+     */
+    ProcessLauncher() {
+        m_enabled = false;
+    }
+
+    /**
+     * Returns the launcher shared by all nodes.
+     * 
+     * @return The shared launcher.
+     */
+    public static ProcessLauncher getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Enables or disables the helper process. Disabling stops a running
+     * helper; tools it started are not affected.
+     * 
+     * @param enabled
+     *            True if the tools should be started through the helper.
+     */
+    public synchronized void configure(boolean enabled) {
+        m_enabled = enabled && !isWindows();
+        if (!m_enabled) {
+            shutdown();
+        }
+    }
+
+    /**
+     * @return True if the tools are started through the helper.
+     */
+    public synchronized boolean isEnabled() {
+        return m_enabled;
+    }
+
+    /**
+     * Starts a process as described by the given builder. Only the command,
+     * the environment and the working directory of the builder are taken
+     * into account; the stdin of processes started by the helper is closed.
+     * 
+     * @param builder
+     *            The process description.
+     * @return The started process.
+     * @throws IOException
+     *             If the process could not be started.
+     */
+    public Process start(ProcessBuilder builder) throws IOException {
+        int port;
+        String token;
+        synchronized (this) {
+            if (!m_enabled || !ensureHelper()) {
+                return builder.start();
+            }
+            port = m_port;
+            token = m_token;
+        }
+        try {
+            return LaunchedProcess.launch(port, token, builder);
+        } catch (LaunchedProcess.LaunchFailedException e) {
+            // the helper works but the tool could not be started
+            throw e;
+        } catch (IOException e) {
+            LOGGER.warn("Process launcher failed, starting "
+                    + builder.command().get(0) + " directly.", e);
+            synchronized (this) {
+                if (m_token == token) {
+                    shutdown();
+                }
+            }
+            return builder.start();
+        }
+    }
+
+    /**
+     * Stops the helper process.
+     */
+    public synchronized void shutdown() {
+        if (m_helper == null) {
+            return;
+        }
+        try {
+            // makes the helper exit
+            m_helper.getOutputStream().close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to close stdin of the process launcher.", e);
+        }
+        m_helper.destroy();
+        m_helper = null;
+        m_token = null;
+    }
+
+    /**
+     * Starts the helper if it is not running.
+     * 
+     * @return True if the helper is available.
+     */
+    private boolean ensureHelper() {
+        if (m_helper != null) {
+            try {
+                LOGGER.warn("Process launcher terminated with exit code "
+                        + m_helper.exitValue() + ", restarting it.");
+                m_helper = null;
+            } catch (IllegalThreadStateException e) {
+                return true;
+            }
+        }
+        try {
+            startHelper();
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to start the process launcher, starting "
+                    + "tools directly.", e);
+            m_enabled = false;
+            return false;
+        }
+    }
+
+    private void startHelper() throws IOException {
+        List<String> command = new ArrayList<String>();
+        command.add(new File(new File(System.getProperty("java.home"), "bin"),
+                "java").getAbsolutePath());
+        command.add(HELPER_HEAP);
+        command.add("-XX:+UseSerialGC");
+        command.add("-cp");
+        command.add(getLauncherClassPath().getAbsolutePath());
+        command.add(ToolLauncher.class.getName());
+
+        Process helper = new ProcessBuilder(command).start();
+        try {
+            String token = createToken();
+            OutputStream stdin = helper.getOutputStream();
+            stdin.write((token + "\n").getBytes("UTF-8"));
+            stdin.flush();
+            forwardErrors(helper);
+
+            BufferedReader stdout = new BufferedReader(new InputStreamReader(
+                    helper.getInputStream(), "UTF-8"));
+            String port = stdout.readLine();
+            if (port == null) {
+                throw new IOException("Process launcher terminated during "
+                        + "startup.");
+            }
+            m_port = Integer.parseInt(port.trim());
+            m_token = token;
+            m_helper = helper;
+            LOGGER.debug("Process launcher listening on port " + m_port);
+        } catch (IOException e) {
+            helper.destroy();
+            throw e;
+        } catch (NumberFormatException e) {
+            helper.destroy();
+            throw new IOException("Unexpected startup message of the process "
+                    + "launcher.", e);
+        }
+    }
+
+    /**
+     * Locates the bundle (jar or directory) containing the
+     * {@link ToolLauncher}.
+     */
+    private static File getLauncherClassPath() throws IOException {
+        CodeSource source = ToolLauncher.class.getProtectionDomain()
+                .getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            throw new IOException("Cannot locate the process launcher.");
+        }
+        File location;
+        try {
+            location = new File(source.getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot locate the process launcher.", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Cannot locate the process launcher.", e);
+        }
+        String classFile = ToolLauncher.class.getName().replace('.', '/')
+                + ".class";
+        if (location.isDirectory() && !new File(location, classFile).isFile()) {
+            // bundle in development mode
+            location = new File(location, "bin");
+        }
+        if (!location.exists()) {
+            throw new IOException("Cannot locate the process launcher in "
+                    + location.getAbsolutePath());
+        }
+        return location;
+    }
+
+    private static String createToken() {
+        byte[] bytes = new byte[16];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Logs the messages of the helper, which also prevents it from blocking
+     * on a full stderr pipe.
+     */
+    private static void forwardErrors(final Process helper) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    BufferedReader stderr = new BufferedReader(
+                            new InputStreamReader(helper.getErrorStream()));
+                    String line;
+                    while ((line = stderr.readLine()) != null) {
+                        LOGGER.debug("Process launcher: " + line);
+                    }
+                } catch (IOException e) {
+                    // the helper terminated
+                }
+            }
+        }, "GKN-ProcessLauncherLog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().startsWith("win");
+    }
+}
@@ -0,0 +1,589 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
+
+/**
+ * Samples the resources consumed by a process and all of its descendants from
+ * the /proc file system (Linux only).
+ * 
+ * Every {@link #SAMPLE_INTERVAL_MS} milliseconds the process tree is
+ * determined by scanning /proc/[pid]/stat for the parent pids and the
+ * accumulated CPU times (stat), the resident set size (status) and the I/O
+ * counters (io) of all processes in the tree are recorded. CPU times and I/O
+ * counters are cumulative, hence the last observed value of every process is
+ * used. The CPU times of reaped children (cutime, cstime) are included, so
+ * short-lived processes that were never sampled are accounted through their
+ * parent. The peak RSS is the maximum of the summed RSS of the tree over all
+ * samples and the high water mark of the single processes.
+ * 
+ * A single thread shared by all monitors takes the samples. The /proc file
+ * system is scanned once per interval and the result is shared by all active
+ * monitors.
+ * 
+ * @author aiche
+ */
+public class ProcessResourceMonitor {
+
+    /**
+     * Interval between two samples of the process tree.
+     */
+    public static final long SAMPLE_INTERVAL_MS = 250;
+
+    /**
+     * Unit of the CPU times in /proc/[pid]/stat (USER_HZ) assumed if
+     * getconf CLK_TCK fails. It is 100 on all common Linux platforms.
+     */
+    static final long DEFAULT_CLOCK_TICKS_PER_SECOND = 100;
+
+    /**
+     * NodeLogger used for this monitor.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ProcessResourceMonitor.class);
+
+    /**
+     * The default location of the proc file system.
+     */
+    static final File PROC = new File("/proc");
+
+    /**
+     * All monitors share the same sampling thread.
+     */
+    private static final ScheduledExecutorService SAMPLER = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "GKN-ResourceSampler");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /**
+     * The monitors sampled by {@link #SAMPLER}.
+     */
+    private static final Set<ProcessResourceMonitor> ACTIVE = Collections
+            .newSetFromMap(new ConcurrentHashMap<ProcessResourceMonitor, Boolean>());
+
+    /**
+     * Indicates if the periodic sampling of the {@link #ACTIVE} monitors was
+     * scheduled.
+     */
+    private static boolean s_samplingScheduled = false;
+
+    /**
+     * Initialization-on-demand holder of the clock ticks, queried once with
+     * getconf CLK_TCK.
+     */
+    private static class ClockTicks {
+        private static final long PER_SECOND = query();
+
+        private static long query() {
+            try {
+                Process getconf = new ProcessBuilder("getconf", "CLK_TCK")
+                        .redirectErrorStream(true).start();
+                String output = IOUtils.toString(getconf.getInputStream())
+                        .trim();
+                if (getconf.waitFor() == 0) {
+                    long ticks = Long.parseLong(output);
+                    if (ticks > 0) {
+                        return ticks;
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Failed to query CLK_TCK, assuming "
+                        + DEFAULT_CLOCK_TICKS_PER_SECOND, e);
+            }
+            return DEFAULT_CLOCK_TICKS_PER_SECOND;
+        }
+    }
+
+    /**
+     * Snapshot of the stat files of all processes.
+     */
+    static final class ProcessTable {
+        private final Map<Integer, String[]> m_stats;
+        private final Map<Integer, List<Integer>> m_children;
+
+        private ProcessTable() {
+            m_stats = new HashMap<Integer, String[]>();
+            m_children = new HashMap<Integer, List<Integer>>();
+        }
+
+        /**
+         * Scans the given proc file system.
+         * 
+         * @param procRoot
+         *            The location of the proc file system.
+         * @return The snapshot or null if the proc file system cannot be
+         *         read.
+         */
+        static ProcessTable read(File procRoot) {
+            String[] entries = procRoot.list();
+            if (entries == null) {
+                return null;
+            }
+            ProcessTable table = new ProcessTable();
+            for (String entry : entries) {
+                if (!isPid(entry)) {
+                    continue;
+                }
+                int pid = Integer.parseInt(entry);
+                String[] stat = readStat(procRoot, pid);
+                if (stat == null) {
+                    continue;
+                }
+                table.m_stats.put(pid, stat);
+                int ppid = Integer.parseInt(stat[STAT_PPID]);
+                List<Integer> siblings = table.m_children.get(ppid);
+                if (siblings == null) {
+                    siblings = new ArrayList<Integer>();
+                    table.m_children.put(ppid, siblings);
+                }
+                siblings.add(pid);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * The last values observed for a single process.
+     */
+    private static final class ProcessRecord {
+        private long m_utime;
+        private long m_stime;
+        private long m_cutime;
+        private long m_cstime;
+        private long m_readBytes;
+        private long m_writeBytes;
+
+        /**
+         * The key of the parent process, null if it is unknown.
+         */
+        private String m_parentKey;
+
+        /**
+         * The number of the last sample the process was part of.
+         */
+        private long m_lastSeen;
+    }
+
+    /**
+     * Indices of the fields in /proc/[pid]/stat, counted from the first field
+     * after the command name (i.e., the state).
+     */
+    static final int STAT_STATE = 0;
+    static final int STAT_PPID = 1;
+    private static final int STAT_UTIME = 11;
+    private static final int STAT_STIME = 12;
+    private static final int STAT_CUTIME = 13;
+    private static final int STAT_CSTIME = 14;
+    static final int STAT_STARTTIME = 19;
+
+    /**
+     * The pid of the monitored process.
+     */
+    private final int m_rootPid;
+
+    /**
+     * The proc file system.
+     */
+    private final File m_procRoot;
+
+    /**
+     * The last values observed for each process of the tree. Processes are
+     * identified by pid and start time to be safe against reused pids.
+     */
+    private final Map<String, ProcessRecord> m_processes;
+
+    /**
+     * The number of samples taken so far.
+     */
+    private long m_samples;
+
+    /**
+     * The maximal RSS observed.
+     */
+    private long m_peakRssBytes;
+
+    /**
+     * Indicates if the I/O counters could be read.
+     */
+    private boolean m_ioAvailable;
+
+    /**
+     * C'tor.
+     * 
+     * @param rootPid
+     *            The pid of the process to monitor.
+     */
+    public ProcessResourceMonitor(int rootPid) {
+        this(rootPid, PROC);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param rootPid
+     *            The pid of the process to monitor.
+     * @param procRoot
+     *            The location of the proc file system.
+     */
+    ProcessResourceMonitor(int rootPid, File procRoot) {
+        m_rootPid = rootPid;
+        m_procRoot = procRoot;
+        m_processes = new HashMap<String, ProcessRecord>();
+        m_samples = 0;
+        m_peakRssBytes = 0;
+        m_ioAvailable = false;
+    }
+
+    /**
+     * Creates a monitor for the given process.
+     * 
+     * @param process
+     *            The process to monitor.
+     * @return The monitor or null if the resources of the process cannot be
+     *         sampled on this platform.
+     */
+    public static ProcessResourceMonitor create(Process process) {
+        int pid = getPid(process);
+        if (pid <= 0 || !new File(PROC, Integer.toString(pid)).isDirectory()) {
+            return null;
+        }
+        return new ProcessResourceMonitor(pid);
+    }
+
+    /**
+     * Determines the pid of the given process. Java 9+ provides Process#pid(),
+     * older VMs store the pid in a private field of the UNIX implementation.
+     * 
+     * @param process
+     *            The process.
+     * @return The pid or -1 if it could not be determined.
+     */
+    static int getPid(Process process) {
+        if (process instanceof LaunchedProcess) {
+            return ((LaunchedProcess) process).getPid();
+        }
+        try {
+            Method pid = Process.class.getMethod("pid");
+            return ((Number) pid.invoke(process)).intValue();
+        } catch (NoSuchMethodException e) {
+            // pre Java 9, fall through
+        } catch (Exception e) {
+            return -1;
+        }
+        try {
+            Field pid = process.getClass().getDeclaredField("pid");
+            pid.setAccessible(true);
+            return pid.getInt(process);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Starts sampling the process tree.
+     */
+    public void start() {
+        sample();
+        ACTIVE.add(this);
+        scheduleSampling();
+    }
+
+    private static synchronized void scheduleSampling() {
+        if (!s_samplingScheduled) {
+            SAMPLER.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    sampleActive();
+                }
+            }, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            s_samplingScheduled = true;
+        }
+    }
+
+    /**
+     * Samples all active monitors from a single scan of the proc file system.
+     */
+    private static void sampleActive() {
+        if (ACTIVE.isEmpty()) {
+            return;
+        }
+        Map<File, ProcessTable> tables = new HashMap<File, ProcessTable>();
+        for (ProcessResourceMonitor monitor : ACTIVE) {
+            try {
+                if (!tables.containsKey(monitor.m_procRoot)) {
+                    tables.put(monitor.m_procRoot,
+                            ProcessTable.read(monitor.m_procRoot));
+                }
+                ProcessTable table = tables.get(monitor.m_procRoot);
+                if (table != null) {
+                    monitor.sample(table);
+                }
+            } catch (RuntimeException e) {
+                // never let an exception cancel the periodic sampling
+                LOGGER.debug("Failed to sample process " + monitor.m_rootPid,
+                        e);
+            }
+        }
+    }
+
+    /**
+     * Stops sampling the process tree.
+     * 
+     * @param wallTimeMillis
+     *            The elapsed real time of the run.
+     * @return The resources consumed by the process tree.
+     */
+    public ToolResourceUsage stop(long wallTimeMillis) {
+        ACTIVE.remove(this);
+        // catch descendants that might have outlived the root process
+        sample();
+        return getUsage(wallTimeMillis);
+    }
+
+    /**
+     * Takes a single sample of the process tree.
+     */
+    void sample() {
+        ProcessTable table = ProcessTable.read(m_procRoot);
+        if (table != null) {
+            sample(table);
+        }
+    }
+
+    /**
+     * Takes a single sample of the process tree from the given snapshot.
+     * 
+     * @param table
+     *            The current processes.
+     */
+    synchronized void sample(ProcessTable table) {
+        ++m_samples;
+        long rss = 0;
+        Set<Integer> visited = new HashSet<Integer>();
+        LinkedList<Integer> pending = new LinkedList<Integer>();
+        pending.add(m_rootPid);
+        while (!pending.isEmpty()) {
+            int pid = pending.removeFirst();
+            if (!visited.add(pid)) {
+                continue;
+            }
+            if (table.m_children.containsKey(pid)) {
+                pending.addAll(table.m_children.get(pid));
+            }
+            String[] stat = table.m_stats.get(pid);
+            if (stat == null) {
+                continue;
+            }
+            rss += recordProcess(pid, stat, table);
+        }
+        m_peakRssBytes = Math.max(m_peakRssBytes, rss);
+    }
+
+    private static String getKey(int pid, String[] stat) {
+        return pid + ":" + stat[STAT_STARTTIME];
+    }
+
+    /**
+     * Records the values of a single process.
+     * 
+     * @return The current RSS of the process in bytes.
+     */
+    private long recordProcess(int pid, String[] stat, ProcessTable table) {
+        String key = getKey(pid, stat);
+        ProcessRecord record = m_processes.get(key);
+        if (record == null) {
+            record = new ProcessRecord();
+            m_processes.put(key, record);
+        }
+        record.m_lastSeen = m_samples;
+        int ppid = Integer.parseInt(stat[STAT_PPID]);
+        String[] parentStat = table.m_stats.get(ppid);
+        record.m_parentKey = parentStat == null ? null : getKey(ppid,
+                parentStat);
+        record.m_utime = Math.max(record.m_utime,
+                Long.parseLong(stat[STAT_UTIME]));
+        record.m_stime = Math.max(record.m_stime,
+                Long.parseLong(stat[STAT_STIME]));
+        record.m_cutime = Math.max(record.m_cutime,
+                Long.parseLong(stat[STAT_CUTIME]));
+        record.m_cstime = Math.max(record.m_cstime,
+                Long.parseLong(stat[STAT_CSTIME]));
+
+        Map<String, Long> io = readKeyValues(m_procRoot, pid, "io");
+        if (io.containsKey("read_bytes") && io.containsKey("write_bytes")) {
+            m_ioAvailable = true;
+            record.m_readBytes = Math.max(record.m_readBytes,
+                    io.get("read_bytes"));
+            record.m_writeBytes = Math.max(record.m_writeBytes,
+                    io.get("write_bytes"));
+        }
+
+        Map<String, Long> status = readKeyValues(m_procRoot, pid, "status");
+        if (status.containsKey("VmHWM")) {
+            m_peakRssBytes = Math.max(m_peakRssBytes,
+                    status.get("VmHWM") * 1024);
+        }
+        if (status.containsKey("VmRSS")) {
+            return status.get("VmRSS") * 1024;
+        }
+        return 0;
+    }
+
+    /**
+     * Summarizes the samples taken so far.
+     * 
+     * @param wallTimeMillis
+     *            The elapsed real time of the run.
+     * @return The resources consumed by the process tree.
+     */
+    synchronized ToolResourceUsage getUsage(long wallTimeMillis) {
+        if (m_processes.isEmpty()) {
+            return ToolResourceUsage.wallTimeOnly(wallTimeMillis);
+        }
+        long utime = 0;
+        long stime = 0;
+        long readBytes = 0;
+        long writeBytes = 0;
+        for (ProcessRecord record : m_processes.values()) {
+            readBytes += record.m_readBytes;
+            writeBytes += record.m_writeBytes;
+            ProcessRecord parent = record.m_parentKey == null ? null
+                    : m_processes.get(record.m_parentKey);
+            if (parent != null && parent.m_lastSeen > record.m_lastSeen) {
+                // the process was reaped by its parent, its CPU times are part
+                // of the cutime and cstime of the parent
+                continue;
+            }
+            utime += record.m_utime + record.m_cutime;
+            stime += record.m_stime + record.m_cstime;
+        }
+        if (!m_ioAvailable) {
+            readBytes = ToolResourceUsage.UNKNOWN;
+            writeBytes = ToolResourceUsage.UNKNOWN;
+        }
+        return new ToolResourceUsage(wallTimeMillis, ticksToMillis(utime),
+                ticksToMillis(stime), m_peakRssBytes, readBytes, writeBytes,
+                m_processes.size());
+    }
+
+    static long ticksToMillis(long ticks) {
+        return ticks * 1000 / ClockTicks.PER_SECOND;
+    }
+
+    static boolean isPid(String name) {
+        for (int i = 0; i < name.length(); ++i) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return name.length() > 0;
+    }
+
+    /**
+     * Reads /proc/[pid]/stat.
+     * 
+     * @return The fields following the command name or null if the process
+     *         vanished.
+     */
+    static String[] readStat(File procRoot, int pid) {
+        String content = readProcFile(procRoot, pid, "stat");
+        if (content == null) {
+            return null;
+        }
+        // the command name is enclosed in parentheses and may contain blanks
+        int commandEnd = content.lastIndexOf(')');
+        if (commandEnd < 0) {
+            return null;
+        }
+        String[] fields = content.substring(commandEnd + 1).trim()
+                .split("\\s+");
+        if (fields.length <= STAT_STARTTIME) {
+            return null;
+        }
+        return fields;
+    }
+
+    /**
+     * Reads a file of the form "key: value [unit]" like /proc/[pid]/status or
+     * /proc/[pid]/io. Only numeric values are returned.
+     */
+    private static Map<String, Long> readKeyValues(File procRoot, int pid,
+            String fileName) {
+        Map<String, Long> values = new HashMap<String, Long>();
+        String content = readProcFile(procRoot, pid, fileName);
+        if (content == null) {
+            return values;
+        }
+        for (String line : content.split("\n")) {
+            int separator = line.indexOf(':');
+            if (separator < 0) {
+                continue;
+            }
+            String[] value = line.substring(separator + 1).trim()
+                    .split("\\s+");
+            try {
+                values.put(line.substring(0, separator).trim(),
+                        Long.parseLong(value[0]));
+            } catch (NumberFormatException e) {
+                // not a numeric value, skip it
+            }
+        }
+        return values;
+    }
+
+    private static String readProcFile(File procRoot, int pid,
+            String fileName) {
+        File file = new File(new File(procRoot, Integer.toString(pid)),
+                fileName);
+        try {
+            return FileUtils.readFileToString(file);
+        } catch (IOException e) {
+            // the process terminated or the file is not accessible
+            return null;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
+
+/**
+ * Terminates a process together with all of its descendants, e.g., the tools
+ * started by a wrapper script or helper processes forked by a tool.
+ * 
+ * On Linux the process tree is determined from /proc. All processes receive a
+ * SIGTERM, processes that did not exit after the grace period receive a
+ * SIGKILL. Processes forked during the grace period are included, since the
+ * tree is scanned again while waiting. Finally the number of processes that
+ * are still alive is determined. Processes are identified by pid and start
+ * time, zombies count as terminated since they are reaped by their parent (or
+ * init).
+ * 
+ * On Windows the tree is killed with <code>taskkill /T /F</code>, on all other
+ * platforms only the process itself can be destroyed. In both cases the
+ * survivors cannot be determined.
+ * 
+ * @author aiche
+ */
+public class ProcessTreeTerminator {
+
+    /**
+     * Default time the processes get to exit after the SIGTERM.
+     */
+    public static final long DEFAULT_GRACE_PERIOD_MS = 3000;
+
+    /**
+     * Time the processes get to vanish after the SIGKILL.
+     */
+    private static final long KILL_TIMEOUT_MS = 2000;
+
+    /**
+     * Interval between two checks of the process tree.
+     */
+    private static final long POLL_INTERVAL_MS = 50;
+
+    /**
+     * NodeLogger used for this terminator.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ProcessTreeTerminator.class);
+
+    /**
+     * The outcome of a termination.
+     */
+    public static final class Result {
+        private final long m_latencyMillis;
+        private final int m_terminatedProcesses;
+        private final int m_leftoverProcesses;
+
+        Result(long latencyMillis, int terminatedProcesses,
+                int leftoverProcesses) {
+            m_latencyMillis = latencyMillis;
+            m_terminatedProcesses = terminatedProcesses;
+            m_leftoverProcesses = leftoverProcesses;
+        }
+
+        /**
+         * Returns the time needed to terminate the process tree.
+         * 
+         * @return The latency in milliseconds.
+         */
+        public long getLatencyMillis() {
+            return m_latencyMillis;
+        }
+
+        /**
+         * Returns the number of processes that were signaled.
+         * 
+         * @return The number of processes, 0 if the tree was not known.
+         */
+        public int getTerminatedProcesses() {
+            return m_terminatedProcesses;
+        }
+
+        /**
+         * Returns the number of processes that are still alive.
+         * 
+         * @return The number of survivors or {@link ToolResourceUsage#UNKNOWN}
+         *         if they could not be determined.
+         */
+        public int getLeftoverProcesses() {
+            return m_leftoverProcesses;
+        }
+    }
+
+    /**
+     * The proc file system.
+     */
+    private final File m_procRoot;
+
+    /**
+     * Time the processes get to exit after the SIGTERM.
+     */
+    private final long m_gracePeriodMillis;
+
+    /**
+     * C'tor using the {@link #DEFAULT_GRACE_PERIOD_MS}.
+     */
+    public ProcessTreeTerminator() {
+        this(DEFAULT_GRACE_PERIOD_MS);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param gracePeriodMillis
+     *            Time the processes get to exit after the SIGTERM.
+     */
+    public ProcessTreeTerminator(long gracePeriodMillis) {
+        this(ProcessResourceMonitor.PROC, gracePeriodMillis);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param procRoot
+     *            The location of the proc file system.
+     * @param gracePeriodMillis
+     *            Time the processes get to exit after the SIGTERM.
+     */
+    ProcessTreeTerminator(File procRoot, long gracePeriodMillis) {
+        m_procRoot = procRoot;
+        m_gracePeriodMillis = gracePeriodMillis;
+    }
+
+    /**
+     * Terminates the given process and all of its descendants. Blocks until
+     * the tree terminated or the SIGKILL timed out.
+     * 
+     * @param process
+     *            The process to terminate.
+     * @return The outcome of the termination.
+     */
+    public Result terminate(Process process) {
+        long start = System.currentTimeMillis();
+        int pid = ProcessResourceMonitor.getPid(process);
+        if (pid <= 0
+                || !new File(m_procRoot, Integer.toString(pid)).isDirectory()) {
+            if (pid > 0 && isWindows()) {
+                run("taskkill", "/T", "/F", "/PID", Integer.toString(pid));
+            }
+            process.destroy();
+            return new Result(System.currentTimeMillis() - start, 0,
+                    (int) ToolResourceUsage.UNKNOWN);
+        }
+
+        // pid -> start time of all processes in the tree
+        Map<Integer, String> tree = new HashMap<Integer, String>();
+        tree.put(pid, null);
+        scanTree(tree);
+        int total = tree.size();
+        signal("TERM", tree.keySet());
+        process.destroy();
+
+        boolean interrupted = false;
+        long deadline = start + m_gracePeriodMillis;
+        while (removeTerminated(tree)
+                && System.currentTimeMillis() < deadline) {
+            interrupted |= sleep();
+            // catch processes forked after the scan
+            Map<Integer, String> forked = new HashMap<Integer, String>(tree);
+            scanTree(forked);
+            forked.keySet().removeAll(tree.keySet());
+            if (!forked.isEmpty()) {
+                total += forked.size();
+                signal("TERM", forked.keySet());
+                tree.putAll(forked);
+            }
+        }
+
+        if (!tree.isEmpty()) {
+            LOGGER.debug("Killing " + tree.size()
+                    + " processes that ignored SIGTERM: " + tree.keySet());
+            signal("KILL", tree.keySet());
+            deadline = System.currentTimeMillis() + KILL_TIMEOUT_MS;
+            while (removeTerminated(tree)
+                    && System.currentTimeMillis() < deadline) {
+                interrupted |= sleep();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!tree.isEmpty()) {
+            LOGGER.warn("Failed to terminate " + tree.size()
+                    + " processes of the tool: " + tree.keySet());
+        }
+        return new Result(System.currentTimeMillis() - start, total,
+                tree.size());
+    }
+
+    /**
+     * Adds all (transitive) children of the given processes to the map.
+     * Processes without a start time are assigned the current one.
+     */
+    private void scanTree(Map<Integer, String> tree) {
+        String[] entries = m_procRoot.list();
+        if (entries == null) {
+            return;
+        }
+        Map<Integer, List<Integer>> children = new HashMap<Integer, List<Integer>>();
+        Map<Integer, String> startTimes = new HashMap<Integer, String>();
+        for (String entry : entries) {
+            if (!ProcessResourceMonitor.isPid(entry)) {
+                continue;
+            }
+            int pid = Integer.parseInt(entry);
+            String[] stat = ProcessResourceMonitor.readStat(m_procRoot, pid);
+            if (stat == null) {
+                continue;
+            }
+            startTimes.put(pid, stat[ProcessResourceMonitor.STAT_STARTTIME]);
+            int ppid = Integer.parseInt(stat[ProcessResourceMonitor.STAT_PPID]);
+            List<Integer> siblings = children.get(ppid);
+            if (siblings == null) {
+                siblings = new ArrayList<Integer>();
+                children.put(ppid, siblings);
+            }
+            siblings.add(pid);
+        }
+
+        List<Integer> pending = new ArrayList<Integer>(tree.keySet());
+        while (!pending.isEmpty()) {
+            int pid = pending.remove(pending.size() - 1);
+            if (tree.get(pid) == null) {
+                tree.put(pid, startTimes.get(pid));
+            }
+            if (children.containsKey(pid)) {
+                for (Integer child : children.get(pid)) {
+                    if (!tree.containsKey(child)) {
+                        tree.put(child, startTimes.get(child));
+                        pending.add(child);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all terminated processes from the tree.
+     * 
+     * @return True if processes are still alive.
+     */
+    private boolean removeTerminated(Map<Integer, String> tree) {
+        Iterator<Map.Entry<Integer, String>> it = tree.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, String> process = it.next();
+            String[] stat = ProcessResourceMonitor.readStat(m_procRoot,
+                    process.getKey());
+            if (stat == null
+                    || "Z".equals(stat[ProcessResourceMonitor.STAT_STATE])) {
+                it.remove();
+                continue;
+            }
+            // the pid might have been reused by a new process
+            String startTime = stat[ProcessResourceMonitor.STAT_STARTTIME];
+            if (process.getValue() != null
+                    && !process.getValue().equals(startTime)) {
+                it.remove();
+            }
+        }
+        return !tree.isEmpty();
+    }
+
+    private static void signal(String signal, Collection<Integer> pids) {
+        List<String> command = new ArrayList<String>();
+        command.add("kill");
+        command.add("-" + signal);
+        for (Integer pid : pids) {
+            command.add(pid.toString());
+        }
+        run(command.toArray(new String[command.size()]));
+    }
+
+    /**
+     * Runs the given command and waits for it, failures are ignored since the
+     * processes might have terminated in the meantime. The commands are short
+     * lived, hence interrupts are deferred until they completed.
+     */
+    private static void run(String... command) {
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .start();
+            InputStream out = process.getInputStream();
+            byte[] buffer = new byte[1024];
+            while (out.read(buffer) != -1) {
+                // discard the output
+            }
+            out.close();
+        } catch (IOException e) {
+            LOGGER.debug("Failed to run " + command[0], e);
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                process.waitFor();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the next check of the process tree. An interrupt must not
+     * abort the termination, so it is only reported to the caller.
+     * 
+     * @return True if the thread was interrupted.
+     */
+    private static boolean sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().startsWith("win");
+    }
+}
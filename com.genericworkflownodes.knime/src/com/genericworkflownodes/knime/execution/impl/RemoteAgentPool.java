@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+import com.genericworkflownodes.knime.agent.protocol.MessageConnection;
+
+/**
+ * The worker agents available to the {@link RemoteToolExecutor}. Jobs are
+ * assigned to the agent with the most free slots, where slots assigned by
+ * this pool but not yet occupied on the agent are taken into account.
+ * 
+ * @author aiche
+ */
+public final class RemoteAgentPool {
+
+    /**
+     * Address of a worker agent together with the secret it expects.
+     */
+    public static final class AgentAddress {
+        private final String m_host;
+        private final int m_port;
+        private final String m_secret;
+
+        /**
+         * C'tor.
+         * 
+         * @param host
+         *            The host name of the agent.
+         * @param port
+         *            The port of the agent.
+         * @param secret
+         *            The shared secret of the agent.
+         */
+        public AgentAddress(String host, int port, String secret) {
+            m_host = host;
+            m_port = port;
+            m_secret = secret;
+        }
+
+        public String getHost() {
+            return m_host;
+        }
+
+        public int getPort() {
+            return m_port;
+        }
+
+        public String getSecret() {
+            return m_secret;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof AgentAddress)) {
+                return false;
+            }
+            AgentAddress other = (AgentAddress) o;
+            return m_host.equals(other.m_host) && m_port == other.m_port;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * m_host.hashCode() + m_port;
+        }
+
+        @Override
+        public String toString() {
+            return m_host + ":" + m_port;
+        }
+    }
+
+    /**
+     * Timeout for connecting to an agent.
+     */
+    static final int CONNECT_TIMEOUT_MS = 2000;
+
+    /**
+     * Timeout for the status request.
+     */
+    private static final int STATUS_TIMEOUT_MS = 5000;
+
+    /**
+     * The logger.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(RemoteAgentPool.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final RemoteAgentPool INSTANCE = new RemoteAgentPool();
+
+    /**
+     * Returns the pool shared by all nodes.
+     * 
+     * @return The shared pool.
+     */
+    public static RemoteAgentPool getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Parses a comma separated list of agents given as secret@host:port, where
+     * secret is the shared secret the agent was started with. If the port is
+     * omitted, {@link AgentProtocol#DEFAULT_PORT} is used.
+     * 
+     * @param agents
+     *            The agent list.
+     * @return The parsed addresses.
+     * @throws IllegalArgumentException
+     *             If an entry is malformed.
+     */
+    public static List<AgentAddress> parseAgents(String agents) {
+        List<AgentAddress> addresses = new ArrayList<AgentAddress>();
+        if (agents == null) {
+            return addresses;
+        }
+        for (String entry : agents.split(",")) {
+            entry = entry.trim();
+            if ("".equals(entry)) {
+                continue;
+            }
+            int at = entry.lastIndexOf('@');
+            if (at <= 0) {
+                throw new IllegalArgumentException("Missing secret of agent "
+                        + entry);
+            }
+            String secret = entry.substring(0, at);
+            String address = entry.substring(at + 1).trim();
+            int colon = address.lastIndexOf(':');
+            if (colon < 0) {
+                addresses.add(new AgentAddress(address,
+                        AgentProtocol.DEFAULT_PORT, secret));
+                continue;
+            }
+            try {
+                int port = Integer.parseInt(address.substring(colon + 1)
+                        .trim());
+                if (port <= 0 || port > 65535) {
+                    throw new NumberFormatException();
+                }
+                addresses.add(new AgentAddress(address.substring(0, colon)
+                        .trim(), port, secret));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid agent address: "
+                        + address);
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * The configured agents.
+     */
+    private List<AgentAddress> m_agents;
+
+    /**
+     * Number of slots per agent assigned by this pool that are not yet
+     * released.
+     */
+    private final Map<AgentAddress, Integer> m_assigned;
+
+    /**
+     * C'tor.
+     */
+    RemoteAgentPool() {
+        m_agents = Collections.emptyList();
+        m_assigned = new HashMap<AgentAddress, Integer>();
+    }
+
+    /**
+     * Sets the available agents.
+     * 
+     * @param agents
+     *            The agent addresses.
+     */
+    public synchronized void configure(List<AgentAddress> agents) {
+        m_agents = new ArrayList<AgentAddress>(agents);
+    }
+
+    /**
+     * @return The configured agents.
+     */
+    public synchronized List<AgentAddress> getAgents() {
+        return new ArrayList<AgentAddress>(m_agents);
+    }
+
+    /**
+     * Picks the agent with the most free slots and reserves one of them.
+     * Unreachable agents are skipped.
+     * 
+     * @return The agent or null if no agent has a free slot.
+     * @throws IOException
+     *             If no agents are configured.
+     */
+    public AgentAddress tryAcquire() throws IOException {
+        List<AgentAddress> agents = getAgents();
+        if (agents.isEmpty()) {
+            throw new IOException("No worker agents are configured.");
+        }
+
+        // query outside of the lock, agents may be slow to answer
+        Map<AgentAddress, Integer> freeSlots = new HashMap<AgentAddress, Integer>();
+        for (AgentAddress agent : agents) {
+            try {
+                freeSlots.put(agent, queryFreeSlots(agent));
+            } catch (IOException e) {
+                LOGGER.debug("Worker agent " + agent + " is not available: "
+                        + e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            AgentAddress best = null;
+            int bestFree = 0;
+            for (Map.Entry<AgentAddress, Integer> entry : freeSlots
+                    .entrySet()) {
+                int free = entry.getValue() - getAssigned(entry.getKey());
+                if (free > bestFree) {
+                    best = entry.getKey();
+                    bestFree = free;
+                }
+            }
+            if (best != null) {
+                m_assigned.put(best, getAssigned(best) + 1);
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Releases a slot reserved by {@link #tryAcquire()}. Has to be called once
+     * the job was accepted or rejected by the agent.
+     * 
+     * @param agent
+     *            The agent.
+     */
+    public synchronized void release(AgentAddress agent) {
+        int assigned = getAssigned(agent) - 1;
+        if (assigned > 0) {
+            m_assigned.put(agent, assigned);
+        } else {
+            m_assigned.remove(agent);
+        }
+    }
+
+    private int getAssigned(AgentAddress agent) {
+        Integer assigned = m_assigned.get(agent);
+        return assigned == null ? 0 : assigned;
+    }
+
+    /**
+     * Opens a connection to the given agent and performs the handshake.
+     * 
+     * @param agent
+     *            The agent.
+     * @return The connection.
+     * @throws IOException
+     *             If the agent is not reachable.
+     */
+    static MessageConnection connect(AgentAddress agent) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(agent.getHost(),
+                    agent.getPort()), CONNECT_TIMEOUT_MS);
+            MessageConnection connection = new MessageConnection(socket);
+            connection.handshake();
+            return connection;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static int queryFreeSlots(AgentAddress agent) throws IOException {
+        MessageConnection connection = connect(agent);
+        try {
+            connection.message(AgentProtocol.STATUS)
+                    .writeString(agent.getSecret()).send();
+            connection.expect(AgentProtocol.STATUS_REPLY);
+            return connection.readInt();
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,471 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.agent.protocol.AgentProtocol;
+import com.genericworkflownodes.knime.agent.protocol.MessageConnection;
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
+import com.genericworkflownodes.knime.execution.ICommandGenerator;
+import com.genericworkflownodes.knime.execution.IStreamingToolExecutor;
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+import com.genericworkflownodes.knime.execution.LaunchPlan;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.ToolExecutionFailedException;
+import com.genericworkflownodes.knime.execution.impl.RemoteAgentPool.AgentAddress;
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.FileParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+import com.genericworkflownodes.knime.port.Port;
+
+/**
+ * Executes the tool on one of the worker agents configured in the
+ * {@link RemoteAgentPool}. The input files and the content of the working
+ * directory are staged into a private job directory on the agent, the
+ * command line refers to them by relative paths. The output of the tool is
+ * streamed back while it is running and the output files are transferred into
+ * the local locations once the tool finished.
+ * 
+ * The tool has to be installed on the agents under the same path as on the
+ * local machine. Prefix ports are not supported since the files written by
+ * the tool are not known in advance.
+ * 
+ * @author aiche
+ */
+public class RemoteToolExecutor implements IStreamingToolExecutor {
+
+    /**
+     * Directory of the staged input files inside the job directory.
+     */
+    static final String INPUT_DIRECTORY = "in";
+
+    /**
+     * Directory of the output files inside the job directory.
+     */
+    static final String OUTPUT_DIRECTORY = "out";
+
+    /**
+     * Time to wait before asking the agents again for a free slot.
+     */
+    static final long RETRY_INTERVAL_MS = 500;
+
+    /**
+     * NodeLogger used for this executor.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(RemoteToolExecutor.class);
+
+    /**
+     * The pool providing the agents.
+     */
+    private final RemoteAgentPool m_pool;
+
+    /**
+     * Publishes the output of the tool while it is running.
+     */
+    private final ToolOutputChannel m_outputChannel;
+
+    private File m_workingDirectory;
+    private ICommandGenerator m_generator;
+
+    /**
+     * The executable followed by its arguments.
+     */
+    private List<String> m_command;
+
+    /**
+     * The environment variables set for the tool.
+     */
+    private final Map<String, String> m_environmentVariables;
+
+    /**
+     * Local input files by their name in the job directory.
+     */
+    private final Map<String, File> m_inputFiles;
+
+    /**
+     * Local output files by their name in the job directory.
+     */
+    private final Map<String, File> m_outputFiles;
+
+    /**
+     * The connection of the running job.
+     */
+    private volatile MessageConnection m_connection;
+
+    /**
+     * Indicates that the RUN message was sent but the EXIT message was not
+     * yet received.
+     */
+    private volatile boolean m_running;
+
+    /**
+     * Indicates that the execution was canceled.
+     */
+    private volatile boolean m_killed;
+
+    private int m_returnCode;
+    private LinkedList<String> m_stdOut;
+    private LinkedList<String> m_stdErr;
+
+    /**
+     * C'tor.
+     */
+    public RemoteToolExecutor() {
+        this(RemoteAgentPool.getDefault());
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param pool
+     *            The pool providing the agents.
+     */
+    RemoteToolExecutor(RemoteAgentPool pool) {
+        m_pool = pool;
+        m_outputChannel = new ToolOutputChannel();
+        m_environmentVariables = new TreeMap<String, String>();
+        m_inputFiles = new LinkedHashMap<String, File>();
+        m_outputFiles = new LinkedHashMap<String, File>();
+        m_returnCode = -1;
+        m_stdOut = new LinkedList<String>();
+        m_stdErr = new LinkedList<String>();
+    }
+
+    @Override
+    public void setCommandGenerator(ICommandGenerator generator) {
+        m_generator = generator;
+    }
+
+    @Override
+    public void setWorkingDirectory(File directory) throws IOException {
+        if (!directory.isDirectory()) {
+            throw new IOException(directory + " is not a directory!");
+        }
+        m_workingDirectory = directory;
+    }
+
+    @Override
+    public void prepareExecution(INodeConfiguration nodeConfiguration,
+            IPluginConfiguration pluginConfiguration) throws Exception {
+        LaunchPlan plan = LaunchPlanCache.getDefault().getPlan(
+                nodeConfiguration, pluginConfiguration);
+
+        // the tool sees the staged files, not the local ones
+        INodeConfiguration remoteConfiguration = new NodeConfiguration(
+                nodeConfiguration);
+        Map<String, File> inputs = new LinkedHashMap<String, File>();
+        Map<String, File> outputs = new LinkedHashMap<String, File>();
+        for (Port port : remoteConfiguration.getInputPorts()) {
+            stagePort(remoteConfiguration, port, INPUT_DIRECTORY, inputs);
+        }
+        for (Port port : remoteConfiguration.getOutputPorts()) {
+            stagePort(remoteConfiguration, port, OUTPUT_DIRECTORY, outputs);
+        }
+
+        List<String> command = new ArrayList<String>();
+        command.add(plan.getExecutable().getPath());
+        String workingDirectoryPrefix = m_workingDirectory.getAbsolutePath()
+                + File.separator;
+        for (String argument : m_generator.generateCommands(
+                remoteConfiguration, pluginConfiguration, m_workingDirectory)) {
+            // files written by the generator are staged into the job directory
+            if (argument.startsWith(workingDirectoryPrefix)) {
+                argument = argument.substring(workingDirectoryPrefix.length());
+            }
+            command.add(argument);
+        }
+
+        File[] generated = m_workingDirectory.listFiles();
+        if (generated != null) {
+            for (File file : generated) {
+                if (file.isFile()) {
+                    inputs.put(file.getName(), file);
+                }
+            }
+        }
+
+        setJob(command, plan.getEnvironment(), inputs, outputs);
+    }
+
+    /**
+     * Replaces the file names of the given port by names relative to the job
+     * directory and records the mapping to the local files.
+     */
+    private static void stagePort(INodeConfiguration configuration, Port port,
+            String directory, Map<String, File> files) throws IOException {
+        if (port.isPrefix()) {
+            throw new IOException("Port " + port.getName()
+                    + " is a prefix port which is not supported by remote"
+                    + " execution.");
+        }
+        Parameter<?> parameter = configuration.getParameter(port.getName());
+        if (parameter instanceof FileParameter) {
+            FileParameter fileParameter = (FileParameter) parameter;
+            String value = fileParameter.getValue();
+            if (value != null && !"".equals(value)) {
+                fileParameter.setValue(stageFile(value, directory, files));
+            }
+        } else if (parameter instanceof FileListParameter) {
+            FileListParameter fileListParameter = (FileListParameter) parameter;
+            if (fileListParameter.getValue() != null) {
+                List<String> staged = new ArrayList<String>();
+                for (String value : fileListParameter.getValue()) {
+                    staged.add(stageFile(value, directory, files));
+                }
+                fileListParameter.setValue(staged);
+            }
+        }
+    }
+
+    private static String stageFile(String path, String directory,
+            Map<String, File> files) {
+        File file = new File(path);
+        // prefix with a counter, the same file name may appear several times
+        String name = directory + "/" + files.size() + "_" + file.getName();
+        files.put(name, file);
+        return name;
+    }
+
+    /**
+     * Sets the job that should be executed.
+     * 
+     * @param command
+     *            The executable followed by its arguments.
+     * @param environmentVariables
+     *            Additional environment variables of the tool.
+     * @param inputs
+     *            Local files by their name in the job directory that are
+     *            transferred to the agent before the tool is started.
+     * @param outputs
+     *            Local files by their name in the job directory that are
+     *            transferred back after the tool finished.
+     */
+    void setJob(List<String> command,
+            Map<String, String> environmentVariables, Map<String, File> inputs,
+            Map<String, File> outputs) {
+        m_command = command;
+        m_environmentVariables.putAll(environmentVariables);
+        m_inputFiles.putAll(inputs);
+        m_outputFiles.putAll(outputs);
+    }
+
+    @Override
+    public int execute() throws ToolExecutionFailedException {
+        String toolName = new File(m_command.get(0)).getName();
+        BoundedLineBuffer stdOut = new BoundedLineBuffer();
+        BoundedLineBuffer stdErr = new BoundedLineBuffer();
+        m_outputChannel.open();
+        try {
+            MessageConnection connection = submit();
+            if (connection == null) {
+                return m_returnCode;
+            }
+            try {
+                stageInputs(connection);
+                m_running = true;
+                if (m_killed) {
+                    connection.message(AgentProtocol.KILL).send();
+                } else {
+                    connection.message(AgentProtocol.RUN).send();
+                }
+                m_returnCode = collectOutput(connection, stdOut, stdErr);
+                m_running = false;
+                receiveOutputs(connection);
+            } finally {
+                m_running = false;
+                m_connection = null;
+                connection.close();
+            }
+        } catch (InterruptedException e) {
+            kill();
+            throw new ToolExecutionFailedException("Execution of tool "
+                    + toolName + " was interrupted", e);
+        } catch (IOException e) {
+            if (m_killed) {
+                // closing the connection is the last resort of kill()
+                m_returnCode = -1;
+            } else {
+                LOGGER.warn("Failed to execute tool " + toolName, e);
+                throw new ToolExecutionFailedException(
+                        "Failed to execute tool " + toolName, e);
+            }
+        } finally {
+            m_outputChannel.close();
+            m_stdOut = stdOut.getLines(null);
+            m_stdErr = stdErr.getLines(null);
+        }
+        return m_returnCode;
+    }
+
+    /**
+     * Submits the job to an agent with a free slot, waiting until one is
+     * available.
+     * 
+     * @return The connection to the agent that accepted the job or null if
+     *         the execution was canceled in the meantime.
+     */
+    private MessageConnection submit() throws IOException,
+            InterruptedException {
+        List<String> outputs = new ArrayList<String>(m_outputFiles.keySet());
+        while (!m_killed) {
+            AgentAddress agent = m_pool.tryAcquire();
+            if (agent == null) {
+                Thread.sleep(RETRY_INTERVAL_MS);
+                continue;
+            }
+            MessageConnection connection = null;
+            boolean accepted = false;
+            try {
+                connection = RemoteAgentPool.connect(agent);
+                connection.message(AgentProtocol.JOB)
+                        .writeString(agent.getSecret())
+                        .writeStrings(m_command)
+                        .writeMap(m_environmentVariables)
+                        .writeStrings(outputs).send();
+                byte type = connection.readType();
+                if (type == AgentProtocol.ACCEPTED) {
+                    accepted = true;
+                    LOGGER.debug("Job accepted by worker agent " + agent);
+                    m_connection = connection;
+                    return connection;
+                }
+                connection.checkType(type, AgentProtocol.BUSY);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to submit job to worker agent " + agent,
+                        e);
+            } finally {
+                m_pool.release(agent);
+                if (!accepted && connection != null) {
+                    connection.close();
+                }
+            }
+            // another client took the slot or the agent failed
+            Thread.sleep(RETRY_INTERVAL_MS);
+        }
+        return null;
+    }
+
+    private void stageInputs(MessageConnection connection) throws IOException {
+        for (Map.Entry<String, File> input : m_inputFiles.entrySet()) {
+            if (m_killed) {
+                return;
+            }
+            connection.sendFile(input.getKey(), input.getValue());
+        }
+    }
+
+    private int collectOutput(MessageConnection connection,
+            BoundedLineBuffer stdOut, BoundedLineBuffer stdErr)
+            throws IOException {
+        while (true) {
+            byte type = connection.readType();
+            if (type == AgentProtocol.EXIT) {
+                return connection.readInt();
+            }
+            connection.checkType(type, AgentProtocol.OUTPUT);
+            byte stream = connection.readByte();
+            List<String> lines = connection.readStrings();
+            if (stream == AgentProtocol.STDERR) {
+                stdErr.addAll(lines);
+                m_outputChannel.publish(ToolOutputChannel.Stream.STDERR,
+                        lines);
+            } else {
+                stdOut.addAll(lines);
+                m_outputChannel.publish(ToolOutputChannel.Stream.STDOUT,
+                        lines);
+            }
+        }
+    }
+
+    private void receiveOutputs(MessageConnection connection)
+            throws IOException {
+        while (true) {
+            byte type = connection.readType();
+            if (type == AgentProtocol.END) {
+                return;
+            }
+            connection.checkType(type, AgentProtocol.FILE);
+            String name = connection.readString();
+            long length = connection.readLong();
+            File target = m_outputFiles.get(name);
+            if (target == null) {
+                throw new IOException("Agent sent unexpected file " + name);
+            }
+            connection.receiveFile(target, length);
+        }
+    }
+
+    @Override
+    public void kill() {
+        m_killed = true;
+        MessageConnection connection = m_connection;
+        if (connection == null) {
+            // not submitted yet, execute() will not submit anymore
+            return;
+        }
+        try {
+            if (m_running) {
+                // the agent destroys the tool and still reports the exit code
+                connection.message(AgentProtocol.KILL).send();
+            } else {
+                connection.close();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to cancel remote job.", e);
+        }
+    }
+
+    @Override
+    public int getReturnCode() {
+        return m_returnCode;
+    }
+
+    @Override
+    public LinkedList<String> getToolOutput() {
+        return m_stdOut;
+    }
+
+    @Override
+    public LinkedList<String> getToolErrorOutput() {
+        return m_stdErr;
+    }
+
+    @Override
+    public void addToolOutputListener(IToolOutputListener listener) {
+        m_outputChannel.addListener(listener);
+    }
+
+    @Override
+    public void removeToolOutputListener(IToolOutputListener listener) {
+        m_outputChannel.removeListener(listener);
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
+
+/**
+ * Applies the {@link ResourceLimits} of a single tool run on Linux.
+ * 
+ * The memory limit is enforced through a dedicated cgroup v2 sub-group if
+ * the cgroup of the KNIME process delegates the memory controller, otherwise
+ * the address space is limited with <code>prlimit</code>. The CPU time is
+ * limited with <code>prlimit</code>, the priorities are set with
+ * <code>nice</code> and <code>ionice</code>. All helpers replace themselves
+ * with the tool (exec), hence the started process is still the tool.
+ * 
+ * After the run, {@link #findViolation(int, List, ToolResourceUsage)}
+ * translates the exit of a tool that hit a limit into a readable message.
+ * 
+ * @author aiche
+ */
+final class ResourceLimitEnforcer {
+
+    /**
+     * Mount point of the cgroup v2 hierarchy.
+     */
+    private static final File CGROUP_ROOT = new File("/sys/fs/cgroup");
+
+    /**
+     * Exit code of a process killed by SIGXCPU.
+     */
+    static final int EXIT_SIGXCPU = 128 + 24;
+
+    /**
+     * Exit code of a process killed by SIGKILL.
+     */
+    static final int EXIT_SIGKILL = 128 + 9;
+
+    /**
+     * Time between the soft CPU limit (SIGXCPU) and the hard one (SIGKILL).
+     */
+    private static final long CPU_HARD_LIMIT_GRACE_S = 5;
+
+    /**
+     * Messages printed by common runtimes if an allocation fails.
+     */
+    private static final String[] OUT_OF_MEMORY_MESSAGES = { "bad_alloc",
+            "cannot allocate memory", "out of memory", "memoryerror",
+            "outofmemoryerror" };
+
+    /**
+     * NodeLogger used for this enforcer.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ResourceLimitEnforcer.class);
+
+    /**
+     * Counter making the names of the cgroups unique.
+     */
+    private static final AtomicInteger CGROUP_COUNTER = new AtomicInteger();
+
+    /**
+     * The cgroup below which the tool groups are created, null if cgroups
+     * cannot be used. Determined on first use.
+     */
+    private static File s_cgroupParent;
+
+    /**
+     * Indicates that {@link #s_cgroupParent} was determined.
+     */
+    private static boolean s_cgroupParentProbed;
+
+    private final ResourceLimits m_limits;
+
+    /**
+     * The cgroup of the tool run, null if the memory is limited otherwise.
+     */
+    private final File m_cgroup;
+
+    private ResourceLimitEnforcer(ResourceLimits limits, File cgroup) {
+        m_limits = limits;
+        m_cgroup = cgroup;
+    }
+
+    /**
+     * Prepares the enforcement of the given limits.
+     * 
+     * @param limits
+     *            The limits of the tool run.
+     * @return The enforcer or null if no limits are set or the platform does
+     *         not support them.
+     */
+    static ResourceLimitEnforcer create(ResourceLimits limits) {
+        if (limits.isEmpty()) {
+            return null;
+        }
+        if (!ProcessResourceMonitor.PROC.isDirectory()) {
+            LOGGER.warn("Resource limits are only supported on Linux, "
+                    + "the tool is started without limits.");
+            return null;
+        }
+        File cgroup = null;
+        if (limits.getMemoryBytes() != ResourceLimits.UNLIMITED) {
+            cgroup = createCgroup(limits.getMemoryBytes());
+        }
+        return new ResourceLimitEnforcer(limits, cgroup);
+    }
+
+    private static synchronized File getCgroupParent() {
+        if (!s_cgroupParentProbed) {
+            s_cgroupParentProbed = true;
+            s_cgroupParent = probeCgroupParent();
+            LOGGER.debug("cgroup for resource limits: " + s_cgroupParent);
+        }
+        return s_cgroupParent;
+    }
+
+    private static File probeCgroupParent() {
+        try {
+            // the unified hierarchy is listed as 0::/path
+            for (String line : FileUtils.readLines(new File(
+                    ProcessResourceMonitor.PROC, "self/cgroup"))) {
+                if (!line.startsWith("0::")) {
+                    continue;
+                }
+                File group = new File(CGROUP_ROOT, line.substring(3));
+                File subtreeControl = new File(group, "cgroup.subtree_control");
+                if (group.canWrite()
+                        && subtreeControl.canRead()
+                        && Arrays.asList(
+                                FileUtils.readFileToString(subtreeControl)
+                                        .trim().split("\\s+")).contains(
+                                "memory")) {
+                    return group;
+                }
+            }
+        } catch (IOException e) {
+            // no cgroups available
+        }
+        return null;
+    }
+
+    private static File createCgroup(long memoryBytes) {
+        File parent = getCgroupParent();
+        if (parent == null) {
+            return null;
+        }
+        String jvm = ManagementFactory.getRuntimeMXBean().getName()
+                .split("@")[0];
+        File cgroup = new File(parent, "gkn-" + jvm + "-"
+                + CGROUP_COUNTER.incrementAndGet());
+        try {
+            if (!cgroup.mkdir()) {
+                throw new IOException("Cannot create " + cgroup);
+            }
+            FileUtils.writeStringToFile(new File(cgroup, "memory.max"),
+                    Long.toString(memoryBytes));
+            File swap = new File(cgroup, "memory.swap.max");
+            if (swap.exists()) {
+                FileUtils.writeStringToFile(swap, "0");
+            }
+            return cgroup;
+        } catch (IOException e) {
+            LOGGER.debug("Failed to set up cgroup " + cgroup
+                    + ", falling back to prlimit.", e);
+            cgroup.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Prefixes the given command with the helpers enforcing the limits.
+     * 
+     * @param command
+     *            The command starting the tool.
+     * @return The command starting the tool under the limits.
+     */
+    List<String> wrap(List<String> command) {
+        List<String> wrapped = new ArrayList<String>();
+        if (m_cgroup != null) {
+            // move the shell into the cgroup before it becomes the tool
+            wrapped.addAll(Arrays.asList("/bin/sh", "-c",
+                    "echo $$ > \"$0/cgroup.procs\" && exec \"$@\"",
+                    m_cgroup.getPath()));
+        }
+        if (m_limits.getNice() != ResourceLimits.UNLIMITED
+                && addHelper(wrapped, "nice")) {
+            wrapped.add("-n");
+            wrapped.add(Integer.toString(m_limits.getNice()));
+        }
+        if (m_limits.getIoClass() != ResourceLimits.IO_CLASS_NONE
+                && addHelper(wrapped, "ionice")) {
+            wrapped.add("-c");
+            if (ResourceLimits.IO_CLASS_IDLE.equals(m_limits.getIoClass())) {
+                wrapped.add("3");
+            } else {
+                wrapped.add("2");
+                if (m_limits.getIoLevel() != ResourceLimits.UNLIMITED) {
+                    wrapped.add("-n");
+                    wrapped.add(Integer.toString(m_limits.getIoLevel()));
+                }
+            }
+        }
+        boolean limitAddressSpace = m_cgroup == null
+                && m_limits.getMemoryBytes() != ResourceLimits.UNLIMITED;
+        boolean limitCpu = m_limits.getCpuSeconds() != ResourceLimits.UNLIMITED;
+        if ((limitAddressSpace || limitCpu) && addHelper(wrapped, "prlimit")) {
+            if (limitAddressSpace) {
+                wrapped.add("--as=" + m_limits.getMemoryBytes());
+            }
+            if (limitCpu) {
+                // the soft limit terminates the tool with SIGXCPU, the hard
+                // one stops tools ignoring the signal
+                wrapped.add("--cpu=" + m_limits.getCpuSeconds() + ":"
+                        + (m_limits.getCpuSeconds() + CPU_HARD_LIMIT_GRACE_S));
+            }
+        }
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    private static boolean addHelper(List<String> command, String name) {
+        for (String dir : new String[] { "/usr/bin", "/bin", "/usr/sbin",
+                "/sbin" }) {
+            File helper = new File(dir, name);
+            if (helper.canExecute()) {
+                command.add(helper.getPath());
+                return true;
+            }
+        }
+        LOGGER.warn(name + " is not available, the corresponding resource "
+                + "limit is not applied.");
+        return false;
+    }
+
+    /**
+     * Checks if the tool run ended because it hit one of the limits.
+     * 
+     * @param returnCode
+     *            The exit code of the tool.
+     * @param stdErr
+     *            The captured error output of the tool.
+     * @param usage
+     *            The resources consumed by the tool, may be null.
+     * @return A description of the exceeded limit or null if the tool did
+     *         not hit a limit.
+     */
+    String findViolation(int returnCode, List<String> stdErr,
+            ToolResourceUsage usage) {
+        if (returnCode == 0) {
+            return null;
+        }
+        long memoryMB = m_limits.getMemoryBytes() / (1024 * 1024);
+        if (m_cgroup != null && getOomKills() > 0) {
+            return "exceeded its memory limit of " + memoryMB
+                    + " MB and was killed";
+        }
+        if (m_limits.getCpuSeconds() != ResourceLimits.UNLIMITED) {
+            long cpuMillis = ToolResourceUsage.UNKNOWN;
+            if (usage != null
+                    && usage.getUserCpuMillis() != ToolResourceUsage.UNKNOWN) {
+                cpuMillis = usage.getUserCpuMillis()
+                        + usage.getSystemCpuMillis();
+            }
+            boolean cpuExhausted = cpuMillis >= m_limits.getCpuSeconds() * 1000;
+            if (returnCode == EXIT_SIGXCPU
+                    || (returnCode == EXIT_SIGKILL && cpuExhausted)) {
+                return "exceeded its CPU time limit of "
+                        + m_limits.getCpuSeconds() + " s and was stopped";
+            }
+        }
+        if (m_cgroup == null
+                && m_limits.getMemoryBytes() != ResourceLimits.UNLIMITED
+                && reportsOutOfMemory(stdErr)) {
+            return "failed to allocate memory within its limit of "
+                    + memoryMB + " MB";
+        }
+        return null;
+    }
+
+    private long getOomKills() {
+        try {
+            for (String line : FileUtils.readLines(new File(m_cgroup,
+                    "memory.events"))) {
+                String[] keyValue = line.trim().split("\\s+");
+                if (keyValue.length == 2 && "oom_kill".equals(keyValue[0])) {
+                    return Long.parseLong(keyValue[1]);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to read the memory events of " + m_cgroup, e);
+        } catch (NumberFormatException e) {
+            // unexpected format
+        }
+        return 0;
+    }
+
+    static boolean reportsOutOfMemory(List<String> stdErr) {
+        for (String line : stdErr) {
+            String lower = line.toLowerCase();
+            for (String message : OUT_OF_MEMORY_MESSAGES) {
+                if (lower.contains(message)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the cgroup of the tool run, if any.
+     */
+    void close() {
+        if (m_cgroup != null && !m_cgroup.delete()) {
+            LOGGER.debug("Failed to remove cgroup " + m_cgroup);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link ResourceLimits} presets configured in the preferences. A preset
+ * applies to the tool with the same name, all other tools use the preset
+ * {@value #DEFAULT_PRESET} (if configured).
+ * 
+ * @author aiche
+ */
+public final class ResourceLimitPresets {
+
+    /**
+     * Name of the preset applied to tools without own preset.
+     */
+    public static final String DEFAULT_PRESET = "default";
+
+    /**
+     * The shared instance.
+     */
+    private static final ResourceLimitPresets INSTANCE = new ResourceLimitPresets();
+
+    /**
+     * The limits per preset name.
+     */
+    private Map<String, ResourceLimits> m_presets;
+
+    /**
+     * C'tor.
+     */
+    ResourceLimitPresets() {
+        m_presets = Collections.emptyMap();
+    }
+
+    /**
+     * Returns the shared instance.
+     * 
+     * @return The presets.
+     */
+    public static ResourceLimitPresets getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Replaces the configured presets.
+     * 
+     * @param presets
+     *            The limits per preset name, see
+     *            {@link ResourceLimits#parsePresets(String)}.
+     */
+    public synchronized void configure(Map<String, ResourceLimits> presets) {
+        m_presets = new HashMap<String, ResourceLimits>(presets);
+    }
+
+    /**
+     * Returns the limits of the given tool.
+     * 
+     * @param toolName
+     *            The name of the tool.
+     * @return The limits of the tool, {@link ResourceLimits#NONE} if neither
+     *         the tool nor the default preset is configured.
+     */
+    public synchronized ResourceLimits getLimits(String toolName) {
+        if (toolName != null && m_presets.containsKey(toolName)) {
+            return m_presets.get(toolName);
+        }
+        if (m_presets.containsKey(DEFAULT_PRESET)) {
+            return m_presets.get(DEFAULT_PRESET);
+        }
+        return ResourceLimits.NONE;
+    }
+}
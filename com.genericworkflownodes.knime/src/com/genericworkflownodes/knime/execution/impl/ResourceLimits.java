@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits applied to a single tool process by the {@link LocalToolExecutor}.
+ * 
+ * Limits are configured as named presets of the form
+ * 
+ * <pre>
+ * default: nice=10, io=idle; FeatureFinderCentroided: memory=64G, cpu=7200
+ * </pre>
+ * 
+ * where <code>memory</code> is the maximal memory (with an optional unit
+ * <code>K</code>, <code>M</code>, <code>G</code> or <code>T</code>),
+ * <code>cpu</code> the maximal CPU time in seconds, <code>nice</code> the
+ * scheduling priority (0-19) and <code>io</code> the I/O scheduling class
+ * (<code>idle</code> or <code>best-effort</code> with an optional level 0-7,
+ * e.g., <code>best-effort:7</code>).
+ * 
+ * @author aiche
+ */
+public final class ResourceLimits {
+
+    /**
+     * Value indicating that a limit is not set.
+     */
+    public static final long UNLIMITED = -1;
+
+    /**
+     * The I/O class of tools without I/O limit.
+     */
+    public static final String IO_CLASS_NONE = null;
+
+    /**
+     * The I/O class of tools that only get disk time if nobody else needs it.
+     */
+    public static final String IO_CLASS_IDLE = "idle";
+
+    /**
+     * The default I/O class of all processes.
+     */
+    public static final String IO_CLASS_BEST_EFFORT = "best-effort";
+
+    /**
+     * Limits of tools without preset.
+     */
+    public static final ResourceLimits NONE = new ResourceLimits(UNLIMITED,
+            UNLIMITED, (int) UNLIMITED, IO_CLASS_NONE, (int) UNLIMITED);
+
+    private final long m_memoryBytes;
+    private final long m_cpuSeconds;
+    private final int m_nice;
+    private final String m_ioClass;
+    private final int m_ioLevel;
+
+    /**
+     * C'tor.
+     * 
+     * @param memoryBytes
+     *            The maximal memory in bytes or {@link #UNLIMITED}.
+     * @param cpuSeconds
+     *            The maximal CPU time in seconds or {@link #UNLIMITED}.
+     * @param nice
+     *            The niceness (0-19) or {@link #UNLIMITED}.
+     * @param ioClass
+     *            {@link #IO_CLASS_IDLE}, {@link #IO_CLASS_BEST_EFFORT} or
+     *            {@link #IO_CLASS_NONE}.
+     * @param ioLevel
+     *            The level (0-7) within the best-effort class or
+     *            {@link #UNLIMITED}.
+     */
+    public ResourceLimits(long memoryBytes, long cpuSeconds, int nice,
+            String ioClass, int ioLevel) {
+        m_memoryBytes = memoryBytes;
+        m_cpuSeconds = cpuSeconds;
+        m_nice = nice;
+        m_ioClass = ioClass;
+        m_ioLevel = ioLevel;
+    }
+
+    /**
+     * Parses a list of presets (see the class documentation for the syntax).
+     * 
+     * @param specification
+     *            The specification to parse, may be null or empty.
+     * @return The limits per preset name.
+     * @throws IllegalArgumentException
+     *             If the specification is malformed.
+     */
+    public static Map<String, ResourceLimits> parsePresets(
+            String specification) {
+        Map<String, ResourceLimits> presets = new LinkedHashMap<String, ResourceLimits>();
+        if (specification == null) {
+            return presets;
+        }
+        for (String entry : specification.split("[;\\n]")) {
+            if ("".equals(entry.trim())) {
+                continue;
+            }
+            int colon = entry.indexOf(':');
+            if (colon <= 0 || "".equals(entry.substring(0, colon).trim())) {
+                throw new IllegalArgumentException("Invalid preset '"
+                        + entry.trim() + "', expected <name>: <limits>.");
+            }
+            presets.put(entry.substring(0, colon).trim(),
+                    parse(entry.substring(colon + 1)));
+        }
+        return presets;
+    }
+
+    /**
+     * Parses the limits of a single preset, e.g.,
+     * <code>memory=4G, nice=10</code>.
+     * 
+     * @param limits
+     *            The limits to parse.
+     * @return The parsed limits.
+     * @throws IllegalArgumentException
+     *             If the limits are malformed.
+     */
+    public static ResourceLimits parse(String limits) {
+        long memory = UNLIMITED;
+        long cpu = UNLIMITED;
+        int nice = (int) UNLIMITED;
+        String ioClass = IO_CLASS_NONE;
+        int ioLevel = (int) UNLIMITED;
+        for (String setting : limits.split(",")) {
+            if ("".equals(setting.trim())) {
+                continue;
+            }
+            String[] keyValue = setting.split("=");
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid limit '"
+                        + setting.trim() + "', expected <name>=<value>.");
+            }
+            String key = keyValue[0].trim();
+            String value = keyValue[1].trim();
+            if ("memory".equals(key)) {
+                memory = parseSize(value);
+            } else if ("cpu".equals(key)) {
+                cpu = parseNumber(key, value, 1, Long.MAX_VALUE);
+            } else if ("nice".equals(key)) {
+                nice = (int) parseNumber(key, value, 0, 19);
+            } else if ("io".equals(key)) {
+                String[] classLevel = value.split(":");
+                if (IO_CLASS_IDLE.equals(classLevel[0])
+                        && classLevel.length == 1) {
+                    ioClass = IO_CLASS_IDLE;
+                } else if (IO_CLASS_BEST_EFFORT.equals(classLevel[0])
+                        && classLevel.length <= 2) {
+                    ioClass = IO_CLASS_BEST_EFFORT;
+                    if (classLevel.length == 2) {
+                        ioLevel = (int) parseNumber(key, classLevel[1], 0, 7);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Invalid I/O class '"
+                            + value + "', expected idle or best-effort[:0-7].");
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown limit '" + key
+                        + "', expected memory, cpu, nice or io.");
+            }
+        }
+        return new ResourceLimits(memory, cpu, nice, ioClass, ioLevel);
+    }
+
+    private static long parseSize(String value) {
+        if ("".equals(value)) {
+            throw new IllegalArgumentException(
+                    "Missing value for limit memory.");
+        }
+        long factor = 1;
+        int unit = "KMGT".indexOf(Character.toUpperCase(value.charAt(value
+                .length() - 1)));
+        if (unit != -1) {
+            factor = 1L << (10 * (unit + 1));
+            value = value.substring(0, value.length() - 1).trim();
+        }
+        return parseNumber("memory", value, 1, Long.MAX_VALUE / factor)
+                * factor;
+    }
+
+    private static long parseNumber(String key, String value, long min,
+            long max) {
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < min || number > max) {
+                throw new NumberFormatException();
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value
+                    + "' for limit " + key + ".");
+        }
+    }
+
+    /**
+     * @return The maximal memory in bytes or {@link #UNLIMITED}.
+     */
+    public long getMemoryBytes() {
+        return m_memoryBytes;
+    }
+
+    /**
+     * @return The maximal CPU time in seconds or {@link #UNLIMITED}.
+     */
+    public long getCpuSeconds() {
+        return m_cpuSeconds;
+    }
+
+    /**
+     * @return The niceness or {@link #UNLIMITED}.
+     */
+    public int getNice() {
+        return m_nice;
+    }
+
+    /**
+     * @return The I/O class or {@link #IO_CLASS_NONE}.
+     */
+    public String getIoClass() {
+        return m_ioClass;
+    }
+
+    /**
+     * @return The level within the best-effort I/O class or
+     *         {@link #UNLIMITED}.
+     */
+    public int getIoLevel() {
+        return m_ioLevel;
+    }
+
+    /**
+     * Checks if any limit is set.
+     * 
+     * @return True if no limit is set.
+     */
+    public boolean isEmpty() {
+        return m_memoryBytes == UNLIMITED && m_cpuSeconds == UNLIMITED
+                && m_nice == UNLIMITED && m_ioClass == IO_CLASS_NONE;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (m_memoryBytes != UNLIMITED) {
+            sb.append("memory=").append(m_memoryBytes / (1024 * 1024))
+                    .append("M, ");
+        }
+        if (m_cpuSeconds != UNLIMITED) {
+            sb.append("cpu=").append(m_cpuSeconds).append(", ");
+        }
+        if (m_nice != UNLIMITED) {
+            sb.append("nice=").append(m_nice).append(", ");
+        }
+        if (m_ioClass != IO_CLASS_NONE) {
+            sb.append("io=").append(m_ioClass);
+            if (m_ioLevel != UNLIMITED) {
+                sb.append(':').append(m_ioLevel);
+            }
+            sb.append(", ");
+        }
+        return sb.length() == 0 ? "none" : sb.substring(0, sb.length() - 2);
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings for passing long lists of values in a response file instead of the
+ * command line. The settings are read from the plugin.properties of the
+ * plugin, every key may be overridden for a single tool by appending
+ * <code>.&lt;executable name&gt;</code>:
+ * 
+ * <ul>
+ * <li><code>responseFile.threshold</code>: Lists with more values are written
+ * into a response file. 0 (default) disables response files.</li>
+ * <li><code>responseFile.syntax</code>: The arguments replacing the list,
+ * <code>{option}</code> is replaced by the option identifier of the CLI
+ * element and <code>{file}</code> by the path of the response file. Default:
+ * <code>{option} @{file}</code>, e.g., <code>-in_list {file}</code> for tools
+ * accepting a list file.</li>
+ * <li><code>responseFile.separator</code>: <code>newline</code> (default) or
+ * <code>nul</code>.</li>
+ * </ul>
+ * 
+ * Only elements mapped to a single list parameter are written into response
+ * files.
+ * 
+ * @author aiche
+ */
+final class ResponseFileSettings {
+
+    /**
+     * Key of the threshold.
+     */
+    static final String THRESHOLD_KEY = "responseFile.threshold";
+
+    /**
+     * Key of the syntax.
+     */
+    static final String SYNTAX_KEY = "responseFile.syntax";
+
+    /**
+     * Key of the separator.
+     */
+    static final String SEPARATOR_KEY = "responseFile.separator";
+
+    /**
+     * The default syntax.
+     */
+    static final String DEFAULT_SYNTAX = "{option} @{file}";
+
+    /**
+     * Prefix of the response files in the working directory.
+     */
+    static final String FILE_PREFIX = "gkn_args_";
+
+    /**
+     * Lists with more values are written into a response file.
+     */
+    private final int m_threshold;
+
+    /**
+     * The whitespace separated tokens of the syntax.
+     */
+    private final String[] m_syntax;
+
+    /**
+     * Separates the values in the response file.
+     */
+    private final char m_separator;
+
+    /**
+     * C'tor.
+     * 
+     * @param threshold
+     *            Lists with more values are written into a response file.
+     * @param syntax
+     *            The arguments replacing the list.
+     * @param separator
+     *            Separates the values in the response file.
+     */
+    ResponseFileSettings(int threshold, String syntax, char separator) {
+        m_threshold = threshold;
+        m_syntax = syntax.trim().split("\\s+");
+        m_separator = separator;
+    }
+
+    /**
+     * Reads the settings for the given tool from the plugin properties.
+     * 
+     * @param properties
+     *            The plugin properties.
+     * @param executableName
+     *            The executable of the tool.
+     * @return The settings or null if response files are disabled.
+     * @throws IllegalArgumentException
+     *             If a setting is invalid.
+     */
+    static ResponseFileSettings fromProperties(Properties properties,
+            String executableName) {
+        String threshold = getProperty(properties, THRESHOLD_KEY,
+                executableName, "0");
+        int parsedThreshold;
+        try {
+            parsedThreshold = Integer.parseInt(threshold.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + THRESHOLD_KEY
+                    + ": " + threshold);
+        }
+        if (parsedThreshold <= 0) {
+            return null;
+        }
+
+        String syntax = getProperty(properties, SYNTAX_KEY, executableName,
+                DEFAULT_SYNTAX);
+        if (!syntax.contains("{file}")) {
+            throw new IllegalArgumentException(SYNTAX_KEY
+                    + " has to contain {file}: " + syntax);
+        }
+
+        String separator = getProperty(properties, SEPARATOR_KEY,
+                executableName, "newline").trim();
+        char parsedSeparator;
+        if ("newline".equalsIgnoreCase(separator)) {
+            parsedSeparator = '\n';
+        } else if ("nul".equalsIgnoreCase(separator)) {
+            parsedSeparator = '\0';
+        } else {
+            throw new IllegalArgumentException("Invalid " + SEPARATOR_KEY
+                    + ": " + separator);
+        }
+        return new ResponseFileSettings(parsedThreshold, syntax,
+                parsedSeparator);
+    }
+
+    private static String getProperty(Properties properties, String key,
+            String executableName, String defaultValue) {
+        String value = properties.getProperty(key + "." + executableName);
+        if (value == null) {
+            value = properties.getProperty(key, defaultValue);
+        }
+        return value;
+    }
+
+    /**
+     * Checks if a list of the given size should be written into a response
+     * file.
+     * 
+     * @param size
+     *            The number of values.
+     * @return True if a response file should be used.
+     */
+    boolean applies(int size) {
+        return size > m_threshold;
+    }
+
+    /**
+     * Writes the values into a response file and returns the arguments
+     * referencing it.
+     * 
+     * @param optionIdentifier
+     *            The option identifier of the CLI element.
+     * @param values
+     *            The values to write.
+     * @param file
+     *            The response file.
+     * @return The arguments replacing the values on the command line.
+     * @throws IOException
+     *             If the file could not be written.
+     */
+    List<String> write(String optionIdentifier, List<String> values, File file)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8"));
+        try {
+            for (String value : values) {
+                writer.write(value);
+                writer.write(m_separator);
+            }
+        } finally {
+            writer.close();
+        }
+
+        List<String> arguments = new ArrayList<String>(m_syntax.length);
+        for (String token : m_syntax) {
+            String argument = token.replace("{option}", optionIdentifier)
+                    .replace("{file}", file.getAbsolutePath());
+            if (!"".equals(argument)) {
+                arguments.add(argument);
+            }
+        }
+        return arguments;
+    }
+}
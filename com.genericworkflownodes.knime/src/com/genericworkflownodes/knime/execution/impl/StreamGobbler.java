@@ -0,0 +1,693 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.execution.ExecutionRuntime;
+
+/**
+ * Captures the stderr/stdout stream of the running process to avoid
+ * deadlocks.
+ * 
+ * The complete stream is written unmodified to an (optional) spill file, while
+ * only the first and last lines are kept in memory using a
+ * {@link BoundedLineBuffer}. Single lines are truncated after
+ * {@link #MAX_LINE_LENGTH} characters, so the memory footprint of the gobbler
+ * is independent of the amount of output produced by the tool.
+ * 
+ * Lines are collected in thread-confined batches, one batch per read chunk.
+ * Each batch is handed over to the buffer and (optionally) to a
+ * {@link ToolOutputChannel} as a whole, hence there is no per-line
+ * synchronization while capturing the stream.
+ * 
+ * If the process producing the stream is known, the gobbler does not occupy a
+ * thread of its own while the process is running. Depending on the
+ * {@link ExecutionRuntime} it is either polled on a virtual thread or by the
+ * shared {@link StreamPump}; in both cases only the bytes that are available
+ * are read, so no thread blocks on a silent tool. Once the process terminated
+ * the rest of the stream is read to its end.
+ * 
+ * Output that is not produced by a process, e.g., by tools running inside the
+ * KNIME JVM, can be pushed into the gobbler through {@link #openSink()}.
+ * 
+ * Inspired by
+ * http://www.javaworld.com/jw-12-2000/jw-1229-traps.html?page=4.
+ * 
+ * and
+ * 
+ * org.knime.base.node.util.exttool.CommandExecution#StdErrCatchRunnable
+ * 
+ * @author aiche
+ */
+public class StreamGobbler {
+
+    /**
+     * Maximal number of characters kept in memory for a single line.
+     */
+    public static final int MAX_LINE_LENGTH = 8192;
+
+    /**
+     * Initial pause when polling a silent stream.
+     */
+    static final long MIN_IDLE_MS = 1;
+
+    /**
+     * Maximal pause when polling a silent stream.
+     */
+    static final long MAX_IDLE_MS = 20;
+
+    /**
+     * Suffix appended to truncated lines.
+     */
+    private static final String TRUNCATION_MARKER = " [...]";
+
+    /**
+     * Size of the read buffer.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Size of the output buffer of the spill file.
+     */
+    private static final int SPILL_BUFFER_SIZE = 65536;
+
+    /**
+     * Name of the threads reading a stream to its end.
+     */
+    private static final String THREAD_NAME = "GKN-StreamGobbler";
+
+    /**
+     * NodeLogger used for this gobbler.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(StreamGobbler.class);
+
+    /**
+     * The stream that is gobbled.
+     */
+    private final InputStream m_is;
+
+    /**
+     * The process writing the stream, may be null.
+     */
+    private final Process m_source;
+
+    /**
+     * The file receiving the complete stream, may be null.
+     */
+    private final File m_spillFile;
+
+    /**
+     * The buffer where the extracted lines are stored.
+     */
+    private final BoundedLineBuffer m_buffer;
+
+    /**
+     * Channel receiving the batches of lines, may be null.
+     */
+    private final ToolOutputChannel m_channel;
+
+    /**
+     * The stream type used when publishing to {@link #m_channel}.
+     */
+    private final ToolOutputChannel.Stream m_stream;
+
+    /**
+     * Released as soon as the stream was read completely.
+     */
+    private final CountDownLatch m_finished;
+
+    /**
+     * Bytes read from the stream that were not decoded yet.
+     */
+    private final ByteBuffer m_bytes;
+
+    /**
+     * Characters decoded from {@link #m_bytes}.
+     */
+    private final CharBuffer m_chars;
+
+    /**
+     * Decoder using the platform encoding.
+     */
+    private final CharsetDecoder m_decoder;
+
+    /**
+     * Output stream of the spill file, null if the stream is not spilled.
+     */
+    private OutputStream m_spill;
+
+    /**
+     * Indicates whether the gobbler was started.
+     */
+    private volatile boolean m_started;
+
+    /**
+     * Lines read from the current chunk.
+     */
+    private List<String> m_batch;
+
+    /**
+     * The line that is currently assembled.
+     */
+    private final StringBuilder m_currentLine;
+
+    /**
+     * Indicates that the current line exceeded {@link #MAX_LINE_LENGTH}.
+     */
+    private boolean m_currentLineTruncated;
+
+    /**
+     * Indicates that the last character was a carriage return.
+     */
+    private boolean m_lastWasCR;
+
+    /**
+     * C'tor.
+     * 
+     * @param is
+     *            The stream that should be gobbled.
+     * @param spillFile
+     *            The file where the complete stream should be stored. If null,
+     *            only the lines retained by the buffer are available.
+     * @param buffer
+     *            The buffer receiving the lines of the stream.
+     */
+    public StreamGobbler(InputStream is, File spillFile,
+            BoundedLineBuffer buffer) {
+        this(is, null, spillFile, buffer, null, null);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param is
+     *            The stream that should be gobbled.
+     * @param spillFile
+     *            The file where the complete stream should be stored. If null,
+     *            only the lines retained by the buffer are available.
+     * @param buffer
+     *            The buffer receiving the lines of the stream.
+     * @param channel
+     *            The channel where the lines should be published while the
+     *            stream is read. May be null.
+     * @param stream
+     *            The stream type used when publishing to the channel.
+     */
+    public StreamGobbler(InputStream is, File spillFile,
+            BoundedLineBuffer buffer, ToolOutputChannel channel,
+            ToolOutputChannel.Stream stream) {
+        this(is, null, spillFile, buffer, channel, stream);
+    }
+
+    /**
+     * C'tor for a gobbler that is fed through {@link #openSink()} instead of
+     * reading a stream.
+     * 
+     * @param spillFile
+     *            The file where the complete stream should be stored. If null,
+     *            only the lines retained by the buffer are available.
+     * @param buffer
+     *            The buffer receiving the lines of the stream.
+     * @param channel
+     *            The channel where the lines should be published while the
+     *            stream is written. May be null.
+     * @param stream
+     *            The stream type used when publishing to the channel.
+     */
+    public StreamGobbler(File spillFile, BoundedLineBuffer buffer,
+            ToolOutputChannel channel, ToolOutputChannel.Stream stream) {
+        this(null, null, spillFile, buffer, channel, stream);
+    }
+
+    /**
+     * C'tor.
+     * 
+     * @param is
+     *            The stream that should be gobbled.
+     * @param source
+     *            The process writing the stream. If null, the stream is read
+     *            on a thread of its own that blocks until data arrives.
+     * @param spillFile
+     *            The file where the complete stream should be stored. If null,
+     *            only the lines retained by the buffer are available.
+     * @param buffer
+     *            The buffer receiving the lines of the stream.
+     * @param channel
+     *            The channel where the lines should be published while the
+     *            stream is read. May be null.
+     * @param stream
+     *            The stream type used when publishing to the channel.
+     */
+    public StreamGobbler(InputStream is, Process source, File spillFile,
+            BoundedLineBuffer buffer, ToolOutputChannel channel,
+            ToolOutputChannel.Stream stream) {
+        m_is = is;
+        m_source = source;
+        m_spillFile = spillFile;
+        m_buffer = buffer;
+        m_channel = channel;
+        m_stream = stream;
+        m_finished = new CountDownLatch(1);
+        m_bytes = ByteBuffer.allocate(CHUNK_SIZE);
+        m_chars = CharBuffer.allocate(CHUNK_SIZE);
+        m_decoder = Charset.defaultCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        m_batch = new ArrayList<String>();
+        m_currentLine = new StringBuilder();
+        m_currentLineTruncated = false;
+        m_lastWasCR = false;
+    }
+
+    /**
+     * Starts capturing the stream.
+     */
+    public synchronized void start() {
+        if (m_started) {
+            throw new IllegalStateException("Gobbler was already started.");
+        }
+        if (m_is == null) {
+            throw new IllegalStateException("Gobbler is fed through a sink.");
+        }
+        m_started = true;
+        try {
+            openSpill();
+        } catch (IOException ioe) {
+            close(ioe);
+            return;
+        }
+        if (m_source == null) {
+            readToEndAsync();
+        } else if (ExecutionRuntime.usesVirtualThreads()) {
+            ExecutionRuntime.startThread(THREAD_NAME, new Runnable() {
+                @Override
+                public void run() {
+                    poll();
+                }
+            });
+        } else {
+            StreamPump.getDefault().register(this);
+        }
+    }
+
+    /**
+     * Starts capturing the bytes written to the returned stream. The stream
+     * may be shared by several threads; closing it completes the capture.
+     * 
+     * @return The stream feeding the gobbler.
+     * @throws IOException
+     *             If the spill file could not be created.
+     */
+    public synchronized OutputStream openSink() throws IOException {
+        if (m_started) {
+            throw new IllegalStateException("Gobbler was already started.");
+        }
+        if (m_is != null) {
+            throw new IllegalStateException("Gobbler reads a stream.");
+        }
+        m_started = true;
+        try {
+            openSpill();
+        } catch (IOException ioe) {
+            close(null);
+            throw ioe;
+        }
+        return new Sink();
+    }
+
+    private void openSpill() throws IOException {
+        if (m_spillFile != null) {
+            m_spill = new BufferedOutputStream(new FileOutputStream(
+                    m_spillFile), SPILL_BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * Waits until the stream was read completely.
+     * 
+     * @throws InterruptedException
+     *             If the current thread was interrupted while waiting.
+     */
+    public void join() throws InterruptedException {
+        m_finished.await();
+    }
+
+    /**
+     * Waits at most the given time until the stream was read completely.
+     * 
+     * @param millis
+     *            The time to wait in milliseconds.
+     * @throws InterruptedException
+     *             If the current thread was interrupted while waiting.
+     */
+    public void join(long millis) throws InterruptedException {
+        m_finished.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indicates whether the gobbler was started and is still reading the
+     * stream.
+     * 
+     * @return True if the stream is still being read.
+     */
+    public boolean isAlive() {
+        return m_started && m_finished.getCount() > 0;
+    }
+
+    /**
+     * Polls the stream on the current (virtual) thread until the source
+     * terminated and reads the remaining bytes.
+     */
+    private void poll() {
+        IOException error = null;
+        try {
+            long idle = MIN_IDLE_MS;
+            while (!isSourceTerminated()) {
+                if (readAvailable()) {
+                    idle = MIN_IDLE_MS;
+                } else {
+                    Thread.sleep(idle);
+                    idle = Math.min(2 * idle, MAX_IDLE_MS);
+                }
+            }
+            readToEnd();
+        } catch (IOException ioe) {
+            error = ioe;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            close(error);
+        }
+    }
+
+    /**
+     * Reads the rest of the stream on a new thread.
+     */
+    void readToEndAsync() {
+        ExecutionRuntime.startThread(THREAD_NAME, new Runnable() {
+            @Override
+            public void run() {
+                IOException error = null;
+                try {
+                    readToEnd();
+                } catch (IOException ioe) {
+                    error = ioe;
+                } finally {
+                    close(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Indicates whether the process writing the stream terminated. Afterwards
+     * reading the stream does not block for long.
+     * 
+     * @return True if the source terminated or is unknown.
+     */
+    boolean isSourceTerminated() {
+        if (m_source == null) {
+            return true;
+        }
+        try {
+            m_source.exitValue();
+            return true;
+        } catch (IllegalThreadStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the bytes that can be read without blocking.
+     * 
+     * @return True if any bytes were read.
+     * @throws IOException
+     *             If the stream could not be read.
+     */
+    boolean readAvailable() throws IOException {
+        int available = m_is.available();
+        if (available <= 0) {
+            return false;
+        }
+        return read(Math.min(available, m_bytes.remaining())) > 0;
+    }
+
+    private void readToEnd() throws IOException {
+        while (read(m_bytes.remaining()) != -1) {
+            // keep reading
+        }
+        finish();
+    }
+
+    /**
+     * Decodes the remaining bytes and emits the last line.
+     */
+    private void finish() {
+        m_bytes.flip();
+        decode(true);
+        m_decoder.flush(m_chars);
+        m_chars.flip();
+        consume();
+        if (m_currentLine.length() > 0 || m_currentLineTruncated) {
+            emitLine();
+        }
+        flushBatch();
+    }
+
+    private int read(int length) throws IOException {
+        int offset = m_bytes.position();
+        int read = m_is.read(m_bytes.array(), offset, length);
+        if (read <= 0) {
+            return read;
+        }
+        if (m_spill != null) {
+            m_spill.write(m_bytes.array(), offset, read);
+        }
+        m_bytes.position(offset + read);
+        m_bytes.flip();
+        decode(false);
+        // keep incomplete multi-byte sequences for the next read
+        m_bytes.compact();
+        flushBatch();
+        return read;
+    }
+
+    /**
+     * Processes bytes written to the sink.
+     * 
+     * @param b
+     *            The bytes.
+     * @param off
+     *            The offset of the first byte.
+     * @param len
+     *            The number of bytes.
+     * @throws IOException
+     *             If the bytes could not be written to the spill file.
+     */
+    private void feed(byte[] b, int off, int len) throws IOException {
+        if (m_spill != null) {
+            m_spill.write(b, off, len);
+        }
+        while (len > 0) {
+            int n = Math.min(len, m_bytes.remaining());
+            m_bytes.put(b, off, n);
+            m_bytes.flip();
+            decode(false);
+            m_bytes.compact();
+            off += n;
+            len -= n;
+        }
+        flushBatch();
+    }
+
+    private void decode(boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = m_decoder.decode(m_bytes, m_chars, endOfInput);
+            m_chars.flip();
+            consume();
+        } while (result.isOverflow());
+    }
+
+    private void consume() {
+        while (m_chars.hasRemaining()) {
+            char c = m_chars.get();
+            if (c == '\n') {
+                // \r\n was already handled when we saw the \r
+                if (!m_lastWasCR) {
+                    emitLine();
+                }
+            } else if (c == '\r') {
+                emitLine();
+            } else {
+                appendToLine(c);
+            }
+            m_lastWasCR = (c == '\r');
+        }
+        m_chars.clear();
+    }
+
+    /**
+     * Releases the streams and wakes up the threads waiting for the gobbler.
+     * 
+     * @param error
+     *            The error that stopped the capture, null if the stream was
+     *            read completely.
+     */
+    void close(IOException error) {
+        if (error != null) {
+            LOGGER.error("StreamGobbler: Error while capturing tool output.",
+                    error);
+        }
+        if (m_is != null) {
+            try {
+                m_is.close();
+            } catch (IOException ioe) {
+                // then don't close it..
+            }
+        }
+        if (m_spill != null) {
+            try {
+                m_spill.close();
+            } catch (IOException ioe) {
+                LOGGER.warn("StreamGobbler: Failed to close spill file "
+                        + m_spillFile.getAbsolutePath(), ioe);
+            }
+        }
+        m_finished.countDown();
+    }
+
+    private void appendToLine(char c) {
+        if (m_currentLine.length() < MAX_LINE_LENGTH) {
+            m_currentLine.append(c);
+        } else {
+            m_currentLineTruncated = true;
+        }
+    }
+
+    private void emitLine() {
+        if (m_currentLineTruncated) {
+            m_currentLine.append(TRUNCATION_MARKER);
+        }
+        m_batch.add(m_currentLine.toString());
+        m_currentLine.setLength(0);
+        m_currentLineTruncated = false;
+    }
+
+    private void flushBatch() {
+        if (m_batch.isEmpty()) {
+            return;
+        }
+        m_buffer.addAll(m_batch);
+        if (m_channel != null) {
+            // the channel takes ownership of the batch
+            m_channel.publish(m_stream, m_batch);
+            m_batch = new ArrayList<String>();
+        } else {
+            m_batch.clear();
+        }
+    }
+
+    /**
+     * Returns the file containing the complete stream.
+     * 
+     * @return The spill file or null if the stream was not spilled to disk.
+     */
+    public File getSpillFile() {
+        return m_spillFile;
+    }
+
+    /**
+     * Gives access to the buffer holding the gobbled lines.
+     * 
+     * @return The line buffer.
+     */
+    public BoundedLineBuffer getBuffer() {
+        return m_buffer;
+    }
+
+    /**
+     * Gives access to the gobbled lines. If parts of the stream were dropped
+     * from memory, a marker line pointing to the spill file is inserted.
+     * 
+     * @return The retained lines of the stream.
+     */
+    public LinkedList<String> getContent() {
+        String note = null;
+        if (m_spillFile != null) {
+            note = "complete output in " + m_spillFile.getAbsolutePath();
+        }
+        return m_buffer.getLines(note);
+    }
+
+    /**
+     * Stream feeding the gobbler, see {@link StreamGobbler#openSink()}.
+     */
+    private final class Sink extends OutputStream {
+
+        private final byte[] m_single = new byte[1];
+
+        private boolean m_closed;
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            m_single[0] = (byte) b;
+            write(m_single, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len)
+                throws IOException {
+            if (m_closed) {
+                throw new IOException("Stream closed.");
+            }
+            feed(b, off, len);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (m_closed) {
+                return;
+            }
+            m_closed = true;
+            finish();
+            StreamGobbler.this.close(null);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Small set of threads shared by the {@link StreamGobbler}s of all running
+ * tools, used if the JVM does not support virtual threads.
+ * 
+ * Process pipes are no selectable channels, hence the pump polls: every
+ * thread cycles through its gobblers and reads the bytes that are available
+ * without blocking. If a whole cycle did not yield any data, the thread pauses
+ * with an increasing interval. Once the process of a gobbler terminated, the
+ * gobbler is handed over to a short-lived thread reading the rest of the
+ * stream, since the pipe might still be held open by child processes of the
+ * tool.
+ * 
+ * @author aiche
+ */
+final class StreamPump {
+
+    /**
+     * Number of pump threads.
+     */
+    static final int DEFAULT_THREADS = Math.min(2, Runtime.getRuntime()
+            .availableProcessors());
+
+    /**
+     * The shared instance.
+     */
+    private static final StreamPump INSTANCE = new StreamPump(DEFAULT_THREADS);
+
+    /**
+     * A single pump thread.
+     */
+    private static final class Worker extends Thread {
+        private final Queue<StreamGobbler> m_incoming;
+        private final List<StreamGobbler> m_active;
+        private final AtomicInteger m_load;
+
+        Worker(String name) {
+            super(name);
+            setDaemon(true);
+            m_incoming = new ConcurrentLinkedQueue<StreamGobbler>();
+            m_active = new ArrayList<StreamGobbler>();
+            m_load = new AtomicInteger();
+        }
+
+        void register(StreamGobbler gobbler) {
+            m_load.incrementAndGet();
+            m_incoming.add(gobbler);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        @Override
+        public void run() {
+            long idle = StreamGobbler.MIN_IDLE_MS;
+            while (true) {
+                try {
+                    synchronized (this) {
+                        while (m_active.isEmpty() && m_incoming.isEmpty()) {
+                            wait();
+                        }
+                    }
+                    StreamGobbler added;
+                    while ((added = m_incoming.poll()) != null) {
+                        m_active.add(added);
+                    }
+                    if (pumpOnce()) {
+                        idle = StreamGobbler.MIN_IDLE_MS;
+                    } else {
+                        Thread.sleep(idle);
+                        idle = Math.min(2 * idle, StreamGobbler.MAX_IDLE_MS);
+                    }
+                } catch (InterruptedException e) {
+                    // the pump must not die while tools are running
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private boolean pumpOnce() {
+            boolean progress = false;
+            Iterator<StreamGobbler> it = m_active.iterator();
+            while (it.hasNext()) {
+                StreamGobbler gobbler = it.next();
+                try {
+                    if (gobbler.readAvailable()) {
+                        progress = true;
+                    } else if (gobbler.isSourceTerminated()) {
+                        it.remove();
+                        m_load.decrementAndGet();
+                        gobbler.readToEndAsync();
+                    }
+                } catch (IOException ioe) {
+                    it.remove();
+                    m_load.decrementAndGet();
+                    gobbler.close(ioe);
+                }
+            }
+            return progress;
+        }
+    }
+
+    /**
+     * The pump threads, started on demand.
+     */
+    private final Worker[] m_workers;
+
+    /**
+     * C'tor.
+     * 
+     * @param nThreads
+     *            The number of pump threads.
+     */
+    StreamPump(int nThreads) {
+        m_workers = new Worker[Math.max(1, nThreads)];
+    }
+
+    /**
+     * Returns the shared pump.
+     * 
+     * @return The pump.
+     */
+    static StreamPump getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a started gobbler to the least loaded pump thread.
+     * 
+     * @param gobbler
+     *            The gobbler to pump.
+     */
+    synchronized void register(StreamGobbler gobbler) {
+        Worker target = null;
+        for (int i = 0; i < m_workers.length; ++i) {
+            if (m_workers[i] == null) {
+                m_workers[i] = new Worker("GKN-StreamPump-" + i);
+                m_workers[i].start();
+            }
+            if (target == null
+                    || m_workers[i].m_load.get() < target.m_load.get()) {
+                target = m_workers[i];
+            }
+        }
+        target.register(gobbler);
+    }
+}
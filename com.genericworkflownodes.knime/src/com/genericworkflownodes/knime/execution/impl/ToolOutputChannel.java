@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.NodeLogger;
+
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+
+/**
+ * Publish/subscribe channel between the {@link StreamGobbler}s of a running
+ * tool and its {@link IToolOutputListener}s.
+ * 
+ * The gobblers hand over whole batches of lines (one per read chunk) through a
+ * lock-free queue. A single scheduler thread shared by all channels drains the
+ * queues every {@link #PUBLISH_INTERVAL_MS} milliseconds and forwards the
+ * collected lines to the listeners, so listeners (e.g., the stdout/stderr node
+ * views) are updated at a throttled rate, independent of the amount of output
+ * produced by the tool. If the listeners cannot keep up with the tool, at most
+ * {@link #MAX_PENDING_LINES} lines per stream are buffered, further lines are
+ * skipped (they are still available through the regular output capture).
+ * 
+ * @author aiche
+ */
+public class ToolOutputChannel {
+
+    /**
+     * The streams of a tool.
+     */
+    public enum Stream {
+        STDOUT, STDERR
+    }
+
+    /**
+     * Interval between two notifications of the listeners.
+     */
+    public static final long PUBLISH_INTERVAL_MS = 250;
+
+    /**
+     * Maximal number of lines per stream waiting for the next notification.
+     */
+    public static final int MAX_PENDING_LINES = 10000;
+
+    /**
+     * NodeLogger used for this channel.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ToolOutputChannel.class);
+
+    /**
+     * All channels share the same publisher thread.
+     */
+    private static final ScheduledExecutorService PUBLISHER = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "GKN-ToolOutputPublisher");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /**
+     * The registered listeners.
+     */
+    private final List<IToolOutputListener> m_listeners;
+
+    /**
+     * Batches of stdout lines not yet forwarded to the listeners.
+     */
+    private final Queue<List<String>> m_pendingStdOut;
+
+    /**
+     * Batches of stderr lines not yet forwarded to the listeners.
+     */
+    private final Queue<List<String>> m_pendingStdErr;
+
+    /**
+     * Number of lines in {@link #m_pendingStdOut}.
+     */
+    private final AtomicInteger m_pendingStdOutLines;
+
+    /**
+     * Number of lines in {@link #m_pendingStdErr}.
+     */
+    private final AtomicInteger m_pendingStdErrLines;
+
+    /**
+     * Number of stdout lines skipped since the last notification.
+     */
+    private final AtomicLong m_skippedStdOutLines;
+
+    /**
+     * Number of stderr lines skipped since the last notification.
+     */
+    private final AtomicLong m_skippedStdErrLines;
+
+    /**
+     * The periodic flush task, null if the channel is not open.
+     */
+    private ScheduledFuture<?> m_flushTask;
+
+    /**
+     * C'tor.
+     */
+    public ToolOutputChannel() {
+        m_listeners = new CopyOnWriteArrayList<IToolOutputListener>();
+        m_pendingStdOut = new ConcurrentLinkedQueue<List<String>>();
+        m_pendingStdErr = new ConcurrentLinkedQueue<List<String>>();
+        m_pendingStdOutLines = new AtomicInteger(0);
+        m_pendingStdErrLines = new AtomicInteger(0);
+        m_skippedStdOutLines = new AtomicLong(0);
+        m_skippedStdErrLines = new AtomicLong(0);
+    }
+
+    /**
+     * Registers a listener.
+     * 
+     * @param listener
+     *            The listener to add.
+     */
+    public void addListener(IToolOutputListener listener) {
+        m_listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener.
+     * 
+     * @param listener
+     *            The listener to remove.
+     */
+    public void removeListener(IToolOutputListener listener) {
+        m_listeners.remove(listener);
+    }
+
+    /**
+     * Checks if anybody is listening on this channel.
+     * 
+     * @return True if at least one listener is registered.
+     */
+    public boolean hasListeners() {
+        return !m_listeners.isEmpty();
+    }
+
+    /**
+     * Starts the periodic notification of the listeners.
+     */
+    public synchronized void open() {
+        if (m_flushTask != null) {
+            return;
+        }
+        m_flushTask = PUBLISHER.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        }, PUBLISH_INTERVAL_MS, PUBLISH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic notification and forwards all pending lines to the
+     * listeners.
+     */
+    public void close() {
+        synchronized (this) {
+            if (m_flushTask != null) {
+                m_flushTask.cancel(false);
+                m_flushTask = null;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Hands over a batch of lines. The batch must not be modified by the
+     * caller afterwards.
+     * 
+     * @param stream
+     *            The stream the lines were read from.
+     * @param lines
+     *            The new lines.
+     */
+    public void publish(Stream stream, List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (stream == Stream.STDOUT) {
+            enqueue(m_pendingStdOut, m_pendingStdOutLines,
+                    m_skippedStdOutLines, lines);
+        } else {
+            enqueue(m_pendingStdErr, m_pendingStdErrLines,
+                    m_skippedStdErrLines, lines);
+        }
+    }
+
+    private static void enqueue(Queue<List<String>> queue,
+            AtomicInteger pendingLines, AtomicLong skippedLines,
+            List<String> lines) {
+        if (pendingLines.get() + lines.size() > MAX_PENDING_LINES) {
+            skippedLines.addAndGet(lines.size());
+        } else {
+            pendingLines.addAndGet(lines.size());
+            queue.add(lines);
+        }
+    }
+
+    /**
+     * Forwards all pending lines to the listeners.
+     */
+    private synchronized void flush() {
+        List<String> stdOut = drain(m_pendingStdOut, m_pendingStdOutLines,
+                m_skippedStdOutLines);
+        List<String> stdErr = drain(m_pendingStdErr, m_pendingStdErrLines,
+                m_skippedStdErrLines);
+
+        for (IToolOutputListener listener : m_listeners) {
+            try {
+                if (!stdOut.isEmpty()) {
+                    listener.toolOutputReceived(stdOut);
+                }
+                if (!stdErr.isEmpty()) {
+                    listener.toolErrorOutputReceived(stdErr);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.warn("ToolOutputChannel: Listener failed.", e);
+            }
+        }
+    }
+
+    private static List<String> drain(Queue<List<String>> queue,
+            AtomicInteger pendingLines, AtomicLong skippedLines) {
+        List<String> lines = new ArrayList<String>();
+        List<String> batch;
+        while ((batch = queue.poll()) != null) {
+            pendingLines.addAndGet(-batch.size());
+            lines.addAll(batch);
+        }
+        long skipped = skippedLines.getAndSet(0);
+        if (skipped > 0) {
+            lines.add("[... " + skipped + " lines skipped ...]");
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.scratch;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A directory where the {@link ScratchSpaceManager} creates job directories,
+ * e.g., a tmpfs for small jobs or a local NVMe disk for big ones.
+ * 
+ * A list of roots is specified as
+ * <code>&lt;directory&gt;[: &lt;options&gt;]</code> entries separated by
+ * semicolons or newlines, e.g.,
+ * <code>/dev/shm/gkn: maxjob=1G, quota=8G; /scratch/gkn</code>. The options
+ * are
+ * <ul>
+ * <li><code>maxjob</code>: the largest expected scratch demand of a job
+ * placed in the root,</li>
+ * <li><code>quota</code>: the maximal scratch space reserved by all jobs of
+ * the root.</li>
+ * </ul>
+ * Sizes accept the suffixes K, M, G and T. Both options are unlimited by
+ * default.
+ * 
+ * @author aiche
+ */
+public final class ScratchRoot {
+
+    /**
+     * Value of unlimited options.
+     */
+    public static final long UNLIMITED = -1;
+
+    private final File m_directory;
+
+    private final long m_maxJobBytes;
+
+    private final long m_quotaBytes;
+
+    /**
+     * C'tor.
+     * 
+     * @param directory
+     *            The directory.
+     * @param maxJobBytes
+     *            The largest expected demand of a job placed in the root or
+     *            {@link #UNLIMITED}.
+     * @param quotaBytes
+     *            The maximal space reserved by all jobs of the root or
+     *            {@link #UNLIMITED}.
+     */
+    public ScratchRoot(File directory, long maxJobBytes, long quotaBytes) {
+        m_directory = directory;
+        m_maxJobBytes = maxJobBytes;
+        m_quotaBytes = quotaBytes;
+    }
+
+    /**
+     * Returns the root used if none are configured, java.io.tmpdir without
+     * limits.
+     * 
+     * @return The default root.
+     */
+    public static ScratchRoot getDefault() {
+        return new ScratchRoot(new File(System.getProperty("java.io.tmpdir")),
+                UNLIMITED, UNLIMITED);
+    }
+
+    /**
+     * Parses a list of roots (see the class documentation for the syntax).
+     * 
+     * @param specification
+     *            The specification to parse, may be null or empty.
+     * @return The roots in the order of the specification.
+     * @throws IllegalArgumentException
+     *             If the specification is malformed.
+     */
+    public static List<ScratchRoot> parseRoots(String specification) {
+        List<ScratchRoot> roots = new ArrayList<ScratchRoot>();
+        if (specification == null) {
+            return roots;
+        }
+        for (String entry : specification.split("[;\\n]")) {
+            if ("".equals(entry.trim())) {
+                continue;
+            }
+            // directories may contain colons, e.g., drive letters
+            String directory = entry;
+            String options = "";
+            int colon = entry.lastIndexOf(':');
+            if (colon >= 0 && entry.indexOf('=', colon) >= 0) {
+                directory = entry.substring(0, colon);
+                options = entry.substring(colon + 1);
+            }
+            if ("".equals(directory.trim())) {
+                throw new IllegalArgumentException("Invalid scratch root '"
+                        + entry.trim() + "', expected <directory>: <options>.");
+            }
+            roots.add(parse(new File(directory.trim()), options));
+        }
+        return roots;
+    }
+
+    private static ScratchRoot parse(File directory, String options) {
+        long maxJob = UNLIMITED;
+        long quota = UNLIMITED;
+        for (String option : options.split(",")) {
+            if ("".equals(option.trim())) {
+                continue;
+            }
+            String[] keyValue = option.split("=");
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Invalid option '"
+                        + option.trim() + "', expected <name>=<value>.");
+            }
+            String key = keyValue[0].trim();
+            if ("maxjob".equals(key)) {
+                maxJob = parseSize(key, keyValue[1].trim());
+            } else if ("quota".equals(key)) {
+                quota = parseSize(key, keyValue[1].trim());
+            } else {
+                throw new IllegalArgumentException("Unknown option '" + key
+                        + "', expected maxjob or quota.");
+            }
+        }
+        return new ScratchRoot(directory, maxJob, quota);
+    }
+
+    private static long parseSize(String key, String value) {
+        if ("".equals(value)) {
+            throw new IllegalArgumentException("Missing value for option "
+                    + key + ".");
+        }
+        long factor = 1;
+        int unit = "KMGT".indexOf(Character.toUpperCase(value.charAt(value
+                .length() - 1)));
+        if (unit != -1) {
+            factor = 1L << (10 * (unit + 1));
+            value = value.substring(0, value.length() - 1).trim();
+        }
+        try {
+            long number = Long.parseLong(value);
+            if (number < 0 || number > Long.MAX_VALUE / factor) {
+                throw new NumberFormatException();
+            }
+            return number * factor;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value
+                    + "' for option " + key + ".");
+        }
+    }
+
+    /**
+     * @return The directory.
+     */
+    public File getDirectory() {
+        return m_directory;
+    }
+
+    /**
+     * @return The largest expected demand of a job placed in the root or
+     *         {@link #UNLIMITED}.
+     */
+    public long getMaxJobBytes() {
+        return m_maxJobBytes;
+    }
+
+    /**
+     * @return The maximal space reserved by all jobs of the root or
+     *         {@link #UNLIMITED}.
+     */
+    public long getQuotaBytes() {
+        return m_quotaBytes;
+    }
+
+    /**
+     * Checks whether a job with the given demand may be placed in the root.
+     * 
+     * @param demandBytes
+     *            The expected scratch demand of the job.
+     * @param reservedBytes
+     *            The space already reserved in the root.
+     * @return True if neither the job limit nor the quota are exceeded.
+     */
+    boolean accepts(long demandBytes, long reservedBytes) {
+        if (m_maxJobBytes != UNLIMITED && demandBytes > m_maxJobBytes) {
+            return false;
+        }
+        return m_quotaBytes == UNLIMITED
+                || reservedBytes + demandBytes <= m_quotaBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(m_directory.getPath());
+        String separator = ": ";
+        if (m_maxJobBytes != UNLIMITED) {
+            sb.append(separator).append("maxjob=").append(m_maxJobBytes);
+            separator = ", ";
+        }
+        if (m_quotaBytes != UNLIMITED) {
+            sb.append(separator).append("quota=").append(m_quotaBytes);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,746 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.scratch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Provides the job directories of the tool runs.
+ * 
+ * The directories are created in a list of {@link ScratchRoot}s, e.g., a tmpfs
+ * for small jobs followed by a local disk for big ones. A job is placed in the
+ * first root whose job limit and quota admit its expected scratch demand (see
+ * {@link com.genericworkflownodes.knime.execution.ResourceDemand}) and that
+ * has enough free space. The demand is reserved in the root until the job
+ * directory was deleted.
+ * 
+ * Every KNIME instance works in a session directory of its own below each
+ * root, guarded by a file lock. Job directories get unique names from a
+ * counter and are created without locking. Released directories are deleted
+ * by a background cleaner with a bounded queue; if the queue is full, the
+ * releasing thread deletes the directory itself. Session directories of
+ * crashed instances are found by their unlocked lock file and deleted when
+ * the roots are configured, i.e., at startup.
+ * 
+ * Job directories kept for inspection are marked with {@value #KEEP_FILE}.
+ * They stay reserved in their root, and only the last
+ * {@link #MAX_KEPT_DIRECTORIES} are kept, so failing tools cannot fill a
+ * root beyond its quota. The sweep spares kept directories of earlier
+ * sessions for {@link #KEEP_RETENTION_MS}.
+ * 
+ * @author aiche
+ */
+public final class ScratchSpaceManager {
+
+    /**
+     * Prefix of the session directories.
+     */
+    static final String SESSION_PREFIX = "gkn-scratch-";
+
+    /**
+     * Name of the lock file in the session directories.
+     */
+    static final String LOCK_FILE = ".lock";
+
+    /**
+     * Name of the file marking job directories kept for inspection.
+     */
+    static final String KEEP_FILE = ".gkn-keep";
+
+    /**
+     * Maximal number of job directories kept for inspection per session.
+     */
+    static final int MAX_KEPT_DIRECTORIES = 10;
+
+    /**
+     * Time the sweep spares kept job directories of earlier sessions.
+     */
+    static final long KEEP_RETENTION_MS = 7 * 24 * 60 * 60 * 1000L;
+
+    /**
+     * Capacity of the queue of the cleaner.
+     */
+    static final int CLEANER_QUEUE_SIZE = 256;
+
+    /**
+     * Minimal age of a foreign session directory before it is swept, avoids
+     * sweeping sessions that are just being created.
+     */
+    static final long SWEEP_GRACE_PERIOD_MS = 60000;
+
+    /**
+     * Time the cleaner gets to finish its queue at shutdown.
+     */
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    /**
+     * NodeLogger used for the manager.
+     */
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(ScratchSpaceManager.class);
+
+    /**
+     * The shared instance.
+     */
+    private static final ScratchSpaceManager INSTANCE = new ScratchSpaceManager();
+
+    /**
+     * Name of the session directories of this instance.
+     */
+    private final String m_sessionName;
+
+    /**
+     * Source of the unique job directory names.
+     */
+    private final AtomicLong m_counter;
+
+    /**
+     * The roots in the order they are tried.
+     */
+    private volatile List<Tier> m_tiers;
+
+    /**
+     * All tiers ever configured by their directory.
+     */
+    private final Map<File, Tier> m_knownTiers;
+
+    /**
+     * The job directories in use.
+     */
+    private final ConcurrentHashMap<File, Allocation> m_allocations;
+
+    /**
+     * The directories kept for inspection, oldest first.
+     */
+    private final LinkedList<Deletion> m_kept;
+
+    /**
+     * Directories waiting for the cleaner.
+     */
+    private final BlockingQueue<Deletion> m_deletions;
+
+    /**
+     * The cleaner, null if not started.
+     */
+    private Thread m_cleaner;
+
+    private final AtomicLong m_allocated;
+    private final AtomicLong m_deleted;
+    private final AtomicLong m_pendingDeletions;
+    private final AtomicLong m_freedBytes;
+    private final AtomicLong m_inlineDeletions;
+    private final AtomicLong m_sweptSessions;
+
+    /**
+     * C'tor.
+     */
+    ScratchSpaceManager() {
+        byte[] token = new byte[6];
+        new SecureRandom().nextBytes(token);
+        StringBuilder name = new StringBuilder(SESSION_PREFIX);
+        for (byte b : token) {
+            name.append(String.format("%02x", b & 0xff));
+        }
+        m_sessionName = name.toString();
+        m_counter = new AtomicLong();
+        m_knownTiers = new LinkedHashMap<File, Tier>();
+        m_tiers = Collections.singletonList(getTier(ScratchRoot.getDefault()));
+        m_allocations = new ConcurrentHashMap<File, Allocation>();
+        m_kept = new LinkedList<Deletion>();
+        m_deletions = new ArrayBlockingQueue<Deletion>(CLEANER_QUEUE_SIZE);
+        m_allocated = new AtomicLong();
+        m_deleted = new AtomicLong();
+        m_pendingDeletions = new AtomicLong();
+        m_freedBytes = new AtomicLong();
+        m_inlineDeletions = new AtomicLong();
+        m_sweptSessions = new AtomicLong();
+    }
+
+    /**
+     * Returns the manager shared by all nodes.
+     * 
+     * @return The shared manager.
+     */
+    public static ScratchSpaceManager getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Sets the roots where job directories are created and sweeps the
+     * leftovers of crashed sessions from them. Job directories in use are not
+     * affected.
+     * 
+     * @param roots
+     *            The roots in the order they should be tried. If empty,
+     *            java.io.tmpdir is used.
+     */
+    public synchronized void configure(List<ScratchRoot> roots) {
+        if (roots.isEmpty()) {
+            roots = Collections.singletonList(ScratchRoot.getDefault());
+        }
+        List<Tier> tiers = new ArrayList<Tier>();
+        for (ScratchRoot root : roots) {
+            tiers.add(getTier(root));
+        }
+        m_tiers = Collections.unmodifiableList(tiers);
+        for (Tier tier : tiers) {
+            sweep(tier);
+        }
+    }
+
+    /**
+     * Returns the tier of the given root, reusing the reservations of a
+     * previously configured root with the same directory.
+     */
+    private Tier getTier(ScratchRoot root) {
+        File directory = root.getDirectory().getAbsoluteFile();
+        Tier tier = m_knownTiers.get(directory);
+        if (tier == null) {
+            tier = new Tier(new File(directory, m_sessionName));
+            m_knownTiers.put(directory, tier);
+        }
+        tier.m_root = root;
+        return tier;
+    }
+
+    /**
+     * @return The roots in the order they are tried.
+     */
+    public List<ScratchRoot> getRoots() {
+        List<ScratchRoot> roots = new ArrayList<ScratchRoot>();
+        for (Tier tier : m_tiers) {
+            roots.add(tier.m_root);
+        }
+        return roots;
+    }
+
+    /**
+     * Creates a new job directory.
+     * 
+     * @param prefix
+     *            The prefix of the directory name, e.g., the name of the node.
+     * @param demandBytes
+     *            The expected scratch demand of the job, 0 if unknown.
+     * @return The new directory.
+     * @throws IOException
+     *             If no root admits the job or the directory could not be
+     *             created.
+     */
+    public File allocate(String prefix, long demandBytes) throws IOException {
+        String name = prefix.replaceAll("[^A-Za-z0-9._-]", "_");
+        IOException failure = null;
+        for (Tier tier : m_tiers) {
+            if (!tier.reserve(demandBytes)) {
+                continue;
+            }
+            File rootDirectory = tier.m_root.getDirectory();
+            if (demandBytes > 0
+                    && rootDirectory.getUsableSpace() < demandBytes) {
+                tier.release(demandBytes);
+                continue;
+            }
+            try {
+                File directory = tier.createJobDirectory(name, m_counter);
+                m_allocations.put(directory, new Allocation(tier,
+                        demandBytes));
+                m_allocated.incrementAndGet();
+                return directory;
+            } catch (IOException e) {
+                tier.release(demandBytes);
+                LOGGER.warn("Failed to create a job directory in "
+                        + tier.m_root.getDirectory(), e);
+                failure = e;
+            }
+        }
+        throw new IOException("No scratch root can hold a job directory for "
+                + prefix + " (expected demand: " + demandBytes + " bytes, "
+                + "roots: " + getRoots() + ").", failure);
+    }
+
+    /**
+     * Releases a job directory created by {@link #allocate(String, long)}.
+     * Unless it should be kept, the directory is deleted in the background.
+     * 
+     * @param directory
+     *            The job directory.
+     * @param keep
+     *            If true, the directory is kept for inspection. It stays
+     *            reserved in its root until it is replaced by a newer kept
+     *            directory.
+     */
+    public void release(File directory, boolean keep) {
+        Allocation allocation = m_allocations.remove(directory);
+        if (allocation == null) {
+            LOGGER.debug("Releasing unknown job directory " + directory);
+        }
+        if (!keep) {
+            deleteLater(new Deletion(directory, allocation));
+            return;
+        }
+        markKept(directory);
+        Deletion expired = null;
+        synchronized (m_kept) {
+            m_kept.add(new Deletion(directory, allocation));
+            if (m_kept.size() > MAX_KEPT_DIRECTORIES) {
+                expired = m_kept.removeFirst();
+            }
+        }
+        if (expired != null) {
+            LOGGER.debug("Removing kept job directory "
+                    + expired.m_directory);
+            deleteLater(expired);
+        }
+    }
+
+    private static void markKept(File directory) {
+        try {
+            new File(directory, KEEP_FILE).createNewFile();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to protect job directory " + directory
+                    + " from the sweep.", e);
+        }
+    }
+
+    /**
+     * Hands a directory to the cleaner.
+     */
+    private void deleteLater(Deletion deletion) {
+        m_pendingDeletions.incrementAndGet();
+        startCleaner();
+        if (!m_deletions.offer(deletion)) {
+            // the cleaner is overloaded, slow down the producers
+            m_inlineDeletions.incrementAndGet();
+            delete(deletion);
+        }
+    }
+
+    /**
+     * Stops the cleaner after it processed its queue (for a limited time)
+     * and removes the session directories that are empty. Remaining
+     * directories are swept after the next start.
+     */
+    public void shutdown() {
+        Thread cleaner;
+        synchronized (this) {
+            cleaner = m_cleaner;
+            m_cleaner = null;
+        }
+        if (cleaner != null) {
+            try {
+                m_deletions.put(Deletion.STOP);
+                cleaner.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            for (Tier tier : m_knownTiers.values()) {
+                tier.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the space reserved by the jobs of the given root.
+     * 
+     * @param directory
+     *            The directory of the root.
+     * @return The reserved bytes, 0 if the root is unknown.
+     */
+    public synchronized long getReservedBytes(File directory) {
+        Tier tier = m_knownTiers.get(directory.getAbsoluteFile());
+        return tier == null ? 0 : tier.m_reserved.get();
+    }
+
+    /**
+     * @return A snapshot of the counters of the manager.
+     */
+    public synchronized ScratchStatistics getStatistics() {
+        long reserved = 0;
+        for (Tier tier : m_knownTiers.values()) {
+            reserved += tier.m_reserved.get();
+        }
+        return new ScratchStatistics(m_allocated.get(), m_allocations.size(),
+                reserved, m_deleted.get(), m_pendingDeletions.get(),
+                m_freedBytes.get(), m_inlineDeletions.get(),
+                m_sweptSessions.get());
+    }
+
+    /**
+     * Waits until all released directories were deleted.
+     * 
+     * @param timeoutMillis
+     *            The maximal time to wait.
+     * @return True if no deletion is pending.
+     * @throws InterruptedException
+     *             If the current thread was interrupted while waiting.
+     */
+    boolean awaitDeletions(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (m_pendingDeletions.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * Starts the cleaner if it is not running.
+     */
+    private synchronized void startCleaner() {
+        if (m_cleaner == null) {
+            m_cleaner = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    clean();
+                }
+            }, "GKN-ScratchCleaner");
+            m_cleaner.setDaemon(true);
+            m_cleaner.start();
+        }
+    }
+
+    private void clean() {
+        while (true) {
+            Deletion deletion;
+            try {
+                deletion = m_deletions.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (deletion == Deletion.STOP) {
+                return;
+            }
+            delete(deletion);
+        }
+    }
+
+    private void delete(Deletion deletion) {
+        try {
+            m_freedBytes.addAndGet(deleteRecursively(deletion.m_directory));
+            m_deleted.incrementAndGet();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete scratch directory "
+                    + deletion.m_directory, e);
+        } finally {
+            if (deletion.m_allocation != null) {
+                deletion.m_allocation.m_tier
+                        .release(deletion.m_allocation.m_demandBytes);
+            }
+            m_pendingDeletions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Deletes the session directories of crashed instances from the root of
+     * the given tier, except for the job directories kept for inspection.
+     */
+    private void sweep(Tier tier) {
+        File[] sessions = tier.m_sessionDirectory.getParentFile().listFiles();
+        if (sessions == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (File session : sessions) {
+            if (!session.getName().startsWith(SESSION_PREFIX)
+                    || session.equals(tier.m_sessionDirectory)
+                    || !session.isDirectory()) {
+                continue;
+            }
+            File lockFile = new File(session, LOCK_FILE);
+            long age = now
+                    - (lockFile.exists() ? lockFile.lastModified() : session
+                            .lastModified());
+            if (age < SWEEP_GRACE_PERIOD_MS || isLocked(lockFile)) {
+                continue;
+            }
+            List<File> leftovers = new ArrayList<File>();
+            boolean keptJobs = false;
+            File[] entries = session.listFiles();
+            if (entries != null) {
+                for (File entry : entries) {
+                    File keepFile = new File(entry, KEEP_FILE);
+                    long keptFor = now - keepFile.lastModified();
+                    if (keepFile.isFile() && keptFor < KEEP_RETENTION_MS) {
+                        keptJobs = true;
+                    } else {
+                        leftovers.add(entry);
+                    }
+                }
+            }
+            if (!keptJobs) {
+                LOGGER.info("Removing scratch directory " + session
+                        + " left behind by a previous session.");
+                m_sweptSessions.incrementAndGet();
+                deleteLater(new Deletion(session, null));
+            } else if (!leftovers.isEmpty()) {
+                LOGGER.info("Removing scratch directory " + session
+                        + " left behind by a previous session, except for "
+                        + "the job directories kept for inspection.");
+                m_sweptSessions.incrementAndGet();
+                for (File leftover : leftovers) {
+                    deleteLater(new Deletion(leftover, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given lock file is held by a running instance.
+     */
+    private static boolean isLocked(File lockFile) {
+        if (!lockFile.exists()) {
+            return false;
+        }
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(lockFile, "rw");
+            FileLock lock = file.getChannel().tryLock();
+            if (lock == null) {
+                return true;
+            }
+            lock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            // held by this JVM
+            return true;
+        } catch (IOException e) {
+            LOGGER.debug("Cannot check scratch lock " + lockFile, e);
+            return true;
+        } finally {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes a directory without following symbolic links.
+     * 
+     * @param directory
+     *            The directory to delete.
+     * @return The size of the deleted files.
+     * @throws IOException
+     *             If the directory could not be deleted.
+     */
+    static long deleteRecursively(File directory) throws IOException {
+        if (!directory.exists()) {
+            return 0;
+        }
+        final long[] size = new long[1];
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file,
+                    BasicFileAttributes attrs) throws IOException {
+                size[0] += attrs.size();
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e)
+                    throws IOException {
+                if (e != null) {
+                    throw e;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size[0];
+    }
+
+    /**
+     * A root together with its session directory and reservations.
+     */
+    private static final class Tier {
+
+        private final File m_sessionDirectory;
+
+        private final AtomicLong m_reserved;
+
+        private volatile ScratchRoot m_root;
+
+        private volatile boolean m_open;
+
+        /**
+         * The lock file of the session, its lock marks the session as alive.
+         */
+        private RandomAccessFile m_lockFile;
+
+        Tier(File sessionDirectory) {
+            m_sessionDirectory = sessionDirectory;
+            m_reserved = new AtomicLong();
+        }
+
+        boolean reserve(long demandBytes) {
+            while (true) {
+                long reserved = m_reserved.get();
+                if (!m_root.accepts(demandBytes, reserved)) {
+                    return false;
+                }
+                long updated = reserved + demandBytes;
+                if (m_reserved.compareAndSet(reserved, updated)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(long demandBytes) {
+            m_reserved.addAndGet(-demandBytes);
+        }
+
+        File createJobDirectory(String prefix, AtomicLong counter)
+                throws IOException {
+            if (!m_open) {
+                open();
+            }
+            for (int attempt = 0; attempt < 100; ++attempt) {
+                File directory = new File(m_sessionDirectory, prefix + "_"
+                        + counter.incrementAndGet());
+                if (directory.mkdir()) {
+                    return directory;
+                }
+                if (!m_sessionDirectory.isDirectory()) {
+                    // removed behind our back
+                    open();
+                }
+            }
+            throw new IOException("Failed to create a job directory in "
+                    + m_sessionDirectory);
+        }
+
+        /**
+         * Creates the session directory and locks it.
+         */
+        private synchronized void open() throws IOException {
+            if (m_open && m_sessionDirectory.isDirectory()) {
+                return;
+            }
+            if (!m_sessionDirectory.isDirectory()
+                    && !m_sessionDirectory.mkdirs()) {
+                throw new IOException("Failed to create scratch directory "
+                        + m_sessionDirectory);
+            }
+            closeLock();
+            m_lockFile = new RandomAccessFile(new File(m_sessionDirectory,
+                    LOCK_FILE), "rw");
+            if (m_lockFile.getChannel().tryLock() == null) {
+                closeLock();
+                throw new IOException("Scratch directory "
+                        + m_sessionDirectory
+                        + " is locked by another process.");
+            }
+            m_open = true;
+        }
+
+        private void closeLock() {
+            if (m_lockFile == null) {
+                return;
+            }
+            try {
+                // releases the lock as well
+                m_lockFile.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to release scratch lock.", e);
+            }
+            m_lockFile = null;
+        }
+
+        /**
+         * Releases the lock and removes the session directory if it contains
+         * nothing else.
+         */
+        synchronized void close() {
+            if (!m_open) {
+                return;
+            }
+            m_open = false;
+            closeLock();
+            new File(m_sessionDirectory, LOCK_FILE).delete();
+            if (!m_sessionDirectory.delete()) {
+                LOGGER.debug("Keeping non-empty scratch directory "
+                        + m_sessionDirectory);
+            }
+        }
+    }
+
+    /**
+     * A job directory in use.
+     */
+    private static final class Allocation {
+
+        private final Tier m_tier;
+
+        private final long m_demandBytes;
+
+        Allocation(Tier tier, long demandBytes) {
+            m_tier = tier;
+            m_demandBytes = demandBytes;
+        }
+    }
+
+    /**
+     * A directory waiting for the cleaner.
+     */
+    private static final class Deletion {
+
+        /**
+         * Marker stopping the cleaner.
+         */
+        static final Deletion STOP = new Deletion(null, null);
+
+        private final File m_directory;
+
+        private final Allocation m_allocation;
+
+        Deletion(File directory, Allocation allocation) {
+            m_directory = directory;
+            m_allocation = allocation;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.execution.scratch;
+
+/**
+ * Snapshot of the counters of a {@link ScratchSpaceManager}.
+ * 
+ * @author aiche
+ */
+public class ScratchStatistics {
+
+    private final long m_allocated;
+    private final int m_active;
+    private final long m_reservedBytes;
+    private final long m_deleted;
+    private final long m_pendingDeletions;
+    private final long m_freedBytes;
+    private final long m_inlineDeletions;
+    private final long m_sweptSessions;
+
+    /**
+     * C'tor.
+     * 
+     * @param allocated
+     *            Number of job directories created.
+     * @param active
+     *            Current number of job directories in use.
+     * @param reservedBytes
+     *            Scratch space currently reserved in all roots.
+     * @param deleted
+     *            Number of directories deleted.
+     * @param pendingDeletions
+     *            Current number of directories waiting for deletion.
+     * @param freedBytes
+     *            Size of the deleted files.
+     * @param inlineDeletions
+     *            Number of directories deleted by the releasing thread since
+     *            the queue of the cleaner was full.
+     * @param sweptSessions
+     *            Number of directories left behind by crashed sessions.
+     */
+    public ScratchStatistics(long allocated, int active, long reservedBytes,
+            long deleted, long pendingDeletions, long freedBytes,
+            long inlineDeletions, long sweptSessions) {
+        m_allocated = allocated;
+        m_active = active;
+        m_reservedBytes = reservedBytes;
+        m_deleted = deleted;
+        m_pendingDeletions = pendingDeletions;
+        m_freedBytes = freedBytes;
+        m_inlineDeletions = inlineDeletions;
+        m_sweptSessions = sweptSessions;
+    }
+
+    /**
+     * @return Number of job directories created.
+     */
+    public long getAllocated() {
+        return m_allocated;
+    }
+
+    /**
+     * @return Current number of job directories in use.
+     */
+    public int getActive() {
+        return m_active;
+    }
+
+    /**
+     * @return Scratch space currently reserved in all roots.
+     */
+    public long getReservedBytes() {
+        return m_reservedBytes;
+    }
+
+    /**
+     * @return Number of directories deleted.
+     */
+    public long getDeleted() {
+        return m_deleted;
+    }
+
+    /**
+     * @return Current number of directories waiting for deletion.
+     */
+    public long getPendingDeletions() {
+        return m_pendingDeletions;
+    }
+
+    /**
+     * @return Size of the deleted files.
+     */
+    public long getFreedBytes() {
+        return m_freedBytes;
+    }
+
+    /**
+     * @return Number of directories deleted by the releasing thread.
+     */
+    public long getInlineDeletions() {
+        return m_inlineDeletions;
+    }
+
+    /**
+     * @return Number of directories left behind by crashed sessions.
+     */
+    public long getSweptSessions() {
+        return m_sweptSessions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("allocated=%d, active=%d, reserved=%d MB, "
+                + "deleted=%d (%d MB, %d pending, %d inline), swept=%d",
+                m_allocated, m_active, m_reservedBytes / (1024 * 1024),
+                m_deleted, m_freedBytes / (1024 * 1024), m_pendingDeletions,
+                m_inlineDeletions, m_sweptSessions);
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.generic_node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.config.NodeConfiguration;
+import com.genericworkflownodes.knime.parameter.FileListParameter;
+import com.genericworkflownodes.knime.parameter.Parameter;
+import com.genericworkflownodes.knime.port.Port;
+
+/**
+ * Splits a node configuration operating on lists of files into several
+ * configurations (shards), each operating on a consecutive part of the lists.
+ * 
+ * A configuration can be split if all output ports are multi-file ports (so
+ * the outputs of the shards can be reassembled) and if the lists have at
+ * least two elements. All file lists of multi-file ports (input and output)
+ * having the same length as the output lists are split, all other parameters
+ * are passed unchanged to every shard. Since the output files are registered
+ * before the split, the outputs of the shards are reassembled in their
+ * original order.
+ * 
+ * @author aiche
+ */
+public final class BatchSplitter {
+
+    private BatchSplitter() {
+    }
+
+    /**
+     * Determines the number of files that would be distributed over the
+     * shards. The file parameters need to be transferred into the
+     * configuration before.
+     * 
+     * @param config
+     *            The configuration to split.
+     * @return The number of files or 0 if the configuration cannot be split.
+     */
+    public static int getSplittableSize(INodeConfiguration config) {
+        int size = -1;
+        for (Port port : config.getOutputPorts()) {
+            Parameter<?> p = config.getParameter(port.getName());
+            if (!(p instanceof FileListParameter) || !port.isMultiFile()) {
+                return 0;
+            }
+            int listSize = ((FileListParameter) p).getValue().size();
+            if (size != -1 && size != listSize) {
+                return 0;
+            }
+            size = listSize;
+        }
+        if (size == -1) {
+            // without outputs we split the largest input list
+            for (Port port : config.getInputPorts()) {
+                Parameter<?> p = config.getParameter(port.getName());
+                if (p instanceof FileListParameter && port.isMultiFile()) {
+                    size = Math.max(size, ((FileListParameter) p).getValue()
+                            .size());
+                }
+            }
+        }
+        return size > 1 ? size : 0;
+    }
+
+    /**
+     * Splits the given configuration into the given number of shards.
+     * 
+     * @param config
+     *            The configuration to split.
+     * @param shards
+     *            The requested number of shards. The actual number is limited
+     *            by the number of files.
+     * @return The configurations of the shards, in order. If the
+     *         configuration cannot be split, the list contains only the given
+     *         configuration.
+     */
+    public static List<INodeConfiguration> split(INodeConfiguration config,
+            int shards) {
+        List<INodeConfiguration> configs = new ArrayList<INodeConfiguration>();
+        int size = getSplittableSize(config);
+        if (size == 0 || shards <= 1) {
+            configs.add(config);
+            return configs;
+        }
+
+        int nShards = Math.min(shards, size);
+        for (int s = 0; s < nShards; ++s) {
+            // distribute the remainder evenly over the shards
+            int from = (int) ((long) s * size / nShards);
+            int to = (int) ((long) (s + 1) * size / nShards);
+
+            NodeConfiguration shard = new NodeConfiguration(config);
+            List<Port> ports = new ArrayList<Port>(shard.getInputPorts());
+            ports.addAll(shard.getOutputPorts());
+            for (Port port : ports) {
+                Parameter<?> p = shard.getParameter(port.getName());
+                if (!(p instanceof FileListParameter) || !port.isMultiFile()) {
+                    continue;
+                }
+                FileListParameter flp = (FileListParameter) p;
+                if (flp.getValue().size() == size) {
+                    flp.setValue(new ArrayList<String>(flp.getValue().subList(
+                            from, to)));
+                }
+            }
+            configs.add(shard);
+        }
+        return configs;
+    }
+}
@@ -51,4 +51,20 @@ public class ExecutionFailedException extends Exception {
     public ExecutionFailedException(String nodeName, Throwable t) {
         super(String.format(FAILED_TO_EXECUTE_NODE_MESSAGE, nodeName), t);
     }
+
+    /**
+     * C'tor.
+     * 
+     * @param nodeName
+     *            The name of the Node that couldn't be executed.
+     * @param reason
+     *            A description of the reason shown to the user.
+     * @param t
+     *            The cause.
+     */
+    public ExecutionFailedException(String nodeName, String reason,
+            Throwable t) {
+        super(String.format(FAILED_TO_EXECUTE_NODE_MESSAGE, nodeName) + ": "
+                + reason, t);
+    }
 }
@@ -28,6 +28,7 @@ import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.port.PortObjectSpec;
 
 import com.genericworkflownodes.knime.config.INodeConfiguration;
+import com.genericworkflownodes.knime.generic_node.dialogs.execution_dialog.ExecutionModeDialog;
 import com.genericworkflownodes.knime.generic_node.dialogs.mimetype_dialog.MimeTypeChooserDialog;
 import com.genericworkflownodes.knime.generic_node.dialogs.param_dialog.ParameterDialog;
 import com.genericworkflownodes.knime.parameter.IFileParameter;
@@ -62,6 +63,11 @@ public class GenericKnimeNodeDialog extends NodeDialogPane {
      */
     private MimeTypeChooserDialog mtc;
 
+    /**
+     * The dialog for the execution settings.
+     */
+    private ExecutionModeDialog executionMode;
+
     /**
      * Creates a new GenericKnimeNodeDialog for the given node configuration.
      * 
@@ -74,6 +80,8 @@ public class GenericKnimeNodeDialog extends NodeDialogPane {
         addTab("Parameters", dialog);
         mtc = new MimeTypeChooserDialog(config);
         addTab("OutputTypes", mtc);
+        executionMode = new ExecutionModeDialog();
+        addTab("Execution", executionMode);
     }
 
     @Override
@@ -99,6 +107,9 @@ public class GenericKnimeNodeDialog extends NodeDialogPane {
                     GenericKnimeNodeModel.GENERIC_KNIME_NODES_OUTTYPE_PREFIX
                             + i, selectedPorts[i]);
         }
+
+        settings.addInt(GenericKnimeNodeModel.GENERIC_KNIME_NODES_BATCH_SHARDS,
+                executionMode.getBatchShards());
     }
 
     @Override
@@ -138,5 +149,9 @@ public class GenericKnimeNodeDialog extends NodeDialogPane {
             }
         }
         mtc.setSelectedTypes(selectedPorts);
+
+        executionMode.setBatchShards(settings.getInt(
+                GenericKnimeNodeModel.GENERIC_KNIME_NODES_BATCH_SHARDS,
+                GenericKnimeNodeModel.BATCH_SPLIT_DISABLED));
     }
 }
@@ -1,18 +1,18 @@
 /**
  * Copyright (c) 2011-2012, Marc Röttig, Stephan Aiche.
- *
+ * 
  * This file is part of GenericKnimeNodes.
  * 
  * GenericKnimeNodes is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
+ * 
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- *
+ * 
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
@@ -20,22 +20,34 @@
 package com.genericworkflownodes.knime.generic_node;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.knime.base.filehandling.mime.MIMEMap;
 import org.knime.base.node.util.exttool.ExtToolOutputNodeModel;
+import org.knime.base.node.util.exttool.ViewUpdateNotice;
+import org.knime.base.node.util.exttool.ViewUpdateNotice.ViewType;
 import org.knime.core.data.uri.IURIPortObject;
 import org.knime.core.data.uri.URIContent;
 import org.knime.core.data.uri.URIPortObjectSpec;
+import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.ModelContent;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
@@ -52,11 +64,20 @@ import com.genericworkflownodes.knime.custom.config.IPluginConfiguration;
 import com.genericworkflownodes.knime.custom.config.NoBinaryAvailableException;
 import com.genericworkflownodes.knime.execution.AsynchronousToolExecutor;
 import com.genericworkflownodes.knime.execution.ICommandGenerator;
+import com.genericworkflownodes.knime.execution.IResourceReportingToolExecutor;
+import com.genericworkflownodes.knime.execution.IStreamingToolExecutor;
 import com.genericworkflownodes.knime.execution.IToolExecutor;
-import com.genericworkflownodes.knime.execution.ToolExecutorFactory;
+import com.genericworkflownodes.knime.execution.IToolOutputListener;
+import com.genericworkflownodes.knime.execution.IWaitable;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.ResourceDemand;
+import com.genericworkflownodes.knime.execution.ResourceLimitExceededException;
+import com.genericworkflownodes.knime.execution.ToolResourceUsage;
 import com.genericworkflownodes.knime.execution.UnknownCommandGeneratorException;
 import com.genericworkflownodes.knime.execution.UnknownToolExecutorException;
-import com.genericworkflownodes.knime.execution.impl.CancelMonitorThread;
+import com.genericworkflownodes.knime.execution.cache.ToolExecutionCache;
+import com.genericworkflownodes.knime.execution.impl.CancelMonitorService;
+import com.genericworkflownodes.knime.execution.scratch.ScratchSpaceManager;
 import com.genericworkflownodes.knime.parameter.FileListParameter;
 import com.genericworkflownodes.knime.parameter.FileParameter;
 import com.genericworkflownodes.knime.parameter.IFileParameter;
@@ -64,6 +85,7 @@ import com.genericworkflownodes.knime.parameter.InvalidParameterValueException;
 import com.genericworkflownodes.knime.parameter.Parameter;
 import com.genericworkflownodes.knime.port.Port;
 import com.genericworkflownodes.util.Helper;
+import com.genericworkflownodes.util.StringUtils;
 
 /**
  * The GenericKnimeNodeModel is the base class for all derived classes within
@@ -81,6 +103,27 @@ import com.genericworkflownodes.util.Helper;
 public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
     static final String GENERIC_KNIME_NODES_OUTTYPE_PREFIX = "GENERIC_KNIME_NODES_outtype#";
 
+    /**
+     * Settings key of the number of shards used in batch split mode.
+     */
+    static final String GENERIC_KNIME_NODES_BATCH_SHARDS = "GENERIC_KNIME_NODES_batchshards";
+
+    /**
+     * Number of shards if batch split mode is disabled.
+     */
+    static final int BATCH_SPLIT_DISABLED = 1;
+
+    /**
+     * Name of the file in the node internals holding the resource usage of
+     * the last tool run.
+     */
+    private static final String RESOURCE_USAGE_FILE = "gkn_resource_usage.xml";
+
+    /**
+     * Prefix of the flow variables reporting the resource usage of the tool.
+     */
+    static final String RESOURCE_USAGE_VARIABLE_PREFIX = "gkn_";
+
     private static final NodeLogger LOGGER = NodeLogger
             .getLogger(GenericKnimeNodeModel.class);
 
@@ -121,6 +164,67 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
      */
     IToolExecutor m_executor;
 
+    /**
+     * The resources consumed by the last tool run, null if the node was not
+     * executed.
+     */
+    private ToolResourceUsage m_resourceUsage;
+
+    /**
+     * The number of shards a multi-file input should be split into. Each shard
+     * is processed by a separate, parallel invocation of the tool.
+     */
+    private int m_batchShards;
+
+    /**
+     * Forwards the output of the running tool to the stdout/stderr views of
+     * the node.
+     */
+    private class ViewUpdatingOutputListener implements IToolOutputListener {
+
+        /**
+         * Prepended to every line, e.g., to tell parallel shards apart. May be
+         * null.
+         */
+        private final String m_linePrefix;
+
+        ViewUpdatingOutputListener() {
+            this(null);
+        }
+
+        ViewUpdatingOutputListener(String linePrefix) {
+            m_linePrefix = linePrefix;
+        }
+
+        @Override
+        public void toolOutputReceived(List<String> lines) {
+            notifyViews(createNotice(ViewType.stdout, lines));
+        }
+
+        @Override
+        public void toolErrorOutputReceived(List<String> lines) {
+            notifyViews(createNotice(ViewType.stderr, lines));
+        }
+
+        private ViewUpdateNotice createNotice(ViewType type,
+                List<String> lines) {
+            ViewUpdateNotice notice = new ViewUpdateNotice(type);
+            if (m_linePrefix == null) {
+                notice.setNewLine(StringUtils.join(lines, "\n"));
+            } else {
+                StringBuilder text = new StringBuilder();
+                for (String line : lines) {
+                    if (text.length() > 0) {
+                        text.append('\n');
+                    }
+                    text.append(m_linePrefix).append(line);
+                }
+                notice.setNewLine(text.toString());
+            }
+            return notice;
+        }
+    }
+
     /**
      * Constructor for the node model.
      * 
@@ -148,6 +252,7 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
         Helper.array2dcopy(fileEndingsOutPorts, m_fileEndingsOutPorts);
 
         m_selectedOutputType = new int[m_nodeConfig.getNumberOfOutputPorts()];
+        m_batchShards = BATCH_SPLIT_DISABLED;
     }
 
     /**
@@ -198,46 +303,71 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
      * @param executor
      *            The fully configured {@link IToolExecutor}.
      * 
+     * @param demand
+     *            The memory and scratch space needed by the tool.
+     * 
      * @param execContext
      *            The {@link ExecutionContext} of the node.
      * 
      * @throws Exception
      */
-    private void executeTool(IToolExecutor executor,
+    private void executeTool(IToolExecutor executor, ResourceDemand demand,
             final ExecutionContext execContext) throws ExecutionFailedException {
 
+        // stream the output of long running tools into the views
+        if (executor instanceof IStreamingToolExecutor) {
+            ((IStreamingToolExecutor) executor)
+                    .addToolOutputListener(new ViewUpdatingOutputListener());
+        }
+
         final AsynchronousToolExecutor asyncExecutor = new AsynchronousToolExecutor(
-                executor);
+                executor, m_nodeConfig.getExecutableName(),
+                m_pluginConfig.getPluginId(), demand);
 
         asyncExecutor.invoke();
 
-        // create one thread that will periodically check if the user has
-        // cancelled the execution of the node
-        // if this monitor thread detects that a cancel was requested, then it
-        // will invoke the kill method
-        // of the asyncExecutor
-        final CancelMonitorThread monitorThread = new CancelMonitorThread(
-                asyncExecutor, execContext);
-        monitorThread.start();
+        // register the executor with the shared cancel monitor, if it
+        // detects that a cancel was requested, then it will invoke the kill
+        // method of the asyncExecutor
+        final IWaitable cancelMonitor = CancelMonitorService.getDefault()
+                .monitor(asyncExecutor, execContext);
 
         // wait until the execution completes
         asyncExecutor.waitUntilFinished();
-        // also wait for the monitor thread to die
-        monitorThread.waitUntilFinished();
+        // also wait until the monitor released the executor
+        cancelMonitor.waitUntilFinished();
+        pushResourceVariable("queue_wait_ms",
+                asyncExecutor.getQueueWaitMillis());
 
         int retcode = -1;
         try {
             retcode = asyncExecutor.getReturnCode();
         } catch (ExecutionException ex) {
             // it means that the task threw an exception, assume retcode == -1
+            if (ex.getCause() instanceof ResourceLimitExceededException) {
+                setFailedExternalOutput(executor.getToolOutput());
+                setFailedExternalErrorOutput(executor.getToolErrorOutput());
+                throw new ExecutionFailedException(m_nodeConfig.getName(),
+                        ex.getCause().getMessage(), ex.getCause());
+            }
             throw new ExecutionFailedException(m_nodeConfig.getName(), ex);
         } catch (InterruptedException iex) {
             throw new ExecutionFailedException(m_nodeConfig.getName(), iex);
+        } catch (CancellationException cex) {
+            // the tool was killed, keep the termination statistics
+            reportResourceUsage(getResourceUsage(executor));
+            throw cex;
         }
 
-        LOGGER.debug("STDOUT:  " + executor.getToolOutput());
-        LOGGER.debug("STDERR:  " + executor.getToolErrorOutput());
-        LOGGER.debug("RETCODE: " + retcode);
+        reportResourceUsage(getResourceUsage(executor));
+
+        // the captured output is bounded by the executor, but we still avoid
+        // to assemble the log messages if nobody will read them
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("STDOUT:  " + executor.getToolOutput());
+            LOGGER.debug("STDERR:  " + executor.getToolErrorOutput());
+            LOGGER.debug("RETCODE: " + retcode);
+        }
 
         if (retcode != 0) {
             LOGGER.error("Failing process stdout: " + executor.getToolOutput());
@@ -258,12 +388,291 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
 
     }
 
+    /**
+     * Executes the given shards of a batch split in parallel. The outputs of
+     * the shards are written into the output files registered for the
+     * complete node, hence there is no need to reassemble them. If one shard
+     * fails, all other shards are canceled.
+     * 
+     * @param shards
+     *            The configurations of the shards.
+     * @param jobdir
+     *            The job directory of the node, each shard gets its own sub
+     *            directory.
+     * @param execContext
+     *            The {@link ExecutionContext} of the node.
+     * @throws Exception
+     *             If a shard failed or the execution was canceled.
+     */
+    private void executeShards(List<INodeConfiguration> shards, File jobdir,
+            final ExecutionContext execContext) throws Exception {
+        final int nShards = shards.size();
+        LOGGER.info("Executing " + m_nodeConfig.getName() + " in " + nShards
+                + " parallel shards.");
+
+        List<IToolExecutor> executors = new ArrayList<IToolExecutor>(nShards);
+        final List<AsynchronousToolExecutor> asyncExecutors = new ArrayList<AsynchronousToolExecutor>(
+                nShards);
+        for (int s = 0; s < nShards; ++s) {
+            File shardDir = new File(jobdir, String.format("shard_%03d", s));
+            if (!shardDir.mkdirs()) {
+                throw new IOException("Failed to create job directory "
+                        + shardDir.getAbsolutePath());
+            }
+            IToolExecutor executor = prepareExecutor(shards.get(s), shardDir);
+            if (executor instanceof IStreamingToolExecutor) {
+                // the lines of parallel shards are interleaved in the views
+                ((IStreamingToolExecutor) executor)
+                        .addToolOutputListener(new ViewUpdatingOutputListener(
+                                String.format("[shard %d/%d] ", s + 1,
+                                        nShards)));
+            }
+            executors.add(executor);
+            asyncExecutors.add(new AsynchronousToolExecutor(executor,
+                    m_nodeConfig.getExecutableName(), m_pluginConfig
+                            .getPluginId(), ResourceDemand.estimate(
+                            shards.get(s), shardDir)));
+        }
+
+        // the first failing shard cancels all others, every finished shard
+        // advances the progress
+        final AtomicBoolean failed = new AtomicBoolean(false);
+        final AtomicInteger finished = new AtomicInteger(0);
+        for (final AsynchronousToolExecutor asyncExecutor : asyncExecutors) {
+            asyncExecutor.addCompletionListener(new Runnable() {
+                @Override
+                public void run() {
+                    if (!hasSucceeded(asyncExecutor)) {
+                        if (failed.compareAndSet(false, true)) {
+                            killOtherShards(asyncExecutors, asyncExecutor);
+                        }
+                        return;
+                    }
+                    execContext.setProgress((double) finished.incrementAndGet()
+                            / nShards);
+                }
+            });
+        }
+
+        // the scheduler decides how many shards actually run in parallel
+        long startTime = System.currentTimeMillis();
+        List<IWaitable> cancelMonitors = new ArrayList<IWaitable>(nShards);
+        for (AsynchronousToolExecutor asyncExecutor : asyncExecutors) {
+            asyncExecutor.invoke();
+            cancelMonitors.add(CancelMonitorService.getDefault().monitor(
+                    asyncExecutor, execContext));
+        }
+        for (AsynchronousToolExecutor asyncExecutor : asyncExecutors) {
+            asyncExecutor.waitUntilFinished();
+        }
+        for (IWaitable cancelMonitor : cancelMonitors) {
+            cancelMonitor.waitUntilFinished();
+        }
+        long wallTime = System.currentTimeMillis() - startTime;
+        long queueWait = ToolResourceUsage.UNKNOWN;
+        for (AsynchronousToolExecutor asyncExecutor : asyncExecutors) {
+            queueWait = Math.max(queueWait, asyncExecutor.getQueueWaitMillis());
+        }
+        pushResourceVariable("queue_wait_ms", queueWait);
+
+        // collect the results of all shards
+        LinkedList<String> stdOut = new LinkedList<String>();
+        LinkedList<String> stdErr = new LinkedList<String>();
+        List<ToolResourceUsage> usages = new ArrayList<ToolResourceUsage>();
+        int failedShard = -1;
+        Throwable cause = null;
+        boolean canceled = false;
+        for (int s = 0; s < nShards; ++s) {
+            IToolExecutor executor = executors.get(s);
+            String header = String.format("[shard %d/%d]", s + 1, nShards);
+            stdOut.add(header);
+            stdOut.addAll(executor.getToolOutput());
+            stdErr.add(header);
+            stdErr.addAll(executor.getToolErrorOutput());
+            ToolResourceUsage usage = getResourceUsage(executor);
+            if (usage != null) {
+                usages.add(usage);
+            }
+
+            try {
+                int retcode = asyncExecutors.get(s).getReturnCode();
+                if (retcode != 0 && failedShard == -1) {
+                    failedShard = s;
+                }
+            } catch (ExecutionException e) {
+                if (failedShard == -1) {
+                    failedShard = s;
+                    cause = e;
+                }
+            } catch (CancellationException e) {
+                // canceled by the user or due to a failing shard
+                canceled = true;
+            }
+        }
+        if (!usages.isEmpty()) {
+            reportResourceUsage(ToolResourceUsage.combine(usages, wallTime));
+        }
+
+        if (failedShard != -1) {
+            LOGGER.error("Shard " + (failedShard + 1) + " of "
+                    + m_nodeConfig.getName() + " failed.");
+            setFailedExternalOutput(stdOut);
+            setFailedExternalErrorOutput(stdErr);
+            if (cause != null) {
+                Throwable reason = cause.getCause();
+                if (reason instanceof ResourceLimitExceededException) {
+                    throw new ExecutionFailedException(m_nodeConfig.getName(),
+                            reason.getMessage(), reason);
+                }
+                throw new ExecutionFailedException(m_nodeConfig.getName(),
+                        cause);
+            }
+            throw new ExecutionFailedException(m_nodeConfig.getName());
+        }
+        if (canceled) {
+            execContext.checkCanceled();
+            throw new ExecutionFailedException(m_nodeConfig.getName());
+        }
+
+        setExternalOutput(stdOut);
+        setExternalErrorOutput(stdErr);
+    }
+
+    private static void killOtherShards(
+            List<AsynchronousToolExecutor> shards,
+            AsynchronousToolExecutor failedShard) {
+        for (AsynchronousToolExecutor shard : shards) {
+            if (shard != failedShard) {
+                shard.kill();
+            }
+        }
+    }
+
+    private static boolean hasSucceeded(AsynchronousToolExecutor executor) {
+        try {
+            return executor.getReturnCode() == 0;
+        } catch (Exception e) {
+            // failed or canceled
+            return false;
+        }
+    }
+
+    /**
+     * Extracts the resources consumed by the given executor.
+     * 
+     * @param executor
+     *            The executor that ran the tool.
+     * @return The resource usage or null if the executor does not report
+     *         them.
+     */
+    private static ToolResourceUsage getResourceUsage(IToolExecutor executor) {
+        if (!(executor instanceof IResourceReportingToolExecutor)) {
+            return null;
+        }
+        return ((IResourceReportingToolExecutor) executor).getResourceUsage();
+    }
+
+    /**
+     * Stores the resources consumed by the tool run and exposes them as flow
+     * variables.
+     * 
+     * @param usage
+     *            The resources consumed by the tool, may be null.
+     */
+    private void reportResourceUsage(ToolResourceUsage usage) {
+        m_resourceUsage = usage;
+        if (m_resourceUsage == null) {
+            return;
+        }
+        LOGGER.info("Resource usage of " + m_nodeConfig.getName() + ": "
+                + m_resourceUsage);
+
+        // KNIME has no long flow variables, so we use doubles
+        pushResourceVariable("wall_time_ms",
+                m_resourceUsage.getWallTimeMillis());
+        pushResourceVariable("user_cpu_ms", m_resourceUsage.getUserCpuMillis());
+        pushResourceVariable("system_cpu_ms",
+                m_resourceUsage.getSystemCpuMillis());
+        pushResourceVariable("peak_rss_bytes",
+                m_resourceUsage.getPeakRssBytes());
+        pushResourceVariable("read_bytes", m_resourceUsage.getReadBytes());
+        pushResourceVariable("write_bytes", m_resourceUsage.getWriteBytes());
+        pushResourceVariable("kill_latency_ms",
+                m_resourceUsage.getKillLatencyMillis());
+        pushResourceVariable("leftover_processes",
+                m_resourceUsage.getLeftoverProcesses());
+    }
+
+    private void pushResourceVariable(String name, long value) {
+        if (value != ToolResourceUsage.UNKNOWN) {
+            pushFlowVariableDouble(RESOURCE_USAGE_VARIABLE_PREFIX + name,
+                    value);
+        }
+    }
+
+    /**
+     * Returns the resources consumed by the last tool run.
+     * 
+     * @return The resource usage or null if the node was not executed.
+     */
+    public ToolResourceUsage getResourceUsage() {
+        return m_resourceUsage;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void reset() {
         super.reset();
+        m_resourceUsage = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void loadInternals(final File nodeInternDir,
+            final ExecutionMonitor exec) throws IOException,
+            CanceledExecutionException {
+        super.loadInternals(nodeInternDir, exec);
+        File usageFile = new File(nodeInternDir, RESOURCE_USAGE_FILE);
+        if (!usageFile.exists()) {
+            // workflows saved by older versions have no resource usage
+            return;
+        }
+        InputStream in = new FileInputStream(usageFile);
+        try {
+            m_resourceUsage = ToolResourceUsage.load(ModelContent
+                    .loadFromXML(in));
+        } catch (InvalidSettingsException e) {
+            LOGGER.warn("Failed to load the resource usage of the last run.",
+                    e);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void saveInternals(final File nodeInternDir,
+            final ExecutionMonitor exec) throws IOException,
+            CanceledExecutionException {
+        super.saveInternals(nodeInternDir, exec);
+        if (m_resourceUsage == null) {
+            return;
+        }
+        ModelContent model = new ModelContent(RESOURCE_USAGE_FILE);
+        m_resourceUsage.save(model);
+        OutputStream out = new FileOutputStream(new File(nodeInternDir,
+                RESOURCE_USAGE_FILE));
+        try {
+            model.saveToXML(out);
+        } finally {
+            out.close();
+        }
     }
 
     /**
@@ -287,6 +696,8 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
             settings.addInt(GENERIC_KNIME_NODES_OUTTYPE_PREFIX + i,
                     getOutputTypeIndex(i));
         }
+
+        settings.addInt(GENERIC_KNIME_NODES_BATCH_SHARDS, m_batchShards);
     }
 
     /**
@@ -316,6 +727,10 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
             int idx = settings.getInt(GENERIC_KNIME_NODES_OUTTYPE_PREFIX + i);
             m_selectedOutputType[i] = idx;
         }
+
+        // workflows created by older versions have no batch split settings
+        m_batchShards = settings.getInt(GENERIC_KNIME_NODES_BATCH_SHARDS,
+                BATCH_SPLIT_DISABLED);
     }
 
     /**
@@ -359,6 +774,12 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
                         "invalid value for parameter " + key);
             }
         }
+
+        if (settings.getInt(GENERIC_KNIME_NODES_BATCH_SHARDS,
+                BATCH_SPLIT_DISABLED) < BATCH_SPLIT_DISABLED) {
+            throw new InvalidSettingsException(
+                    "The number of batch shards must be at least 1.");
+        }
     }
 
     /**
@@ -431,12 +852,15 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
 
     private void checkIfToolExists() throws InvalidSettingsException {
         try {
-            m_pluginConfig.getBinaryManager().findBinary(
-                    m_nodeConfig.getExecutableName());
+            LaunchPlanCache.getDefault().getPlan(m_nodeConfig, m_pluginConfig);
         } catch (NoBinaryAvailableException e) {
             LOGGER.warn(e.getMessage());
             throw new InvalidSettingsException(
                     "Failed to find matching binary.", e);
+        } catch (UnknownToolExecutorException e) {
+            throw new InvalidSettingsException(e.getMessage(), e);
+        } catch (UnknownCommandGeneratorException e) {
+            throw new InvalidSettingsException(e.getMessage(), e);
         }
     }
 
@@ -459,30 +883,68 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
     @Override
     protected PortObject[] execute(PortObject[] inObjects,
             ExecutionContext execContext) throws Exception {
-        // create job directory
-        File jobdir = Helper.getTempDir(m_nodeConfig.getName(),
-                !GenericNodesPlugin.isDebug());
-
         // transfer the incoming files into the nodeConfiguration
         transferIncomingPorts2Config(inObjects);
 
-        // prepare input data and parameter values
-        List<PortObject> outPorts = transferOutgoingPorts2Config(jobdir,
-                inObjects, execContext);
-
-        // prepare the executor
-        m_executor = prepareExecutor(jobdir);
-
-        // launch executable
-        executeTool(m_executor, execContext);
+        // create job directory on the scratch root matching the expected
+        // demand of the tool
+        File jobdir = ScratchSpaceManager.getDefault().allocate(
+                m_nodeConfig.getName(),
+                ResourceDemand.estimate(m_nodeConfig, null).getScratchBytes());
+        List<PortObject> outPorts;
+        boolean failed = true;
+        try {
+            // prepare input data and parameter values
+            outPorts = transferOutgoingPorts2Config(jobdir, inObjects,
+                    execContext);
+
+            // reuse the outputs of an identical run if possible
+            String cacheKey = createCacheKey();
+            List<List<File>> outputFiles = cacheKey == null ? null
+                    : getOutputFiles(outPorts);
+            if (cacheKey != null
+                    && ToolExecutionCache.getDefault().restore(cacheKey,
+                            outputFiles)) {
+                m_executor = null;
+                LOGGER.info("Restored the outputs of "
+                        + m_nodeConfig.getName()
+                        + " from the execution cache ("
+                        + ToolExecutionCache.getDefault().getStatistics()
+                        + ").");
+                setExternalOutput(new LinkedList<String>(Arrays
+                        .asList("Outputs restored from the execution cache, "
+                                + "the tool was not executed.")));
+                setExternalErrorOutput(new LinkedList<String>());
+            } else {
+                runTool(jobdir, execContext);
+                if (cacheKey != null) {
+                    try {
+                        ToolExecutionCache.getDefault().store(cacheKey,
+                                outputFiles);
+                    } catch (IOException e) {
+                        LOGGER.warn("Failed to add the outputs of "
+                                + m_nodeConfig.getName()
+                                + " to the execution cache.", e);
+                    }
+                }
+            }
+            failed = false;
+        } finally {
+            // the job directory is deleted in the background (and kept in
+            // debug mode or if the run failed)
+            if (failed) {
+                String message = "The job directory of the failed run is "
+                        + "kept for inspection: " + jobdir;
+                LOGGER.warn(message);
+                setWarningMessage(message);
+            }
+            ScratchSpaceManager.getDefault().release(jobdir,
+                    failed || GenericNodesPlugin.isDebug());
+        }
 
         // process result files
         // PortObject[] outports = processOutput(outputFiles, exec);
 
-        if (!GenericNodesPlugin.isDebug()) {
-            FileUtils.deleteDirectory(jobdir);
-        }
-
         PortObject[] outports = new PortObject[outPorts.size()];
         for (int i = 0; i < outPorts.size(); ++i) {
             outports[i] = outPorts.get(i);
@@ -495,10 +957,89 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
         return outports;
     }
 
+    /**
+     * Runs the tool, split into shards if requested.
+     * 
+     * @param jobdir
+     *            The job directory of the node.
+     * @param execContext
+     *            The {@link ExecutionContext} of the node.
+     * @throws Exception
+     *             If the tool failed or the execution was canceled.
+     */
+    private void runTool(File jobdir, ExecutionContext execContext)
+            throws Exception {
+        // split multi-file inputs into shards if requested
+        List<INodeConfiguration> shards = BatchSplitter.split(m_nodeConfig,
+                m_batchShards);
+        if (shards.size() > 1) {
+            m_executor = null;
+            executeShards(shards, jobdir, execContext);
+        } else {
+            if (m_batchShards > BATCH_SPLIT_DISABLED) {
+                setWarningMessage("Batch split is only possible for nodes "
+                        + "with multi-file outputs and more than one input "
+                        + "file, the tool was executed once.");
+            }
+
+            // prepare the executor
+            m_executor = prepareExecutor(m_nodeConfig, jobdir);
+
+            // launch executable
+            executeTool(m_executor,
+                    ResourceDemand.estimate(m_nodeConfig, jobdir), execContext);
+        }
+    }
+
+    /**
+     * Computes the key of the current tool run in the
+     * {@link ToolExecutionCache}.
+     * 
+     * @return The key or null if the cache is disabled or the run cannot be
+     *         cached.
+     */
+    private String createCacheKey() {
+        ToolExecutionCache cache = ToolExecutionCache.getDefault();
+        if (!cache.isEnabled()) {
+            return null;
+        }
+        try {
+            return cache.createKey(m_nodeConfig, m_pluginConfig);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to compute the execution cache key of "
+                    + m_nodeConfig.getName() + ", the cache is not used.", e);
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the files behind the given output ports.
+     * 
+     * @param outPorts
+     *            The output ports of the node.
+     * @return For each port the list of its files.
+     */
+    private static List<List<File>> getOutputFiles(List<PortObject> outPorts) {
+        List<List<File>> outputFiles = new ArrayList<List<File>>(
+                outPorts.size());
+        for (PortObject outPort : outPorts) {
+            List<File> files = new ArrayList<File>();
+            for (URIContent content : ((IURIPortObject) outPort)
+                    .getURIContents()) {
+                files.add(new File(content.getURI()));
+            }
+            outputFiles.add(files);
+        }
+        return outputFiles;
+    }
+
     /**
      * Instantiates a new {@link IToolExecutor} for this tool according to the
-     * plug-in settings.
+     * plug-in settings. The executable, its environment and the executor
+     * classes are resolved once and shared by all runs of the tool.
      * 
+     * @param nodeConfig
+     *            The configuration of the tool run.
      * @param jobdir
      *            The directory assigned to the node by the
      *            {@link ExecutionContext}.
@@ -509,16 +1050,15 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
      * @throws IOException
      * @throws Exception
      */
-    private IToolExecutor prepareExecutor(File jobdir)
+    private IToolExecutor prepareExecutor(INodeConfiguration nodeConfig,
+            File jobdir)
             throws UnknownToolExecutorException,
             UnknownCommandGeneratorException, IOException, Exception {
-        IToolExecutor executor = ToolExecutorFactory.createToolExecutor(
-                m_pluginConfig.getPluginProperties().getProperty("executor"),
-                m_pluginConfig.getPluginProperties().getProperty(
-                        "commandGenerator"));
+        IToolExecutor executor = LaunchPlanCache.getDefault()
+                .getPlan(nodeConfig, m_pluginConfig).createToolExecutor();
 
         executor.setWorkingDirectory(jobdir);
-        executor.prepareExecution(m_nodeConfig, m_pluginConfig);
+        executor.prepareExecution(nodeConfig, m_pluginConfig);
 
         return executor;
     }
@@ -560,7 +1100,7 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
                 }
 
                 FileListParameter flp = (FileListParameter) p;
-                List<String> fileNames = new ArrayList<String>();
+                List<String> relPaths = new ArrayList<String>();
 
                 if (basenames.size() == 0) {
                     throw new Exception(
@@ -574,7 +1114,10 @@ public abstract class GenericKnimeNodeModel extends ExtToolOutputNodeModel {
                     // create basename: <base_name>_<port_nr>_<outfile_nr>
                     String file_basename = String.format("%s_%d",
                             basenames.get(f), f);
-                    File file = fsupo.registerFile(file_basename + "." + ext);
+                    relPaths.add(file_basename + "." + ext);
+                }
+                List<String> fileNames = new ArrayList<String>();
+                for (File file : fsupo.registerFiles(relPaths)) {
                     fileNames.add(file.getAbsolutePath());
                 }
 
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.generic_node.dialogs.execution_dialog;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+
+import org.jdesktop.swingx.VerticalLayout;
+
+/**
+ * Panel for the node level execution settings, currently the number of
+ * shards used to process multi-file inputs in parallel (batch split).
+ * 
+ * @author aiche
+ */
+public class ExecutionModeDialog extends JPanel {
+
+    private static final long serialVersionUID = -1791226325806735398L;
+
+    /**
+     * Upper bound of the number of shards offered in the dialog.
+     */
+    private static final int MAX_SHARDS = 1024;
+
+    /**
+     * The spinner selecting the number of shards.
+     */
+    private final JSpinner m_shardSpinner;
+
+    /**
+     * C'tor.
+     */
+    public ExecutionModeDialog() {
+        setLayout(new VerticalLayout());
+
+        add(new JLabel("Number of parallel shards for multi-file inputs "
+                + "(1 = disable batch split)"));
+        m_shardSpinner = new JSpinner(new SpinnerNumberModel(1, 1, MAX_SHARDS,
+                1));
+        add(m_shardSpinner);
+        add(new JLabel("Each shard processes a part of the input files in a "
+                + "separate invocation of the tool."));
+    }
+
+    /**
+     * Returns the selected number of shards.
+     * 
+     * @return The number of shards.
+     */
+    public int getBatchShards() {
+        return ((Number) m_shardSpinner.getValue()).intValue();
+    }
+
+    /**
+     * Sets the number of shards shown in the dialog.
+     * 
+     * @param shards
+     *            The number of shards.
+     */
+    public void setBatchShards(int shards) {
+        m_shardSpinner.setValue(Math.max(1, Math.min(shards, MAX_SHARDS)));
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.nodes.io.export;
+
+/**
+ * Summary of a single {@link FileExporter#export} call.
+ * 
+ * @author aiche
+ */
+public class ExportStatistics {
+
+    private final int m_files;
+    private final long m_bytes;
+    private final int m_hardLinks;
+    private final int m_reflinks;
+    private final int m_transfers;
+    private final long m_millis;
+
+    /**
+     * C'tor.
+     * 
+     * @param files
+     *            Number of exported files.
+     * @param bytes
+     *            Total size of the exported files.
+     * @param hardLinks
+     *            Number of files exported as hard links.
+     * @param reflinks
+     *            Number of files exported as clones.
+     * @param transfers
+     *            Number of files copied.
+     * @param millis
+     *            Duration of the export.
+     */
+    public ExportStatistics(int files, long bytes, int hardLinks,
+            int reflinks, int transfers, long millis) {
+        m_files = files;
+        m_bytes = bytes;
+        m_hardLinks = hardLinks;
+        m_reflinks = reflinks;
+        m_transfers = transfers;
+        m_millis = millis;
+    }
+
+    /**
+     * @return Number of exported files.
+     */
+    public int getFiles() {
+        return m_files;
+    }
+
+    /**
+     * @return Total size of the exported files.
+     */
+    public long getBytes() {
+        return m_bytes;
+    }
+
+    /**
+     * @return Number of files exported as hard links.
+     */
+    public int getHardLinks() {
+        return m_hardLinks;
+    }
+
+    /**
+     * @return Number of files exported as clones.
+     */
+    public int getReflinks() {
+        return m_reflinks;
+    }
+
+    /**
+     * @return Number of files copied.
+     */
+    public int getTransfers() {
+        return m_transfers;
+    }
+
+    /**
+     * @return Duration of the export in milliseconds.
+     */
+    public long getMillis() {
+        return m_millis;
+    }
+
+    /**
+     * @return The exported bytes per second.
+     */
+    public double getThroughput() {
+        return throughput(m_bytes, m_millis);
+    }
+
+    /**
+     * Computes a throughput.
+     * 
+     * @param bytes
+     *            Number of bytes.
+     * @param millis
+     *            Time needed for the bytes.
+     * @return The bytes per second.
+     */
+    static double throughput(long bytes, long millis) {
+        return bytes * 1000.0 / Math.max(millis, 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Exported %d files (%.1f MB) in %.1f s "
+                + "(%.1f MB/s): %d hard links, %d reflinks, %d copies",
+                m_files, m_bytes / 1048576.0, m_millis / 1000.0,
+                getThroughput() / 1048576.0, m_hardLinks, m_reflinks,
+                m_transfers);
+    }
+}
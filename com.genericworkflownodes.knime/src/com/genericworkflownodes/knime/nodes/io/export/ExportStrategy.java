@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.nodes.io.export;
+
+/**
+ * The ways the {@link FileExporter} can bring a file to its target, from the
+ * cheapest to the most expensive one.
+ * 
+ * @author aiche
+ */
+public enum ExportStrategy {
+    /**
+     * The target is a hard link to the source, no data is written.
+     */
+    HARD_LINK,
+    /**
+     * The target is a copy-on-write clone of the source, no data is written
+     * until one of them is modified.
+     */
+    REFLINK,
+    /**
+     * The data is copied with {@link java.nio.channels.FileChannel#transferTo},
+     * i.e., without passing through the Java heap.
+     */
+    TRANSFER
+}
@@ -0,0 +1,509 @@
+/**
+ * Copyright (c) 2026, Stephan Aiche.
+ * 
+ * This file is part of GenericKnimeNodes.
+ * 
+ * GenericKnimeNodes is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.genericworkflownodes.knime.nodes.io.export;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Exports files, e.g., from the file stores of a workflow to a user selected
+ * location. Every file is brought to its target with the cheapest strategy
+ * that works: a hard link if enabled and both are on the same file system, a
+ * copy-on-write clone if the file systems support it, and a copy using
+ * {@link FileChannel#transferTo} otherwise. Several files are exported in
+ * parallel.
+ * 
+ * Each file is first exported to a hidden temporary file next to its target,
+ * its size is verified, and it is then renamed to the target. Existing
+ * targets are thus replaced as a whole and never truncated, so a target that
+ * is a hard link of its source, e.g., from a previous export, stays intact.
+ * 
+ * Hard links are disabled by default: a hard link shares the data with the
+ * workflow, modifying the exported file in place also modifies the file
+ * store.
+ * 
+ * @author aiche
+ */
+public final class FileExporter {
+
+    private static final NodeLogger LOGGER = NodeLogger
+            .getLogger(FileExporter.class);
+
+    /**
+     * Smaller files are copied, starting a clone process costs more than
+     * copying them.
+     */
+    static final long REFLINK_THRESHOLD = 16L * 1024 * 1024;
+
+    /**
+     * Bytes copied per call to {@link FileChannel#transferTo}, bounds how
+     * long a copy takes to notice a cancellation.
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Interval in which the progress is reported and cancellation is checked.
+     */
+    private static final long POLL_INTERVAL_MS = 200;
+
+    /**
+     * Time granted to the workers to clean up after a failure.
+     */
+    private static final long SHUTDOWN_TIMEOUT_MS = 30000;
+
+    private static final FileExporter INSTANCE = new FileExporter();
+
+    /**
+     * Returns the shared exporter.
+     * 
+     * @return The exporter.
+     */
+    public static FileExporter getDefault() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the default number of files exported in parallel. Exporting is
+     * I/O bound, a few parallel streams saturate most storage.
+     * 
+     * @return The default number of export threads.
+     */
+    public static int getDefaultThreads() {
+        return Math.min(4, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Number of files exported in parallel.
+     */
+    private int m_threads;
+
+    /**
+     * Whether files may be exported as hard links.
+     */
+    private boolean m_hardLinks;
+
+    /**
+     * The command cloning a file, followed by source and target, or null if
+     * the platform offers none or it failed to start.
+     */
+    private volatile List<String> m_reflinkCommand;
+
+    /**
+     * Pairs of source and target file stores on which cloning failed, they
+     * are not tried again.
+     */
+    private final Set<List<FileStore>> m_reflinkUnsupported;
+
+    /**
+     * C'tor. Package-private for tests, use {@link #getDefault()}.
+     */
+    FileExporter() {
+        m_threads = getDefaultThreads();
+        m_hardLinks = false;
+        m_reflinkCommand = getReflinkCommand();
+        m_reflinkUnsupported = Collections.newSetFromMap(
+                new ConcurrentHashMap<List<FileStore>, Boolean>());
+    }
+
+    private static List<String> getReflinkCommand() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("linux")) {
+            // btrfs, XFS, bcachefs, ... (FICLONE)
+            return Arrays.asList("cp", "--reflink=always");
+        } else if (os.contains("mac")) {
+            // APFS (clonefile)
+            return Arrays.asList("cp", "-c");
+        }
+        return null;
+    }
+
+    /**
+     * Applies new settings.
+     * 
+     * @param threads
+     *            Number of files exported in parallel.
+     * @param hardLinks
+     *            Whether files may be exported as hard links.
+     * @throws IllegalArgumentException
+     *             If the number of threads is not positive.
+     */
+    public synchronized void configure(int threads, boolean hardLinks) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                    "At least one export thread is needed.");
+        }
+        m_threads = threads;
+        m_hardLinks = hardLinks;
+    }
+
+    /**
+     * @return Number of files exported in parallel.
+     */
+    public synchronized int getThreads() {
+        return m_threads;
+    }
+
+    /**
+     * @return Whether files may be exported as hard links.
+     */
+    public synchronized boolean isHardLinks() {
+        return m_hardLinks;
+    }
+
+    /**
+     * Exports the given files. If a target is given multiple times it
+     * receives the last of its sources, as if the files were copied one after
+     * another.
+     * 
+     * @param sources
+     *            The files to export.
+     * @param targets
+     *            The target of every source, existing files are replaced.
+     * @param exec
+     *            Receives the progress and is checked for cancellation.
+     * @return Statistics of the export.
+     * @throws IOException
+     *             If a file could not be exported. The remaining exports are
+     *             aborted.
+     * @throws CanceledExecutionException
+     *             If the export was canceled. Files exported so far are kept.
+     */
+    public ExportStatistics export(List<File> sources, List<File> targets,
+            ExecutionMonitor exec) throws IOException,
+            CanceledExecutionException {
+        if (sources.size() != targets.size()) {
+            throw new IllegalArgumentException(
+                    "Every file needs exactly one target.");
+        }
+        int threads;
+        boolean hardLinks;
+        synchronized (this) {
+            threads = m_threads;
+            hardLinks = m_hardLinks;
+        }
+
+        Map<File, File> exports = new LinkedHashMap<File, File>();
+        for (int i = 0; i < sources.size(); ++i) {
+            File target = targets.get(i).getAbsoluteFile();
+            // later sources overwrite earlier ones
+            exports.remove(target);
+            exports.put(target, sources.get(i));
+        }
+        long totalBytes = 0;
+        for (File source : exports.values()) {
+            totalBytes += source.length();
+        }
+
+        long start = System.currentTimeMillis();
+        int[] counts = new int[ExportStrategy.values().length];
+        if (!exports.isEmpty()) {
+            AtomicLong exported = new AtomicLong();
+            ExecutorService workers = createWorkers(Math.min(threads,
+                    exports.size()));
+            try {
+                CompletionService<ExportStrategy> completion;
+                completion = new ExecutorCompletionService<ExportStrategy>(
+                        workers);
+                for (Map.Entry<File, File> export : exports.entrySet()) {
+                    completion.submit(new ExportTask(export.getValue(), export
+                            .getKey(), hardLinks, exported));
+                }
+                int done = 0;
+                while (done < exports.size()) {
+                    Future<ExportStrategy> result = completion.poll(
+                            POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (result != null) {
+                        ++counts[getResult(result).ordinal()];
+                        ++done;
+                    }
+                    exec.checkCanceled();
+                    long elapsed = System.currentTimeMillis() - start;
+                    exec.setProgress(totalBytes == 0 ? (double) done
+                            / exports.size() : (double) exported.get()
+                            / totalBytes, String.format(
+                            "Exported %d of %d files (%.1f MB/s)", done,
+                            exports.size(), ExportStatistics.throughput(
+                                    exported.get(), elapsed) / 1048576.0));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export was interrupted.");
+            } finally {
+                // aborts the remaining exports and waits until their
+                // temporary files are removed
+                workers.shutdownNow();
+                try {
+                    workers.awaitTermination(SHUTDOWN_TIMEOUT_MS,
+                            TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        ExportStatistics statistics = new ExportStatistics(exports.size(),
+                totalBytes, counts[ExportStrategy.HARD_LINK.ordinal()],
+                counts[ExportStrategy.REFLINK.ordinal()],
+                counts[ExportStrategy.TRANSFER.ordinal()],
+                System.currentTimeMillis() - start);
+        LOGGER.info(statistics);
+        return statistics;
+    }
+
+    private static ExecutorService createWorkers(int threads) {
+        final AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "GKN-FileExporter-"
+                        + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    private static ExportStrategy getResult(Future<ExportStrategy> result)
+            throws IOException, InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Exports a single file.
+     */
+    private class ExportTask implements Callable<ExportStrategy> {
+
+        private final File m_source;
+        private final File m_target;
+        private final boolean m_allowHardLink;
+        private final AtomicLong m_exported;
+
+        ExportTask(File source, File target, boolean allowHardLink,
+                AtomicLong exported) {
+            m_source = source;
+            m_target = target;
+            m_allowHardLink = allowHardLink;
+            m_exported = exported;
+        }
+
+        @Override
+        public ExportStrategy call() throws IOException {
+            Path source = m_source.toPath();
+            Path target = m_target.toPath();
+            if (Files.isDirectory(target)) {
+                throw new IOException("Cannot export " + m_source + " to "
+                        + m_target + ", it is a directory.");
+            }
+            long size = Files.size(source);
+            if (m_allowHardLink && Files.exists(target)
+                    && Files.isSameFile(source, target)) {
+                // already exported as hard link
+                m_exported.addAndGet(size);
+                return ExportStrategy.HARD_LINK;
+            }
+
+            Path directory = target.getParent();
+            Files.createDirectories(directory);
+            Path temp = directory.resolve("." + target.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong())
+                    + ".part");
+            try {
+                ExportStrategy strategy;
+                List<FileStore> stores = Arrays.asList(
+                        Files.getFileStore(source),
+                        Files.getFileStore(directory));
+                if (m_allowHardLink && stores.get(0).equals(stores.get(1))
+                        && link(source, temp)) {
+                    strategy = ExportStrategy.HARD_LINK;
+                } else if (size >= REFLINK_THRESHOLD
+                        && reflink(source, temp, stores)) {
+                    strategy = ExportStrategy.REFLINK;
+                } else {
+                    transfer(source, temp, size);
+                    strategy = ExportStrategy.TRANSFER;
+                }
+
+                long exportedSize = Files.size(temp);
+                if (exportedSize != size) {
+                    throw new IOException("Exported " + exportedSize + " of "
+                            + size + " bytes of " + m_source + ".");
+                }
+                if (strategy != ExportStrategy.HARD_LINK) {
+                    Files.setLastModifiedTime(temp,
+                            Files.getLastModifiedTime(source));
+                }
+                replace(temp, target);
+                temp = null;
+                if (strategy != ExportStrategy.TRANSFER) {
+                    m_exported.addAndGet(size);
+                }
+                return strategy;
+            } finally {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+
+        private boolean link(Path source, Path temp) {
+            try {
+                Files.createLink(temp, source);
+                return true;
+            } catch (IOException e) {
+                LOGGER.debug("Could not hard link " + source + ": "
+                        + e.getMessage());
+            } catch (UnsupportedOperationException e) {
+                LOGGER.debug("Hard links are not supported: "
+                        + e.getMessage());
+            }
+            return false;
+        }
+
+        private boolean reflink(Path source, Path temp, List<FileStore> stores)
+                throws IOException {
+            List<String> reflinkCommand = m_reflinkCommand;
+            if (reflinkCommand == null
+                    || m_reflinkUnsupported.contains(stores)) {
+                return false;
+            }
+            List<String> command = new ArrayList<String>(reflinkCommand);
+            command.add(source.toString());
+            command.add(temp.toString());
+
+            Process process;
+            try {
+                process = new ProcessBuilder(command).redirectErrorStream(
+                        true).start();
+            } catch (IOException e) {
+                LOGGER.debug("Cannot clone files: " + e.getMessage());
+                m_reflinkCommand = null;
+                return false;
+            }
+            try {
+                StringBuilder output = new StringBuilder();
+                InputStream in = process.getInputStream();
+                byte[] buffer = new byte[1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    if (output.length() < buffer.length) {
+                        output.append(new String(buffer, 0, n));
+                    }
+                }
+                if (process.waitFor() == 0) {
+                    return true;
+                }
+                LOGGER.debug("Cannot clone files from " + stores.get(0)
+                        + " to " + stores.get(1) + ": "
+                        + output.toString().trim());
+                m_reflinkUnsupported.add(stores);
+                Files.deleteIfExists(temp);
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export was interrupted.");
+            } finally {
+                process.destroy();
+            }
+        }
+
+        private void transfer(Path source, Path temp, long size)
+                throws IOException {
+            FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+            try {
+                FileChannel out = FileChannel.open(temp,
+                        StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                try {
+                    long position = 0;
+                    while (position < size) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException(
+                                    "Export was interrupted.");
+                        }
+                        long n = in.transferTo(position,
+                                Math.min(TRANSFER_CHUNK_SIZE, size - position),
+                                out);
+                        if (n <= 0) {
+                            // the source shrank, caught by the size check
+                            break;
+                        }
+                        position += n;
+                        m_exported.addAndGet(n);
+                    }
+                } finally {
+                    out.close();
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
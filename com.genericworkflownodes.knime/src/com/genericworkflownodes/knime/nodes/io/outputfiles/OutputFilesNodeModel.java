@@ -1,18 +1,18 @@
 /**
  * Copyright (c) 2011-2013, Marc Röttig, Stephan Aiche.
- *
+ * 
  * This file is part of GenericKnimeNodes.
  * 
  * GenericKnimeNodes is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
+ * 
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- *
+ * 
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
@@ -20,9 +20,9 @@ package com.genericworkflownodes.knime.nodes.io.outputfiles;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.io.FileUtils;
 import org.knime.core.data.uri.IURIPortObject;
 import org.knime.core.data.uri.URIContent;
 import org.knime.core.data.uri.URIPortObjectSpec;
@@ -38,6 +38,7 @@ import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 
+import com.genericworkflownodes.knime.nodes.io.export.FileExporter;
 import com.genericworkflownodes.util.MIMETypeHelper;
 
 /**
@@ -162,6 +163,8 @@ public class OutputFilesNodeModel extends NodeModel {
                     "There were no URIs in the supplied IURIPortObject");
         }
 
+        List<File> sources = new ArrayList<File>();
+        List<File> targets = new ArrayList<File>();
         int idx = 1;
         for (URIContent uri : uris) {
             File in = new File(uri.getURI());
@@ -182,8 +185,10 @@ public class OutputFilesNodeModel extends NodeModel {
                         + out.getParentFile().getAbsolutePath());
             }
 
-            FileUtils.copyFile(in, out);
+            sources.add(in);
+            targets.add(out);
         }
+        FileExporter.getDefault().export(sources, targets, exec);
         return null;
     }
 
@@ -2,9 +2,9 @@ package com.genericworkflownodes.knime.nodes.io.outputfolder;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.io.FileUtils;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.uri.IURIPortObject;
 import org.knime.core.data.uri.URIContent;
@@ -21,6 +21,8 @@ import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
 import org.knime.core.node.port.PortType;
 
+import com.genericworkflownodes.knime.nodes.io.export.FileExporter;
+
 /**
  * This is the model implementation of OutputFolder. Writes all the incoming
  * files to the given output folder.
@@ -59,7 +61,8 @@ public class OutputFolderNodeModel extends NodeModel {
                     "There were no URIs in the supplied URIPortObject");
         }
 
-        double idx = 1.0;
+        List<File> sources = new ArrayList<File>();
+        List<File> targets = new ArrayList<File>();
         for (URIContent uri : uris) {
             File in = new File(uri.getURI());
             if (!in.canRead()) {
@@ -77,10 +80,10 @@ public class OutputFolderNodeModel extends NodeModel {
                         + target.getParentFile().getAbsolutePath());
             }
 
-            FileUtils.copyFile(in, target);
-            exec.setProgress(idx / uris.size());
-            exec.checkCanceled();
+            sources.add(in);
+            targets.add(target);
         }
+        FileExporter.getDefault().export(sources, targets, exec);
         return null;
     }
 
@@ -1,18 +1,18 @@
 /**
  * Copyright (c) 2012, Marc Röttig.
- *
+ * 
  * This file is part of GenericKnimeNodes.
  * 
  * GenericKnimeNodes is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
+ * 
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- *
+ * 
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
@@ -22,6 +22,12 @@ import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 import com.genericworkflownodes.knime.GenericNodesPlugin;
+import com.genericworkflownodes.knime.execution.CpuAllocator;
+import com.genericworkflownodes.knime.execution.ToolExecutionScheduler;
+import com.genericworkflownodes.knime.execution.batch.BatchSchedulerRegistry;
+import com.genericworkflownodes.knime.execution.cache.ToolExecutionCache;
+import com.genericworkflownodes.knime.execution.impl.JavaToolRuntime;
+import com.genericworkflownodes.knime.nodes.io.export.FileExporter;
 
 /**
  * Initializer for the GKN preferences.
@@ -39,6 +45,113 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
      */
     public static final String PREF_DEBUG_MODE = "knime.gkn.debug";
 
+    /**
+     * Preferences key for the maximal number of concurrently running tools.
+     */
+    public static final String PREF_MAX_CONCURRENT_TOOLS = "knime.gkn.scheduler.maxconcurrenttools";
+
+    /**
+     * Preferences key for the per-executable limits of concurrently running
+     * tools.
+     */
+    public static final String PREF_EXECUTABLE_LIMITS = "knime.gkn.scheduler.executablelimits";
+
+    /**
+     * Preferences key for the per-plugin limits of concurrently running tools.
+     */
+    public static final String PREF_PLUGIN_LIMITS = "knime.gkn.scheduler.pluginlimits";
+
+    /**
+     * Preferences key for the flag distributing the cores among the tools.
+     */
+    public static final String PREF_CPU_PINNING = "knime.gkn.scheduler.cpupinning";
+
+    /**
+     * Preferences key for the number of cores assigned to each tool.
+     */
+    public static final String PREF_CORES_PER_TOOL = "knime.gkn.scheduler.corespertool";
+
+    /**
+     * Preferences key for the execution cache flag.
+     */
+    public static final String PREF_CACHE_ENABLED = "knime.gkn.cache.enabled";
+
+    /**
+     * Preferences key for the directory of the execution cache.
+     */
+    public static final String PREF_CACHE_DIRECTORY = "knime.gkn.cache.directory";
+
+    /**
+     * Preferences key for the maximal size of the execution cache in MB.
+     */
+    public static final String PREF_CACHE_MAX_SIZE = "knime.gkn.cache.maxsize";
+
+    /**
+     * Preferences key for the number of workers of the local batch scheduler.
+     */
+    public static final String PREF_BATCH_WORKERS = "knime.gkn.batch.workers";
+
+    /**
+     * Preferences key for the spool directory of the local batch scheduler.
+     */
+    public static final String PREF_BATCH_SPOOL_DIRECTORY = "knime.gkn.batch.spooldirectory";
+
+    /**
+     * Preferences key for the submit command of an external batch scheduler.
+     */
+    public static final String PREF_BATCH_SUBMIT_COMMAND = "knime.gkn.batch.submitcommand";
+
+    /**
+     * Preferences key for the status command of an external batch scheduler.
+     */
+    public static final String PREF_BATCH_STATUS_COMMAND = "knime.gkn.batch.statuscommand";
+
+    /**
+     * Preferences key for the cancel command of an external batch scheduler.
+     */
+    public static final String PREF_BATCH_CANCEL_COMMAND = "knime.gkn.batch.cancelcommand";
+
+    /**
+     * Preferences key for the worker agents used by the remote executor,
+     * including the shared secrets of the agents.
+     */
+    public static final String PREF_REMOTE_AGENTS = "knime.gkn.remote.agents";
+
+    /**
+     * Preferences key for the resource limit presets of the local executor.
+     */
+    public static final String PREF_RESOURCE_LIMITS = "knime.gkn.limits.presets";
+
+    /**
+     * Preferences key for the flag starting tools through the process
+     * launcher.
+     */
+    public static final String PREF_PROCESS_LAUNCHER = "knime.gkn.execution.launcher";
+
+    /**
+     * Preferences key for the maximal number of Java tools running
+     * in-process at the same time. Note that the first in-process tool
+     * installs a security manager and replaces System.out and System.err for
+     * the whole KNIME JVM.
+     */
+    public static final String PREF_JAVA_TOOL_CONCURRENCY = "knime.gkn.execution.javatools";
+
+    /**
+     * Preferences key for the roots of the job directories.
+     */
+    public static final String PREF_SCRATCH_ROOTS = "knime.gkn.scratch.roots";
+
+    /**
+     * Preferences key for the number of files exported in parallel.
+     */
+    public static final String PREF_EXPORT_THREADS = "knime.gkn.export.threads";
+
+    /**
+     * Preferences key for the flag whether files may be exported as hard
+     * links.
+     */
+    public static final String PREF_EXPORT_HARD_LINKS = "knime.gkn.export.hardlinks";
+
     @Override
     public void initializeDefaultPreferences() {
         // get the preference store for the UI plugin
@@ -47,6 +160,32 @@ public class PreferenceInitializer extends AbstractPreferenceInitializer {
 
         // set default values
         store.setDefault(PREF_DEBUG_MODE, GenericNodesPlugin.isDebug());
+        store.setDefault(PREF_MAX_CONCURRENT_TOOLS,
+                ToolExecutionScheduler.getDefaultMaxConcurrentTools());
+        store.setDefault(PREF_EXECUTABLE_LIMITS, "");
+        store.setDefault(PREF_PLUGIN_LIMITS, "");
+        store.setDefault(PREF_CPU_PINNING, false);
+        store.setDefault(PREF_CORES_PER_TOOL, CpuAllocator.AUTOMATIC);
+        store.setDefault(PREF_CACHE_ENABLED, false);
+        store.setDefault(PREF_CACHE_DIRECTORY, ToolExecutionCache
+                .getDefaultDirectory().getAbsolutePath());
+        store.setDefault(PREF_CACHE_MAX_SIZE,
+                ToolExecutionCache.DEFAULT_MAX_SIZE_MB);
+        store.setDefault(PREF_BATCH_WORKERS,
+                BatchSchedulerRegistry.getDefaultWorkers());
+        store.setDefault(PREF_BATCH_SPOOL_DIRECTORY, BatchSchedulerRegistry
+                .getDefaultSpoolDirectory().getAbsolutePath());
+        store.setDefault(PREF_BATCH_SUBMIT_COMMAND, "");
+        store.setDefault(PREF_BATCH_STATUS_COMMAND, "");
+        store.setDefault(PREF_BATCH_CANCEL_COMMAND, "");
+        store.setDefault(PREF_REMOTE_AGENTS, "");
+        store.setDefault(PREF_RESOURCE_LIMITS, "");
+        store.setDefault(PREF_PROCESS_LAUNCHER, false);
+        store.setDefault(PREF_JAVA_TOOL_CONCURRENCY,
+                JavaToolRuntime.getDefaultMaxConcurrent());
+        store.setDefault(PREF_SCRATCH_ROOTS, "");
+        store.setDefault(PREF_EXPORT_THREADS, FileExporter.getDefaultThreads());
+        store.setDefault(PREF_EXPORT_HARD_LINKS, false);
     }
 
 }
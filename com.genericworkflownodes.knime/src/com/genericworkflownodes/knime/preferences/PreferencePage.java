@@ -1,32 +1,50 @@
 /**
  * Copyright (c) 2012, Marc Röttig, Stephan Aiche.
- *
+ * 
  * This file is part of GenericKnimeNodes.
  * 
  * GenericKnimeNodes is free software: you can redistribute it and/or modify
  * it under the terms of the GNU Lesser General Public License as published by
  * the Free Software Foundation, either version 3 of the License, or
  * (at your option) any later version.
- *
+ * 
  * This program is distributed in the hope that it will be useful,
  * but WITHOUT ANY WARRANTY; without even the implied warranty of
  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
  * GNU Lesser General Public License for more details.
- *
+ * 
  * You should have received a copy of the GNU Lesser General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
 package com.genericworkflownodes.knime.preferences;
 
+import java.io.File;
+
 import org.eclipse.jface.preference.BooleanFieldEditor;
+import org.eclipse.jface.preference.DirectoryFieldEditor;
 import org.eclipse.jface.preference.FieldEditorPreferencePage;
 import org.eclipse.jface.preference.IPreferenceStore;
+import org.eclipse.jface.preference.IntegerFieldEditor;
+import org.eclipse.jface.preference.StringFieldEditor;
 import org.eclipse.jface.util.PropertyChangeEvent;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.ui.IWorkbench;
 import org.eclipse.ui.IWorkbenchPreferencePage;
 
 import com.genericworkflownodes.knime.GenericNodesPlugin;
+import com.genericworkflownodes.knime.execution.CpuAllocator;
+import com.genericworkflownodes.knime.execution.LaunchPlanCache;
+import com.genericworkflownodes.knime.execution.ToolExecutionScheduler;
+import com.genericworkflownodes.knime.execution.batch.BatchSchedulerRegistry;
+import com.genericworkflownodes.knime.execution.cache.ToolExecutionCache;
+import com.genericworkflownodes.knime.execution.impl.JavaToolRuntime;
+import com.genericworkflownodes.knime.execution.impl.ProcessLauncher;
+import com.genericworkflownodes.knime.execution.impl.RemoteAgentPool;
+import com.genericworkflownodes.knime.execution.impl.ResourceLimitPresets;
+import com.genericworkflownodes.knime.execution.impl.ResourceLimits;
+import com.genericworkflownodes.knime.execution.scratch.ScratchRoot;
+import com.genericworkflownodes.knime.execution.scratch.ScratchSpaceManager;
+import com.genericworkflownodes.knime.nodes.io.export.FileExporter;
 
 /**
  * GKN preferences page.
@@ -41,6 +59,106 @@ public class PreferencePage extends FieldEditorPreferencePage implements
      */
     private BooleanFieldEditor debugModeFieldEditor;
 
+    /**
+     * Maximal number of concurrently running tools UI element.
+     */
+    private IntegerFieldEditor maxConcurrentToolsFieldEditor;
+
+    /**
+     * Per-executable limits UI element.
+     */
+    private StringFieldEditor executableLimitsFieldEditor;
+
+    /**
+     * Per-plugin limits UI element.
+     */
+    private StringFieldEditor pluginLimitsFieldEditor;
+
+    /**
+     * CPU pinning flag UI element.
+     */
+    private BooleanFieldEditor cpuPinningFieldEditor;
+
+    /**
+     * Cores per tool UI element.
+     */
+    private IntegerFieldEditor coresPerToolFieldEditor;
+
+    /**
+     * Execution cache flag UI element.
+     */
+    private BooleanFieldEditor cacheEnabledFieldEditor;
+
+    /**
+     * Execution cache directory UI element.
+     */
+    private DirectoryFieldEditor cacheDirectoryFieldEditor;
+
+    /**
+     * Execution cache size UI element.
+     */
+    private IntegerFieldEditor cacheMaxSizeFieldEditor;
+
+    /**
+     * Local batch workers UI element.
+     */
+    private IntegerFieldEditor batchWorkersFieldEditor;
+
+    /**
+     * Local batch spool directory UI element.
+     */
+    private DirectoryFieldEditor batchSpoolDirectoryFieldEditor;
+
+    /**
+     * Batch submit command UI element.
+     */
+    private StringFieldEditor batchSubmitCommandFieldEditor;
+
+    /**
+     * Batch status command UI element.
+     */
+    private StringFieldEditor batchStatusCommandFieldEditor;
+
+    /**
+     * Batch cancel command UI element.
+     */
+    private StringFieldEditor batchCancelCommandFieldEditor;
+
+    /**
+     * Remote worker agents UI element.
+     */
+    private StringFieldEditor remoteAgentsFieldEditor;
+
+    /**
+     * Resource limit presets UI element.
+     */
+    private StringFieldEditor resourceLimitsFieldEditor;
+
+    /**
+     * Process launcher flag UI element.
+     */
+    private BooleanFieldEditor processLauncherFieldEditor;
+
+    /**
+     * Concurrent in-process Java tools UI element.
+     */
+    private IntegerFieldEditor javaToolConcurrencyFieldEditor;
+
+    /**
+     * Scratch roots UI element.
+     */
+    private StringFieldEditor scratchRootsFieldEditor;
+
+    /**
+     * Export threads UI element.
+     */
+    private IntegerFieldEditor exportThreadsFieldEditor;
+
+    /**
+     * Export hard links UI element.
+     */
+    private BooleanFieldEditor exportHardLinksFieldEditor;
+
     /**
      * Default c'tor.
      */
@@ -53,6 +171,12 @@ public class PreferencePage extends FieldEditorPreferencePage implements
 
     @Override
     public void init(IWorkbench wb) {
+        setDescription("Execution cache: "
+                + ToolExecutionCache.getDefault().getStatistics()
+                + "\nTool scheduler: "
+                + ToolExecutionScheduler.getDefault().getStatistics()
+                + "\nJob directories: "
+                + ScratchSpaceManager.getDefault().getStatistics());
     }
 
     @Override
@@ -61,6 +185,127 @@ public class PreferencePage extends FieldEditorPreferencePage implements
         debugModeFieldEditor = new BooleanFieldEditor(
                 PreferenceInitializer.PREF_DEBUG_MODE, "Debug mode", parent);
         addField(debugModeFieldEditor);
+
+        maxConcurrentToolsFieldEditor = new IntegerFieldEditor(
+                PreferenceInitializer.PREF_MAX_CONCURRENT_TOOLS,
+                "Maximal number of concurrently running tools (0 = unlimited)",
+                parent);
+        maxConcurrentToolsFieldEditor.setValidRange(0, Integer.MAX_VALUE);
+        addField(maxConcurrentToolsFieldEditor);
+
+        executableLimitsFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_EXECUTABLE_LIMITS,
+                "Limits per executable (e.g., FeatureFinderCentroided=2)",
+                parent);
+        addField(executableLimitsFieldEditor);
+
+        pluginLimitsFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_PLUGIN_LIMITS,
+                "Limits per plugin (e.g., de.openms=4)", parent);
+        addField(pluginLimitsFieldEditor);
+
+        cpuPinningFieldEditor = new BooleanFieldEditor(
+                PreferenceInitializer.PREF_CPU_PINNING,
+                "Distribute the cores among concurrently running tools",
+                parent);
+        addField(cpuPinningFieldEditor);
+
+        coresPerToolFieldEditor = new IntegerFieldEditor(
+                PreferenceInitializer.PREF_CORES_PER_TOOL,
+                "Cores per tool (0 = cores / concurrently running tools)",
+                parent);
+        coresPerToolFieldEditor.setValidRange(0, Integer.MAX_VALUE);
+        addField(coresPerToolFieldEditor);
+
+        cacheEnabledFieldEditor = new BooleanFieldEditor(
+                PreferenceInitializer.PREF_CACHE_ENABLED,
+                "Reuse the results of identical tool runs (execution cache)",
+                parent);
+        addField(cacheEnabledFieldEditor);
+
+        cacheDirectoryFieldEditor = new DirectoryFieldEditor(
+                PreferenceInitializer.PREF_CACHE_DIRECTORY,
+                "Execution cache directory", parent);
+        addField(cacheDirectoryFieldEditor);
+
+        cacheMaxSizeFieldEditor = new IntegerFieldEditor(
+                PreferenceInitializer.PREF_CACHE_MAX_SIZE,
+                "Maximal size of the execution cache (MB)", parent);
+        cacheMaxSizeFieldEditor.setValidRange(0, Integer.MAX_VALUE);
+        addField(cacheMaxSizeFieldEditor);
+
+        batchWorkersFieldEditor = new IntegerFieldEditor(
+                PreferenceInitializer.PREF_BATCH_WORKERS,
+                "Parallel jobs of the local batch scheduler", parent);
+        batchWorkersFieldEditor.setValidRange(1, Integer.MAX_VALUE);
+        addField(batchWorkersFieldEditor);
+
+        batchSpoolDirectoryFieldEditor = new DirectoryFieldEditor(
+                PreferenceInitializer.PREF_BATCH_SPOOL_DIRECTORY,
+                "Spool directory of the local batch scheduler", parent);
+        addField(batchSpoolDirectoryFieldEditor);
+
+        batchSubmitCommandFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_BATCH_SUBMIT_COMMAND,
+                "Batch submit command (e.g., sbatch --parsable {script})",
+                parent);
+        addField(batchSubmitCommandFieldEditor);
+
+        batchStatusCommandFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_BATCH_STATUS_COMMAND,
+                "Batch status command (e.g., squeue -h -j {jobid})", parent);
+        addField(batchStatusCommandFieldEditor);
+
+        batchCancelCommandFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_BATCH_CANCEL_COMMAND,
+                "Batch cancel command (e.g., scancel {jobid})", parent);
+        addField(batchCancelCommandFieldEditor);
+
+        remoteAgentsFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_REMOTE_AGENTS,
+                "Remote worker agents (e.g., secret@node1:47110,"
+                        + "secret@node2:47110)", parent);
+        addField(remoteAgentsFieldEditor);
+
+        resourceLimitsFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_RESOURCE_LIMITS,
+                "Resource limits per tool (e.g., default: nice=10, io=idle; "
+                        + "FeatureFinderCentroided: memory=64G, cpu=7200)",
+                parent);
+        addField(resourceLimitsFieldEditor);
+
+        processLauncherFieldEditor = new BooleanFieldEditor(
+                PreferenceInitializer.PREF_PROCESS_LAUNCHER,
+                "Start local tools through a separate launcher process",
+                parent);
+        addField(processLauncherFieldEditor);
+
+        javaToolConcurrencyFieldEditor = new IntegerFieldEditor(
+                PreferenceInitializer.PREF_JAVA_TOOL_CONCURRENCY,
+                "Java tools running in-process at the same time (the first "
+                        + "one installs a JVM-wide security manager)",
+                parent);
+        javaToolConcurrencyFieldEditor.setValidRange(1, Integer.MAX_VALUE);
+        addField(javaToolConcurrencyFieldEditor);
+
+        scratchRootsFieldEditor = new StringFieldEditor(
+                PreferenceInitializer.PREF_SCRATCH_ROOTS,
+                "Job directory roots (e.g., /dev/shm/gkn: maxjob=1G, quota=8G; "
+                        + "/scratch/gkn), empty = system temp directory",
+                parent);
+        addField(scratchRootsFieldEditor);
+
+        exportThreadsFieldEditor = new IntegerFieldEditor(
+                PreferenceInitializer.PREF_EXPORT_THREADS,
+                "Files exported in parallel by the output nodes", parent);
+        exportThreadsFieldEditor.setValidRange(1, Integer.MAX_VALUE);
+        addField(exportThreadsFieldEditor);
+
+        exportHardLinksFieldEditor = new BooleanFieldEditor(
+                PreferenceInitializer.PREF_EXPORT_HARD_LINKS,
+                "Export files as hard links if possible (exported files "
+                        + "must not be modified in place)", parent);
+        addField(exportHardLinksFieldEditor);
     }
 
     @Override
@@ -72,7 +317,141 @@ public class PreferencePage extends FieldEditorPreferencePage implements
         IPreferenceStore store = GenericNodesPlugin.getDefault()
                 .getPreferenceStore();
         boolean flag = debugModeFieldEditor.getBooleanValue();
+
+        int maxConcurrentTools = maxConcurrentToolsFieldEditor.getIntValue();
+        String executableLimits = executableLimitsFieldEditor.getStringValue();
+        String pluginLimits = pluginLimitsFieldEditor.getStringValue();
+        try {
+            ToolExecutionScheduler.getDefault().configure(maxConcurrentTools,
+                    ToolExecutionScheduler.parseLimits(executableLimits),
+                    ToolExecutionScheduler.parseLimits(pluginLimits));
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        boolean cpuPinning = cpuPinningFieldEditor.getBooleanValue();
+        int coresPerTool = coresPerToolFieldEditor.getIntValue();
+        try {
+            CpuAllocator.getDefault().configure(cpuPinning, coresPerTool,
+                    maxConcurrentTools);
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        int batchWorkers = batchWorkersFieldEditor.getIntValue();
+        String batchSpoolDirectory = batchSpoolDirectoryFieldEditor
+                .getStringValue();
+        String batchSubmitCommand = batchSubmitCommandFieldEditor
+                .getStringValue();
+        String batchStatusCommand = batchStatusCommandFieldEditor
+                .getStringValue();
+        String batchCancelCommand = batchCancelCommandFieldEditor
+                .getStringValue();
+        try {
+            BatchSchedulerRegistry.getDefault().configure(
+                    "".equals(batchSpoolDirectory) ? BatchSchedulerRegistry
+                            .getDefaultSpoolDirectory() : new File(
+                            batchSpoolDirectory), batchWorkers,
+                    batchSubmitCommand, batchStatusCommand, batchCancelCommand);
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        String remoteAgents = remoteAgentsFieldEditor.getStringValue();
+        try {
+            RemoteAgentPool.getDefault().configure(
+                    RemoteAgentPool.parseAgents(remoteAgents));
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        String resourceLimits = resourceLimitsFieldEditor.getStringValue();
+        try {
+            ResourceLimitPresets.getDefault().configure(
+                    ResourceLimits.parsePresets(resourceLimits));
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        boolean processLauncher = processLauncherFieldEditor.getBooleanValue();
+        ProcessLauncher.getDefault().configure(processLauncher);
+
+        int javaToolConcurrency = javaToolConcurrencyFieldEditor.getIntValue();
+        try {
+            JavaToolRuntime.getDefault().configure(javaToolConcurrency);
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        String scratchRoots = scratchRootsFieldEditor.getStringValue();
+        try {
+            ScratchSpaceManager.getDefault().configure(
+                    ScratchRoot.parseRoots(scratchRoots));
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        int exportThreads = exportThreadsFieldEditor.getIntValue();
+        boolean exportHardLinks = exportHardLinksFieldEditor.getBooleanValue();
+        try {
+            FileExporter.getDefault().configure(exportThreads, exportHardLinks);
+        } catch (IllegalArgumentException e) {
+            setErrorMessage(e.getMessage());
+            return false;
+        }
+
+        boolean cacheEnabled = cacheEnabledFieldEditor.getBooleanValue();
+        String cacheDirectory = cacheDirectoryFieldEditor.getStringValue();
+        int cacheMaxSize = cacheMaxSizeFieldEditor.getIntValue();
+        ToolExecutionCache.getDefault().configure(
+                cacheEnabled,
+                "".equals(cacheDirectory) ? ToolExecutionCache
+                        .getDefaultDirectory() : new File(cacheDirectory),
+                cacheMaxSize * 1024L * 1024L);
+
+        // the settings might influence how tools are launched
+        LaunchPlanCache.getDefault().clear();
+
         store.setValue(PreferenceInitializer.PREF_DEBUG_MODE, flag);
+        store.setValue(PreferenceInitializer.PREF_MAX_CONCURRENT_TOOLS,
+                maxConcurrentTools);
+        store.setValue(PreferenceInitializer.PREF_EXECUTABLE_LIMITS,
+                executableLimits);
+        store.setValue(PreferenceInitializer.PREF_PLUGIN_LIMITS, pluginLimits);
+        store.setValue(PreferenceInitializer.PREF_CPU_PINNING, cpuPinning);
+        store.setValue(PreferenceInitializer.PREF_CORES_PER_TOOL, coresPerTool);
+        store.setValue(PreferenceInitializer.PREF_CACHE_ENABLED, cacheEnabled);
+        store.setValue(PreferenceInitializer.PREF_CACHE_DIRECTORY,
+                cacheDirectory);
+        store.setValue(PreferenceInitializer.PREF_CACHE_MAX_SIZE, cacheMaxSize);
+        store.setValue(PreferenceInitializer.PREF_BATCH_WORKERS, batchWorkers);
+        store.setValue(PreferenceInitializer.PREF_BATCH_SPOOL_DIRECTORY,
+                batchSpoolDirectory);
+        store.setValue(PreferenceInitializer.PREF_BATCH_SUBMIT_COMMAND,
+                batchSubmitCommand);
+        store.setValue(PreferenceInitializer.PREF_BATCH_STATUS_COMMAND,
+                batchStatusCommand);
+        store.setValue(PreferenceInitializer.PREF_BATCH_CANCEL_COMMAND,
+                batchCancelCommand);
+        store.setValue(PreferenceInitializer.PREF_REMOTE_AGENTS, remoteAgents);
+        store.setValue(PreferenceInitializer.PREF_RESOURCE_LIMITS,
+                resourceLimits);
+        store.setValue(PreferenceInitializer.PREF_PROCESS_LAUNCHER,
+                processLauncher);
+        store.setValue(PreferenceInitializer.PREF_JAVA_TOOL_CONCURRENCY,
+                javaToolConcurrency);
+        store.setValue(PreferenceInitializer.PREF_SCRATCH_ROOTS, scratchRoots);
+        store.setValue(PreferenceInitializer.PREF_EXPORT_THREADS,
+                exportThreads);
+        store.setValue(PreferenceInitializer.PREF_EXPORT_HARD_LINKS,
+                exportHardLinks);
         GenericNodesPlugin.setDebug(flag);
         return true;
     }